@@ -40,13 +40,18 @@ public class ForestGuardianNetwork {
     /**
      * Lista de todas as ocorrências registradas no sistema.
      */
-    private static ArrayList<Ocorrencia> ocorrencias;
+    private static RepositorioOcorrencias ocorrencias;
 
     /**
      * Lista de drones disponíveis para varredura e monitoramento.
      */
     private static ArrayList<Drone> drones;
 
+    /**
+     * Catálogo único de áreas, sensores, drones e denunciantes, indexado por ID.
+     */
+    private static CatalogoEntidades catalogo;
+
     /**
      * Scanner para captura de entrada do usuário.
      */
@@ -58,10 +63,14 @@ public class ForestGuardianNetwork {
     private static EstacaoBombeiros estacaoAtual;
 
     /**
-     * Próximo ID disponível para criação de novas ocorrências.
+     * Argumento de inicialização que carrega o histórico de todas as estações.
      */
-    private static int proximoIdOcorrencia = 1;
+    private static final String ARGUMENTO_CARREGAR_TODAS = "--carregar-todas";
 
+    /**
+     * Indica se o histórico de todas as estações já foi carregado na inicialização.
+     */
+    private static boolean historicoCompletoCarregado = false;
 
     public static void main(String[] args) {
         scanner = new Scanner(System.in);
@@ -69,6 +78,11 @@ public class ForestGuardianNetwork {
         inicializarAreasFlorestais();
         inicializarSensores();
         inicializarDrones();
+        catalogo = new CatalogoEntidades(areasFlorestais, sensores, drones);
+
+        if (java.util.Arrays.asList(args).contains(ARGUMENTO_CARREGAR_TODAS)) {
+            carregarHistoricoDeTodasAsEstacoes();
+        }
 
         exibirTelaInicial();
         exibirEstacoesDisponiveis();
@@ -131,29 +145,31 @@ public class ForestGuardianNetwork {
      * Inicializa as áreas florestais próximas a cada estação de bombeiros.
      * Cada estação possui 3 áreas florestais específicas em sua região,
      * incluindo parques, APAs, estações ecológicas e reservas biológicas.
+     * As coordenadas e raios são aproximados e servem para associar focos de
+     * calor importados às áreas.
      */
     private static void inicializarAreasFlorestais() {
         areasFlorestais = new ArrayList<>();
 
         // Áreas próximas a Campinas (1231)
-        areasFlorestais.add(new AreaFlorestal(123451, "Floresta Estadual Serra D'Água", "Campinas - Unidade de conservação", 10, 1231));
-        areasFlorestais.add(new AreaFlorestal(123452, "Estação Ecológica de Valinhos", "Valinhos - Estação ecológica", 20, 1231));
-        areasFlorestais.add(new AreaFlorestal(123453, "Serra das Cabras", "Campinas/Morungaba - APA com 1.078m altitude", 35, 1231));
+        areasFlorestais.add(new AreaFlorestal(123451, "Floresta Estadual Serra D'Água", "Campinas - Unidade de conservação", 10, 1231, -22.830, -47.000, 4));
+        areasFlorestais.add(new AreaFlorestal(123452, "Estação Ecológica de Valinhos", "Valinhos - Estação ecológica", 20, 1231, -22.970, -46.996, 3));
+        areasFlorestais.add(new AreaFlorestal(123453, "Serra das Cabras", "Campinas/Morungaba - APA com 1.078m altitude", 35, 1231, -22.850, -46.860, 6));
 
         // Áreas próximas a Piracicaba (1232)
-        areasFlorestais.add(new AreaFlorestal(234561, "Área de Proteção Ambiental (APA) Tanquã", "Região de várzea com vegetação nativa", 30, 1232));
-        areasFlorestais.add(new AreaFlorestal(234562, "Serra de São Pedro", "Área de mata atlântica", 35, 1232));
-        areasFlorestais.add(new AreaFlorestal(234563, "Mata do Horto Florestal", "Área de pesquisa e conservação", 10, 1232));
+        areasFlorestais.add(new AreaFlorestal(234561, "Área de Proteção Ambiental (APA) Tanquã", "Região de várzea com vegetação nativa", 30, 1232, -22.680, -48.030, 8));
+        areasFlorestais.add(new AreaFlorestal(234562, "Serra de São Pedro", "Área de mata atlântica", 35, 1232, -22.540, -47.910, 7));
+        areasFlorestais.add(new AreaFlorestal(234563, "Mata do Horto Florestal", "Área de pesquisa e conservação", 10, 1232, -22.720, -47.530, 2));
 
         // Áreas próximas a Limeira (1233)
-        areasFlorestais.add(new AreaFlorestal(345671, "Parque Ecológico de Limeira", "Área de educação ambiental", 8, 1233));
-        areasFlorestais.add(new AreaFlorestal(345672, "Floresta Estadual de Iracemápolis", "Unidade de conservação", 20, 1233));
-        areasFlorestais.add(new AreaFlorestal(345673, "Mata do Horto Florestal de Cordeirópolis", "Área de reflorestamento", 25, 1233));
+        areasFlorestais.add(new AreaFlorestal(345671, "Parque Ecológico de Limeira", "Área de educação ambiental", 8, 1233, -22.565, -47.400, 2));
+        areasFlorestais.add(new AreaFlorestal(345672, "Floresta Estadual de Iracemápolis", "Unidade de conservação", 20, 1233, -22.580, -47.520, 3));
+        areasFlorestais.add(new AreaFlorestal(345673, "Mata do Horto Florestal de Cordeirópolis", "Área de reflorestamento", 25, 1233, -22.480, -47.460, 3));
 
         // Áreas próximas a Mogi Mirim (1234)
-        areasFlorestais.add(new AreaFlorestal(456781, "Área de Preservação Permanente do Rio Mogi Guaçu", "Zona ripária", 10, 1234));
-        areasFlorestais.add(new AreaFlorestal(456782, "Mata do Horto Florestal de Itapira", "Área de reflorestamento", 30, 1234));
-        areasFlorestais.add(new AreaFlorestal(456783, "Reserva Biológica de Estiva Gerbi", "Área de proteção integral", 35, 1234));
+        areasFlorestais.add(new AreaFlorestal(456781, "Área de Preservação Permanente do Rio Mogi Guaçu", "Zona ripária", 10, 1234, -22.430, -46.960, 5));
+        areasFlorestais.add(new AreaFlorestal(456782, "Mata do Horto Florestal de Itapira", "Área de reflorestamento", 30, 1234, -22.440, -46.820, 3));
+        areasFlorestais.add(new AreaFlorestal(456783, "Reserva Biológica de Estiva Gerbi", "Área de proteção integral", 35, 1234, -22.270, -46.950, 4));
     }
 
     /**
@@ -176,7 +192,7 @@ public class ForestGuardianNetwork {
      */
     private static void inicializarDrones() {
         drones = new ArrayList<>();
-        ocorrencias = new ArrayList<>();
+        ocorrencias = new RepositorioOcorrencias();
 
         // 1 drone por estação - mais simples e eficiente
         drones.add(new Drone(101, "FGN-Hawk Alpha", 1231));
@@ -185,6 +201,18 @@ public class ForestGuardianNetwork {
         drones.add(new Drone(107, "FGN-Condor Alpha", 1234));
     }
 
+    /**
+     * Carrega na inicialização o histórico de todas as estações em paralelo,
+     * permitindo consultas entre estações sem reiniciar o sistema. Ativado pelo
+     * argumento {@code --carregar-todas}.
+     */
+    private static void carregarHistoricoDeTodasAsEstacoes() {
+        System.out.println("🔄 Carregando histórico de todas as estações...");
+        Arquivo.carregarHistoricoDeTodasAsEstacoes(estacoes, ocorrencias, catalogo);
+        historicoCompletoCarregado = true;
+        System.out.println();
+    }
+
     /**
      * Exibe a tela inicial do sistema com logo e identificação
      * visual do Forest Guardian Network para apresentação ao usuário.
@@ -213,8 +241,9 @@ public class ForestGuardianNetwork {
 
     /**
      * Realiza o processo de autenticação do usuário no sistema.
-     * Valida o ID da estação informado, carrega histórico de ocorrências
-     * da cidade e ajusta o controle de IDs para novas ocorrências.
+     * Valida o ID da estação informado, carrega os incêndios ativos da cidade
+     * e ajusta o controle de IDs para novas ocorrências. O restante do histórico
+     * é carregado quando uma tela precisa dele.
      * Continua solicitando entrada até um login válido ser fornecido.
      */
     private static void realizarLogin() {
@@ -237,19 +266,10 @@ public class ForestGuardianNetwork {
                     System.out.println("📍 " + estacaoAtual.getNomeEstacao());
                     System.out.println();
 
-                    // Carregar histórico da cidade automaticamente
-                    System.out.println("🔄 Carregando histórico da estação...");
-                    Arquivo.carregarHistoricoDaCidade(estacaoAtual, ocorrencias, estacoes, areasFlorestais, drones);
-
-                    // Ajustar próximo ID baseado nas ocorrências carregadas
-                    if (!ocorrencias.isEmpty()) {
-                        int maiorId = 0;
-                        for (Ocorrencia ocorrencia : ocorrencias) {
-                            if (ocorrencia.getIdOcorrencia() > maiorId) {
-                                maiorId = ocorrencia.getIdOcorrencia();
-                            }
-                        }
-                        proximoIdOcorrencia = maiorId + 1;
+                    // Carregar os incêndios ativos da cidade automaticamente
+                    if (!historicoCompletoCarregado) {
+                        System.out.println("🔄 Carregando incêndios ativos da estação...");
+                        Arquivo.carregarIncendiosAtivosDaCidade(estacaoAtual, ocorrencias, estacoes, catalogo);
                     }
                     loginValido = true;
                 } else {
@@ -280,6 +300,18 @@ public class ForestGuardianNetwork {
         return null;
     }
 
+    /**
+     * Carrega o restante do histórico da cidade logada, se apenas os incêndios
+     * ativos estiverem em memória. Utilizado antes das telas que consultam ou
+     * registram ocorrências fora dos alertas.
+     */
+    private static void garantirHistoricoCompleto() {
+        if (!Arquivo.isHistoricoCompleto(estacaoAtual)) {
+            System.out.println("🔄 Carregando histórico completo da estação...");
+            Arquivo.carregarHistoricoCompletoDaCidade(estacaoAtual, ocorrencias, catalogo);
+        }
+    }
+
     /**
      * Exibe o menu principal do sistema e gerencia a navegação entre
      * as funcionalidades principais: gerenciamento de drones, monitoramento
@@ -307,22 +339,24 @@ public class ForestGuardianNetwork {
                 switch (opcao) {
                     case 1:
                         System.out.println();
-                        proximoIdOcorrencia = Varredura.gerenciarDrones(
-                                areasFlorestais, sensores, drones, ocorrencias,
-                                proximoIdOcorrencia, estacaoAtual, estacoes, scanner
+                        garantirHistoricoCompleto();
+                        Varredura.gerenciarDrones(
+                                catalogo, ocorrencias,
+                                estacaoAtual, estacoes, scanner
                         );
                         break;
 
                     case 2:
                         System.out.println();
-                        AlertasIncendio.exibirMenuAlertas(ocorrencias, estacaoAtual, scanner);
+                        AlertasIncendio.exibirMenuAlertas(ocorrencias, estacaoAtual, catalogo, scanner);
                         System.out.println();
                         break;
 
                     case 3:
                         System.out.println();
+                        garantirHistoricoCompleto();
                         RelatoriosEstatisticas.exibirMenuRelatorios(ocorrencias, estacoes,
-                                areasFlorestais, estacaoAtual, scanner);
+                                catalogo, estacaoAtual, scanner);
                         System.out.println();
                         break;
 
@@ -350,9 +384,31 @@ public class ForestGuardianNetwork {
     /**
      * Exibe mensagem de agradecimento personalizada ao sair do sistema,
      * incluindo informações da estação atual e nome do comandante.
-     * Finaliza a sessão de forma elegante com feedback visual.
+     * Antes da mensagem, grava as alterações pendentes, exporta o relatório
+     * da cidade e grava o instantâneo do histórico, garantindo um encerramento
+     * sem perda de dados e um próximo início rápido. Se apenas os incêndios ativos
+     * estiverem em memória e houver alterações a exportar, o histórico completo é
+     * carregado antes da exportação. Também informa quantos
+     * acessos ao histórico aguardaram outro console da mesma cidade.
      */
     private static void exibirMensagemSaida() {
+        // Grava as alterações ainda na fila antes de encerrar
+        ServicoPersistencia.encerrar();
+        if (Arquivo.isExportacaoPendente(estacaoAtual)) {
+            garantirHistoricoCompleto();
+        }
+        Arquivo.exportarHistoricoSeAlterado(ocorrencias, estacaoAtual);
+        Arquivo.gravarSnapshotSeAlterado(ocorrencias, estacaoAtual);
+
+        // Disputas pelo histórico compartilhado com outros consoles da mesma cidade
+        if (TravaHistorico.getAquisicoesDisputadas() > 0) {
+            System.out.println();
+            System.out.println("🔒 Histórico compartilhado: " + TravaHistorico.getAquisicoesDisputadas() + " de "
+                    + TravaHistorico.getAquisicoes() + " acessos aguardaram outro console (espera total "
+                    + TravaHistorico.getEsperaTotalNanos() / 1_000_000 + " ms, maior "
+                    + TravaHistorico.getMaiorEsperaNanos() / 1_000_000 + " ms)");
+        }
+
         System.out.println();
         System.out.println("🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲🌲");
         System.out.println("                          🙏 MUITO OBRIGADO! 🙏                           ");
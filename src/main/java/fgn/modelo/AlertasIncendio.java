@@ -28,9 +28,11 @@ public class AlertasIncendio {
      *
      * @param ocorrencias lista completa de ocorrências do sistema
      * @param estacaoAtual estação de bombeiros atualmente logada
+     * @param catalogo catálogo de áreas, sensores e drones para consulta ao histórico
      * @param scanner objeto Scanner para captura de entrada do usuário
      */
-    public static void exibirMenuAlertas(ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacaoAtual, Scanner scanner) {
+    public static void exibirMenuAlertas(RepositorioOcorrencias ocorrencias, EstacaoBombeiros estacaoAtual,
+                                         CatalogoEntidades catalogo, Scanner scanner) {
         boolean voltarMenu = false;
 
         while (!voltarMenu) {
@@ -56,7 +58,7 @@ public class AlertasIncendio {
 
                     case 2:
                         System.out.println();
-                        atenderOcorrencia(ocorrencias, estacaoAtual, scanner);
+                        atenderOcorrencia(ocorrencias, estacaoAtual, catalogo, scanner);
                         break;
 
                     case 3:
@@ -92,21 +94,14 @@ public class AlertasIncendio {
      * @param ocorrencias lista completa de ocorrências do sistema
      * @param estacaoAtual estação de bombeiros para filtrar por jurisdição
      */
-    public static void listarCasosIncendio(ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacaoAtual) {
+    public static void listarCasosIncendio(RepositorioOcorrencias ocorrencias, EstacaoBombeiros estacaoAtual) {
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println("🔥 CASOS DE INCÊNDIO ATIVOS - " + estacaoAtual.getCidade().toUpperCase());
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println();
 
-        // Filtrar apenas ocorrências de incêndio da estação atual (não áreas seguras)
-        ArrayList<Ocorrencia> incendiosAtivos = new ArrayList<>();
-        for (Ocorrencia ocorrencia : ocorrencias) {
-            if (ocorrencia.getAreaAfetada().getIdEstacaoResponsavel() == estacaoAtual.getIdEstacao() &&
-                    !ocorrencia.getNivelRisco().equals("Seguro") &&
-                    ocorrencia.getStatusOcorrencia().equals("Ativo")) {
-                incendiosAtivos.add(ocorrencia);
-            }
-        }
+        // Incêndios ativos da estação, dos mais graves para os mais leves
+        ArrayList<Ocorrencia> incendiosAtivos = ocorrencias.incendiosAtivosDaEstacao(estacaoAtual.getIdEstacao());
 
         if (incendiosAtivos.isEmpty()) {
             System.out.println("✅ Nenhum caso de incêndio ativo em " + estacaoAtual.getCidade() + "!");
@@ -145,27 +140,24 @@ public class AlertasIncendio {
     /**
      * Atende uma ocorrência específica de incêndio, realizando processo completo
      * de combate. Permite seleção de incêndio ativo, simula operação de combate
-     * e marca automaticamente a ocorrência como segura ao final.
+     * e marca automaticamente a ocorrência como segura ao final. IDs que não estão
+     * em memória são consultados diretamente no histórico da cidade pelo índice
+     * de deslocamentos, sem carregar o histórico completo.
      *
      * @param ocorrencias lista completa de ocorrências do sistema
      * @param estacaoAtual estação de bombeiros executando o atendimento
+     * @param catalogo catálogo de áreas, sensores e drones para consulta ao histórico
      * @param scanner objeto Scanner para captura de entrada do usuário
      */
-    public static void atenderOcorrencia(ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacaoAtual, Scanner scanner) {
+    public static void atenderOcorrencia(RepositorioOcorrencias ocorrencias, EstacaoBombeiros estacaoAtual,
+                                         CatalogoEntidades catalogo, Scanner scanner) {
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println("🚒 ATENDER OCORRÊNCIA DE INCÊNDIO");
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println();
 
-        // Filtrar apenas incêndios ativos da estação
-        ArrayList<Ocorrencia> incendiosAtivos = new ArrayList<>();
-        for (Ocorrencia ocorrencia : ocorrencias) {
-            if (ocorrencia.getAreaAfetada().getIdEstacaoResponsavel() == estacaoAtual.getIdEstacao() &&
-                    !ocorrencia.getNivelRisco().equals("Seguro") &&
-                    ocorrencia.getStatusOcorrencia().equals("Ativo")) {
-                incendiosAtivos.add(ocorrencia);
-            }
-        }
+        // Incêndios ativos da estação, dos mais graves para os mais leves
+        ArrayList<Ocorrencia> incendiosAtivos = ocorrencias.incendiosAtivosDaEstacao(estacaoAtual.getIdEstacao());
 
         if (incendiosAtivos.isEmpty()) {
             System.out.println("✅ Nenhum incêndio ativo para atender em " + estacaoAtual.getCidade() + "!");
@@ -197,6 +189,17 @@ public class AlertasIncendio {
                 }
             }
 
+            // Ocorrência fora da memória: consultar diretamente o histórico da cidade
+            if (ocorrenciaEscolhida == null && !ocorrencias.contemId(estacaoAtual.getIdEstacao(), idEscolhido)) {
+                Ocorrencia historica = LogHistorico.buscarPorId(estacaoAtual, idEscolhido, catalogo);
+                if (historica != null &&
+                        historica.getAreaAfetada().getIdEstacaoResponsavel() == estacaoAtual.getIdEstacao() &&
+                        historica.isIncendioAtivo()) {
+                    ocorrencias.add(historica);
+                    ocorrenciaEscolhida = historica;
+                }
+            }
+
             if (ocorrenciaEscolhida == null) {
                 System.out.println("❌ ID inválido! Nenhuma ocorrência ativa encontrada com este ID.");
                 System.out.println();
@@ -245,8 +248,7 @@ public class AlertasIncendio {
             ocorrenciaEscolhida.marcarComoSegura();
 
             // Atualizar arquivo automaticamente
-            ArrayList<Ocorrencia> ocorrenciasDaEstacao = filtrarOcorrenciasPorEstacao(ocorrencias, estacaoAtual.getIdEstacao());
-            Arquivo.salvarHistoricoDaCidade(ocorrenciasDaEstacao, estacaoAtual);
+            Arquivo.registrarOcorrencia(ocorrenciaEscolhida, ocorrencias, estacaoAtual);
 
             System.out.println("💾 Registro atualizado automaticamente!");
             System.out.println();
@@ -267,21 +269,14 @@ public class AlertasIncendio {
      * @param estacaoAtual estação de bombeiros executando a operação
      * @param scanner objeto Scanner para captura de entrada do usuário
      */
-    public static void atenderOcorrenciaNoLocal(ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacaoAtual, Scanner scanner) {
+    public static void atenderOcorrenciaNoLocal(RepositorioOcorrencias ocorrencias, EstacaoBombeiros estacaoAtual, Scanner scanner) {
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println("🚒 ATENDER OCORRÊNCIA NO LOCAL");
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println();
 
-        // Filtrar apenas incêndios ativos da estação
-        ArrayList<Ocorrencia> incendiosAtivos = new ArrayList<>();
-        for (Ocorrencia ocorrencia : ocorrencias) {
-            if (ocorrencia.getAreaAfetada().getIdEstacaoResponsavel() == estacaoAtual.getIdEstacao() &&
-                    !ocorrencia.getNivelRisco().equals("Seguro") &&
-                    ocorrencia.getStatusOcorrencia().equals("Ativo")) {
-                incendiosAtivos.add(ocorrencia);
-            }
-        }
+        // Incêndios ativos da estação, dos mais graves para os mais leves
+        ArrayList<Ocorrencia> incendiosAtivos = ocorrencias.incendiosAtivosDaEstacao(estacaoAtual.getIdEstacao());
 
         if (incendiosAtivos.isEmpty()) {
             System.out.println("✅ Nenhum incêndio ativo para atender em " + estacaoAtual.getCidade() + "!");
@@ -395,12 +390,10 @@ public class AlertasIncendio {
             // Marcar APENAS as ocorrências do local como seguras
             for (Ocorrencia ocorrencia : ocorrenciasDoLocal) {
                 ocorrencia.marcarComoSegura();
+                // Atualizar arquivo automaticamente
+                Arquivo.registrarOcorrencia(ocorrencia, ocorrencias, estacaoAtual);
             }
 
-            // Atualizar arquivo automaticamente
-            ArrayList<Ocorrencia> ocorrenciasDaEstacao = filtrarOcorrenciasPorEstacao(ocorrencias, estacaoAtual.getIdEstacao());
-            Arquivo.salvarHistoricoDaCidade(ocorrenciasDaEstacao, estacaoAtual);
-
             System.out.println("💾 Registros do local atualizados automaticamente!");
             System.out.println("🎉 Operação em " + nomeLocalEscolhido + " concluída com sucesso!");
             System.out.println();
@@ -411,23 +404,4 @@ public class AlertasIncendio {
             System.out.println();
         }
     }
-
-    /**
-     * Filtra ocorrências pertencentes a uma estação específica.
-     * Utilizado para operações que devem considerar apenas a jurisdição
-     * da estação atualmente logada no sistema.
-     *
-     * @param ocorrencias lista completa de ocorrências do sistema
-     * @param idEstacao ID da estação de bombeiros para filtrar
-     * @return lista contendo apenas ocorrências da estação especificada
-     */
-    private static ArrayList<Ocorrencia> filtrarOcorrenciasPorEstacao(ArrayList<Ocorrencia> ocorrencias, int idEstacao) {
-        ArrayList<Ocorrencia> ocorrenciasFiltradas = new ArrayList<>();
-        for (Ocorrencia ocorrencia : ocorrencias) {
-            if (ocorrencia.getAreaAfetada().getIdEstacaoResponsavel() == idEstacao) {
-                ocorrenciasFiltradas.add(ocorrencia);
-            }
-        }
-        return ocorrenciasFiltradas;
-    }
 }
\ No newline at end of file
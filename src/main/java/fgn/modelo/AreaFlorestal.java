@@ -18,6 +18,11 @@ package fgn.modelo;
  * @version 1.0
  */
 public class AreaFlorestal {
+    /**
+     * Raio médio da Terra em quilômetros, utilizado no cálculo de distâncias
+     */
+    private static final double RAIO_TERRA_KM = 6371.0;
+
     /**
     * Identificador único sequencial da área florestal
     */
@@ -38,6 +43,18 @@ public class AreaFlorestal {
      * ID da estação de bombeiros com jurisdição sobre a área
      */
     private int idEstacaoResponsavel;
+    /**
+     * Latitude em graus decimais do centro da área, NaN quando não informada
+     */
+    private double latitude = Double.NaN;
+    /**
+     * Longitude em graus decimais do centro da área, NaN quando não informada
+     */
+    private double longitude = Double.NaN;
+    /**
+     * Raio aproximado em quilômetros da área a partir do seu centro
+     */
+    private double raioKm;
 
     /**
      * Construtor para criação de área florestal com todos os dados identificatórios.
@@ -58,6 +75,28 @@ public class AreaFlorestal {
         this.idEstacaoResponsavel = idEstacaoResponsavel;
     }
 
+    /**
+     * Construtor para área florestal com posição geográfica conhecida.
+     * As coordenadas permitem associar à área detecções externas, como os
+     * focos de calor de satélite importados pelo {@link ImportadorFocosCalor}.
+     *
+     * @param idArea identificador único sequencial da área florestal
+     * @param nomeArea denominação oficial ou popular da área florestal
+     * @param localizacao descrição detalhada da localização geográfica
+     * @param distanciaKm distância em quilômetros da estação de bombeiros responsável
+     * @param idEstacaoResponsavel ID da estação de bombeiros com jurisdição sobre a área
+     * @param latitude latitude em graus decimais do centro da área
+     * @param longitude longitude em graus decimais do centro da área
+     * @param raioKm raio aproximado em quilômetros da área
+     */
+    public AreaFlorestal(int idArea, String nomeArea, String localizacao, int distanciaKm, int idEstacaoResponsavel,
+                         double latitude, double longitude, double raioKm) {
+        this(idArea, nomeArea, localizacao, distanciaKm, idEstacaoResponsavel);
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.raioKm = raioKm;
+    }
+
     // Getters e Setters
     /**
      * Obtém o identificador único da área florestal.
@@ -159,6 +198,58 @@ public class AreaFlorestal {
         this.idEstacaoResponsavel = idEstacaoResponsavel;
     }
 
+    /**
+     * Obtém a latitude do centro da área florestal.
+     *
+     * @return latitude em graus decimais ou NaN quando não informada
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Obtém a longitude do centro da área florestal.
+     *
+     * @return longitude em graus decimais ou NaN quando não informada
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Obtém o raio aproximado da área florestal.
+     *
+     * @return raio em quilômetros a partir do centro da área
+     */
+    public double getRaioKm() {
+        return raioKm;
+    }
+
+    /**
+     * Indica se a área possui posição geográfica para associação de detecções.
+     *
+     * @return true se latitude, longitude e raio foram informados
+     */
+    public boolean possuiCoordenadas() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude) && raioKm > 0;
+    }
+
+    /**
+     * Calcula a distância do centro da área até um ponto, pela fórmula de haversine.
+     *
+     * @param latitude latitude do ponto em graus decimais
+     * @param longitude longitude do ponto em graus decimais
+     * @return distância em quilômetros, NaN se a área não possui coordenadas
+     */
+    public double distanciaAteKm(double latitude, double longitude) {
+        double dLat = Math.toRadians(latitude - this.latitude);
+        double dLon = Math.toRadians(longitude - this.longitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(this.latitude)) * Math.cos(Math.toRadians(latitude))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
     /**
      * Exibe informações formatadas da área florestal para seleção interativa.
      * Apresenta dados essenciais em formato amigável para escolha pelo usuário
@@ -15,261 +15,554 @@ import java.util.ArrayList;
  * Organiza dados por cidade/estação, criando arquivos específicos para cada
  * jurisdição territorial e mantendo histórico persistente entre sessões.
  * </p>
+ * <p>
+ * Cada criação ou mudança de status é anexada ao histórico binário da cidade
+ * ({@link LogHistorico}) com custo constante. O relatório texto é apenas uma
+ * exportação legível, regenerada ao encerrar o sistema quando o histórico muda.
+ * Instantâneos periódicos ({@link SnapshotHistorico}) permitem que o carregamento
+ * reaplique apenas o final do log.
+ * </p>
+ * <p>
+ * No login são carregados apenas os incêndios ativos da cidade, sem ler os
+ * segmentos selados que não os contêm. O histórico completo é carregado na
+ * primeira vez que uma tela precisa dele; até lá, instantâneos não são gravados,
+ * pois representariam apenas parte da cidade.
+ * </p>
  *
  * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
  * @version 1.0
  */
 public class Arquivo {
+    /**
+     * IDs das estações cujo histórico mudou desde a última exportação do relatório texto
+     */
+    private static final java.util.HashSet<Integer> estacoesComExportacaoPendente = new java.util.HashSet<>();
+    /**
+     * Quantidade de alterações de cada estação desde o último instantâneo do histórico
+     */
+    private static final java.util.HashMap<Integer, Integer> alteracoesDesdeSnapshot = new java.util.HashMap<>();
+    /**
+     * Nomes base dos históricos de cidades com apenas os incêndios ativos em memória
+     */
+    private static final java.util.HashSet<String> cidadesComHistoricoParcial = new java.util.HashSet<>();
+    /**
+     * IDs das estações que compartilham cada arquivo de histórico, indexados pelo nome base da cidade
+     */
+    private static final java.util.HashMap<String, java.util.TreeSet<Integer>> estacoesPorCidade = new java.util.HashMap<>();
+    /**
+     * Catálogo utilizado para reconstituir as ocorrências do histórico binário na exportação em segundo plano
+     */
+    private static volatile CatalogoEntidades catalogoExportacao;
 
     /**
      * Carrega o histórico completo de ocorrências de uma cidade específica.
-     * Realiza parsing de arquivo texto estruturado, convertendo registros
-     * formatados em objetos Ocorrencia com todos os relacionamentos preservados.
-     * Cria arquivo automaticamente se não existir para primeira utilização.
+     * Lê o histórico binário mapeado em memória, que é a fonte de verdade dos
+     * dados. Cidades que possuem apenas o relatório texto legado têm o relatório
+     * interpretado uma única vez e convertido para o formato binário.
      *
      * @param estacaoAtual estação que está realizando login no sistema
      * @param ocorrencias lista de ocorrências a ser preenchida com dados carregados
      * @param estacoes lista de todas as estações para referência cruzada
-     * @param areasFlorestais lista de áreas florestais para associação de ocorrências
-     * @param drones lista de drones para associação com registros carregados
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
      */
     public static void carregarHistoricoDaCidade(EstacaoBombeiros estacaoAtual, ArrayList<Ocorrencia> ocorrencias,
-                                                 ArrayList<EstacaoBombeiros> estacoes, ArrayList<AreaFlorestal> areasFlorestais,
-                                                 ArrayList<Drone> drones) {
+                                                 ArrayList<EstacaoBombeiros> estacoes, CatalogoEntidades catalogo) {
+        registrarEstacoes(estacoes, catalogo);
+        int ocorrenciasCarregadas = carregarHistorico(estacaoAtual, ocorrencias, catalogo);
+
+        if (ocorrenciasCarregadas > 0) {
+            System.out.println("📁 Carregado histórico de " + estacaoAtual.getCidade() + ": " + ocorrenciasCarregadas + " ocorrências");
+        } else if (!LogHistorico.existe(estacaoAtual)) {
+            System.out.println("📁 Primeira vez em " + estacaoAtual.getCidade() + " - criando novo histórico...");
+        }
+    }
+
+    /**
+     * Carrega apenas os incêndios ativos da cidade, utilizado no login para que o
+     * monitoramento de alertas fique disponível sem ler o histórico completo.
+     * Cidades que possuem apenas o relatório texto legado são carregadas por
+     * completo, pois o relatório precisa ser convertido para o formato binário.
+     *
+     * @param estacaoAtual estação que está realizando login no sistema
+     * @param ocorrencias lista de ocorrências a ser preenchida com dados carregados
+     * @param estacoes lista de todas as estações para referência cruzada
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     */
+    public static void carregarIncendiosAtivosDaCidade(EstacaoBombeiros estacaoAtual, ArrayList<Ocorrencia> ocorrencias,
+                                                       ArrayList<EstacaoBombeiros> estacoes, CatalogoEntidades catalogo) {
+        registrarEstacoes(estacoes, catalogo);
+        if (!LogHistorico.existe(estacaoAtual)) {
+            carregarHistoricoDaCidade(estacaoAtual, ocorrencias, estacoes, catalogo);
+            return;
+        }
+
         try {
-            String nomeArquivo = "historico_" + estacaoAtual.getCidade().toLowerCase().replace(" ", "_") + ".txt";
-            java.io.File arquivo = new java.io.File(nomeArquivo);
+            RecuperacaoHistorico.recuperar(estacaoAtual);
+        } catch (java.io.IOException e) {
+            System.out.println("⚠️ Erro ao verificar histórico binário: " + e.getMessage());
+        }
+        reaplicarPendentes(estacaoAtual);
+        int ativas = LogHistorico.carregarAtivas(estacaoAtual, ocorrencias, catalogo);
+        cidadesComHistoricoParcial.add(obterNomeBaseHistorico(estacaoAtual));
+        System.out.println("📁 Carregados incêndios ativos de " + estacaoAtual.getCidade() + ": " + ativas + " ocorrências");
+    }
 
-            if (!arquivo.exists()) {
-                System.out.println("📁 Primeira vez em " + estacaoAtual.getCidade() + " - criando novo histórico...");
-                return;
+    /**
+     * Completa o histórico de uma cidade carregada apenas com os incêndios ativos.
+     * Alterações ainda na fila são gravadas antes, para que a leitura traga a versão
+     * atual das ocorrências já em memória. Não faz nada se a cidade já está completa.
+     *
+     * @param estacaoAtual estação responsável pela jurisdição
+     * @param ocorrencias lista de ocorrências a ser completada
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     */
+    public static void carregarHistoricoCompletoDaCidade(EstacaoBombeiros estacaoAtual, ArrayList<Ocorrencia> ocorrencias,
+                                                         CatalogoEntidades catalogo) {
+        if (isHistoricoCompleto(estacaoAtual)) {
+            return;
+        }
+
+        ServicoPersistencia.descarregar();
+        int novas = LogHistorico.carregar(estacaoAtual, ocorrencias, catalogo);
+        if (novas > 0) {
+            // Incêndios ativos foram carregados primeiro; restaura a ordem de ID do histórico
+            ocorrencias.sort(java.util.Comparator.comparingInt(Ocorrencia::getIdOcorrencia));
+        }
+        cidadesComHistoricoParcial.remove(obterNomeBaseHistorico(estacaoAtual));
+        System.out.println("📁 Carregado histórico completo de " + estacaoAtual.getCidade() + ": " + novas + " ocorrências");
+    }
+
+    /**
+     * Indica se todo o histórico da cidade está em memória.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return false se apenas os incêndios ativos da cidade foram carregados
+     */
+    public static boolean isHistoricoCompleto(EstacaoBombeiros estacao) {
+        return !cidadesComHistoricoParcial.contains(obterNomeBaseHistorico(estacao));
+    }
+
+    /**
+     * Indica se o histórico da estação mudou desde a última exportação do relatório texto.
+     *
+     * @param estacao estação responsável pela jurisdição
+     * @return true se o relatório texto precisa ser regenerado
+     */
+    public static boolean isExportacaoPendente(EstacaoBombeiros estacao) {
+        return estacoesComExportacaoPendente.contains(estacao.getIdEstacao());
+    }
+
+    /**
+     * Carrega simultaneamente o histórico de todas as estações, utilizando uma
+     * thread virtual por arquivo de cidade. Estações da mesma cidade compartilham
+     * o arquivo, que é lido uma única vez. Ao final exibe o tempo de carregamento
+     * de cada arquivo e o tempo total.
+     *
+     * @param estacoes lista de todas as estações do sistema
+     * @param ocorrencias lista de ocorrências a ser preenchida com dados carregados
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return quantidade total de ocorrências carregadas
+     */
+    public static int carregarHistoricoDeTodasAsEstacoes(ArrayList<EstacaoBombeiros> estacoes, ArrayList<Ocorrencia> ocorrencias,
+                                                         CatalogoEntidades catalogo) {
+        registrarEstacoes(estacoes, catalogo);
+
+        // Uma estação representante por arquivo de cidade
+        java.util.LinkedHashMap<String, EstacaoBombeiros> estacaoPorArquivo = new java.util.LinkedHashMap<>();
+        for (EstacaoBombeiros estacao : estacoes) {
+            estacaoPorArquivo.putIfAbsent(obterNomeBaseHistorico(estacao), estacao);
+        }
+
+        ArrayList<EstacaoBombeiros> cidades = new ArrayList<>(estacaoPorArquivo.values());
+        ArrayList<java.util.concurrent.Future<ArrayList<Ocorrencia>>> tarefas = new ArrayList<>();
+        long[] temposNanos = new long[cidades.size()];
+        long inicioTotal = System.nanoTime();
+
+        try (java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < cidades.size(); i++) {
+                final int indice = i;
+                tarefas.add(executor.submit(() -> {
+                    long inicio = System.nanoTime();
+                    ArrayList<Ocorrencia> daCidade = new ArrayList<>();
+                    carregarHistorico(cidades.get(indice), daCidade, catalogo);
+                    temposNanos[indice] = System.nanoTime() - inicio;
+                    return daCidade;
+                }));
             }
+        }
 
-            java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.FileReader(arquivo));
-            String linha;
-            int ocorrenciasCarregadas = 0;
-
-            while ((linha = reader.readLine()) != null) {
-                // Procurar linhas que começam com 🚨 ou ✅ (indicam início de ocorrência)
-                if (linha.startsWith("🚨") || linha.startsWith("✅")) {
-                    Ocorrencia ocorrencia = parseOcorrenciaDoArquivo(reader, linha, estacaoAtual, areasFlorestais, drones);
-                    if (ocorrencia != null) {
-                        ocorrencias.add(ocorrencia);
-                        ocorrenciasCarregadas++;
-                    }
-                }
+        int totalCarregadas = 0;
+        for (int i = 0; i < cidades.size(); i++) {
+            EstacaoBombeiros cidade = cidades.get(i);
+            try {
+                ArrayList<Ocorrencia> daCidade = tarefas.get(i).get();
+                ocorrencias.addAll(daCidade);
+                totalCarregadas += daCidade.size();
+                System.out.printf("⏱️ %-20s %6d ocorrências em %8.2f ms%n",
+                        cidade.getCidade(), daCidade.size(), temposNanos[i] / 1_000_000.0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.out.println("⚠️ Carregamento interrompido em " + cidade.getCidade());
+                break;
+            } catch (java.util.concurrent.ExecutionException e) {
+                System.out.println("⚠️ Erro ao carregar histórico de " + cidade.getCidade() + ": " + e.getCause().getMessage());
             }
+        }
 
-            reader.close();
+        System.out.printf("📁 %d arquivos de histórico carregados em %.2f ms: %d ocorrências%n",
+                cidades.size(), (System.nanoTime() - inicioTotal) / 1_000_000.0, totalCarregadas);
+        return totalCarregadas;
+    }
 
-            if (ocorrenciasCarregadas > 0) {
-                System.out.println("📁 Carregado histórico de " + estacaoAtual.getCidade() + ": " + ocorrenciasCarregadas + " ocorrências");
+    /**
+     * Carrega o histórico de uma cidade sem exibir mensagens de progresso,
+     * migrando o relatório texto legado para o formato binário quando necessário.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param ocorrencias lista de ocorrências a ser preenchida com dados carregados
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return quantidade de ocorrências carregadas
+     */
+    private static int carregarHistorico(EstacaoBombeiros estacao, ArrayList<Ocorrencia> ocorrencias,
+                                         CatalogoEntidades catalogo) {
+        if (LogHistorico.existe(estacao)) {
+            try {
+                RecuperacaoHistorico.recuperar(estacao);
+            } catch (java.io.IOException e) {
+                System.out.println("⚠️ Erro ao verificar histórico binário: " + e.getMessage());
             }
+            reaplicarPendentes(estacao);
+            return LogHistorico.carregar(estacao, ocorrencias, catalogo);
+        }
 
-        } catch (java.io.IOException e) {
-            System.out.println("⚠️ Erro ao carregar histórico: " + e.getMessage());
+        // Migração do relatório texto legado para o histórico binário
+        ArrayList<Ocorrencia> carregadas = carregarRelatorioDaCidade(estacao, ocorrencias, catalogo);
+
+        if (!carregadas.isEmpty()) {
+            try {
+                LogHistorico.reescrever(carregadas, estacao);
+                System.out.println("💾 Histórico de " + estacao.getCidade() + " convertido para '" + LogHistorico.obterNomeArquivo(estacao) + "'");
+            } catch (java.io.IOException e) {
+                System.out.println("⚠️ Erro ao converter histórico legado: " + e.getMessage());
+            }
         }
+        // Alterações guardadas no encerramento são aplicadas sobre o histórico convertido
+        if (reaplicarPendentes(estacao) > 0) {
+            return carregadas.size() + LogHistorico.carregar(estacao, ocorrencias, catalogo);
+        }
+        return carregadas.size();
     }
 
     /**
-     * Realiza parsing detalhado de uma ocorrência individual do arquivo texto.
-     * Interpreta formato estruturado com emojis e dados hierárquicos, reconstituindo
-     * objeto Ocorrencia completo com todos os relacionamentos e metadados.
-     * Implementa tratamento robusto de erros para garantir integridade dos dados.
+     * Reaplica ao histórico binário as alterações que não puderam ser gravadas no
+     * encerramento anterior, exibindo a quantidade recuperada.
      *
-     * @param reader BufferedReader posicionado após linha de cabeçalho da ocorrência
-     * @param linhaCabecalho linha contendo emoji identificador e tipo de ocorrência
-     * @param estacaoAtual estação responsável pela jurisdição da ocorrência
-     * @param areasFlorestais lista de áreas para associação por nome
-     * @param drones lista de drones para associação com a estação
-     * @return objeto Ocorrencia reconstituído ou null se erro no parsing
+     * @param estacao estação responsável pelo histórico
+     * @return quantidade de alterações reaplicadas
      */
-    private static Ocorrencia parseOcorrenciaDoArquivo(java.io.BufferedReader reader, String linhaCabecalho,
-                                                       EstacaoBombeiros estacaoAtual, ArrayList<AreaFlorestal> areasFlorestais,
-                                                       ArrayList<Drone> drones) {
+    private static int reaplicarPendentes(EstacaoBombeiros estacao) {
         try {
-            // Parse do ID da ocorrência da linha de cabeçalho
-            // Formato: "🚨 #1 - INCÊNDIO" ou "✅ #2 - ÁREA SEGURA"
-            String[] partesCabecalho = linhaCabecalho.split("#")[1].split(" ");
-            int idOcorrencia = Integer.parseInt(partesCabecalho[0]);
-
-            boolean ehAreaSegura = linhaCabecalho.contains("ÁREA SEGURA");
-
-            // Ler próximas linhas para extrair informações
-            String linhaNomeArea = reader.readLine(); // "    📍 Nome da Área"
-            String linhaCidade = reader.readLine();   // "    🏢 Cidade, Estado"
-            String linhaStatus = reader.readLine();   // "    ⚠️ Nível | 📊 Status | ⏰ Data"
-
-            // Parse do nome da área
-            String nomeArea = linhaNomeArea.substring(linhaNomeArea.indexOf("📍") + 2).trim();
-            AreaFlorestal area = buscarAreaPorNome(nomeArea, areasFlorestais);
-
-            if (area == null) {
-                // Se não encontrar a área, pular esta ocorrência
-                pularLinhasOcorrencia(reader);
-                return null;
+            int reaplicadas = ServicoPersistencia.reaplicarPendentes(estacao);
+            if (reaplicadas > 0) {
+                System.out.println("💾 " + reaplicadas + " alterações pendentes de " + estacao.getCidade()
+                        + " gravadas no histórico");
             }
+            return reaplicadas;
+        } catch (java.io.IOException e) {
+            System.out.println("⚠️ Erro ao gravar alterações pendentes: " + e.getMessage());
+            return 0;
+        }
+    }
 
-            // Parse dos hectares se houver
-            int hectares = 0;
-            String proximaLinha = reader.readLine();
-            if (proximaLinha.contains("🔥") && proximaLinha.contains("hectares")) {
-                String hectaresStr = proximaLinha.split("🔥")[1].split("hectares")[0].trim();
-                hectares = Integer.parseInt(hectaresStr);
-                proximaLinha = reader.readLine(); // Avançar para próxima linha
+    /**
+     * Carrega as ocorrências do relatório texto legado {@code historico_<cidade>.txt}.
+     * Utilizado apenas para migrar cidades que ainda não possuem histórico binário.
+     * O arquivo é dividido nas linhas de cabeçalho dos registros e interpretado em
+     * paralelo pelo {@link CarregadorHistoricoParalelo}.
+     *
+     * @param estacaoAtual estação que está realizando login no sistema
+     * @param ocorrencias lista de ocorrências a ser preenchida com dados carregados
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return ocorrências lidas do relatório, em ordem de ID (vazia se não houver relatório)
+     */
+    private static ArrayList<Ocorrencia> carregarRelatorioDaCidade(EstacaoBombeiros estacaoAtual, ArrayList<Ocorrencia> ocorrencias,
+                                                                   CatalogoEntidades catalogo) {
+        try {
+            java.nio.file.Path arquivo = java.nio.file.Path.of(obterNomeBaseHistorico(estacaoAtual) + ".txt");
+
+            if (!java.nio.file.Files.exists(arquivo)) {
+                return new ArrayList<>();
             }
 
-            // Pular linha do sensor/drone
-            if (proximaLinha.contains("🔍")) {
-                proximaLinha = reader.readLine(); // Linha do drone
+            CarregadorHistoricoParalelo.Resultado resultado =
+                    CarregadorHistoricoParalelo.carregarTexto(arquivo, catalogo);
+            CarregadorHistoricoParalelo.mesclarPorId(ocorrencias, resultado.getOcorrencias());
+
+            if (resultado.getRegistrosDescartados() > 0) {
+                System.out.println("⚠️ " + resultado.getRegistrosDescartados() + " ocorrências de " + estacaoAtual.getCidade()
+                        + " ignoradas por área desconhecida");
             }
+            return resultado.getOcorrencias();
 
-            // Parse do drone
-            Drone drone = obterDroneDaEstacao(drones, estacaoAtual.getIdEstacao());
+        } catch (java.io.IOException e) {
+            System.out.println("⚠️ Erro ao carregar histórico: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-            // Parse do usuário denunciante
-            proximaLinha = reader.readLine(); // Linha do denunciante
-            Usuario usuario = null;
+    /**
+     * Registra as estações de cada arquivo de histórico, para que instantâneos e
+     * exportações da cidade incluam as ocorrências de todas elas, e o catálogo
+     * utilizado pela exportação a partir do histórico binário.
+     *
+     * @param estacoes lista de todas as estações do sistema
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     */
+    private static void registrarEstacoes(ArrayList<EstacaoBombeiros> estacoes, CatalogoEntidades catalogo) {
+        catalogoExportacao = catalogo;
+        for (EstacaoBombeiros estacao : estacoes) {
+            estacoesPorCidade.computeIfAbsent(obterNomeBaseHistorico(estacao), cidade -> new java.util.TreeSet<>())
+                    .add(estacao.getIdEstacao());
+        }
+    }
 
-            if (proximaLinha.contains("👤 Denúncia:") && !proximaLinha.contains("Drone")) {
-                String nomeUsuario = proximaLinha.split("👤 Denúncia:")[1].trim();
-                String linhaDados = reader.readLine(); // Linha com CPF e data de nascimento
+    /**
+     * Obtém o nome base dos arquivos de histórico da cidade de uma estação.
+     * Utilizado para compor os nomes do relatório (.txt) e do histórico binário (.dat).
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return nome base no formato "historico_cidade"
+     */
+    public static String obterNomeBaseHistorico(EstacaoBombeiros estacao) {
+        return "historico_" + estacao.getCidade().toLowerCase().replace(" ", "_");
+    }
 
-                if (linhaDados != null && linhaDados.contains("📄 CPF:")) {
-                    try {
-                        String cpfStr = linhaDados.split("📄 CPF:")[1].split("\\|")[0].trim();
-                        String dataNasc = linhaDados.split("📅 Nascimento:")[1].trim();
+    /**
+     * Reserva o ID de uma nova ocorrência da cidade no {@link ContadorIdsHistorico},
+     * com a trava exclusiva da cidade, para que consoles que operam a mesma cidade
+     * nunca gerem o mesmo ID.
+     *
+     * @param estacaoAtual estação responsável pela jurisdição da nova ocorrência
+     * @return ID reservado ou -1 se não foi possível reservá-lo
+     */
+    public static int reservarIdOcorrencia(EstacaoBombeiros estacaoAtual) {
+        try {
+            return ContadorIdsHistorico.reservar(estacaoAtual, 1);
+        } catch (java.io.IOException e) {
+            System.out.println("⚠️ Erro ao reservar ID de ocorrência: " + e.getMessage());
+            return -1;
+        }
+    }
 
-                        long cpf = Long.parseLong(cpfStr);
-                        usuario = new Usuario(nomeUsuario, cpf, dataNasc);
-                    } catch (Exception e) {
-                        // Se erro no parse do usuário, continuar sem usuário
-                    }
-                }
-            }
+    /**
+     * Persiste a criação ou mudança de status de uma única ocorrência.
+     * Ocorrências sem alterações pendentes não geram escrita. Caso contrário, o
+     * estado atual é enfileirado no {@link ServicoPersistencia}, que o anexa ao log
+     * da cidade e compacta seus segmentos em segundo plano.
+     *
+     * @param ocorrencia ocorrência criada ou alterada
+     * @param ocorrencias lista completa de ocorrências do sistema
+     * @param estacaoAtual estação responsável pela jurisdição da ocorrência
+     */
+    public static void registrarOcorrencia(Ocorrencia ocorrencia, ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacaoAtual) {
+        if (!ocorrencia.isAlterada()) {
+            return;
+        }
 
-            // Ler linha vazia
-            reader.readLine();
+        ServicoPersistencia.enfileirar(ocorrencia, estacaoAtual);
+        estacoesComExportacaoPendente.add(estacaoAtual.getIdEstacao());
+        if (alteracoesDesdeSnapshot.merge(estacaoAtual.getIdEstacao(), 1, Integer::sum) >= SnapshotHistorico.getIntervalo()) {
+            gravarSnapshotDaCidade(ocorrencias, estacaoAtual);
+        }
+    }
 
-            // Criar objeto Ocorrencia
-            if (ehAreaSegura) {
-                return new Ocorrencia(idOcorrencia, area, drone, usuario);
-            } else {
-                if (usuario != null) {
-                    return new Ocorrencia(idOcorrencia, area, hectares, drone, usuario, 0);
-                } else {
-                    return new Ocorrencia(idOcorrencia, area, hectares, null, drone, 0);
-                }
-            }
+    /**
+     * Contabiliza ocorrências que já foram anexadas diretamente ao log da cidade,
+     * como as criadas pelo {@link ImportadorFocosCalor}. Marca a exportação texto
+     * como pendente e grava o instantâneo quando o intervalo é atingido, sem
+     * passar pela fila do {@link ServicoPersistencia}.
+     *
+     * @param quantidade quantidade de ocorrências anexadas
+     * @param ocorrencias lista completa de ocorrências do sistema, já com as novas ocorrências
+     * @param estacaoAtual estação responsável pela jurisdição das ocorrências
+     */
+    public static void registrarOcorrenciasAnexadas(int quantidade, ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacaoAtual) {
+        if (quantidade <= 0) {
+            return;
+        }
 
-        } catch (Exception e) {
-            System.out.println("⚠️ Erro ao processar ocorrência do arquivo: " + e.getMessage());
-            return null;
+        estacoesComExportacaoPendente.add(estacaoAtual.getIdEstacao());
+        if (alteracoesDesdeSnapshot.merge(estacaoAtual.getIdEstacao(), quantidade, Integer::sum) >= SnapshotHistorico.getIntervalo()) {
+            gravarSnapshotDaCidade(ocorrencias, estacaoAtual);
         }
     }
 
     /**
-     * Busca área florestal específica por correspondência exata de nome.
-     * Utilizado durante carregamento de arquivos para restabelecer
-     * relacionamentos entre ocorrências e áreas florestais.
+     * Grava o instantâneo do histórico da cidade somente se houve alterações desde
+     * o último instantâneo ou se a cidade ainda não possui um. Utilizado ao encerrar o sistema, para que o próximo
+     * início reaplique apenas o final do log.
      *
-     * @param nomeArea nome completo da área florestal procurada
-     * @param areasFlorestais lista de áreas disponíveis para busca
-     * @return objeto AreaFlorestal correspondente ou null se não encontrado
+     * @param ocorrencias lista completa de ocorrências do sistema
+     * @param estacaoAtual estação responsável pela jurisdição
      */
-    private static AreaFlorestal buscarAreaPorNome(String nomeArea, ArrayList<AreaFlorestal> areasFlorestais) {
-        for (AreaFlorestal area : areasFlorestais) {
-            if (area.getNomeArea().equals(nomeArea)) {
-                return area;
-            }
+    public static void gravarSnapshotSeAlterado(ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacaoAtual) {
+        boolean semSnapshot = LogHistorico.existe(estacaoAtual)
+                && !java.nio.file.Files.exists(java.nio.file.Path.of(SnapshotHistorico.obterNomeArquivo(estacaoAtual)));
+        if (semSnapshot || alteracoesDesdeSnapshot.getOrDefault(estacaoAtual.getIdEstacao(), 0) > 0) {
+            gravarSnapshotDaCidade(ocorrencias, estacaoAtual);
         }
-        return null;
     }
 
     /**
-     * Pula linhas restantes de uma ocorrência durante erro de parsing.
-     * Mecanismo de recuperação que permite continuar processamento do arquivo
-     * mesmo quando uma ocorrência específica apresenta problemas de formato.
+     * Grava o instantâneo do histórico da cidade com a versão atual das ocorrências
+     * de todas as estações da cidade e o próximo ID de ocorrência disponível. Cidades com apenas os
+     * incêndios ativos em memória mantêm as alterações contabilizadas até que o
+     * histórico completo seja carregado.
      *
-     * @param reader BufferedReader posicionado em ocorrência com erro
+     * @param ocorrencias lista completa de ocorrências do sistema
+     * @param estacaoAtual estação responsável pela jurisdição
      */
-    private static void pularLinhasOcorrencia(java.io.BufferedReader reader) {
+    private static void gravarSnapshotDaCidade(ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacaoAtual) {
+        if (!isHistoricoCompleto(estacaoAtual)) {
+            return;
+        }
+
+        int maiorId = 0;
+        for (Ocorrencia ocorrencia : ocorrencias) {
+            maiorId = Math.max(maiorId, ocorrencia.getIdOcorrencia());
+        }
+
         try {
-            String linha;
-            // Pular até encontrar linha vazia ou próxima ocorrência
-            while ((linha = reader.readLine()) != null) {
-                if (linha.trim().isEmpty() || linha.startsWith("🚨") || linha.startsWith("✅")) {
-                    break;
-                }
-            }
+            SnapshotHistorico.gravar(estacaoAtual, filtrarOcorrenciasDaCidade(ocorrencias, estacaoAtual), maiorId + 1);
+            alteracoesDesdeSnapshot.remove(estacaoAtual.getIdEstacao());
         } catch (java.io.IOException e) {
-            // Ignorar erro ao pular
+            System.out.println("⚠️ Erro ao gravar instantâneo do histórico: " + e.getMessage());
         }
     }
 
     /**
-     * Obtém drone designado para uma estação específica.
-     * Busca por correspondência de ID da estação base para garantir
-     * que cada estação utilize seu equipamento designado.
+     * Regenera o relatório texto da cidade somente se o histórico foi alterado
+     * desde a última exportação e está completo em memória. Utilizado ao encerrar
+     * o sistema.
      *
-     * @param drones lista de drones disponíveis no sistema
-     * @param idEstacao ID da estação proprietária do drone
-     * @return objeto Drone da estação ou null se não encontrado
+     * @param ocorrencias lista completa de ocorrências do sistema
+     * @param estacaoAtual estação responsável pela jurisdição
      */
-    private static Drone obterDroneDaEstacao(ArrayList<Drone> drones, int idEstacao) {
-        for (Drone drone : drones) {
-            if (drone.getIdEstacaoBase() == idEstacao) {
-                return drone;
+    public static void exportarHistoricoSeAlterado(ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacaoAtual) {
+        if (isHistoricoCompleto(estacaoAtual) && estacoesComExportacaoPendente.contains(estacaoAtual.getIdEstacao())
+                && salvarHistoricoDaCidade(filtrarOcorrenciasDaCidade(ocorrencias, estacaoAtual), estacaoAtual)) {
+            estacoesComExportacaoPendente.remove(estacaoAtual.getIdEstacao());
+        }
+    }
+
+    /**
+     * Regenera o relatório texto da cidade a partir do histórico binário, sem
+     * depender das ocorrências em memória no console. Utilizado pela thread
+     * gravadora do {@link ServicoPersistencia} para manter o relatório atualizado
+     * durante a execução, e não apenas no encerramento.
+     *
+     * @param estacao estação responsável pela jurisdição
+     * @return true se o relatório foi gravado; false se nenhum histórico foi carregado ainda ou se houve erro
+     */
+    public static boolean exportarHistoricoDoLog(EstacaoBombeiros estacao) {
+        CatalogoEntidades catalogo = catalogoExportacao;
+        if (catalogo == null || !LogHistorico.existe(estacao)) {
+            return false;
+        }
+        try {
+            return salvarHistoricoDaCidade(LogHistorico.lerOcorrencias(estacao, catalogo), estacao);
+        } catch (java.io.IOException e) {
+            System.out.println("⚠️ Erro ao exportar histórico de " + estacao.getCidade() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Filtra as ocorrências de todas as estações que compartilham o arquivo de
+     * histórico da estação informada. Utilizado na exportação e no instantâneo,
+     * que substituem os arquivos da cidade inteira. Quando a lista
+     * é um {@link RepositorioOcorrencias}, consulta o índice por estação.
+     *
+     * @param ocorrencias lista completa de ocorrências do sistema
+     * @param estacao estação cuja cidade deve ser filtrada
+     * @return ocorrências da cidade, em ordem de ID quando há mais de uma estação
+     */
+    private static ArrayList<Ocorrencia> filtrarOcorrenciasDaCidade(ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacao) {
+        java.util.TreeSet<Integer> idsEstacao = new java.util.TreeSet<>(
+                estacoesPorCidade.getOrDefault(obterNomeBaseHistorico(estacao), new java.util.TreeSet<>()));
+        idsEstacao.add(estacao.getIdEstacao());
+
+        ArrayList<Ocorrencia> ocorrenciasFiltradas = new ArrayList<>();
+        if (ocorrencias instanceof RepositorioOcorrencias) {
+            for (int idEstacao : idsEstacao) {
+                ocorrenciasFiltradas.addAll(((RepositorioOcorrencias) ocorrencias).daEstacao(idEstacao));
+            }
+            if (idsEstacao.size() > 1) {
+                ocorrenciasFiltradas.sort(java.util.Comparator.comparingInt(Ocorrencia::getIdOcorrencia));
+            }
+            return ocorrenciasFiltradas;
+        }
+        for (Ocorrencia ocorrencia : ocorrencias) {
+            if (idsEstacao.contains(ocorrencia.getAreaAfetada().getIdEstacaoResponsavel())) {
+                ocorrenciasFiltradas.add(ocorrencia);
             }
         }
-        return null;
+        return ocorrenciasFiltradas;
     }
 
     /**
      * Salva histórico completo de ocorrências específicas de uma cidade.
      * Gera arquivo texto estruturado com formatação padronizada, incluindo
      * cabeçalhos informativos, metadados da estação e registros detalhados
-     * de todas as ocorrências da jurisdição territorial.
+     * de todas as ocorrências da cidade, de todas as estações que a compartilham.
+     * O relatório é gravado pelo {@link GravadorDuploBuffer} em um arquivo
+     * temporário que só substitui o anterior quando está completo, com a trava
+     * exclusiva da cidade obtida em {@link TravaHistorico}.
      *
-     * @param ocorrenciasDaEstacao lista filtrada de ocorrências da estação específica
+     * @param ocorrenciasDaCidade lista filtrada de ocorrências da cidade
      * @param estacaoAtual estação responsável pela jurisdição sendo salva
+     * @return true se o arquivo foi gravado com sucesso
      */
-    public static void salvarHistoricoDaCidade(ArrayList<Ocorrencia> ocorrenciasDaEstacao, EstacaoBombeiros estacaoAtual) {
-        try {
-            String nomeArquivo = "historico_" + estacaoAtual.getCidade().toLowerCase().replace(" ", "_") + ".txt";
-            java.io.FileWriter writer = new java.io.FileWriter(nomeArquivo);
-            java.io.PrintWriter printWriter = new java.io.PrintWriter(writer);
-
-            // Cabeçalho do arquivo específico da cidade
-            printWriter.println("═══════════════════════════════════════════════════════════════════════════");
-            printWriter.println("📋 HISTÓRICO DE OCORRÊNCIAS - " + estacaoAtual.getCidade().toUpperCase());
-            printWriter.println("═══════════════════════════════════════════════════════════════════════════");
-            printWriter.println("🏢 " + estacaoAtual.getNomeEstacao());
-            printWriter.println("👮 " + estacaoAtual.getNomeComandante());
-            printWriter.println("📅 Gerado em: " + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
-            printWriter.println();
-
-            if (ocorrenciasDaEstacao.isEmpty()) {
-                printWriter.println("📭 Nenhuma ocorrência registrada ainda em " + estacaoAtual.getCidade() + ".");
-            } else {
-                printWriter.println("📊 Total de registros: " + ocorrenciasDaEstacao.size());
-                printWriter.println();
-
-                // Escrever cada ocorrência da estação
-                for (Ocorrencia ocorrencia : ocorrenciasDaEstacao) {
-                    String resumoFormatado = formatarResumoParaArquivo(ocorrencia, estacaoAtual);
-                    printWriter.print(resumoFormatado);
+    @SuppressWarnings("try") // a trava só delimita o trecho protegido
+    public static boolean salvarHistoricoDaCidade(ArrayList<Ocorrencia> ocorrenciasDaCidade, EstacaoBombeiros estacaoAtual) {
+        // Outros consoles podem exportar a mesma cidade; a trava evita que gravem o mesmo temporário
+        synchronized (LogHistorico.obterTrava(estacaoAtual)) {
+            java.nio.file.Path nomeArquivo = java.nio.file.Paths.get(obterNomeBaseHistorico(estacaoAtual) + ".txt");
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacaoAtual);
+                 GravadorDuploBuffer gravador = new GravadorDuploBuffer(nomeArquivo)) {
+                // Cabeçalho do arquivo específico da cidade
+                gravador.escreverLinha("═══════════════════════════════════════════════════════════════════════════");
+                gravador.escreverLinha("📋 HISTÓRICO DE OCORRÊNCIAS - " + estacaoAtual.getCidade().toUpperCase());
+                gravador.escreverLinha("═══════════════════════════════════════════════════════════════════════════");
+                gravador.escreverLinha("🏢 " + estacaoAtual.getNomeEstacao());
+                gravador.escreverLinha("👮 " + estacaoAtual.getNomeComandante());
+                gravador.escreverLinha("📅 Gerado em: " + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
+                gravador.escreverLinha("");
+
+                if (ocorrenciasDaCidade.isEmpty()) {
+                    gravador.escreverLinha("📭 Nenhuma ocorrência registrada ainda em " + estacaoAtual.getCidade() + ".");
+                } else {
+                    gravador.escreverLinha("📊 Total de registros: " + ocorrenciasDaCidade.size());
+                    gravador.escreverLinha("");
+
+                    // Escrever cada ocorrência da cidade
+                    for (Ocorrencia ocorrencia : ocorrenciasDaCidade) {
+                        String resumoFormatado = formatarResumoParaArquivo(ocorrencia, estacaoAtual);
+                        gravador.escrever(resumoFormatado);
+                    }
                 }
-            }
 
-            printWriter.println("═══════════════════════════════════════════════════════════════════════════");
-            printWriter.println("🌲 Forest Guardian Network - " + estacaoAtual.getCidade() + " 🌲");
-            printWriter.println("═══════════════════════════════════════════════════════════════════════════");
+                gravador.escreverLinha("═══════════════════════════════════════════════════════════════════════════");
+                gravador.escreverLinha("🌲 Forest Guardian Network - " + estacaoAtual.getCidade() + " 🌲");
+                gravador.escreverLinha("═══════════════════════════════════════════════════════════════════════════");
 
-            printWriter.close();
+                gravador.publicar();
+                return true;
 
-        } catch (java.io.IOException e) {
-            System.out.println("❌ Erro ao salvar arquivo: " + e.getMessage());
+            } catch (java.io.IOException e) {
+                System.out.println("❌ Erro ao salvar arquivo: " + e.getMessage());
+                return false;
+            }
         }
     }
 
@@ -278,6 +571,8 @@ public class Arquivo {
      * Converte objeto Ocorrencia em representação textual estruturada mantendo
      * todos os dados essenciais em formato padronizado para posterior carregamento.
      * Preserva emojis e hierarquia para facilitar leitura humana e parsing automático.
+     * A data de detecção também é gravada entre colchetes em milissegundos desde a
+     * época, para que seja restaurada exatamente.
      *
      * @param ocorrencia objeto Ocorrencia a ser convertido para texto
      * @param estacaoResponsavel estação responsável pela jurisdição da ocorrência
@@ -285,15 +580,17 @@ public class Arquivo {
      */
     private static String formatarResumoParaArquivo(Ocorrencia ocorrencia, EstacaoBombeiros estacaoResponsavel) {
         StringBuilder sb = new StringBuilder();
-        java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+        long instanteDeteccao = ocorrencia.getDataHoraDeteccao().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
 
-        String emoji = "Seguro".equals(ocorrencia.getNivelRisco()) ? "✅" : "🚨";
-        String tipoOcorrencia = "Seguro".equals(ocorrencia.getNivelRisco()) ? "ÁREA SEGURA" : "INCÊNDIO";
+        String emoji = ocorrencia.isSegura() ? "✅" : "🚨";
+        String tipoOcorrencia = ocorrencia.isSegura() ? "ÁREA SEGURA" : "INCÊNDIO";
 
         sb.append(emoji).append(" #").append(ocorrencia.getIdOcorrencia()).append(" - ").append(tipoOcorrencia).append("\n");
         sb.append("    📍 ").append(ocorrencia.getAreaAfetada().getNomeArea()).append("\n");
         sb.append("    🏢 ").append(estacaoResponsavel.getCidade()).append(", ").append(estacaoResponsavel.getEstado()).append("\n");
-        sb.append("    ⚠️  ").append(ocorrencia.getNivelRisco()).append(" | 📊 ").append(ocorrencia.getStatusOcorrencia()).append(" | ⏰ ").append(ocorrencia.getDataHoraDeteccao().format(formatter)).append("\n");
+        sb.append("    ⚠️  ").append(ocorrencia.getNivelRisco()).append(" | 📊 ").append(ocorrencia.getStatusOcorrencia()).append(" | ⏰ ").append(ocorrencia.getDataHoraDeteccao().format(formatter))
+                .append(" [").append(instanteDeteccao).append("]").append("\n");
 
         if (ocorrencia.getHectaresAfetados() > 0) {
             sb.append("    🔥 ").append(ocorrencia.getHectaresAfetados()).append(" hectares afetados").append("\n");
@@ -305,7 +602,9 @@ public class Arquivo {
             sb.append("    🔍 Drone de varredura").append("\n");
         }
 
-        sb.append("    🚁 ").append(ocorrencia.getDroneVarredura().getModeloDrone()).append(" (#").append(ocorrencia.getDroneVarredura().getIdDrone()).append(")").append("\n");
+        if (ocorrencia.getDroneVarredura() != null) {
+            sb.append("    🚁 ").append(ocorrencia.getDroneVarredura().getModeloDrone()).append(" (#").append(ocorrencia.getDroneVarredura().getIdDrone()).append(")").append("\n");
+        }
 
         if (ocorrencia.getUsuarioDenunciante() != null) {
             sb.append("    👤 Denúncia: ").append(ocorrencia.getUsuarioDenunciante().getNome()).append("\n");
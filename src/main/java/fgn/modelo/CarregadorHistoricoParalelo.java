@@ -0,0 +1,478 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>
+ * Esta classe implementa o carregamento paralelo de arquivos de histórico grandes
+ * do sistema Forest Guardian Network. O arquivo é dividido em blocos de
+ * aproximadamente {@link #TAMANHO_BLOCO} bytes, sempre em fronteiras de registro:
+ * deslocamentos múltiplos de {@link RegistroBinario#TAMANHO_REGISTRO} no histórico
+ * binário e linhas de cabeçalho 🚨/✅ no relatório texto.
+ * </p>
+ * <p>
+ * Cada bloco é mapeado em memória separadamente e interpretado por uma tarefa do
+ * {@link ForkJoinPool} comum, o que permite ler arquivos maiores que 2 GB e faz o
+ * tempo de carregamento escalar com o número de núcleos. Os resultados parciais
+ * são combinados na ordem do arquivo, de modo que a última versão de cada ID
+ * prevalece, e entregues ordenados por ID.
+ * </p>
+ * <p>
+ * Segmentos selados comprimidos pelo {@link SegmentoComprimido} são lidos da
+ * mesma forma, com cada tarefa descomprimindo um único bloco.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class CarregadorHistoricoParalelo {
+    /**
+     * Tamanho aproximado em bytes de cada bloco interpretado por uma tarefa
+     */
+    public static final int TAMANHO_BLOCO = 16 * 1024 * 1024;
+    /**
+     * Tamanho da janela lida ao procurar o próximo cabeçalho de registro no texto
+     */
+    private static final int TAMANHO_JANELA_BUSCA = 64 * 1024;
+
+    /**
+     * <p>
+     * Resultado de um carregamento: ocorrências distintas em ordem de ID e
+     * contadores de registros lidos e descartados.
+     * </p>
+     */
+    public static class Resultado {
+        private final ArrayList<Ocorrencia> ocorrencias;
+        private final int registrosLidos;
+        private final int registrosDescartados;
+        private final boolean registroIncompleto;
+
+        private Resultado(ArrayList<Ocorrencia> ocorrencias, int registrosLidos, int registrosDescartados, boolean registroIncompleto) {
+            this.ocorrencias = ocorrencias;
+            this.registrosLidos = registrosLidos;
+            this.registrosDescartados = registrosDescartados;
+            this.registroIncompleto = registroIncompleto;
+        }
+
+        /**
+         * Obtém a versão mais recente de cada ocorrência carregada, ordenadas por ID.
+         *
+         * @return lista de ocorrências carregadas
+         */
+        public ArrayList<Ocorrencia> getOcorrencias() {
+            return ocorrencias;
+        }
+
+        /**
+         * Obtém a quantidade total de registros lidos, incluindo versões superadas.
+         *
+         * @return registros lidos
+         */
+        public int getRegistrosLidos() {
+            return registrosLidos;
+        }
+
+        /**
+         * Obtém a quantidade de registros descartados por área desconhecida ou dados incompletos.
+         *
+         * @return registros descartados
+         */
+        public int getRegistrosDescartados() {
+            return registrosDescartados;
+        }
+
+        /**
+         * Indica se o histórico binário termina com um registro incompleto, que foi ignorado.
+         *
+         * @return true se havia bytes excedentes no final do arquivo
+         */
+        public boolean isRegistroIncompleto() {
+            return registroIncompleto;
+        }
+    }
+
+    /**
+     * Resultado parcial de um ou mais blocos consecutivos do arquivo.
+     */
+    private static class Parcial {
+        final HashMap<Integer, Ocorrencia> porId = new HashMap<>();
+        int lidos;
+        int descartados;
+
+        /**
+         * Acrescenta o resultado de blocos posteriores; suas versões prevalecem.
+         */
+        Parcial combinar(Parcial posterior) {
+            porId.putAll(posterior.porId);
+            lidos += posterior.lidos;
+            descartados += posterior.descartados;
+            return this;
+        }
+    }
+
+    /**
+     * Interpreta um único bloco do arquivo, já delimitado em fronteiras de registro.
+     */
+    @FunctionalInterface
+    private interface LeitorBloco {
+        Parcial ler(ByteBuffer bloco);
+    }
+
+    /**
+     * Obtém o conteúdo de um bloco pelo índice: um trecho mapeado do arquivo ou um
+     * bloco descomprimido de um {@link SegmentoComprimido}.
+     */
+    @FunctionalInterface
+    private interface FonteBloco {
+        ByteBuffer abrir(int indice) throws IOException;
+    }
+
+    /**
+     * Tarefa de divisão e conquista sobre um intervalo de blocos.
+     */
+    private static class TarefaBlocos extends RecursiveTask<Parcial> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient FonteBloco fonte;
+        private final int primeiro;
+        private final int ultimo;
+        private final transient LeitorBloco leitor;
+
+        TarefaBlocos(FonteBloco fonte, int primeiro, int ultimo, LeitorBloco leitor) {
+            this.fonte = fonte;
+            this.primeiro = primeiro;
+            this.ultimo = ultimo;
+            this.leitor = leitor;
+        }
+
+        @Override
+        protected Parcial compute() {
+            if (ultimo - primeiro == 1) {
+                try {
+                    return leitor.ler(fonte.abrir(primeiro));
+                } catch (IOException e) {
+                    throw new java.io.UncheckedIOException(e);
+                }
+            }
+
+            int meio = (primeiro + ultimo) >>> 1;
+            TarefaBlocos anterior = new TarefaBlocos(fonte, primeiro, meio, leitor);
+            TarefaBlocos posterior = new TarefaBlocos(fonte, meio, ultimo, leitor);
+            posterior.fork();
+            Parcial resultado = anterior.compute();
+            return resultado.combinar(posterior.join());
+        }
+    }
+
+    /**
+     * Carrega um histórico binário dividindo-o em blocos de registros inteiros.
+     *
+     * @param caminho caminho do arquivo {@code .dat}
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return resultado do carregamento ou null se o cabeçalho for incompatível
+     * @throws IOException se não for possível ler o arquivo
+     */
+    public static Resultado carregarBinario(Path caminho, CatalogoEntidades catalogo) throws IOException {
+        return carregarBinario(caminho, catalogo, TAMANHO_BLOCO);
+    }
+
+    /**
+     * Carrega um histórico binário utilizando o tamanho de bloco informado.
+     */
+    static Resultado carregarBinario(Path caminho, CatalogoEntidades catalogo, int tamanhoBloco) throws IOException {
+        return carregarBinario(caminho, 0, catalogo, tamanhoBloco);
+    }
+
+    /**
+     * Carrega um histórico binário ignorando os registros iniciais, utilizado para
+     * reaplicar apenas o final de um segmento já coberto por um instantâneo.
+     *
+     * @param caminho caminho do arquivo {@code .dat}
+     * @param primeiroRegistro quantidade de registros iniciais ignorados
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return resultado do carregamento ou null se o cabeçalho for incompatível
+     * @throws IOException se não for possível ler o arquivo
+     */
+    public static Resultado carregarBinario(Path caminho, long primeiroRegistro, CatalogoEntidades catalogo) throws IOException {
+        return carregarBinario(caminho, primeiroRegistro, catalogo, TAMANHO_BLOCO);
+    }
+
+    /**
+     * Valida o cabeçalho do histórico e carrega os registros a partir do informado.
+     * Segmentos comprimidos são descomprimidos um bloco por tarefa.
+     */
+    private static Resultado carregarBinario(Path caminho, long primeiroRegistro, CatalogoEntidades catalogo, int tamanhoBloco) throws IOException {
+        try (SegmentoComprimido.Leitor segmento = SegmentoComprimido.Leitor.abrir(caminho)) {
+            ByteBuffer cabecalho = segmento.getCabecalho();
+            if (!RegistroBinario.validarCabecalho(cabecalho)) {
+                return null;
+            }
+            boolean aceitarSemCrc = RegistroBinario.aceitaRegistrosSemCrc(cabecalho);
+            if (segmento.isComprimido()) {
+                return carregarComprimido(segmento, primeiroRegistro, catalogo, aceitarSemCrc);
+            }
+        }
+
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO);
+            canal.read(cabecalho, 0);
+            cabecalho.flip();
+            long inicio = RegistroBinario.TAMANHO_CABECALHO + primeiroRegistro * RegistroBinario.TAMANHO_REGISTRO;
+            return carregarRegistros(canal, Math.min(inicio, canal.size()), canal.size(),
+                    catalogo, tamanhoBloco, RegistroBinario.aceitaRegistrosSemCrc(cabecalho));
+        }
+    }
+
+    /**
+     * Carrega registros binários contíguos gravados em um trecho de um arquivo
+     * qualquer, sem cabeçalho de histórico, como as ocorrências de um instantâneo.
+     *
+     * @param caminho caminho do arquivo
+     * @param inicio posição do primeiro registro
+     * @param fim posição imediatamente após o último registro
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return resultado do carregamento
+     * @throws IOException se não for possível ler o arquivo
+     */
+    static Resultado carregarIntervalo(Path caminho, long inicio, long fim, CatalogoEntidades catalogo) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            return carregarRegistros(canal, inicio, fim, catalogo, TAMANHO_BLOCO, false);
+        }
+    }
+
+    /**
+     * Divide o trecho [inicio, fim) em blocos de registros inteiros e os interpreta em paralelo.
+     */
+    private static Resultado carregarRegistros(FileChannel canal, long inicio, long fim,
+                                               CatalogoEntidades catalogo, int tamanhoBloco, boolean aceitarSemCrc) throws IOException {
+        long bytesRegistros = fim - inicio;
+        long totalRegistros = bytesRegistros / RegistroBinario.TAMANHO_REGISTRO;
+        long registrosPorBloco = Math.max(1, tamanhoBloco / RegistroBinario.TAMANHO_REGISTRO);
+        int quantidadeBlocos = (int) Math.max(1, (totalRegistros + registrosPorBloco - 1) / registrosPorBloco);
+
+        long[] limites = new long[quantidadeBlocos + 1];
+        for (int i = 0; i <= quantidadeBlocos; i++) {
+            long registro = Math.min(totalRegistros, i * registrosPorBloco);
+            limites[i] = inicio + registro * RegistroBinario.TAMANHO_REGISTRO;
+        }
+
+        Parcial parcial = executar(canal, limites, decodificador(catalogo, aceitarSemCrc));
+        return finalizar(parcial, bytesRegistros % RegistroBinario.TAMANHO_REGISTRO != 0);
+    }
+
+    /**
+     * Interpreta em paralelo os blocos de um segmento comprimido a partir do registro informado.
+     */
+    private static Resultado carregarComprimido(SegmentoComprimido.Leitor segmento, long primeiroRegistro,
+                                                CatalogoEntidades catalogo, boolean aceitarSemCrc) throws IOException {
+        int primeiroBloco = (int) (primeiroRegistro / segmento.getRegistrosPorBloco());
+        int quantidadeBlocos = segmento.getQuantidadeBlocos() - primeiroBloco;
+        if (quantidadeBlocos <= 0) {
+            return finalizar(new Parcial(), false);
+        }
+
+        int pular = (int) (primeiroRegistro % segmento.getRegistrosPorBloco()) * RegistroBinario.TAMANHO_REGISTRO;
+        Parcial parcial = executar(indice -> {
+            ByteBuffer bloco = segmento.lerBloco(primeiroBloco + indice);
+            return indice == 0 ? bloco.slice(pular, bloco.limit() - pular) : bloco;
+        }, quantidadeBlocos, decodificador(catalogo, aceitarSemCrc));
+        return finalizar(parcial, false);
+    }
+
+    /**
+     * Cria o interpretador de blocos de registros binários. Registros com CRC
+     * inválido são contados como descartados; lápides de limpeza são ignoradas.
+     */
+    private static LeitorBloco decodificador(CatalogoEntidades catalogo, boolean aceitarSemCrc) {
+        return bloco -> {
+            Parcial resultado = new Parcial();
+            CRC32C crc = new CRC32C();
+            for (int posicao = 0; posicao + RegistroBinario.TAMANHO_REGISTRO <= bloco.limit();
+                 posicao += RegistroBinario.TAMANHO_REGISTRO) {
+                boolean integro = RegistroBinario.isIntegro(bloco, posicao, crc, aceitarSemCrc);
+                resultado.lidos++;
+                if (integro && !RegistroBinario.isOcorrencia(bloco, posicao)) {
+                    continue; // Lápide de limpeza, aplicada através do manifesto
+                }
+                Ocorrencia ocorrencia = integro ? RegistroBinario.ler(bloco, posicao, catalogo) : null;
+                if (ocorrencia == null) {
+                    resultado.descartados++;
+                } else {
+                    resultado.porId.put(ocorrencia.getIdOcorrencia(), ocorrencia);
+                }
+            }
+            return resultado;
+        };
+    }
+
+    /**
+     * Carrega um relatório texto legado dividindo-o nas linhas de cabeçalho 🚨/✅.
+     * Cada tarefa utiliza sua própria instância de {@link ParserHistoricoTexto}.
+     *
+     * @param caminho caminho do arquivo {@code .txt}
+     * @param catalogo catálogo de áreas e sensores, associados pelo nome, e de drones, associados por ID
+     * @return resultado do carregamento
+     * @throws IOException se não for possível ler o arquivo
+     */
+    public static Resultado carregarTexto(Path caminho, CatalogoEntidades catalogo) throws IOException {
+        return carregarTexto(caminho, catalogo, TAMANHO_BLOCO);
+    }
+
+    /**
+     * Carrega um relatório texto utilizando o tamanho de bloco informado.
+     */
+    static Resultado carregarTexto(Path caminho, CatalogoEntidades catalogo, int tamanhoBloco) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+
+            ArrayList<Long> inicios = new ArrayList<>();
+            inicios.add(0L);
+            long alvo = tamanhoBloco;
+            while (alvo < tamanho) {
+                long inicio = buscarInicioRegistro(canal, alvo, tamanho);
+                if (inicio >= tamanho) {
+                    break;
+                }
+                if (inicio - inicios.get(inicios.size() - 1) > Integer.MAX_VALUE) {
+                    throw new IOException("Registro de histórico excede 2 GB na posição " + inicio);
+                }
+                inicios.add(inicio);
+                alvo = inicio + tamanhoBloco;
+            }
+
+            long[] limites = new long[inicios.size() + 1];
+            for (int i = 0; i < inicios.size(); i++) {
+                limites[i] = inicios.get(i);
+            }
+            limites[inicios.size()] = tamanho;
+
+            Parcial parcial = executar(canal, limites, bloco -> {
+                ParserHistoricoTexto parser = new ParserHistoricoTexto(catalogo);
+                Parcial resultado = new Parcial();
+                resultado.lidos = parser.analisar(bloco, registro -> {
+                    Ocorrencia ocorrencia = parser.criarOcorrencia(registro);
+                    resultado.porId.put(ocorrencia.getIdOcorrencia(), ocorrencia);
+                });
+                resultado.descartados = parser.getRegistrosDescartados();
+                resultado.lidos += resultado.descartados;
+                return resultado;
+            });
+
+            return finalizar(parcial, false);
+        }
+    }
+
+    /**
+     * Aplica as ocorrências carregadas sobre a lista do sistema: IDs existentes na
+     * mesma estação são substituídos na mesma posição e os demais são acrescentados
+     * em ordem de ID. Cidades diferentes podem repetir IDs, por isso a estação faz
+     * parte da chave.
+     *
+     * @param ocorrencias lista de ocorrências do sistema
+     * @param carregadas ocorrências carregadas, ordenadas por ID
+     * @return quantidade de ocorrências novas acrescentadas
+     */
+    public static int mesclarPorId(ArrayList<Ocorrencia> ocorrencias, ArrayList<Ocorrencia> carregadas) {
+        HashMap<Long, Integer> posicaoPorId = new HashMap<>();
+        for (int i = 0; i < ocorrencias.size(); i++) {
+            posicaoPorId.put(chaveEstacaoId(ocorrencias.get(i)), i);
+        }
+
+        int novas = 0;
+        for (Ocorrencia ocorrencia : carregadas) {
+            Integer posicao = posicaoPorId.get(chaveEstacaoId(ocorrencia));
+            if (posicao != null) {
+                ocorrencias.set(posicao, ocorrencia);
+            } else {
+                ocorrencias.add(ocorrencia);
+                novas++;
+            }
+        }
+        return novas;
+    }
+
+    /**
+     * Obtém a chave da ocorrência: estação nos 32 bits altos e ID nos baixos.
+     */
+    private static long chaveEstacaoId(Ocorrencia ocorrencia) {
+        return ((long) ocorrencia.getAreaAfetada().getIdEstacaoResponsavel() << 32)
+                | (ocorrencia.getIdOcorrencia() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Executa a leitura dos blocos delimitados no pool comum, diretamente na
+     * thread atual quando há apenas um bloco.
+     */
+    private static Parcial executar(FileChannel canal, long[] limites, LeitorBloco leitor) throws IOException {
+        return executar(indice -> canal.map(FileChannel.MapMode.READ_ONLY, limites[indice],
+                limites[indice + 1] - limites[indice]), limites.length - 1, leitor);
+    }
+
+    /**
+     * Executa a leitura dos blocos obtidos da fonte no pool comum, diretamente na
+     * thread atual quando há apenas um bloco.
+     */
+    private static Parcial executar(FonteBloco fonte, int quantidadeBlocos, LeitorBloco leitor) throws IOException {
+        TarefaBlocos tarefa = new TarefaBlocos(fonte, 0, quantidadeBlocos, leitor);
+        try {
+            return quantidadeBlocos == 1 ? tarefa.compute() : ForkJoinPool.commonPool().invoke(tarefa);
+        } catch (java.io.UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Ordena as ocorrências distintas por ID e monta o resultado final.
+     */
+    private static Resultado finalizar(Parcial parcial, boolean registroIncompleto) {
+        Ocorrencia[] ordenadas = parcial.porId.values().toArray(new Ocorrencia[0]);
+        Arrays.parallelSort(ordenadas, Comparator.comparingInt(Ocorrencia::getIdOcorrencia));
+        return new Resultado(new ArrayList<>(Arrays.asList(ordenadas)), parcial.lidos, parcial.descartados, registroIncompleto);
+    }
+
+    /**
+     * Procura a primeira linha de cabeçalho de registro a partir da posição informada.
+     *
+     * @param canal canal do relatório texto
+     * @param aPartirDe posição absoluta onde a busca começa
+     * @param tamanho tamanho do arquivo
+     * @return posição absoluta do início da linha de cabeçalho ou {@code tamanho} se não houver
+     * @throws IOException se não for possível ler o arquivo
+     */
+    private static long buscarInicioRegistro(FileChannel canal, long aPartirDe, long tamanho) throws IOException {
+        ByteBuffer janela = ByteBuffer.allocate(TAMANHO_JANELA_BUSCA);
+        long posicao = aPartirDe;
+
+        while (posicao < tamanho) {
+            janela.clear();
+            int lidos = canal.read(janela, posicao);
+            if (lidos <= 0) {
+                break;
+            }
+
+            for (int i = 0; i < lidos; i++) {
+                if (janela.get(i) == '\n' && ParserHistoricoTexto.iniciaRegistro(janela, i + 1, lidos)) {
+                    return posicao + i + 1;
+                }
+            }
+
+            if (posicao + lidos >= tamanho) {
+                break;
+            }
+            // Sobreposição para não perder um cabeçalho dividido entre duas janelas
+            posicao += lidos - ParserHistoricoTexto.TAMANHO_MAXIMO_MARCA;
+        }
+        return tamanho;
+    }
+}
@@ -26,31 +26,26 @@ public class Casos {
      * Registra uma nova ocorrência de incêndio detectada por sensores durante varredura.
      * Executa processo completo incluindo seleção de drone, varredura aérea, escolha
      * de área afetada, quantificação de hectares, análise por sensor e cálculo de
-     * tempo de chegada. Persiste automaticamente os dados no arquivo da cidade.
+     * tempo de chegada. Persiste automaticamente os dados no log da cidade.
      *
-     * @param areasFlorestais lista de áreas florestais disponíveis para seleção
-     * @param sensores lista de sensores disponíveis para detecção
-     * @param drones lista de drones disponíveis para varredura
+     * @param catalogo catálogo de áreas, sensores e drones do sistema
      * @param ocorrencias lista de ocorrências onde será adicionado o novo registro
-     * @param proximoIdOcorrencia próximo ID disponível para a nova ocorrência
      * @param estacaoAtual estação de bombeiros executando o registro
      * @param estacoes lista completa de estações para referência
      * @param scanner objeto Scanner para captura de entrada do usuário
-     * @return ID incrementado para próxima ocorrência ou ID original em caso de erro
      */
-    public static int registrarNovaOcorrencia(ArrayList<AreaFlorestal> areasFlorestais, ArrayList<Sensor> sensores, ArrayList<Drone> drones,
-                                              ArrayList<Ocorrencia> ocorrencias, int proximoIdOcorrencia,
+    public static void registrarNovaOcorrencia(CatalogoEntidades catalogo, RepositorioOcorrencias ocorrencias,
                                               EstacaoBombeiros estacaoAtual, ArrayList<EstacaoBombeiros> estacoes, Scanner scanner) {
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println("🚨 REGISTRAR NOVA OCORRÊNCIA DE INCÊNDIO");
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println();
 
-        Drone droneSelecionado = obterDroneDaEstacao(drones, estacaoAtual.getIdEstacao());
+        Drone droneSelecionado = catalogo.obterDroneDaEstacao(estacaoAtual.getIdEstacao());
 
         if (droneSelecionado == null) {
             System.out.println("❌ Nenhum drone disponível para esta estação.");
-            return proximoIdOcorrencia;
+            return;
         }
 
         try {
@@ -76,11 +71,11 @@ public class Casos {
             System.out.println();
 
             // Listar áreas florestais da estação atual
-            ArrayList<AreaFlorestal> areasDisponiveis = obterAreasFlorestaisPorEstacao(areasFlorestais, estacaoAtual.getIdEstacao());
+            ArrayList<AreaFlorestal> areasDisponiveis = obterAreasFlorestaisPorEstacao(catalogo.getAreasFlorestais(), estacaoAtual.getIdEstacao());
 
             if (areasDisponiveis.isEmpty()) {
                 System.out.println("❌ Nenhuma área florestal cadastrada para esta estação.");
-                return proximoIdOcorrencia;
+                return;
             }
 
             for (AreaFlorestal area : areasDisponiveis) {
@@ -92,11 +87,11 @@ public class Casos {
             int opcaoArea = scanner.nextInt();
             scanner.nextLine(); // Limpa o buffer
 
-            AreaFlorestal areaSelecionada = buscarAreaPorId(opcaoArea, areasDisponiveis);
+            AreaFlorestal areaSelecionada = buscarAreaDaEstacao(catalogo, opcaoArea, estacaoAtual.getIdEstacao());
 
             if (areaSelecionada == null) {
                 System.out.println("❌ Opção inválida!");
-                return proximoIdOcorrencia;
+                return;
             }
 
             System.out.println();
@@ -107,13 +102,13 @@ public class Casos {
 
             if (hectares < 1 || hectares > 200) {
                 System.out.println("❌ Valor inválido! Deve estar entre 1 e 200 hectares.");
-                return proximoIdOcorrencia;
+                return;
             }
 
             System.out.println();
             System.out.println("🔍 Identificado por:");
 
-            for (Sensor sensor : sensores) {
+            for (Sensor sensor : catalogo.getSensores()) {
                 sensor.exibirInformacoes();
             }
 
@@ -122,11 +117,11 @@ public class Casos {
             int opcaoSensor = scanner.nextInt();
             scanner.nextLine(); // Limpa o buffer
 
-            Sensor sensorSelecionado = buscarSensorPorId(opcaoSensor, sensores);
+            Sensor sensorSelecionado = catalogo.buscarSensor(opcaoSensor);
 
             if (sensorSelecionado == null) {
                 System.out.println("❌ Sensor inválido!");
-                return proximoIdOcorrencia;
+                return;
             }
 
             // Sensor operando após seleção
@@ -150,9 +145,14 @@ public class Casos {
             // Calcular tempo de chegada (velocidade média 75 km/h)
             int tempoChegada = Ocorrencia.calcularTempoChegada(areaSelecionada.getDistanciaKm(), 75);
 
+            int idOcorrencia = Arquivo.reservarIdOcorrencia(estacaoAtual);
+            if (idOcorrencia < 0) {
+                return;
+            }
+
             // Criar nova ocorrência
             Ocorrencia novaOcorrencia = new Ocorrencia(
-                    proximoIdOcorrencia,
+                    idOcorrencia,
                     areaSelecionada,
                     hectares,
                     sensorSelecionado,
@@ -165,15 +165,11 @@ public class Casos {
             System.out.println();
             novaOcorrencia.exibirRelatorio(estacaoAtual);
 
-            ArrayList<Ocorrencia> ocorrenciasDaEstacao = filtrarOcorrenciasPorEstacao(ocorrencias, estacaoAtual.getIdEstacao());
-            Arquivo.salvarHistoricoDaCidade(ocorrenciasDaEstacao, estacaoAtual);
-
-            return proximoIdOcorrencia + 1;
+            Arquivo.registrarOcorrencia(novaOcorrencia, ocorrencias, estacaoAtual);
 
         } catch (Exception e) {
             System.out.println("❌ Entrada inválida! Digite apenas números.");
             scanner.nextLine(); // Limpa o buffer em caso de erro
-            return proximoIdOcorrencia;
         }
     }
 
@@ -183,28 +179,24 @@ public class Casos {
      * permitindo seleção de área e registro de confirmação de segurança.
      * Ideal para monitoramento preventivo e verificação de áreas suspeitas.
      *
-     * @param areasFlorestais lista de áreas florestais disponíveis para verificação
-     * @param drones lista de drones disponíveis para averiguação
+     * @param catalogo catálogo de áreas e drones do sistema
      * @param ocorrencias lista de ocorrências onde será registrada a área segura
-     * @param proximoIdOcorrencia próximo ID disponível para o novo registro
      * @param estacaoAtual estação de bombeiros executando a verificação
      * @param estacoes lista completa de estações para referência
      * @param scanner objeto Scanner para captura de entrada do usuário
-     * @return ID incrementado para próxima ocorrência ou ID original em caso de erro
      */
-    public static int registrarAreaSegura(ArrayList<AreaFlorestal> areasFlorestais, ArrayList<Drone> drones,
-                                          ArrayList<Ocorrencia> ocorrencias, int proximoIdOcorrencia,
+    public static void registrarAreaSegura(CatalogoEntidades catalogo, RepositorioOcorrencias ocorrencias,
                                           EstacaoBombeiros estacaoAtual, ArrayList<EstacaoBombeiros> estacoes, Scanner scanner) {
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println("✅ REGISTRAR ÁREA SEGURA");
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println();
 
-        Drone droneSelecionado = obterDroneDaEstacao(drones, estacaoAtual.getIdEstacao());
+        Drone droneSelecionado = catalogo.obterDroneDaEstacao(estacaoAtual.getIdEstacao());
 
         if (droneSelecionado == null) {
             System.out.println("❌ Nenhum drone disponível para esta estação.");
-            return proximoIdOcorrencia;
+            return;
         }
 
         try {
@@ -229,11 +221,11 @@ public class Casos {
             System.out.println();
 
             // Listar áreas florestais da estação atual
-            ArrayList<AreaFlorestal> areasDisponiveis = obterAreasFlorestaisPorEstacao(areasFlorestais, estacaoAtual.getIdEstacao());
+            ArrayList<AreaFlorestal> areasDisponiveis = obterAreasFlorestaisPorEstacao(catalogo.getAreasFlorestais(), estacaoAtual.getIdEstacao());
 
             if (areasDisponiveis.isEmpty()) {
                 System.out.println("❌ Nenhuma área florestal cadastrada para esta estação.");
-                return proximoIdOcorrencia;
+                return;
             }
 
             System.out.println("📍 Escolha o local onde foi feita a averiguação:");
@@ -248,16 +240,21 @@ public class Casos {
             int opcaoArea = scanner.nextInt();
             scanner.nextLine(); // Limpa o buffer
 
-            AreaFlorestal areaSelecionada = buscarAreaPorId(opcaoArea, areasDisponiveis);
+            AreaFlorestal areaSelecionada = buscarAreaDaEstacao(catalogo, opcaoArea, estacaoAtual.getIdEstacao());
 
             if (areaSelecionada == null) {
                 System.out.println("❌ Opção inválida!");
-                return proximoIdOcorrencia;
+                return;
+            }
+
+            int idOcorrencia = Arquivo.reservarIdOcorrencia(estacaoAtual);
+            if (idOcorrencia < 0) {
+                return;
             }
 
             // Criar registro de área segura
             Ocorrencia areaSegura = new Ocorrencia(
-                    proximoIdOcorrencia,
+                    idOcorrencia,
                     areaSelecionada,
                     droneSelecionado
             );
@@ -267,15 +264,11 @@ public class Casos {
             System.out.println();
             areaSegura.exibirRelatorio(estacaoAtual);
 
-            ArrayList<Ocorrencia> ocorrenciasDaEstacao = filtrarOcorrenciasPorEstacao(ocorrencias, estacaoAtual.getIdEstacao());
-            Arquivo.salvarHistoricoDaCidade(ocorrenciasDaEstacao, estacaoAtual);
-
-            return proximoIdOcorrencia + 1;
+            Arquivo.registrarOcorrencia(areaSegura, ocorrencias, estacaoAtual);
 
         } catch (Exception e) {
             System.out.println("❌ Entrada inválida! Digite apenas números.");
             scanner.nextLine(); // Limpa o buffer em caso de erro
-            return proximoIdOcorrencia;
         }
     }
 
@@ -285,17 +278,13 @@ public class Casos {
      * seleção de área reportada, avaliação de nível de risco percebido,
      * verificação aérea e registro conforme resultado real encontrado.
      *
-     * @param areasFlorestais lista de áreas florestais disponíveis para denúncia
-     * @param drones lista de drones disponíveis para verificação
+     * @param catalogo catálogo de áreas, drones e denunciantes do sistema
      * @param ocorrencias lista de ocorrências onde será registrado o resultado
-     * @param proximoIdOcorrencia próximo ID disponível para novo registro
      * @param estacaoAtual estação de bombeiros processando a denúncia
      * @param estacoes lista completa de estações para referência
      * @param scanner objeto Scanner para captura de entrada do usuário
-     * @return ID incrementado para próxima ocorrência ou ID original em caso de erro
      */
-    public static int relatarDenunciaUsuario(ArrayList<AreaFlorestal> areasFlorestais, ArrayList<Drone> drones,
-                                             ArrayList<Ocorrencia> ocorrencias, int proximoIdOcorrencia,
+    public static void relatarDenunciaUsuario(CatalogoEntidades catalogo, RepositorioOcorrencias ocorrencias,
                                              EstacaoBombeiros estacaoAtual, ArrayList<EstacaoBombeiros> estacoes, Scanner scanner) {
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println("📱 RELATAR DENÚNCIA DE USUÁRIO");
@@ -317,7 +306,7 @@ public class Casos {
                 if (!Usuario.validarNome(nome)) {
                     System.out.println("❌ Nome inválido! Use apenas letras e espaços, começando por uma letra.");
                     System.out.println("Retornando ao menu anterior...");
-                    return proximoIdOcorrencia;
+                    return;
                 }
                 nomeValido = true;
             } while (!nomeValido);
@@ -333,21 +322,21 @@ public class Casos {
                 dataNascimento = Usuario.solicitarDataNascimento(scanner);
             } catch (Exception e) {
                 System.out.println("❌ Dados pessoais inválidos! Retornando ao menu anterior...");
-                return proximoIdOcorrencia;
+                return;
             }
 
-            Usuario usuario = new Usuario(nome, cpf, dataNascimento);
+            Usuario usuario = catalogo.internarUsuario(nome, cpf, dataNascimento);
 
             System.out.println();
             System.out.println("✅ Dados do usuário registrados com sucesso!");
             System.out.println();
 
             // 2. Listar áreas florestais da estação atual
-            ArrayList<AreaFlorestal> areasDisponiveis = obterAreasFlorestaisPorEstacao(areasFlorestais, estacaoAtual.getIdEstacao());
+            ArrayList<AreaFlorestal> areasDisponiveis = obterAreasFlorestaisPorEstacao(catalogo.getAreasFlorestais(), estacaoAtual.getIdEstacao());
 
             if (areasDisponiveis.isEmpty()) {
                 System.out.println("❌ Nenhuma área florestal cadastrada para esta estação.");
-                return proximoIdOcorrencia;
+                return;
             }
 
             AreaFlorestal areaSelecionada = null;
@@ -368,7 +357,7 @@ public class Casos {
                     int opcaoArea = scanner.nextInt();
                     scanner.nextLine(); // Limpa o buffer
 
-                    areaSelecionada = buscarAreaPorId(opcaoArea, areasDisponiveis);
+                    areaSelecionada = buscarAreaDaEstacao(catalogo, opcaoArea, estacaoAtual.getIdEstacao());
 
                     if (areaSelecionada != null) {
                         areaValida = true;
@@ -415,11 +404,11 @@ public class Casos {
             }
 
             // 4. Selecionar drone para varredura
-            Drone droneSelecionado = obterDroneDaEstacao(drones, estacaoAtual.getIdEstacao());
+            Drone droneSelecionado = catalogo.obterDroneDaEstacao(estacaoAtual.getIdEstacao());
 
             if (droneSelecionado == null) {
                 System.out.println("❌ Nenhum drone disponível para esta estação.");
-                return proximoIdOcorrencia;
+                return;
             }
 
             // 5. Mostrar que drone está a caminho
@@ -454,9 +443,13 @@ public class Casos {
                 // 7a. Área é verídica - registrar ocorrência com risco informado
                 int hectares = calcularHectaresPorRisco(nivelRisco);
                 int tempoChegada = Ocorrencia.calcularTempoChegada(areaSelecionada.getDistanciaKm(), 75);
+                int idOcorrencia = Arquivo.reservarIdOcorrencia(estacaoAtual);
+                if (idOcorrencia < 0) {
+                    return;
+                }
 
                 Ocorrencia novaOcorrencia = new Ocorrencia(
-                        proximoIdOcorrencia,
+                        idOcorrencia,
                         areaSelecionada,
                         hectares,
                         droneSelecionado,
@@ -471,8 +464,7 @@ public class Casos {
                 System.out.println();
                 novaOcorrencia.exibirRelatorio(estacaoAtual);
 
-                ArrayList<Ocorrencia> ocorrenciasDaEstacao = filtrarOcorrenciasPorEstacao(ocorrencias, estacaoAtual.getIdEstacao());
-                Arquivo.salvarHistoricoDaCidade(ocorrenciasDaEstacao, estacaoAtual);
+                Arquivo.registrarOcorrencia(novaOcorrencia, ocorrencias, estacaoAtual);
 
             } else if ("N".equals(resposta) || "NÃO".equals(resposta) || "NAO".equals(resposta)) {
                 // 7b. Área não é verídica - perguntar hectares
@@ -485,21 +477,26 @@ public class Casos {
 
                 if (hectaresReais < 0 || hectaresReais > 200) {
                     System.out.println("❌ Valor inválido! Deve estar entre 0 e 200 hectares.");
-                    return proximoIdOcorrencia;
+                    return;
+                }
+
+                int idOcorrencia = Arquivo.reservarIdOcorrencia(estacaoAtual);
+                if (idOcorrencia < 0) {
+                    return;
                 }
 
                 Ocorrencia ocorrencia;
 
                 if (hectaresReais == 0) {
                     // Área segura
-                    ocorrencia = new Ocorrencia(proximoIdOcorrencia, areaSelecionada, droneSelecionado, usuario);
+                    ocorrencia = new Ocorrencia(idOcorrencia, areaSelecionada, droneSelecionado, usuario);
                     System.out.println();
                     System.out.println("✅ ÁREA CONFIRMADA COMO SEGURA!");
                 } else {
                     // Ocorrência com hectares reais
                     int tempoChegada = Ocorrencia.calcularTempoChegada(areaSelecionada.getDistanciaKm(), 75);
                     ocorrencia = new Ocorrencia(
-                            proximoIdOcorrencia,
+                            idOcorrencia,
                             areaSelecionada,
                             hectaresReais,
                             droneSelecionado,
@@ -515,45 +512,35 @@ public class Casos {
                 System.out.println();
                 ocorrencia.exibirRelatorio(estacaoAtual);
 
-                ArrayList<Ocorrencia> ocorrenciasDaEstacao = filtrarOcorrenciasPorEstacao(ocorrencias, estacaoAtual.getIdEstacao());
-                Arquivo.salvarHistoricoDaCidade(ocorrenciasDaEstacao, estacaoAtual);
+                Arquivo.registrarOcorrencia(ocorrencia, ocorrencias, estacaoAtual);
 
             } else {
                 System.out.println("❌ Resposta inválida! Digite S para Sim ou N para Não.");
-                return proximoIdOcorrencia;
             }
 
-            return proximoIdOcorrencia + 1;
-
         } catch (Exception e) {
             System.out.println("❌ Erro durante o processamento da denúncia!");
             scanner.nextLine(); // Limpa o buffer em caso de erro
-            return proximoIdOcorrencia;
         }
     }
 
     /**
      * Lista todas as ocorrências registradas por uma estação específica.
-     * Filtra registros por jurisdição da estação, exibe resumos formatados
-     * e salva automaticamente o histórico atualizado no arquivo da cidade.
+     * Filtra registros por jurisdição da estação e exibe resumos formatados.
+     * Operação somente de leitura: não realiza nenhuma gravação em arquivo.
      *
      * @param ocorrencias lista completa de ocorrências do sistema
      * @param estacoes lista de estações para referência (parâmetro para compatibilidade)
      * @param estacaoAtual estação de bombeiros cuja jurisdição será listada
      */
-    public static void listarOcorrenciasDaEstacao(ArrayList<Ocorrencia> ocorrencias, ArrayList<EstacaoBombeiros> estacoes, EstacaoBombeiros estacaoAtual) {
+    public static void listarOcorrenciasDaEstacao(RepositorioOcorrencias ocorrencias, ArrayList<EstacaoBombeiros> estacoes, EstacaoBombeiros estacaoAtual) {
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println("📋 OCORRÊNCIAS DE " + estacaoAtual.getCidade().toUpperCase());
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println();
 
         // Filtrar ocorrências apenas da estação atual
-        ArrayList<Ocorrencia> ocorrenciasDaEstacao = new ArrayList<>();
-        for (Ocorrencia ocorrencia : ocorrencias) {
-            if (ocorrencia.getAreaAfetada().getIdEstacaoResponsavel() == estacaoAtual.getIdEstacao()) {
-                ocorrenciasDaEstacao.add(ocorrencia);
-            }
-        }
+        ArrayList<Ocorrencia> ocorrenciasDaEstacao = ocorrencias.daEstacao(estacaoAtual.getIdEstacao());
 
         if (ocorrenciasDaEstacao.isEmpty()) {
             System.out.println("📭 Nenhuma ocorrência registrada ainda em " + estacaoAtual.getCidade() + ".");
@@ -567,11 +554,6 @@ public class Casos {
         for (Ocorrencia ocorrencia : ocorrenciasDaEstacao) {
             ocorrencia.exibirResumo(estacaoAtual);
         }
-
-        // Salvar arquivo atualizado
-        Arquivo.salvarHistoricoDaCidade(ocorrenciasDaEstacao, estacaoAtual);
-        System.out.println();
-        System.out.println("💾 Histórico atualizado em 'historico_" + estacaoAtual.getCidade().toLowerCase().replace(" ", "_") + ".txt'");
         System.out.println();
 
     }
@@ -593,43 +575,6 @@ public class Casos {
         }
     }
 
-    /**
-     * Obtém o drone específico designado para uma estação de bombeiros.
-     * Busca na lista de drones disponíveis pelo ID da estação base,
-     * garantindo que cada estação utilize seu equipamento próprio.
-     *
-     * @param drones lista de drones disponíveis no sistema
-     * @param idEstacao ID da estação de bombeiros proprietária
-     * @return objeto Drone da estação ou null se não encontrado
-     */
-    private static Drone obterDroneDaEstacao(ArrayList<Drone> drones, int idEstacao) {
-        for (Drone drone : drones) {
-            if (drone.getIdEstacaoBase() == idEstacao) {
-                return drone;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Filtra ocorrências pertencentes a uma estação específica.
-     * Metodo utilitário para operações que requerem dados isolados
-     * por jurisdição territorial das estações de bombeiros.
-     *
-     * @param ocorrencias lista completa de ocorrências do sistema
-     * @param idEstacao ID da estação de bombeiros para filtrar
-     * @return lista contendo apenas ocorrências da estação especificada
-     */
-    private static ArrayList<Ocorrencia> filtrarOcorrenciasPorEstacao(ArrayList<Ocorrencia> ocorrencias, int idEstacao) {
-        ArrayList<Ocorrencia> ocorrenciasFiltradas = new ArrayList<>();
-        for (Ocorrencia ocorrencia : ocorrencias) {
-            if (ocorrencia.getAreaAfetada().getIdEstacaoResponsavel() == idEstacao) {
-                ocorrenciasFiltradas.add(ocorrencia);
-            }
-        }
-        return ocorrenciasFiltradas;
-    }
-
     /**
      * Obtém áreas florestais supervisionadas por uma estação específica.
      * Filtra áreas por responsabilidade jurisdicional para permitir
@@ -650,39 +595,18 @@ public class Casos {
     }
 
     /**
-     * Busca uma área florestal específica pelo ID na lista disponível.
-     * Metodo de busca utilizado para validação de seleções do usuário
-     * e garantia de que a área escolhida existe na jurisdição atual.
+     * Busca uma área florestal pelo ID no catálogo, aceitando-a apenas se
+     * estiver na jurisdição da estação. Utilizado para validação de seleções
+     * do usuário sem percorrer a lista de áreas.
      *
+     * @param catalogo catálogo de áreas florestais do sistema
      * @param idArea ID da área florestal procurada
-     * @param areasDisponiveis lista de áreas disponíveis para seleção
-     * @return objeto AreaFlorestal encontrado ou null se inexistente
-     */
-    private static AreaFlorestal buscarAreaPorId(int idArea, ArrayList<AreaFlorestal> areasDisponiveis) {
-        for (AreaFlorestal area : areasDisponiveis) {
-            if (area.getIdArea() == idArea) {
-                return area;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Busca um sensor específico pelo ID na lista de sensores disponíveis.
-     * Utilizado para validação de seleções durante registro de ocorrências
-     * e associação correta de equipamentos detectores.
-     *
-     * @param idSensor ID do sensor procurado
-     * @param sensores lista completa de sensores disponíveis
-     * @return objeto Sensor encontrado ou null se inexistente
+     * @param idEstacao ID da estação de bombeiros responsável
+     * @return objeto AreaFlorestal encontrado ou null se inexistente ou de outra estação
      */
-    private static Sensor buscarSensorPorId(int idSensor, ArrayList<Sensor> sensores) {
-        for (Sensor sensor : sensores) {
-            if (sensor.getIdSensor() == idSensor) {
-                return sensor;
-            }
-        }
-        return null;
+    private static AreaFlorestal buscarAreaDaEstacao(CatalogoEntidades catalogo, int idArea, int idEstacao) {
+        AreaFlorestal area = catalogo.buscarArea(idArea);
+        return area != null && area.getIdEstacaoResponsavel() == idEstacao ? area : null;
     }
 
     /**
@@ -0,0 +1,168 @@
+package fgn.modelo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Esta classe reúne os catálogos de entidades compartilhadas pelas ocorrências
+ * do sistema Forest Guardian Network. Áreas florestais, sensores e drones são
+ * indexados por ID em tabelas hash, para que a leitura do histórico e o
+ * registro de novas ocorrências associem cada registro à instância já
+ * existente sem percorrer as listas do sistema. Um único catálogo é criado na
+ * inicialização e repassado aos carregamentos, à exportação e aos menus.
+ * </p>
+ * <p>
+ * Os denunciantes são compartilhados por {@link #internarUsuario}: todas as
+ * ocorrências de um mesmo cidadão, carregadas do histórico ou registradas no
+ * console, referenciam uma única instância de {@link Usuario}, em vez de uma
+ * cópia por denúncia. O catálogo de usuários pertence ao catálogo de entidades,
+ * é liberado junto com ele e é seguro para os carregamentos paralelos do histórico.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class CatalogoEntidades {
+    /**
+     * Denunciantes internados, indexados por CPF
+     */
+    private final ConcurrentHashMap<Long, Usuario> usuariosPorCpf = new ConcurrentHashMap<>();
+
+    /**
+     * Áreas florestais do sistema, na ordem de cadastro, para os menus
+     */
+    private final ArrayList<AreaFlorestal> areasFlorestais;
+    /**
+     * Sensores do sistema, na ordem de cadastro, para os menus
+     */
+    private final ArrayList<Sensor> sensores;
+    /**
+     * Drones do sistema, na ordem de cadastro
+     */
+    private final ArrayList<Drone> drones;
+    /**
+     * Áreas florestais indexadas pelo ID gravado nos registros de ocorrência
+     */
+    private final HashMap<Integer, AreaFlorestal> areasPorId = new HashMap<>();
+    /**
+     * Sensores indexados por ID, para associar o sensor que detectou a ocorrência
+     */
+    private final HashMap<Integer, Sensor> sensoresPorId = new HashMap<>();
+    /**
+     * Drones indexados por ID, para associar o drone de varredura da ocorrência
+     */
+    private final HashMap<Integer, Drone> dronesPorId = new HashMap<>();
+    /**
+     * Primeiro drone de cada estação, na ordem da lista de drones
+     */
+    private final HashMap<Integer, Drone> dronesPorEstacao = new HashMap<>();
+
+    /**
+     * Construtor que indexa as entidades informadas.
+     *
+     * @param areasFlorestais lista de áreas florestais do sistema
+     * @param sensores lista de sensores do sistema
+     * @param drones lista de drones do sistema
+     */
+    public CatalogoEntidades(ArrayList<AreaFlorestal> areasFlorestais, ArrayList<Sensor> sensores, ArrayList<Drone> drones) {
+        this.areasFlorestais = areasFlorestais;
+        this.sensores = sensores;
+        this.drones = drones;
+        for (AreaFlorestal area : areasFlorestais) {
+            areasPorId.put(area.getIdArea(), area);
+        }
+        for (Sensor sensor : sensores) {
+            sensoresPorId.put(sensor.getIdSensor(), sensor);
+        }
+        for (Drone drone : drones) {
+            dronesPorId.put(drone.getIdDrone(), drone);
+            dronesPorEstacao.putIfAbsent(drone.getIdEstacaoBase(), drone);
+        }
+    }
+
+    /**
+     * Obtém o denunciante compartilhado com os dados informados, criando-o na
+     * primeira ocorrência do CPF. Se os dados gravados para o CPF mudarem, a
+     * nova versão passa a ser a compartilhada.
+     *
+     * @param nome nome do denunciante
+     * @param cpf CPF do denunciante
+     * @param dataNascimento data de nascimento no formato dd/MM/yyyy
+     * @return instância compartilhada do denunciante
+     */
+    public Usuario internarUsuario(String nome, long cpf, String dataNascimento) {
+        return usuariosPorCpf.compute(cpf, (chave, atual) ->
+                atual != null && atual.getNome().equals(nome) && Objects.equals(atual.getDataNascimento(), dataNascimento)
+                        ? atual : new Usuario(nome, cpf, dataNascimento));
+    }
+
+    /**
+     * Obtém a área florestal com o ID informado.
+     *
+     * @param idArea ID da área florestal
+     * @return área encontrada ou null se inexistente
+     */
+    public AreaFlorestal buscarArea(int idArea) {
+        return areasPorId.get(idArea);
+    }
+
+    /**
+     * Obtém o sensor com o ID informado.
+     *
+     * @param idSensor ID do sensor
+     * @return sensor encontrado ou null se inexistente
+     */
+    public Sensor buscarSensor(int idSensor) {
+        return sensoresPorId.get(idSensor);
+    }
+
+    /**
+     * Obtém o drone com o ID informado.
+     *
+     * @param idDrone ID do drone
+     * @return drone encontrado ou null se inexistente
+     */
+    public Drone buscarDrone(int idDrone) {
+        return dronesPorId.get(idDrone);
+    }
+
+    /**
+     * Obtém o drone de uma estação, utilizado quando o registro não informa o drone.
+     *
+     * @param idEstacao ID da estação proprietária
+     * @return primeiro drone da estação ou null se não houver
+     */
+    public Drone obterDroneDaEstacao(int idEstacao) {
+        return dronesPorEstacao.get(idEstacao);
+    }
+
+    /**
+     * Obtém a lista de áreas florestais do sistema, na ordem de cadastro.
+     *
+     * @return lista de áreas florestais
+     */
+    public ArrayList<AreaFlorestal> getAreasFlorestais() {
+        return areasFlorestais;
+    }
+
+    /**
+     * Obtém a lista de sensores do sistema, na ordem de cadastro.
+     *
+     * @return lista de sensores
+     */
+    public ArrayList<Sensor> getSensores() {
+        return sensores;
+    }
+
+    /**
+     * Obtém a lista de drones do sistema, na ordem de cadastro.
+     *
+     * @return lista de drones
+     */
+    public ArrayList<Drone> getDrones() {
+        return drones;
+    }
+}
@@ -0,0 +1,389 @@
+package fgn.modelo;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Esta classe implementa o armazenamento em colunas das ocorrências de uma
+ * estação no sistema Forest Guardian Network, voltado às estatísticas dos
+ * relatórios. Cada campo usado pelas agregações fica em um vetor primitivo
+ * próprio (hectares, códigos de risco e status, instante de detecção, área e
+ * origem), e os resumos são calculados por uma varredura sequencial desses
+ * vetores, sem percorrer objetos {@link Ocorrencia} espalhados pelo heap.
+ * Cada linha ocupa menos de 40 bytes, incluindo a tabela de IDs.
+ * </p>
+ * <p>
+ * Nível de risco e status usam os códigos de {@link NivelRisco} e
+ * {@link StatusOcorrencia}, os mesmos gravados no {@link RegistroBinario}, e
+ * as áreas são guardadas pela sua posição na lista de áreas da estação, o que
+ * permite contá-las em um vetor. Cada ID de ocorrência ocupa uma única linha:
+ * uma nova versão da ocorrência substitui a anterior no lugar, localizada por
+ * uma tabela de espalhamento de inteiros sem objetos intermediários.
+ * </p>
+ * <p>
+ * O {@link RepositorioOcorrencias} mantém as colunas de cada estação junto com
+ * seus demais índices, atualizando a linha da ocorrência a cada inclusão,
+ * substituição, remoção e mudança de situação. Os relatórios resumem essas
+ * colunas sem reler o histórico binário.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class ColunasOcorrencias {
+    /**
+     * Código de risco das linhas de ocorrências removidas
+     */
+    private static final byte REMOVIDA = -1;
+    /**
+     * Código do status "Ativo"
+     */
+    private static final byte STATUS_ATIVO = StatusOcorrencia.ATIVO.getCodigo();
+
+    /**
+     * Resultado das agregações sobre as ocorrências da estação.
+     */
+    public static class Resumo {
+        private final int total;
+        private final int ativos;
+        private final int[] porRisco;
+        private final long totalHectares;
+        private final int denuncias;
+        private final int idAreaMaisAfetada;
+        private final int ocorrenciasAreaMaisAfetada;
+
+        private Resumo(int total, int ativos, int[] porRisco, long totalHectares, int denuncias,
+                       int idAreaMaisAfetada, int ocorrenciasAreaMaisAfetada) {
+            this.total = total;
+            this.ativos = ativos;
+            this.porRisco = porRisco;
+            this.totalHectares = totalHectares;
+            this.denuncias = denuncias;
+            this.idAreaMaisAfetada = idAreaMaisAfetada;
+            this.ocorrenciasAreaMaisAfetada = ocorrenciasAreaMaisAfetada;
+        }
+
+        /**
+         * Obtém a quantidade de ocorrências.
+         *
+         * @return total de ocorrências
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * Obtém a quantidade de ocorrências com status "Ativo".
+         *
+         * @return casos ativos
+         */
+        public int getAtivos() {
+            return ativos;
+        }
+
+        /**
+         * Obtém a quantidade de ocorrências com status diferente de "Ativo".
+         *
+         * @return casos concluídos
+         */
+        public int getConcluidos() {
+            return total - ativos;
+        }
+
+        /**
+         * Obtém a quantidade de ocorrências com o nível de risco informado.
+         *
+         * @param nivelRisco nível de risco
+         * @return ocorrências do nível
+         */
+        public int getPorRisco(NivelRisco nivelRisco) {
+            return porRisco[nivelRisco.getCodigo()];
+        }
+
+        /**
+         * Obtém a soma dos hectares afetados.
+         *
+         * @return total de hectares
+         */
+        public long getTotalHectares() {
+            return totalHectares;
+        }
+
+        /**
+         * Obtém a quantidade de ocorrências registradas por denúncia de usuários.
+         *
+         * @return denúncias
+         */
+        public int getDenuncias() {
+            return denuncias;
+        }
+
+        /**
+         * Obtém a quantidade de ocorrências detectadas por sensores e drones.
+         *
+         * @return detecções automáticas
+         */
+        public int getDeteccoesAutomaticas() {
+            return total - denuncias;
+        }
+
+        /**
+         * Obtém o ID da área com mais ocorrências.
+         *
+         * @return ID da área, ou 0 se não há ocorrências
+         */
+        public int getIdAreaMaisAfetada() {
+            return idAreaMaisAfetada;
+        }
+
+        /**
+         * Obtém a quantidade de ocorrências da área com mais ocorrências.
+         *
+         * @return ocorrências da área mais afetada
+         */
+        public int getOcorrenciasAreaMaisAfetada() {
+            return ocorrenciasAreaMaisAfetada;
+        }
+    }
+
+    private int quantidade;
+    private int removidas;
+    private int[] ids;
+    private int[] hectares;
+    private byte[] riscos;
+    private byte[] status;
+    private long[] instantes;
+    private int[] areas;
+    private byte[] denuncias;
+    /**
+     * IDs das áreas, indexados pela posição gravada na coluna de áreas
+     */
+    private int[] idsAreas = new int[8];
+    private int quantidadeAreas;
+    /**
+     * Tabela de espalhamento com endereçamento aberto: linha + 1 de cada ID, ou 0
+     */
+    private int[] tabela;
+
+    /**
+     * Construtor de um armazenamento vazio.
+     */
+    public ColunasOcorrencias() {
+        this(16);
+    }
+
+    /**
+     * Construtor de um armazenamento vazio com capacidade inicial.
+     *
+     * @param capacidade quantidade de linhas reservadas
+     */
+    public ColunasOcorrencias(int capacidade) {
+        capacidade = Math.max(16, capacidade);
+        ids = new int[capacidade];
+        hectares = new int[capacidade];
+        riscos = new byte[capacidade];
+        status = new byte[capacidade];
+        instantes = new long[capacidade];
+        areas = new int[capacidade];
+        denuncias = new byte[capacidade];
+        tabela = new int[Integer.highestOneBit(capacidade - 1) << 2];
+    }
+
+    /**
+     * Obtém a quantidade de ocorrências armazenadas.
+     *
+     * @return quantidade de ocorrências
+     */
+    public int getQuantidade() {
+        return quantidade - removidas;
+    }
+
+    /**
+     * Inclui a ocorrência ou substitui a linha da versão anterior de mesmo ID.
+     *
+     * @param ocorrencia ocorrência a ser armazenada
+     */
+    public void adicionar(Ocorrencia ocorrencia) {
+        gravar(ocorrencia.getIdOcorrencia(), ocorrencia.getAreaAfetada().getIdArea(), ocorrencia.getHectaresAfetados(),
+                ocorrencia.getRisco().getCodigo(), ocorrencia.getStatus().getCodigo(),
+                ocorrencia.getDataHoraDeteccao().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                ocorrencia.getUsuarioDenunciante() != null);
+    }
+
+    /**
+     * Remove a ocorrência com o ID informado. A linha é reaproveitada se a
+     * ocorrência voltar a ser incluída.
+     *
+     * @param idOcorrencia ID da ocorrência
+     */
+    public void remover(int idOcorrencia) {
+        int linha = buscarLinha(idOcorrencia);
+        if (linha >= 0 && riscos[linha] != REMOVIDA) {
+            riscos[linha] = REMOVIDA;
+            removidas++;
+        }
+    }
+
+    /**
+     * Verifica se a ocorrência com o ID informado está armazenada.
+     *
+     * @param idOcorrencia ID da ocorrência
+     * @return true se a ocorrência estiver armazenada
+     */
+    public boolean contem(int idOcorrencia) {
+        int linha = buscarLinha(idOcorrencia);
+        return linha >= 0 && riscos[linha] != REMOVIDA;
+    }
+
+    /**
+     * Conta as ocorrências detectadas no intervalo informado.
+     *
+     * @param inicio instante inicial em milissegundos desde a época, inclusivo
+     * @param fim instante final em milissegundos desde a época, exclusivo
+     * @return ocorrências detectadas no intervalo
+     */
+    public int contarPorPeriodo(long inicio, long fim) {
+        int contagem = 0;
+        for (int i = 0; i < quantidade; i++) {
+            long instante = instantes[i];
+            if (instante >= inicio && instante < fim && riscos[i] != REMOVIDA) {
+                contagem++;
+            }
+        }
+        return contagem;
+    }
+
+    /**
+     * Calcula os totais por status, nível de risco, origem e área em uma única
+     * varredura sequencial das colunas.
+     *
+     * @return resumo das ocorrências armazenadas
+     */
+    public Resumo resumir() {
+        int[] porRisco = new int[NivelRisco.values().length];
+        int[] porArea = new int[quantidadeAreas];
+        int ativos = 0;
+        int totalDenuncias = 0;
+        long totalHectares = 0;
+
+        for (int i = 0; i < quantidade; i++) {
+            byte risco = riscos[i];
+            if (risco == REMOVIDA) {
+                continue;
+            }
+            porRisco[risco]++;
+            porArea[areas[i]]++;
+            if (status[i] == STATUS_ATIVO) {
+                ativos++;
+            }
+            totalHectares += hectares[i];
+            totalDenuncias += denuncias[i];
+        }
+
+        int maisAfetada = -1;
+        for (int i = 0; i < quantidadeAreas; i++) {
+            if (porArea[i] > 0 && (maisAfetada < 0 || porArea[i] > porArea[maisAfetada])) {
+                maisAfetada = i;
+            }
+        }
+        return new Resumo(getQuantidade(), ativos, porRisco, totalHectares, totalDenuncias,
+                maisAfetada >= 0 ? idsAreas[maisAfetada] : 0, maisAfetada >= 0 ? porArea[maisAfetada] : 0);
+    }
+
+    /**
+     * Grava os campos na linha do ID, criando-a se necessário.
+     */
+    private void gravar(int idOcorrencia, int idArea, int hectaresAfetados, byte risco, byte codigoStatus,
+                        long instante, boolean denuncia) {
+        int linha = buscarLinha(idOcorrencia);
+        if (linha < 0) {
+            garantirCapacidade();
+            linha = quantidade++;
+            ids[linha] = idOcorrencia;
+            inserirNaTabela(idOcorrencia, linha);
+        } else if (riscos[linha] == REMOVIDA) {
+            removidas--;
+        }
+        hectares[linha] = hectaresAfetados;
+        riscos[linha] = risco;
+        status[linha] = codigoStatus;
+        instantes[linha] = instante;
+        areas[linha] = obterPosicaoArea(idArea);
+        denuncias[linha] = (byte) (denuncia ? 1 : 0);
+    }
+
+    /**
+     * Obtém a posição da área na coluna de áreas, registrando-a se for nova.
+     * Cada estação supervisiona poucas áreas, por isso a busca é linear.
+     */
+    private int obterPosicaoArea(int idArea) {
+        for (int i = 0; i < quantidadeAreas; i++) {
+            if (idsAreas[i] == idArea) {
+                return i;
+            }
+        }
+        if (quantidadeAreas == idsAreas.length) {
+            idsAreas = Arrays.copyOf(idsAreas, idsAreas.length * 2);
+        }
+        idsAreas[quantidadeAreas] = idArea;
+        return quantidadeAreas++;
+    }
+
+    /**
+     * Localiza a linha do ID na tabela de espalhamento.
+     */
+    private int buscarLinha(int idOcorrencia) {
+        int mascara = tabela.length - 1;
+        for (int i = espalhar(idOcorrencia) & mascara; tabela[i] != 0; i = (i + 1) & mascara) {
+            int linha = tabela[i] - 1;
+            if (ids[linha] == idOcorrencia) {
+                return linha;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inclui a linha do ID na primeira posição livre da tabela de espalhamento.
+     */
+    private void inserirNaTabela(int idOcorrencia, int linha) {
+        int mascara = tabela.length - 1;
+        int i = espalhar(idOcorrencia) & mascara;
+        while (tabela[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        tabela[i] = linha + 1;
+    }
+
+    /**
+     * Dobra as colunas quando estão cheias, mantendo a tabela com no máximo
+     * metade das posições ocupadas.
+     */
+    private void garantirCapacidade() {
+        if (quantidade == ids.length) {
+            int capacidade = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacidade);
+            hectares = Arrays.copyOf(hectares, capacidade);
+            riscos = Arrays.copyOf(riscos, capacidade);
+            status = Arrays.copyOf(status, capacidade);
+            instantes = Arrays.copyOf(instantes, capacidade);
+            areas = Arrays.copyOf(areas, capacidade);
+            denuncias = Arrays.copyOf(denuncias, capacidade);
+        }
+        if ((quantidade + 1) * 2 > tabela.length) {
+            tabela = new int[tabela.length * 2];
+            for (int linha = 0; linha < quantidade; linha++) {
+                inserirNaTabela(ids[linha], linha);
+            }
+        }
+    }
+
+    /**
+     * Mistura os bits do ID, já que IDs sequenciais ocupariam posições vizinhas da tabela.
+     */
+    private static int espalhar(int idOcorrencia) {
+        int h = idOcorrencia * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
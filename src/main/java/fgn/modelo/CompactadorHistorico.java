@@ -0,0 +1,326 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>
+ * Esta classe implementa a compactação dos segmentos selados do histórico no
+ * sistema Forest Guardian Network. Quando uma partição diária da cidade acumula
+ * {@link LogHistorico#getSegmentosParaCompactacao()} segmentos selados, eles são
+ * mesclados em um único segmento que contém apenas a versão mais recente de cada
+ * ocorrência; versões superadas, como o estado "Ativo" de um incêndio que já foi
+ * marcado como seguro, são descartadas. Segmentos de dias diferentes nunca são
+ * mesclados, preservando as partições diárias.
+ * </p>
+ * <p>
+ * A compactação é executada pela thread gravadora do {@link ServicoPersistencia},
+ * logo após a gravação de cada grupo, portanto nunca bloqueia o console do
+ * operador. O novo segmento é gravado em um arquivo temporário e só passa a fazer
+ * parte do histórico quando o manifesto é substituído; os segmentos mesclados são
+ * apagados em seguida.
+ * </p>
+ * <p>
+ * Registros com CRC inválido nunca são copiados, e registros da versão 1 do
+ * formato recebem o enquadramento da versão atual ao serem copiados.
+ * </p>
+ * <p>
+ * As lápides gravadas pela {@link LimpezaHistorico} são sempre copiadas. A
+ * versão mais recente de uma ocorrência oculta por uma limpeza vigente é
+ * descartada, o que torna essa limpeza irreversível.
+ * </p>
+ * <p>
+ * Segmentos de partições de dias anteriores são frios: não recebem mais
+ * registros e raramente são lidos, portanto são substituídos pela sua versão
+ * comprimida pelo {@link SegmentoComprimido}. A compressão preserva as posições
+ * dos registros e não altera o manifesto nem o índice.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class CompactadorHistorico {
+    /**
+     * Quantidade de registros lidos por vez de cada segmento
+     */
+    private static final int REGISTROS_POR_LEITURA = 8192;
+    /**
+     * Último dia do segmento aberto em que os segmentos frios de cada cidade foram comprimidos
+     */
+    private static final ConcurrentHashMap<String, Long> diaComprimido = new ConcurrentHashMap<>();
+
+    /**
+     * Compacta as partições diárias da cidade que atingiram o limite de segmentos
+     * e, após uma compactação ou virada do dia, comprime os segmentos frios.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return true se alguma compactação foi realizada
+     * @throws IOException se não for possível ler ou gravar os segmentos
+     */
+    public static boolean compactarSeNecessario(EstacaoBombeiros estacao) throws IOException {
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                ManifestoHistorico manifesto = LogHistorico.abrirManifesto(acesso);
+                boolean compactou = false;
+                for (List<ManifestoHistorico.Segmento> particao : agruparPorDia(manifesto)) {
+                    if (particao.size() >= LogHistorico.getSegmentosParaCompactacao()) {
+                        compactar(estacao, manifesto, particao);
+                        compactou = true;
+                    }
+                }
+                Long verificado = diaComprimido.get(Arquivo.obterNomeBaseHistorico(estacao));
+                if (compactou || verificado == null || verificado != manifesto.getDiaAberto()) {
+                    comprimirSegmentosFrios(estacao, manifesto);
+                }
+                return compactou;
+            }
+        }
+    }
+
+    /**
+     * Comprime os segmentos selados de dias anteriores ao do segmento aberto que
+     * ainda não estão comprimidos. Cada segmento é comprimido em um arquivo
+     * temporário que substitui o original com uma troca atômica.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return quantidade de segmentos comprimidos
+     * @throws IOException se não for possível ler ou gravar os segmentos
+     */
+    public static int comprimirSegmentosFrios(EstacaoBombeiros estacao) throws IOException {
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                return comprimirSegmentosFrios(estacao, LogHistorico.abrirManifesto(acesso));
+            }
+        }
+    }
+
+    /**
+     * Mescla os segmentos selados de cada partição diária da cidade em um único
+     * segmento, mantendo apenas os registros que o {@link IndiceHistorico} aponta
+     * como versão mais recente de cada ocorrência.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @throws IOException se não for possível ler ou gravar os segmentos
+     */
+    public static void compactar(EstacaoBombeiros estacao) throws IOException {
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                ManifestoHistorico manifesto = LogHistorico.abrirManifesto(acesso);
+                for (List<ManifestoHistorico.Segmento> particao : agruparPorDia(manifesto)) {
+                    compactar(estacao, manifesto, particao);
+                }
+                comprimirSegmentosFrios(estacao, manifesto);
+            }
+        }
+    }
+
+    /**
+     * Comprime os segmentos frios do manifesto. Deve ser chamado com a trava da
+     * cidade obtida.
+     */
+    private static int comprimirSegmentosFrios(EstacaoBombeiros estacao, ManifestoHistorico manifesto) throws IOException {
+        Path temporario = Paths.get(Arquivo.obterNomeBaseHistorico(estacao) + ".compressao.tmp");
+        int comprimidos = 0;
+        for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+            Path arquivo = Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, segmento.getNumero()));
+            if (segmento.getDia() >= manifesto.getDiaAberto() || !Files.exists(arquivo)
+                    || SegmentoComprimido.isComprimido(arquivo)) {
+                continue;
+            }
+            SegmentoComprimido.comprimir(arquivo, temporario);
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            comprimidos++;
+        }
+        diaComprimido.put(Arquivo.obterNomeBaseHistorico(estacao), manifesto.getDiaAberto());
+        return comprimidos;
+    }
+
+    /**
+     * Agrupa os segmentos selados consecutivos gravados no mesmo dia.
+     */
+    private static ArrayList<List<ManifestoHistorico.Segmento>> agruparPorDia(ManifestoHistorico manifesto) {
+        ArrayList<List<ManifestoHistorico.Segmento>> particoes = new ArrayList<>();
+        ArrayList<ManifestoHistorico.Segmento> atual = new ArrayList<>();
+        for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+            if (!atual.isEmpty() && atual.get(0).getDia() != segmento.getDia()) {
+                particoes.add(atual);
+                atual = new ArrayList<>();
+            }
+            atual.add(segmento);
+        }
+        if (!atual.isEmpty()) {
+            particoes.add(atual);
+        }
+        return particoes;
+    }
+
+    /**
+     * Mescla os segmentos de uma partição diária do manifesto. Deve ser chamado com
+     * a trava da cidade obtida.
+     */
+    private static void compactar(EstacaoBombeiros estacao, ManifestoHistorico manifesto,
+                                  List<ManifestoHistorico.Segmento> particao) throws IOException {
+        Path temporario = Paths.get(Arquivo.obterNomeBaseHistorico(estacao) + ".compactacao.tmp");
+        ArrayList<Integer> idsMantidos = new ArrayList<>();
+        ArrayList<Long> deslocamentosMantidos = new ArrayList<>();
+        ArrayList<Integer> idsDescartados = new ArrayList<>();
+        HashSet<Integer> estacoesLimpas = new HashSet<>();
+        int ativos = 0;
+        long menorDeteccao = Long.MAX_VALUE;
+        long maiorDeteccao = Long.MIN_VALUE;
+
+        try (FileChannel destino = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO);
+            RegistroBinario.escreverCabecalho(cabecalho);
+            cabecalho.flip();
+            escreverTudo(destino, cabecalho);
+
+            ByteBuffer bloco = ByteBuffer.allocate(REGISTROS_POR_LEITURA * RegistroBinario.TAMANHO_REGISTRO);
+            ByteBuffer saida = ByteBuffer.allocate(REGISTROS_POR_LEITURA * RegistroBinario.TAMANHO_REGISTRO);
+            long deslocamentoSaida = RegistroBinario.TAMANHO_CABECALHO;
+            CRC32C crc = new CRC32C();
+
+            for (ManifestoHistorico.Segmento segmento : particao) {
+                Path arquivo = Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, segmento.getNumero()));
+                try (SegmentoComprimido.Leitor origem = SegmentoComprimido.Leitor.abrir(arquivo)) {
+                    long totalRegistros = (origem.getTamanho() - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+                    boolean aceitarSemCrc = RegistroBinario.aceitaRegistrosSemCrc(origem.getCabecalho());
+
+                    for (long primeiro = 0; primeiro < totalRegistros; primeiro += REGISTROS_POR_LEITURA) {
+                        int quantidade = (int) Math.min(REGISTROS_POR_LEITURA, totalRegistros - primeiro);
+                        long inicio = RegistroBinario.TAMANHO_CABECALHO + primeiro * RegistroBinario.TAMANHO_REGISTRO;
+                        bloco.clear();
+                        bloco.limit(quantidade * RegistroBinario.TAMANHO_REGISTRO);
+                        origem.ler(bloco, inicio);
+
+                        int[] ids = new int[quantidade];
+                        for (int i = 0; i < quantidade; i++) {
+                            ids[i] = RegistroBinario.lerId(bloco, i * RegistroBinario.TAMANHO_REGISTRO);
+                        }
+                        long[] posicoesAtuais = IndiceHistorico.buscarPosicoes(estacao, ids);
+
+                        saida.clear();
+                        for (int i = 0; i < quantidade; i++) {
+                            long posicao = IndiceHistorico.posicao(segmento.getNumero(),
+                                    inicio + (long) i * RegistroBinario.TAMANHO_REGISTRO);
+                            // Lápides não constam no índice e são sempre mantidas
+                            boolean lapide = ids[i] < 0;
+                            if (!lapide && posicoesAtuais[i] != posicao) {
+                                continue; // Versão superada por um registro mais recente
+                            }
+                            int origemRegistro = i * RegistroBinario.TAMANHO_REGISTRO;
+                            if (!RegistroBinario.isIntegro(bloco, origemRegistro, crc, aceitarSemCrc)) {
+                                continue;
+                            }
+                            if (!lapide) {
+                                ManifestoHistorico.Limpeza limpeza = manifesto.obterLimpezaQueOculta(
+                                        RegistroBinario.lerIdArea(bloco, origemRegistro), ids[i]);
+                                if (limpeza != null) {
+                                    idsDescartados.add(ids[i]);
+                                    estacoesLimpas.add(limpeza.getIdEstacao());
+                                    continue;
+                                }
+                            }
+                            if (RegistroBinario.isSemCrc(bloco, origemRegistro)) {
+                                RegistroBinario.enquadrar(bloco, origemRegistro);
+                            }
+                            saida.put(bloco.slice(origemRegistro, RegistroBinario.TAMANHO_REGISTRO));
+                            if (!lapide) {
+                                if (RegistroBinario.isIncendioAtivo(bloco, origemRegistro)) {
+                                    ativos++;
+                                }
+                                long deteccao = RegistroBinario.lerInstanteDeteccao(bloco, origemRegistro);
+                                menorDeteccao = Math.min(menorDeteccao, deteccao);
+                                maiorDeteccao = Math.max(maiorDeteccao, deteccao);
+                            }
+                            idsMantidos.add(ids[i]);
+                            deslocamentosMantidos.add(deslocamentoSaida);
+                            deslocamentoSaida += RegistroBinario.TAMANHO_REGISTRO;
+                        }
+                        saida.flip();
+                        escreverTudo(destino, saida);
+                    }
+                }
+            }
+            destino.force(false);
+        }
+
+        long geracaoAnterior = manifesto.getGeracao();
+        long tamanhoAberto = Files.size(Paths.get(LogHistorico.obterNomeArquivo(estacao)));
+        ArrayList<ManifestoHistorico.Segmento> removidos = new ArrayList<>(particao);
+        int numero = manifesto.substituirSegmentos(removidos, idsMantidos.size(), ativos, menorDeteccao, maiorDeteccao);
+        if (numero == 0) {
+            Files.delete(temporario);
+        } else {
+            Files.move(temporario, Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, numero)),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        if (!estacoesLimpas.isEmpty()) {
+            manifesto.consolidarLimpezas(estacoesLimpas);
+        }
+        manifesto.gravar(estacao);
+
+        // Ocorrências descartadas por uma limpeza deixam de constar no índice
+        int[] ids = new int[idsMantidos.size() + idsDescartados.size()];
+        long[] posicoes = new long[ids.length];
+        for (int i = 0; i < idsMantidos.size(); i++) {
+            ids[i] = idsMantidos.get(i);
+            posicoes[i] = IndiceHistorico.posicao(numero, deslocamentosMantidos.get(i));
+        }
+        for (int i = 0; i < idsDescartados.size(); i++) {
+            ids[idsMantidos.size() + i] = idsDescartados.get(i);
+            posicoes[idsMantidos.size() + i] = IndiceHistorico.posicao(0, 0);
+        }
+        IndiceHistorico.realocar(estacao, ids, posicoes, geracaoAnterior, tamanhoAberto,
+                manifesto.getGeracao(), tamanhoAberto);
+
+        for (ManifestoHistorico.Segmento segmento : removidos) {
+            Files.deleteIfExists(Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, segmento.getNumero())));
+        }
+        descartarSegmentosOrfaos(estacao, manifesto);
+    }
+
+    /**
+     * Apaga arquivos de segmento da cidade que não constam no manifesto, deixados
+     * por uma compactação interrompida.
+     */
+    private static void descartarSegmentosOrfaos(EstacaoBombeiros estacao, ManifestoHistorico manifesto) throws IOException {
+        HashSet<String> listados = new HashSet<>();
+        for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+            listados.add(ManifestoHistorico.obterNomeSegmento(estacao, segmento.getNumero()));
+        }
+
+        String prefixo = Arquivo.obterNomeBaseHistorico(estacao) + ".";
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Paths.get("."), "historico_*.seg")) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                String numero = nome.startsWith(prefixo) ? nome.substring(prefixo.length(), nome.length() - 4) : "";
+                if (!numero.isEmpty() && numero.chars().allMatch(Character::isDigit) && !listados.contains(nome)) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        }
+    }
+
+    /**
+     * Escreve todo o conteúdo restante do buffer na posição atual do canal.
+     */
+    private static void escreverTudo(FileChannel canal, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ * Esta classe implementa a reserva de IDs de ocorrência de cada cidade no sistema
+ * Forest Guardian Network. Como vários consoles podem registrar ocorrências na
+ * mesma cidade, o próximo ID livre não pode ser mantido apenas em memória: dois
+ * processos poderiam gerar o mesmo ID, e a versão anexada por último substituiria
+ * a outra ocorrência no histórico.
+ * </p>
+ * <p>
+ * O próximo ID livre fica no arquivo {@code historico_<cidade>.ids} e só é lido e
+ * avançado com a trava exclusiva da cidade ({@link TravaHistorico}). A reserva
+ * também considera o maior ID do {@link IndiceHistorico} e o maior limite das
+ * limpezas do {@link ManifestoHistorico}, para que um contador ausente ou
+ * anterior ao histórico nunca devolva um ID já utilizado ou oculto. Um bloco de
+ * IDs pode ser reservado de uma vez, como na importação de focos de calor.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class ContadorIdsHistorico {
+    /**
+     * Identificador do formato do arquivo de contador ("FGNI")
+     */
+    public static final int MAGICO = 0x46474E49;
+    /**
+     * Versão do formato do arquivo de contador
+     */
+    public static final short VERSAO = 1;
+    /**
+     * Tamanho do arquivo: identificador, versão, reservado e próximo ID
+     */
+    private static final int TAMANHO = 12;
+
+    /**
+     * Obtém o nome do arquivo de contador da cidade da estação informada.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return nome do arquivo de contador da cidade
+     */
+    public static String obterNomeArquivo(EstacaoBombeiros estacao) {
+        return Arquivo.obterNomeBaseHistorico(estacao) + ".ids";
+    }
+
+    /**
+     * Reserva um bloco de IDs consecutivos para novas ocorrências da cidade.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param quantidade quantidade de IDs reservados
+     * @return primeiro ID do bloco reservado
+     * @throws IOException se não for possível ler o histórico ou gravar o contador
+     */
+    public static int reservar(EstacaoBombeiros estacao, int quantidade) throws IOException {
+        if (quantidade < 1) {
+            throw new IllegalArgumentException("Quantidade de IDs deve ser positiva: " + quantidade);
+        }
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                int primeiro = obterProximo(acesso);
+                gravar(estacao, primeiro + quantidade);
+                return primeiro;
+            }
+        }
+    }
+
+    /**
+     * Obtém o maior ID de ocorrência já reservado ou utilizado na cidade, sem
+     * reservar outro. Utilizado como limite das limpezas do histórico.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return maior ID reservado ou 0 se a cidade não possui ocorrências
+     * @throws IOException se não for possível ler o histórico ou o contador
+     */
+    public static int obterUltimoReservado(EstacaoBombeiros estacao) throws IOException {
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                return obterProximo(acesso) - 1;
+            }
+        }
+    }
+
+    /**
+     * Obtém o próximo ID livre: o maior entre o contador, o sucessor do maior ID
+     * indexado e o sucessor do maior limite de limpeza.
+     */
+    private static int obterProximo(TravaHistorico acesso) throws IOException {
+        EstacaoBombeiros estacao = acesso.getEstacao();
+        int proximo = Math.max(1, ler(estacao));
+        if (LogHistorico.existe(estacao)) {
+            proximo = Math.max(proximo, IndiceHistorico.obterMaiorId(acesso) + 1);
+            proximo = Math.max(proximo, LogHistorico.abrirManifesto(acesso).getMaiorLimiteLimpeza() + 1);
+        }
+        return proximo;
+    }
+
+    /**
+     * Lê o próximo ID gravado no contador, ou 0 se o arquivo estiver ausente ou
+     * não for reconhecido.
+     */
+    private static int ler(EstacaoBombeiros estacao) throws IOException {
+        Path caminho = Paths.get(obterNomeArquivo(estacao));
+        if (!Files.exists(caminho)) {
+            return 0;
+        }
+        ByteBuffer conteudo = ByteBuffer.wrap(Files.readAllBytes(caminho));
+        if (conteudo.limit() < TAMANHO || conteudo.getInt(0) != MAGICO || conteudo.getShort(4) != VERSAO) {
+            return 0;
+        }
+        return conteudo.getInt(8);
+    }
+
+    /**
+     * Grava o próximo ID em um arquivo temporário e o substitui atomicamente.
+     */
+    private static void gravar(EstacaoBombeiros estacao, int proximo) throws IOException {
+        ByteBuffer conteudo = ByteBuffer.allocate(TAMANHO);
+        conteudo.putInt(MAGICO);
+        conteudo.putShort(VERSAO);
+        conteudo.putShort((short) 0);
+        conteudo.putInt(proximo);
+        conteudo.flip();
+
+        Path destino = Paths.get(obterNomeArquivo(estacao));
+        Path temporario = Paths.get(obterNomeArquivo(estacao) + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(false);
+        }
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,399 @@
+package fgn.modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>
+ * Esta classe implementa a exportação de ocorrências em CSV e JSON Lines no
+ * sistema Forest Guardian Network, para consumo por ferramentas de análise sem
+ * depender do relatório texto. Cada linha contém todos os campos da ocorrência,
+ * inclusive a área, o sensor com seu tipo, o drone e os dados do denunciante.
+ * </p>
+ * <p>
+ * A exportação é feita em fluxo com memória constante: cada linha é montada em
+ * um único {@link StringBuilder} reaproveitado, codificada em UTF-8 em um buffer
+ * de {@link #TAMANHO_BUFFER} bytes e escrita no {@link FileChannel} sempre que o
+ * buffer enche. {@link #exportarHistorico} percorre o histórico binário da cidade
+ * bloco a bloco e exporta apenas a versão mais recente de cada ocorrência,
+ * confirmada pelo {@link IndiceHistorico} e não oculta por uma limpeza do
+ * histórico, sem montar uma lista de ocorrências.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class ExportadorOcorrencias implements Closeable {
+    /**
+     * Tamanho em bytes do buffer de saída
+     */
+    public static final int TAMANHO_BUFFER = 64 * 1024;
+    /**
+     * Linha de cabeçalho do CSV, com as colunas na ordem em que são escritas
+     */
+    public static final String CABECALHO_CSV = "id_ocorrencia,id_estacao,cidade,id_area,area,localizacao,hectares_afetados,"
+            + "nivel_risco,status,data_hora_deteccao,tempo_chegada_minutos,id_sensor,sensor,tipo_sensor,"
+            + "id_drone,drone,denunciante,cpf_denunciante,nascimento_denunciante";
+    /**
+     * Quantidade de registros do histórico lidos por vez
+     */
+    private static final int REGISTROS_POR_LEITURA = 8192;
+
+    private final FileChannel canal;
+    private final boolean json;
+    private final StringBuilder linha = new StringBuilder(512);
+    private final ByteBuffer saida = ByteBuffer.allocate(TAMANHO_BUFFER);
+    private final CharsetEncoder codificador = StandardCharsets.UTF_8.newEncoder();
+    private long linhas;
+
+    private ExportadorOcorrencias(Path destino, boolean json) throws IOException {
+        this.canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.json = json;
+        if (!json) {
+            linha.append(CABECALHO_CSV).append('\n');
+            escreverLinha();
+        }
+    }
+
+    /**
+     * Abre um arquivo CSV para exportação e escreve a linha de cabeçalho.
+     *
+     * @param destino arquivo de destino, substituído se existir
+     * @return exportador aberto
+     * @throws IOException se não for possível criar o arquivo
+     */
+    public static ExportadorOcorrencias abrirCsv(Path destino) throws IOException {
+        return new ExportadorOcorrencias(destino, false);
+    }
+
+    /**
+     * Abre um arquivo JSON Lines para exportação, com um objeto por linha.
+     *
+     * @param destino arquivo de destino, substituído se existir
+     * @return exportador aberto
+     * @throws IOException se não for possível criar o arquivo
+     */
+    public static ExportadorOcorrencias abrirJsonLinhas(Path destino) throws IOException {
+        return new ExportadorOcorrencias(destino, true);
+    }
+
+    /**
+     * Exporta a versão mais recente de cada ocorrência do histórico binário da
+     * cidade. Os segmentos são lidos em ordem cronológica; as ocorrências saem na
+     * ordem em que sua última versão foi gravada.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param exportador exportador de destino
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return quantidade de ocorrências exportadas
+     * @throws IOException se não for possível ler o histórico ou escrever a exportação
+     */
+    public static long exportarHistorico(EstacaoBombeiros estacao, ExportadorOcorrencias exportador,
+                                         CatalogoEntidades catalogo) throws IOException {
+        // Alterações ainda na fila precisam estar no histórico para serem exportadas
+        ServicoPersistencia.descarregar();
+        long exportadas = 0;
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                if (!LogHistorico.existe(estacao)) {
+                    return 0;
+                }
+                ManifestoHistorico manifesto = LogHistorico.abrirManifesto(acesso);
+                ArrayList<Integer> numeros = new ArrayList<>();
+                for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+                    numeros.add(segmento.getNumero());
+                }
+                numeros.add(0);
+
+                ByteBuffer bloco = ByteBuffer.allocate(REGISTROS_POR_LEITURA * RegistroBinario.TAMANHO_REGISTRO);
+                CRC32C crc = new CRC32C();
+                int[] ids = new int[REGISTROS_POR_LEITURA];
+                for (int numero : numeros) {
+                    Path caminho = Paths.get(numero == 0 ? LogHistorico.obterNomeArquivo(estacao)
+                            : ManifestoHistorico.obterNomeSegmento(estacao, numero));
+                    if (!Files.exists(caminho)) {
+                        continue;
+                    }
+                    try (SegmentoComprimido.Leitor segmento = SegmentoComprimido.Leitor.abrir(caminho)) {
+                        if (!RegistroBinario.validarCabecalho(segmento.getCabecalho())) {
+                            continue;
+                        }
+                        boolean aceitarSemCrc = RegistroBinario.aceitaRegistrosSemCrc(segmento.getCabecalho());
+                        long totalRegistros = (segmento.getTamanho() - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+
+                        for (long primeiro = 0; primeiro < totalRegistros; primeiro += REGISTROS_POR_LEITURA) {
+                            int quantidade = (int) Math.min(REGISTROS_POR_LEITURA, totalRegistros - primeiro);
+                            long inicio = RegistroBinario.TAMANHO_CABECALHO + primeiro * RegistroBinario.TAMANHO_REGISTRO;
+                            bloco.clear();
+                            bloco.limit(quantidade * RegistroBinario.TAMANHO_REGISTRO);
+                            segmento.ler(bloco, inicio);
+
+                            if (ids.length != quantidade) {
+                                ids = new int[quantidade];
+                            }
+                            for (int i = 0; i < quantidade; i++) {
+                                ids[i] = RegistroBinario.lerId(bloco, i * RegistroBinario.TAMANHO_REGISTRO);
+                            }
+                            long[] posicoesAtuais = IndiceHistorico.buscarPosicoes(estacao, ids);
+
+                            for (int i = 0; i < quantidade; i++) {
+                                int posicao = i * RegistroBinario.TAMANHO_REGISTRO;
+                                if (posicoesAtuais[i] != IndiceHistorico.posicao(numero, inicio + posicao)
+                                        || !RegistroBinario.isIntegro(bloco, posicao, crc, aceitarSemCrc)) {
+                                    continue; // Versão superada ou registro corrompido
+                                }
+                                if (manifesto.isOculta(RegistroBinario.lerIdArea(bloco, posicao), ids[i])) {
+                                    continue; // Removida por uma limpeza do histórico
+                                }
+                                Ocorrencia ocorrencia = RegistroBinario.ler(bloco, posicao, catalogo);
+                                if (ocorrencia != null) {
+                                    exportador.escrever(ocorrencia, estacao);
+                                    exportadas++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return exportadas;
+    }
+
+    /**
+     * Escreve uma ocorrência como uma linha do arquivo.
+     *
+     * @param ocorrencia ocorrência a ser exportada
+     * @param estacao estação responsável pela ocorrência
+     * @throws IOException se não for possível escrever no arquivo
+     */
+    public void escrever(Ocorrencia ocorrencia, EstacaoBombeiros estacao) throws IOException {
+        AreaFlorestal area = ocorrencia.getAreaAfetada();
+        Sensor sensor = ocorrencia.getSensorDetector();
+        Drone drone = ocorrencia.getDroneVarredura();
+        Usuario denunciante = ocorrencia.getUsuarioDenunciante();
+
+        linha.setLength(0);
+        if (json) {
+            linha.append('{');
+        }
+        numero("id_ocorrencia", ocorrencia.getIdOcorrencia(), true);
+        numero("id_estacao", estacao.getIdEstacao(), true);
+        texto("cidade", estacao.getCidade());
+        numero("id_area", area.getIdArea(), true);
+        texto("area", area.getNomeArea());
+        texto("localizacao", area.getLocalizacao());
+        numero("hectares_afetados", ocorrencia.getHectaresAfetados(), true);
+        texto("nivel_risco", ocorrencia.getNivelRisco());
+        texto("status", ocorrencia.getStatusOcorrencia());
+        campo("data_hora_deteccao");
+        if (json) {
+            linha.append('"');
+        }
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(ocorrencia.getDataHoraDeteccao(), linha);
+        if (json) {
+            linha.append('"');
+        }
+        numero("tempo_chegada_minutos", ocorrencia.getTempoChegadaMinutos(), true);
+        numero("id_sensor", sensor != null ? sensor.getIdSensor() : 0, sensor != null);
+        texto("sensor", sensor != null ? sensor.getNomeSensor() : null);
+        texto("tipo_sensor", sensor != null ? sensor.getTipo() : null);
+        numero("id_drone", drone != null ? drone.getIdDrone() : 0, drone != null);
+        texto("drone", drone != null ? drone.getModeloDrone() : null);
+        texto("denunciante", denunciante != null ? denunciante.getNome() : null);
+        campo("cpf_denunciante");
+        if (denunciante != null) {
+            // CPF como texto de 11 dígitos, preservando zeros à esquerda
+            if (json) {
+                linha.append('"');
+            }
+            String cpf = Long.toString(denunciante.getCpf());
+            for (int i = cpf.length(); i < 11; i++) {
+                linha.append('0');
+            }
+            linha.append(cpf);
+            if (json) {
+                linha.append('"');
+            }
+        } else if (json) {
+            linha.append("null");
+        }
+        texto("nascimento_denunciante", denunciante != null ? denunciante.getDataNascimento() : null);
+
+        if (json) {
+            linha.append('}');
+        }
+        linha.append('\n');
+        escreverLinha();
+        linhas++;
+    }
+
+    /**
+     * Obtém a quantidade de ocorrências escritas até o momento.
+     *
+     * @return linhas de dados escritas, sem contar o cabeçalho do CSV
+     */
+    public long getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * Escreve o conteúdo restante do buffer, sincroniza e fecha o arquivo.
+     *
+     * @throws IOException se não for possível concluir a escrita
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            descarregarBuffer();
+            canal.force(false);
+        } finally {
+            canal.close();
+        }
+    }
+
+    /**
+     * Inicia um campo: separador e, no JSON, o nome do campo.
+     */
+    private void campo(String nome) {
+        boolean primeiro = linha.length() == (json ? 1 : 0);
+        if (!primeiro) {
+            linha.append(',');
+        }
+        if (json) {
+            linha.append('"').append(nome).append("\":");
+        }
+    }
+
+    /**
+     * Acrescenta um campo numérico; ausente vira campo vazio no CSV e null no JSON.
+     */
+    private void numero(String nome, long valor, boolean presente) {
+        campo(nome);
+        if (presente) {
+            linha.append(valor);
+        } else if (json) {
+            linha.append("null");
+        }
+    }
+
+    /**
+     * Acrescenta um campo de texto com o escape do formato.
+     */
+    private void texto(String nome, String valor) {
+        campo(nome);
+        if (valor == null) {
+            if (json) {
+                linha.append("null");
+            }
+            return;
+        }
+        if (json) {
+            escaparJson(valor);
+        } else {
+            escaparCsv(valor);
+        }
+    }
+
+    /**
+     * Escreve o valor entre aspas duplas quando contém separador, aspas ou quebra de linha.
+     */
+    private void escaparCsv(String valor) {
+        boolean aspas = false;
+        for (int i = 0; i < valor.length() && !aspas; i++) {
+            char c = valor.charAt(i);
+            aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!aspas) {
+            linha.append(valor);
+            return;
+        }
+        linha.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                linha.append('"');
+            }
+            linha.append(c);
+        }
+        linha.append('"');
+    }
+
+    /**
+     * Escreve o valor como string JSON, escapando aspas, barras e caracteres de controle.
+     */
+    private void escaparJson(String valor) {
+        linha.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"':
+                    linha.append("\\\"");
+                    break;
+                case '\\':
+                    linha.append("\\\\");
+                    break;
+                case '\n':
+                    linha.append("\\n");
+                    break;
+                case '\r':
+                    linha.append("\\r");
+                    break;
+                case '\t':
+                    linha.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        linha.append("\\u00");
+                        linha.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        linha.append(c);
+                    }
+                    break;
+            }
+        }
+        linha.append('"');
+    }
+
+    /**
+     * Codifica a linha montada no buffer de saída, escrevendo o buffer no arquivo sempre que ele enche.
+     */
+    private void escreverLinha() throws IOException {
+        CharBuffer caracteres = CharBuffer.wrap(linha);
+        while (true) {
+            CoderResult resultado = codificador.encode(caracteres, saida, true);
+            if (resultado.isOverflow()) {
+                descarregarBuffer();
+            } else if (resultado.isUnderflow()) {
+                break;
+            } else {
+                resultado.throwException();
+            }
+        }
+        codificador.reset();
+    }
+
+    /**
+     * Escreve no arquivo todo o conteúdo acumulado no buffer de saída.
+     */
+    private void descarregarBuffer() throws IOException {
+        saida.flip();
+        while (saida.hasRemaining()) {
+            canal.write(saida);
+        }
+        saida.clear();
+    }
+}
@@ -0,0 +1,195 @@
+package fgn.modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Esta classe implementa a gravação segura de arquivos texto no sistema Forest
+ * Guardian Network, como o relatório {@code historico_<cidade>.txt}. O conteúdo é
+ * gravado em um arquivo temporário ao lado do destino e só o substitui, com uma
+ * troca atômica, quando {@link #publicar()} é chamado; uma falha durante a
+ * gravação nunca deixa o arquivo de destino vazio ou pela metade.
+ * </p>
+ * <p>
+ * O texto é codificado em UTF-8 em dois buffers alternados: enquanto a thread
+ * que gera o relatório preenche um deles, o outro é escrito no disco por uma
+ * thread de gravação em segundo plano. A geração só espera o disco quando
+ * preenche um buffer antes que a escrita do anterior termine.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class GravadorDuploBuffer implements Closeable {
+    /**
+     * Tamanho padrão em bytes de cada um dos dois buffers
+     */
+    public static final int PADRAO_TAMANHO_BUFFER = 256 * 1024;
+
+    /**
+     * Thread única que escreve os buffers cheios de todos os gravadores
+     */
+    private static final ExecutorService gravacao = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "fgn-gravacao-texto");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path destino;
+    private final Path temporario;
+    private final FileChannel canal;
+    private final CharsetEncoder codificador = StandardCharsets.UTF_8.newEncoder();
+    private ByteBuffer atual;
+    private ByteBuffer reserva;
+    private Future<?> escritaPendente;
+    private boolean publicado;
+
+    /**
+     * Cria o gravador com buffers de {@link #PADRAO_TAMANHO_BUFFER} bytes.
+     *
+     * @param destino arquivo que será substituído ao publicar
+     * @throws IOException se não for possível criar o arquivo temporário
+     */
+    public GravadorDuploBuffer(Path destino) throws IOException {
+        this(destino, PADRAO_TAMANHO_BUFFER);
+    }
+
+    /**
+     * Cria o gravador com o tamanho de buffer informado.
+     *
+     * @param destino arquivo que será substituído ao publicar
+     * @param tamanhoBuffer tamanho em bytes de cada um dos dois buffers
+     * @throws IOException se não for possível criar o arquivo temporário
+     */
+    public GravadorDuploBuffer(Path destino, int tamanhoBuffer) throws IOException {
+        this.destino = destino;
+        this.temporario = Paths.get(destino + ".tmp");
+        this.canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        // Espaço mínimo para qualquer caractere codificado, inclusive emojis
+        this.atual = ByteBuffer.allocate(Math.max(16, tamanhoBuffer));
+        this.reserva = ByteBuffer.allocate(Math.max(16, tamanhoBuffer));
+    }
+
+    /**
+     * Acrescenta o texto ao arquivo.
+     *
+     * @param texto texto a ser gravado
+     * @throws IOException se a escrita de um buffer anterior falhou
+     */
+    public void escrever(String texto) throws IOException {
+        CharBuffer caracteres = CharBuffer.wrap(texto);
+        while (true) {
+            CoderResult resultado = codificador.encode(caracteres, atual, false);
+            if (resultado.isOverflow()) {
+                trocarBuffers();
+            } else if (resultado.isUnderflow()) {
+                break;
+            } else {
+                resultado.throwException();
+            }
+        }
+    }
+
+    /**
+     * Acrescenta o texto seguido de uma quebra de linha.
+     *
+     * @param linha texto da linha
+     * @throws IOException se a escrita de um buffer anterior falhou
+     */
+    public void escreverLinha(String linha) throws IOException {
+        escrever(linha);
+        escrever(System.lineSeparator());
+    }
+
+    /**
+     * Grava o restante do conteúdo, sincroniza o arquivo temporário com o disco e
+     * o move sobre o arquivo de destino.
+     *
+     * @throws IOException se não for possível concluir a gravação ou a troca
+     */
+    public void publicar() throws IOException {
+        codificador.encode(CharBuffer.allocate(0), atual, true);
+        codificador.flush(atual);
+        trocarBuffers();
+        aguardarEscrita();
+        canal.force(true);
+        canal.close();
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        publicado = true;
+    }
+
+    /**
+     * Encerra o gravador. Se o conteúdo não foi publicado, o arquivo temporário é
+     * descartado e o arquivo de destino permanece inalterado.
+     *
+     * @throws IOException se não for possível apagar o arquivo temporário
+     */
+    @Override
+    public void close() throws IOException {
+        if (publicado) {
+            return;
+        }
+        try {
+            aguardarEscrita();
+        } catch (IOException e) {
+            // O conteúdo será descartado de qualquer forma
+        }
+        canal.close();
+        Files.deleteIfExists(temporario);
+    }
+
+    /**
+     * Entrega o buffer preenchido à thread de gravação e passa a preencher o outro,
+     * aguardando antes a escrita anterior.
+     */
+    private void trocarBuffers() throws IOException {
+        aguardarEscrita();
+        ByteBuffer cheio = atual;
+        atual = reserva;
+        atual.clear();
+        reserva = cheio;
+        cheio.flip();
+        escritaPendente = gravacao.submit(() -> {
+            while (cheio.hasRemaining()) {
+                canal.write(cheio);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Aguarda a escrita em andamento e repassa sua falha, se houver.
+     */
+    private void aguardarEscrita() throws IOException {
+        if (escritaPendente == null) {
+            return;
+        }
+        try {
+            escritaPendente.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("gravação interrompida", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } finally {
+            escritaPendente = null;
+        }
+    }
+}
@@ -0,0 +1,815 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>
+ * Esta classe implementa a importação em lote de focos de calor detectados por
+ * satélite, no formato CSV publicado pelo INPE (latitude, longitude, data/hora
+ * GMT e potência radiativa do fogo, FRP), transformando-os em ocorrências das
+ * áreas florestais monitoradas pelo sistema Forest Guardian Network.
+ * </p>
+ * <p>
+ * A importação é feita em etapas. O arquivo é mapeado em memória e dividido em
+ * blocos interpretados em paralelo no {@link ForkJoinPool} comum; cada bloco
+ * converte suas linhas em vetores primitivos, associa cada foco à área mais
+ * próxima cujo raio o contém, com uma grade de células de
+ * {@link #TAMANHO_CELULA_GRAUS} graus, e agrupa os focos da mesma área na mesma
+ * hora. Os grupos dos blocos são então combinados, os que correspondem a
+ * ocorrências já registradas são descartados e as novas ocorrências são anexadas
+ * ao histórico binário de cada cidade em lotes do tamanho de um segmento, com
+ * uma única sincronização com o disco por lote.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class ImportadorFocosCalor {
+    /**
+     * Tamanho nominal em bytes de cada bloco do CSV interpretado em paralelo
+     */
+    private static final int TAMANHO_BLOCO = 16 * 1024 * 1024;
+    /**
+     * Tamanho máximo de uma linha; o mapeamento de cada bloco se estende por esse
+     * valor para concluir a linha que começa no seu final
+     */
+    private static final int TAMANHO_MAXIMO_LINHA = 64 * 1024;
+    /**
+     * Quilômetros por grau de latitude, utilizado para converter o raio das áreas em graus
+     */
+    private static final double KM_POR_GRAU = 111.32;
+    /**
+     * Quantidade de células da grade em uma faixa de latitude
+     */
+    private static final int CELULAS_POR_FAIXA = 3600;
+
+    /**
+     * Tamanho em graus de cada célula da grade de localização das áreas
+     */
+    public static final double TAMANHO_CELULA_GRAUS = 0.1;
+    /**
+     * Potência radiativa em megawatts considerada equivalente a um hectare em chamas,
+     * utilizada para estimar a extensão do incêndio a partir do maior FRP da hora
+     */
+    public static final double FRP_POR_HECTARE_MW = 0.5;
+    /**
+     * Focos mais antigos que esta quantidade de horas são importados como concluídos
+     */
+    public static final int HORAS_FOCO_ATIVO = 72;
+    /**
+     * Velocidade média de deslocamento dos bombeiros até a área, em km/h
+     */
+    public static final int VELOCIDADE_MEDIA_KMH = 75;
+
+    /**
+     * Nomes aceitos para a coluna de latitude, sem diferenciar maiúsculas
+     */
+    static final String[] COLUNAS_LATITUDE = {"lat", "latitude"};
+    /**
+     * Nomes aceitos para a coluna de longitude
+     */
+    static final String[] COLUNAS_LONGITUDE = {"lon", "long", "longitude"};
+    /**
+     * Nomes aceitos para a coluna de data e hora em GMT
+     */
+    static final String[] COLUNAS_DATA_HORA = {"data_hora_gmt", "datahora", "data_hora", "data", "timestamp"};
+    /**
+     * Nomes aceitos para a coluna opcional de potência radiativa do fogo
+     */
+    static final String[] COLUNAS_FRP = {"frp"};
+
+    /**
+     * <p>
+     * Resultado de uma importação de focos de calor.
+     * </p>
+     */
+    public static class Resultado {
+        private final long linhasLidas;
+        private final long linhasInvalidas;
+        private final long focosForaDasAreas;
+        private final long focosAgrupados;
+        private final long focosJaRegistrados;
+        private final ArrayList<Ocorrencia> ocorrenciasCriadas;
+
+        Resultado(long linhasLidas, long linhasInvalidas, long focosForaDasAreas, long focosAgrupados,
+                  long focosJaRegistrados, ArrayList<Ocorrencia> ocorrenciasCriadas) {
+            this.linhasLidas = linhasLidas;
+            this.linhasInvalidas = linhasInvalidas;
+            this.focosForaDasAreas = focosForaDasAreas;
+            this.focosAgrupados = focosAgrupados;
+            this.focosJaRegistrados = focosJaRegistrados;
+            this.ocorrenciasCriadas = ocorrenciasCriadas;
+        }
+
+        /**
+         * Obtém a quantidade de linhas de dados lidas, sem contar o cabeçalho.
+         *
+         * @return linhas lidas
+         */
+        public long getLinhasLidas() {
+            return linhasLidas;
+        }
+
+        /**
+         * Obtém a quantidade de linhas sem coordenadas ou data/hora válidas.
+         *
+         * @return linhas ignoradas por erro de formato
+         */
+        public long getLinhasInvalidas() {
+            return linhasInvalidas;
+        }
+
+        /**
+         * Obtém a quantidade de focos que não estão no raio de nenhuma área.
+         *
+         * @return focos ignorados por localização
+         */
+        public long getFocosForaDasAreas() {
+            return focosForaDasAreas;
+        }
+
+        /**
+         * Obtém a quantidade de focos agrupados a outro da mesma área e hora.
+         *
+         * @return focos duplicados
+         */
+        public long getFocosAgrupados() {
+            return focosAgrupados;
+        }
+
+        /**
+         * Obtém a quantidade de grupos descartados por já existir ocorrência de
+         * incêndio na mesma área e hora.
+         *
+         * @return grupos já registrados
+         */
+        public long getFocosJaRegistrados() {
+            return focosJaRegistrados;
+        }
+
+        /**
+         * Obtém as ocorrências criadas e anexadas ao histórico, em ordem de detecção.
+         *
+         * @return ocorrências criadas
+         */
+        public ArrayList<Ocorrencia> getOcorrenciasCriadas() {
+            return ocorrenciasCriadas;
+        }
+    }
+
+    /**
+     * Posição das colunas utilizadas e início dos dados, obtidos do cabeçalho.
+     */
+    private static class Colunas {
+        byte separador;
+        int latitude = -1;
+        int longitude = -1;
+        int dataHora = -1;
+        int frp = -1;
+        long inicioDados;
+    }
+
+    /**
+     * Primeira etapa: focos de um bloco convertidos em vetores primitivos.
+     */
+    private static class Lote {
+        double[] latitudes = new double[1024];
+        double[] longitudes = new double[1024];
+        long[] instantes = new long[1024];
+        float[] frp = new float[1024];
+        int quantidade;
+        int invalidas;
+
+        void adicionar(double latitude, double longitude, long instante, float potencia) {
+            if (quantidade == instantes.length) {
+                int capacidade = quantidade * 2;
+                latitudes = Arrays.copyOf(latitudes, capacidade);
+                longitudes = Arrays.copyOf(longitudes, capacidade);
+                instantes = Arrays.copyOf(instantes, capacidade);
+                frp = Arrays.copyOf(frp, capacidade);
+            }
+            latitudes[quantidade] = latitude;
+            longitudes[quantidade] = longitude;
+            instantes[quantidade] = instante;
+            frp[quantidade] = potencia;
+            quantidade++;
+        }
+    }
+
+    /**
+     * Focos de uma mesma área na mesma hora, que formam uma única ocorrência.
+     */
+    private static class Foco {
+        final int indiceArea;
+        long primeiroInstante;
+        float frpMaximo;
+        int deteccoes;
+
+        Foco(int indiceArea, long instante, float frp) {
+            this.indiceArea = indiceArea;
+            this.primeiroInstante = instante;
+            this.frpMaximo = frp;
+            this.deteccoes = 1;
+        }
+
+        void absorver(long instante, float frp, int quantidade) {
+            primeiroInstante = Math.min(primeiroInstante, instante);
+            frpMaximo = Math.max(frpMaximo, frp);
+            deteccoes += quantidade;
+        }
+    }
+
+    /**
+     * Resultado parcial de um ou mais blocos consecutivos do arquivo.
+     */
+    private static class Parcial {
+        final HashMap<Long, Foco> focos = new HashMap<>();
+        long linhas;
+        long invalidas;
+        long foraDasAreas;
+        long agrupados;
+
+        /**
+         * Acrescenta os focos de blocos posteriores, agrupando os da mesma área e hora.
+         */
+        Parcial combinar(Parcial outro) {
+            for (java.util.Map.Entry<Long, Foco> entrada : outro.focos.entrySet()) {
+                Foco existente = focos.get(entrada.getKey());
+                Foco foco = entrada.getValue();
+                if (existente == null) {
+                    focos.put(entrada.getKey(), foco);
+                } else {
+                    existente.absorver(foco.primeiroInstante, foco.frpMaximo, foco.deteccoes);
+                    agrupados++;
+                }
+            }
+            linhas += outro.linhas;
+            invalidas += outro.invalidas;
+            foraDasAreas += outro.foraDasAreas;
+            agrupados += outro.agrupados;
+            return this;
+        }
+    }
+
+    /**
+     * Segunda etapa: grade de células que associa coordenadas às áreas florestais.
+     */
+    private static class GradeAreas {
+        final AreaFlorestal[] areas;
+        final HashMap<Integer, int[]> celulas = new HashMap<>();
+        double latitudeMinima = Double.MAX_VALUE;
+        double latitudeMaxima = -Double.MAX_VALUE;
+        double longitudeMinima = Double.MAX_VALUE;
+        double longitudeMaxima = -Double.MAX_VALUE;
+
+        GradeAreas(ArrayList<AreaFlorestal> areasComCoordenadas) {
+            this.areas = areasComCoordenadas.toArray(new AreaFlorestal[0]);
+            for (int indice = 0; indice < areas.length; indice++) {
+                AreaFlorestal area = areas[indice];
+                double raioLatitude = area.getRaioKm() / KM_POR_GRAU;
+                double raioLongitude = area.getRaioKm() / (KM_POR_GRAU * Math.cos(Math.toRadians(area.getLatitude())));
+                latitudeMinima = Math.min(latitudeMinima, area.getLatitude() - raioLatitude);
+                latitudeMaxima = Math.max(latitudeMaxima, area.getLatitude() + raioLatitude);
+                longitudeMinima = Math.min(longitudeMinima, area.getLongitude() - raioLongitude);
+                longitudeMaxima = Math.max(longitudeMaxima, area.getLongitude() + raioLongitude);
+
+                for (int faixa = faixa(area.getLatitude() - raioLatitude); faixa <= faixa(area.getLatitude() + raioLatitude); faixa++) {
+                    for (int coluna = coluna(area.getLongitude() - raioLongitude); coluna <= coluna(area.getLongitude() + raioLongitude); coluna++) {
+                        int[] anteriores = celulas.getOrDefault(faixa * CELULAS_POR_FAIXA + coluna, new int[0]);
+                        int[] indices = Arrays.copyOf(anteriores, anteriores.length + 1);
+                        indices[anteriores.length] = indice;
+                        celulas.put(faixa * CELULAS_POR_FAIXA + coluna, indices);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Localiza a área mais próxima cujo raio contém o ponto.
+         *
+         * @return índice da área ou -1 se o ponto não pertence a nenhuma área
+         */
+        int localizar(double latitude, double longitude) {
+            if (latitude < latitudeMinima || latitude > latitudeMaxima
+                    || longitude < longitudeMinima || longitude > longitudeMaxima) {
+                return -1;
+            }
+            int[] candidatas = celulas.get(faixa(latitude) * CELULAS_POR_FAIXA + coluna(longitude));
+            if (candidatas == null) {
+                return -1;
+            }
+
+            int escolhida = -1;
+            double menorDistancia = Double.MAX_VALUE;
+            for (int indice : candidatas) {
+                double distancia = areas[indice].distanciaAteKm(latitude, longitude);
+                if (distancia <= areas[indice].getRaioKm() && distancia < menorDistancia) {
+                    escolhida = indice;
+                    menorDistancia = distancia;
+                }
+            }
+            return escolhida;
+        }
+
+        private static int faixa(double latitude) {
+            return (int) Math.floor((latitude + 90) / TAMANHO_CELULA_GRAUS);
+        }
+
+        private static int coluna(double longitude) {
+            return (int) Math.floor((longitude + 180) / TAMANHO_CELULA_GRAUS);
+        }
+    }
+
+    /**
+     * Tarefa de divisão e conquista sobre um intervalo de blocos do CSV.
+     */
+    private static class TarefaBlocos extends RecursiveTask<Parcial> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient FileChannel canal;
+        private final transient Colunas colunas;
+        private final transient GradeAreas grade;
+        private final int tamanhoBloco;
+        private final int primeiro;
+        private final int ultimo;
+
+        TarefaBlocos(FileChannel canal, Colunas colunas, GradeAreas grade, int tamanhoBloco, int primeiro, int ultimo) {
+            this.canal = canal;
+            this.colunas = colunas;
+            this.grade = grade;
+            this.tamanhoBloco = tamanhoBloco;
+            this.primeiro = primeiro;
+            this.ultimo = ultimo;
+        }
+
+        @Override
+        protected Parcial compute() {
+            if (ultimo - primeiro == 1) {
+                try {
+                    return processarBloco(canal, colunas, grade, tamanhoBloco, primeiro);
+                } catch (IOException e) {
+                    throw new java.io.UncheckedIOException(e);
+                }
+            }
+
+            int meio = (primeiro + ultimo) >>> 1;
+            TarefaBlocos anterior = new TarefaBlocos(canal, colunas, grade, tamanhoBloco, primeiro, meio);
+            TarefaBlocos posterior = new TarefaBlocos(canal, colunas, grade, tamanhoBloco, meio, ultimo);
+            posterior.fork();
+            Parcial resultado = anterior.compute();
+            return resultado.combinar(posterior.join());
+        }
+    }
+
+    /**
+     * Importa os focos de calor do arquivo CSV, criando uma ocorrência por área
+     * florestal e hora de detecção e anexando-as ao histórico das cidades
+     * responsáveis. As ocorrências criadas são acrescentadas à lista do sistema.
+     *
+     * @param csv arquivo CSV com os focos de calor
+     * @param areasFlorestais áreas que podem receber ocorrências; áreas sem coordenadas são ignoradas
+     * @param estacoes estações de bombeiros responsáveis pelas áreas
+     * @param drones drones associados às novas ocorrências, um por estação
+     * @param ocorrencias lista completa de ocorrências do sistema
+     * @return resultado da importação
+     * @throws IOException se o arquivo não puder ser lido, não tiver as colunas
+     *                     necessárias ou se não for possível gravar o histórico
+     */
+    public static Resultado importar(Path csv, ArrayList<AreaFlorestal> areasFlorestais, ArrayList<EstacaoBombeiros> estacoes,
+                                     ArrayList<Drone> drones, ArrayList<Ocorrencia> ocorrencias) throws IOException {
+        return importar(csv, areasFlorestais, estacoes, drones, ocorrencias, TAMANHO_BLOCO);
+    }
+
+    /**
+     * Importa os focos de calor utilizando o tamanho de bloco informado.
+     */
+    static Resultado importar(Path csv, ArrayList<AreaFlorestal> areasFlorestais, ArrayList<EstacaoBombeiros> estacoes,
+                              ArrayList<Drone> drones, ArrayList<Ocorrencia> ocorrencias, int tamanhoBloco) throws IOException {
+        HashMap<Integer, EstacaoBombeiros> estacoesPorId = new HashMap<>();
+        for (EstacaoBombeiros estacao : estacoes) {
+            estacoesPorId.put(estacao.getIdEstacao(), estacao);
+        }
+        ArrayList<AreaFlorestal> areasComCoordenadas = new ArrayList<>();
+        for (AreaFlorestal area : areasFlorestais) {
+            if (area.possuiCoordenadas() && estacoesPorId.containsKey(area.getIdEstacaoResponsavel())) {
+                areasComCoordenadas.add(area);
+            }
+        }
+        GradeAreas grade = new GradeAreas(areasComCoordenadas);
+
+        Parcial parcial = interpretar(csv, grade, tamanhoBloco);
+        long jaRegistrados = descartarJaRegistrados(parcial.focos, ocorrencias);
+
+        // Ocorrências em ordem de detecção, para que os IDs acompanhem a cronologia
+        ArrayList<Foco> focos = new ArrayList<>(parcial.focos.values());
+        focos.sort(Comparator.comparingLong((Foco foco) -> foco.primeiroInstante)
+                .thenComparingInt(foco -> grade.areas[foco.indiceArea].getIdArea()));
+
+        // Cada cidade reserva de uma vez, com a trava exclusiva, os IDs das suas novas ocorrências
+        LinkedHashMap<Integer, Integer> proximoIdPorEstacao = new LinkedHashMap<>();
+        for (Foco foco : focos) {
+            proximoIdPorEstacao.merge(grade.areas[foco.indiceArea].getIdEstacaoResponsavel(), 1, Integer::sum);
+        }
+        for (java.util.Map.Entry<Integer, Integer> entrada : proximoIdPorEstacao.entrySet()) {
+            entrada.setValue(ContadorIdsHistorico.reservar(estacoesPorId.get(entrada.getKey()), entrada.getValue()));
+        }
+
+        LinkedHashMap<Integer, ArrayList<Ocorrencia>> porEstacao = new LinkedHashMap<>();
+        ArrayList<Ocorrencia> criadas = new ArrayList<>(focos.size());
+        long limiteAtivo = Instant.now().getEpochSecond() - HORAS_FOCO_ATIVO * 3600L;
+        for (Foco foco : focos) {
+            AreaFlorestal area = grade.areas[foco.indiceArea];
+            int idOcorrencia = proximoIdPorEstacao.merge(area.getIdEstacaoResponsavel(), 1, Integer::sum) - 1;
+            Ocorrencia ocorrencia = criarOcorrencia(idOcorrencia, area, foco, limiteAtivo,
+                    obterDrone(drones, area.getIdEstacaoResponsavel()));
+            criadas.add(ocorrencia);
+            porEstacao.computeIfAbsent(area.getIdEstacaoResponsavel(), id -> new ArrayList<>()).add(ocorrencia);
+        }
+
+        // Versões enfileiradas antes da importação precisam preceder as novas no log
+        ServicoPersistencia.descarregar();
+        for (java.util.Map.Entry<Integer, ArrayList<Ocorrencia>> entrada : porEstacao.entrySet()) {
+            anexar(entrada.getValue(), estacoesPorId.get(entrada.getKey()), ocorrencias);
+        }
+
+        return new Resultado(parcial.linhas, parcial.invalidas, parcial.foraDasAreas, parcial.agrupados,
+                jaRegistrados, criadas);
+    }
+
+    /**
+     * Interpreta o CSV em blocos paralelos, da leitura das linhas ao agrupamento
+     * dos focos de cada bloco, e combina os resultados.
+     */
+    private static Parcial interpretar(Path csv, GradeAreas grade, int tamanhoBloco) throws IOException {
+        try (FileChannel canal = FileChannel.open(csv, StandardOpenOption.READ)) {
+            Colunas colunas = lerCabecalho(canal);
+            long tamanhoDados = canal.size() - colunas.inicioDados;
+            if (tamanhoDados <= 0) {
+                return new Parcial();
+            }
+
+            int quantidadeBlocos = (int) ((tamanhoDados + tamanhoBloco - 1) / tamanhoBloco);
+            TarefaBlocos tarefa = new TarefaBlocos(canal, colunas, grade, tamanhoBloco, 0, quantidadeBlocos);
+            try {
+                return quantidadeBlocos == 1 ? tarefa.compute() : ForkJoinPool.commonPool().invoke(tarefa);
+            } catch (java.io.UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Lê a linha de cabeçalho, identificando o separador e a posição das colunas.
+     */
+    private static Colunas lerCabecalho(FileChannel canal) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(TAMANHO_MAXIMO_LINHA, canal.size()));
+        canal.read(buffer, 0);
+        String inicio = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        int fimLinha = inicio.indexOf('\n');
+        String cabecalho = fimLinha >= 0 ? inicio.substring(0, fimLinha) : inicio;
+
+        Colunas colunas = new Colunas();
+        colunas.inicioDados = fimLinha >= 0 ? cabecalho.getBytes(StandardCharsets.UTF_8).length + 1 : canal.size();
+        cabecalho = cabecalho.replace("\r", "").replace("\uFEFF", "");
+        colunas.separador = (byte) (cabecalho.indexOf(';') >= 0 && cabecalho.indexOf(',') < 0 ? ';' : ',');
+
+        String[] nomes = cabecalho.split(colunas.separador == ';' ? ";" : ",", -1);
+        for (int i = 0; i < nomes.length; i++) {
+            String nome = nomes[i].trim().replace("\"", "").toLowerCase();
+            if (colunas.latitude < 0 && contem(COLUNAS_LATITUDE, nome)) {
+                colunas.latitude = i;
+            } else if (colunas.longitude < 0 && contem(COLUNAS_LONGITUDE, nome)) {
+                colunas.longitude = i;
+            } else if (colunas.dataHora < 0 && contem(COLUNAS_DATA_HORA, nome)) {
+                colunas.dataHora = i;
+            } else if (colunas.frp < 0 && contem(COLUNAS_FRP, nome)) {
+                colunas.frp = i;
+            }
+        }
+        if (colunas.latitude < 0 || colunas.longitude < 0 || colunas.dataHora < 0) {
+            throw new IOException("cabeçalho sem colunas de latitude, longitude e data/hora: " + cabecalho);
+        }
+        return colunas;
+    }
+
+    /**
+     * Executa as etapas de leitura, associação às áreas e agrupamento de um bloco.
+     * O bloco processa as linhas que começam no seu intervalo nominal; a linha que
+     * começa no intervalo anterior é deixada para o bloco anterior.
+     */
+    private static Parcial processarBloco(FileChannel canal, Colunas colunas, GradeAreas grade,
+                                          int tamanhoBloco, int indice) throws IOException {
+        long inicioNominal = colunas.inicioDados + (long) indice * tamanhoBloco;
+        long fimNominal = Math.min(canal.size(), inicioNominal + tamanhoBloco);
+        // Um byte antes do início para saber se o bloco começa em uma linha nova
+        long inicioMapa = indice == 0 ? inicioNominal : inicioNominal - 1;
+        long fimMapa = Math.min(canal.size(), fimNominal + TAMANHO_MAXIMO_LINHA);
+        ByteBuffer bloco = canal.map(FileChannel.MapMode.READ_ONLY, inicioMapa, fimMapa - inicioMapa);
+
+        int posicao = 0;
+        if (indice > 0) {
+            while (posicao < bloco.limit() && bloco.get(posicao) != '\n') {
+                posicao++;
+            }
+            posicao++;
+        }
+
+        Lote lote = lerLinhas(bloco, posicao, (int) (fimNominal - inicioMapa), colunas);
+        int[] indicesArea = mapearAreas(lote, grade);
+        Parcial parcial = agrupar(lote, indicesArea, grade);
+        parcial.linhas = lote.quantidade + lote.invalidas;
+        parcial.invalidas = lote.invalidas;
+        return parcial;
+    }
+
+    /**
+     * Primeira etapa: converte as linhas que começam antes do limite em vetores primitivos.
+     */
+    private static Lote lerLinhas(ByteBuffer bloco, int posicao, int limite, Colunas colunas) {
+        Lote lote = new Lote();
+        int fim = bloco.limit();
+        while (posicao < limite) {
+            int coluna = 0;
+            int inicioCampo = posicao;
+            boolean entreAspas = false;
+            double latitude = Double.NaN;
+            double longitude = Double.NaN;
+            long instante = Long.MIN_VALUE;
+            float frp = 0;
+
+            int atual = posicao;
+            while (true) {
+                byte caractere = atual < fim ? bloco.get(atual) : (byte) '\n';
+                if (caractere == '"') {
+                    entreAspas = !entreAspas;
+                } else if (!entreAspas && (caractere == colunas.separador || caractere == '\n')) {
+                    if (coluna == colunas.latitude) {
+                        latitude = lerDecimal(bloco, inicioCampo, atual);
+                    } else if (coluna == colunas.longitude) {
+                        longitude = lerDecimal(bloco, inicioCampo, atual);
+                    } else if (coluna == colunas.dataHora) {
+                        instante = lerInstante(bloco, inicioCampo, atual);
+                    } else if (coluna == colunas.frp) {
+                        double valor = lerDecimal(bloco, inicioCampo, atual);
+                        frp = Double.isNaN(valor) ? 0 : (float) valor;
+                    }
+                    if (caractere == '\n') {
+                        break;
+                    }
+                    coluna++;
+                    inicioCampo = atual + 1;
+                }
+                atual++;
+            }
+
+            boolean vazia = atual == posicao || (atual == posicao + 1 && bloco.get(posicao) == '\r');
+            if (!vazia) {
+                if (Double.isNaN(latitude) || Double.isNaN(longitude) || instante == Long.MIN_VALUE) {
+                    lote.invalidas++;
+                } else {
+                    lote.adicionar(latitude, longitude, instante, frp);
+                }
+            }
+            posicao = atual + 1;
+        }
+        return lote;
+    }
+
+    /**
+     * Segunda etapa: associa cada foco do lote à área que o contém.
+     */
+    private static int[] mapearAreas(Lote lote, GradeAreas grade) {
+        int[] indices = new int[lote.quantidade];
+        for (int i = 0; i < lote.quantidade; i++) {
+            indices[i] = grade.localizar(lote.latitudes[i], lote.longitudes[i]);
+        }
+        return indices;
+    }
+
+    /**
+     * Terceira etapa: agrupa os focos do lote por área e hora de detecção.
+     */
+    private static Parcial agrupar(Lote lote, int[] indicesArea, GradeAreas grade) {
+        Parcial parcial = new Parcial();
+        for (int i = 0; i < lote.quantidade; i++) {
+            if (indicesArea[i] < 0) {
+                parcial.foraDasAreas++;
+                continue;
+            }
+            long chave = chave(grade.areas[indicesArea[i]].getIdArea(), lote.instantes[i]);
+            Foco foco = parcial.focos.get(chave);
+            if (foco == null) {
+                parcial.focos.put(chave, new Foco(indicesArea[i], lote.instantes[i], lote.frp[i]));
+            } else {
+                foco.absorver(lote.instantes[i], lote.frp[i], 1);
+                parcial.agrupados++;
+            }
+        }
+        return parcial;
+    }
+
+    /**
+     * Remove os grupos de focos para os quais já existe ocorrência de incêndio
+     * na mesma área e hora, o que torna a reimportação do mesmo arquivo inócua.
+     *
+     * @return quantidade de grupos removidos
+     */
+    private static long descartarJaRegistrados(HashMap<Long, Foco> focos, ArrayList<Ocorrencia> ocorrencias) {
+        HashSet<Long> registrados = new HashSet<>();
+        for (Ocorrencia ocorrencia : ocorrencias) {
+            if (ocorrencia.getAreaAfetada() != null && !ocorrencia.isSegura()) {
+                long instante = ocorrencia.getDataHoraDeteccao().atZone(ZoneId.systemDefault()).toEpochSecond();
+                registrados.add(chave(ocorrencia.getAreaAfetada().getIdArea(), instante));
+            }
+        }
+
+        long removidos = 0;
+        for (Long chave : registrados) {
+            if (focos.remove(chave) != null) {
+                removidos++;
+            }
+        }
+        return removidos;
+    }
+
+    /**
+     * Cria a ocorrência de um grupo de focos. A extensão é estimada pelo maior FRP
+     * da hora e o foco é considerado ativo se foi detectado nas últimas
+     * {@link #HORAS_FOCO_ATIVO} horas.
+     */
+    private static Ocorrencia criarOcorrencia(int idOcorrencia, AreaFlorestal area, Foco foco, long limiteAtivo, Drone drone) {
+        int hectares = (int) Math.max(1, Math.round(foco.frpMaximo / FRP_POR_HECTARE_MW));
+        StatusOcorrencia status = foco.primeiroInstante >= limiteAtivo ? StatusOcorrencia.ATIVO : StatusOcorrencia.CONCLUIDO;
+        LocalDateTime deteccao = LocalDateTime.ofInstant(Instant.ofEpochSecond(foco.primeiroInstante), ZoneId.systemDefault());
+        return new Ocorrencia(idOcorrencia, area, hectares, NivelRisco.calcular(hectares), status, null, drone,
+                null, Ocorrencia.calcularTempoChegada(area.getDistanciaKm(), VELOCIDADE_MEDIA_KMH), deteccao);
+    }
+
+    /**
+     * Quarta etapa: anexa as ocorrências da estação ao histórico em lotes do
+     * tamanho de um segmento, com uma sincronização por lote, e as acrescenta à
+     * lista do sistema à medida que cada lote é gravado.
+     */
+    private static void anexar(ArrayList<Ocorrencia> novas, EstacaoBombeiros estacao,
+                               ArrayList<Ocorrencia> ocorrencias) throws IOException {
+        int tamanhoLote = LogHistorico.getRegistrosPorSegmento();
+        int anexadas = 0;
+        try {
+            for (int inicio = 0; inicio < novas.size(); inicio += tamanhoLote) {
+                java.util.List<Ocorrencia> lote = novas.subList(inicio, Math.min(novas.size(), inicio + tamanhoLote));
+                ArrayList<byte[]> registros = new ArrayList<>(lote.size());
+                for (Ocorrencia ocorrencia : lote) {
+                    registros.add(LogHistorico.serializar(ocorrencia));
+                }
+                LogHistorico.anexarRegistros(registros, estacao, true);
+                ocorrencias.addAll(lote);
+                anexadas += lote.size();
+            }
+            CompactadorHistorico.compactarSeNecessario(estacao);
+        } finally {
+            Arquivo.registrarOcorrenciasAnexadas(anexadas, ocorrencias, estacao);
+        }
+    }
+
+    /**
+     * Obtém o drone da estação, associado às ocorrências importadas.
+     */
+    private static Drone obterDrone(ArrayList<Drone> drones, int idEstacao) {
+        for (Drone drone : drones) {
+            if (drone.getIdEstacaoResponsavel() == idEstacao) {
+                return drone;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Chave de agrupamento formada pelo ID da área e pela hora de detecção.
+     */
+    private static long chave(int idArea, long instante) {
+        return ((long) idArea << 32) | Math.floorDiv(instante, 3600L);
+    }
+
+    private static boolean contem(String[] nomes, String nome) {
+        for (String aceito : nomes) {
+            if (aceito.equals(nome)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Interpreta um número decimal com ponto ou vírgula, sem criar objetos.
+     *
+     * @return valor lido ou NaN se o campo estiver vazio ou mal formatado
+     */
+    static double lerDecimal(ByteBuffer bloco, int inicio, int fim) {
+        while (inicio < fim && ignoravel(bloco.get(inicio))) {
+            inicio++;
+        }
+        while (fim > inicio && ignoravel(bloco.get(fim - 1))) {
+            fim--;
+        }
+        boolean negativo = false;
+        if (inicio < fim && (bloco.get(inicio) == '-' || bloco.get(inicio) == '+')) {
+            negativo = bloco.get(inicio) == '-';
+            inicio++;
+        }
+
+        long inteiro = 0;
+        long fracao = 0;
+        double divisor = 1;
+        boolean decimal = false;
+        int digitos = 0;
+        for (int i = inicio; i < fim; i++) {
+            byte caractere = bloco.get(i);
+            if (caractere >= '0' && caractere <= '9') {
+                if (!decimal) {
+                    inteiro = inteiro * 10 + (caractere - '0');
+                } else if (divisor < 1e15) {
+                    fracao = fracao * 10 + (caractere - '0');
+                    divisor *= 10;
+                }
+                digitos++;
+            } else if ((caractere == '.' || caractere == ',') && !decimal) {
+                decimal = true;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digitos == 0) {
+            return Double.NaN;
+        }
+        double valor = inteiro + fracao / divisor;
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * Interpreta data e hora em GMT nos formatos {@code aaaa-mm-dd hh:mm:ss},
+     * {@code aaaa-mm-ddThh:mm:ssZ}, {@code aaaa/mm/dd hh:mm} ou {@code dd/mm/aaaa hh:mm}.
+     *
+     * @return segundos desde 1970-01-01T00:00Z ou {@link Long#MIN_VALUE} se inválida
+     */
+    static long lerInstante(ByteBuffer bloco, int inicio, int fim) {
+        int[] partes = new int[6];
+        int quantidade = 0;
+        int digitosPrimeira = 0;
+        boolean emNumero = false;
+        for (int i = inicio; i < fim && quantidade <= partes.length; i++) {
+            byte caractere = bloco.get(i);
+            if (caractere >= '0' && caractere <= '9') {
+                if (!emNumero) {
+                    if (quantidade == partes.length) {
+                        break;
+                    }
+                    emNumero = true;
+                    quantidade++;
+                }
+                partes[quantidade - 1] = partes[quantidade - 1] * 10 + (caractere - '0');
+                if (quantidade == 1) {
+                    digitosPrimeira++;
+                }
+            } else {
+                emNumero = false;
+            }
+        }
+        if (quantidade < 3) {
+            return Long.MIN_VALUE;
+        }
+
+        int ano = digitosPrimeira == 4 ? partes[0] : partes[2];
+        int dia = digitosPrimeira == 4 ? partes[2] : partes[0];
+        if (partes[3] > 23 || partes[4] > 59 || partes[5] > 59) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            long dias = LocalDate.of(ano, partes[1], dia).toEpochDay();
+            return dias * 86400L + partes[3] * 3600L + partes[4] * 60L + partes[5];
+        } catch (DateTimeException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static boolean ignoravel(byte caractere) {
+        return caractere == ' ' || caractere == '"' || caractere == '\r' || caractere == '\t';
+    }
+}
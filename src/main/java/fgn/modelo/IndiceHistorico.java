@@ -0,0 +1,439 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Esta classe mantém o índice de posições ({@code historico_<cidade>.idx}) que
+ * acompanha o histórico binário de cada cidade no sistema Forest Guardian Network.
+ * O índice é endereçado diretamente pelo ID da ocorrência: a entrada do ID
+ * {@code n} ocupa 8 bytes na posição {@code TAMANHO_CABECALHO + n * 8} e contém a
+ * posição do registro mais recente da ocorrência, composta pelo número do
+ * segmento (0 = segmento aberto {@code .dat}) e pelo deslocamento dentro dele.
+ * Localizar uma ocorrência exige apenas duas leituras posicionais, sem carregar
+ * o índice nem o histórico em memória.
+ * </p>
+ * <p>
+ * O cabeçalho registra a geração do {@link ManifestoHistorico} e até que tamanho
+ * do segmento aberto o índice está atualizado. Se o histórico tiver sido alterado
+ * sem o índice (por exemplo, em uma falha entre as duas escritas), o índice é
+ * reconstruído automaticamente na próxima consulta. A consulta detecta a
+ * reconstrução pendente ao obter a {@link TravaHistorico} e, nesse caso, a obtém
+ * exclusiva.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class IndiceHistorico {
+    /**
+     * Número mágico que identifica arquivos de índice ("FGNI")
+     */
+    public static final int MAGICO = 0x46474E49;
+    /**
+     * Versão atual do formato do índice
+     */
+    public static final short VERSAO = 2;
+    /**
+     * Tamanho em bytes do cabeçalho do índice
+     */
+    public static final int TAMANHO_CABECALHO = 24;
+    /**
+     * Tamanho em bytes de cada entrada do índice
+     */
+    public static final int TAMANHO_ENTRADA = 8;
+    /**
+     * Quantidade de bits da posição reservados ao deslocamento dentro do segmento
+     */
+    private static final int BITS_DESLOCAMENTO = 40;
+    /**
+     * Quantidade de IDs lidos por vez durante a reconstrução do índice
+     */
+    private static final int REGISTROS_POR_LEITURA = 8192;
+
+    /**
+     * Obtém o nome do arquivo de índice da cidade da estação informada.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return nome do arquivo de índice da cidade
+     */
+    public static String obterNomeArquivo(EstacaoBombeiros estacao) {
+        return Arquivo.obterNomeBaseHistorico(estacao) + ".idx";
+    }
+
+    /**
+     * Compõe a posição de um registro a partir do segmento e do deslocamento.
+     *
+     * @param segmento número do segmento (0 = segmento aberto)
+     * @param deslocamento deslocamento do registro dentro do segmento
+     * @return posição codificada
+     */
+    public static long posicao(int segmento, long deslocamento) {
+        return ((long) segmento << BITS_DESLOCAMENTO) | deslocamento;
+    }
+
+    /**
+     * Obtém o número do segmento de uma posição codificada.
+     *
+     * @param posicao posição retornada pelo índice
+     * @return número do segmento (0 = segmento aberto)
+     */
+    public static int segmentoDaPosicao(long posicao) {
+        return (int) (posicao >>> BITS_DESLOCAMENTO);
+    }
+
+    /**
+     * Obtém o deslocamento dentro do segmento de uma posição codificada.
+     *
+     * @param posicao posição retornada pelo índice
+     * @return deslocamento do registro dentro do segmento
+     */
+    public static long deslocamentoDaPosicao(long posicao) {
+        return posicao & ((1L << BITS_DESLOCAMENTO) - 1);
+    }
+
+    /**
+     * Registra no índice os registros recém-anexados ao segmento aberto.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param ids IDs das ocorrências, na ordem em que foram anexadas
+     * @param primeiroDeslocamento deslocamento no segmento aberto do primeiro registro anexado
+     * @param tamanhoHistorico tamanho do segmento aberto após a escrita
+     * @param geracao geração atual do manifesto
+     * @param sincronizar true para forçar a gravação física do índice
+     * @throws IOException se não for possível escrever no índice
+     */
+    public static void registrar(EstacaoBombeiros estacao, int[] ids, long primeiroDeslocamento,
+                                 long tamanhoHistorico, long geracao, boolean sincronizar) throws IOException {
+        long[] posicoes = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            posicoes[i] = posicao(0, primeiroDeslocamento + (long) i * RegistroBinario.TAMANHO_REGISTRO);
+        }
+        atualizar(estacao, ids, posicoes, geracao, primeiroDeslocamento, geracao, tamanhoHistorico, sincronizar);
+    }
+
+    /**
+     * Atualiza as entradas de registros que mudaram de segmento, na selagem do
+     * segmento aberto ou na compactação dos segmentos selados.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param ids IDs das ocorrências realocadas
+     * @param posicoes novas posições, na mesma ordem dos IDs
+     * @param geracaoAnterior geração do manifesto antes da alteração
+     * @param tamanhoAnterior tamanho do segmento aberto antes da alteração
+     * @param geracao geração do manifesto após a alteração
+     * @param tamanhoHistorico tamanho do segmento aberto após a alteração
+     * @throws IOException se não for possível escrever no índice
+     */
+    public static void realocar(EstacaoBombeiros estacao, int[] ids, long[] posicoes, long geracaoAnterior,
+                                long tamanhoAnterior, long geracao, long tamanhoHistorico) throws IOException {
+        atualizar(estacao, ids, posicoes, geracaoAnterior, tamanhoAnterior, geracao, tamanhoHistorico, true);
+    }
+
+    /**
+     * Reconstrói o índice a partir dos segmentos do histórico, lendo apenas os IDs.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @throws IOException se não for possível ler o histórico ou escrever o índice
+     */
+    public static void reconstruir(EstacaoBombeiros estacao) throws IOException {
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                reconstruir(acesso);
+            }
+        }
+    }
+
+    /**
+     * Reconstrói o índice com a trava exclusiva da cidade já em posse, após uma
+     * alteração do histórico que não atualizou o índice.
+     *
+     * @param acesso trava exclusiva do histórico da cidade
+     * @throws IOException se não for possível ler o histórico ou escrever o índice
+     */
+    static void reconstruir(TravaHistorico acesso) throws IOException {
+        try (FileChannel canal = abrir(acesso.getEstacao())) {
+            reconstruir(acesso, canal);
+        }
+    }
+
+    /**
+     * Verifica se o índice da cidade está ausente ou desatualizado em relação ao
+     * histórico, sem alterá-lo. Deve ser chamado com a trava da cidade obtida.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return true se a próxima consulta precisa reconstruir o índice
+     * @throws IOException se não for possível ler o manifesto ou o índice
+     */
+    static boolean precisaReconstrucao(EstacaoBombeiros estacao) throws IOException {
+        Path indice = Paths.get(obterNomeArquivo(estacao));
+        if (!LogHistorico.existe(estacao)) {
+            return false;
+        }
+        if (!Files.exists(indice)) {
+            return true;
+        }
+        try (FileChannel canal = FileChannel.open(indice, StandardOpenOption.READ)) {
+            return !estaAtualizado(estacao, canal);
+        }
+    }
+
+    /**
+     * Obtém a posição do registro mais recente de uma ocorrência no histórico.
+     * Reconstrói o índice antes da consulta se ele estiver ausente ou desatualizado.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param idOcorrencia ID da ocorrência procurada
+     * @return posição codificada do registro ou -1 se não indexado
+     * @throws IOException se não for possível ler o índice
+     */
+    public static long buscarPosicao(EstacaoBombeiros estacao, int idOcorrencia) throws IOException {
+        return buscarPosicoes(estacao, new int[]{idOcorrencia})[0];
+    }
+
+    /**
+     * Obtém as posições dos registros mais recentes de várias ocorrências com uma
+     * única abertura do índice.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param ids IDs das ocorrências procuradas
+     * @return posições codificadas, na mesma ordem dos IDs (-1 para IDs não indexados)
+     * @throws IOException se não for possível ler o índice
+     */
+    public static long[] buscarPosicoes(EstacaoBombeiros estacao, int[] ids) throws IOException {
+        long[] posicoes = new long[ids.length];
+        Arrays.fill(posicoes, -1);
+        if (!LogHistorico.existe(estacao)) {
+            return posicoes;
+        }
+
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao); FileChannel canal = abrir(estacao)) {
+                garantirAtualizado(acesso, canal);
+
+                long tamanhoIndice = canal.size();
+                ByteBuffer entrada = ByteBuffer.allocate(TAMANHO_ENTRADA);
+                for (int i = 0; i < ids.length; i++) {
+                    long posicaoEntrada = posicaoDaEntrada(ids[i]);
+                    if (ids[i] < 0 || posicaoEntrada + TAMANHO_ENTRADA > tamanhoIndice) {
+                        continue;
+                    }
+                    entrada.clear();
+                    while (entrada.hasRemaining() && canal.read(entrada, posicaoEntrada + entrada.position()) > 0) {
+                        // Leitura posicional até completar a entrada
+                    }
+                    long posicao = entrada.getLong(0);
+                    if (deslocamentoDaPosicao(posicao) >= RegistroBinario.TAMANHO_CABECALHO) {
+                        posicoes[i] = posicao;
+                    }
+                }
+            }
+        }
+        return posicoes;
+    }
+
+    /**
+     * Obtém o maior ID de ocorrência com entrada no índice, sem ler o histórico.
+     * Utilizado para continuar a numeração quando apenas os incêndios ativos da
+     * cidade foram carregados.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return maior ID indexado ou 0 se a cidade não possui histórico
+     * @throws IOException se não for possível ler o índice
+     */
+    public static int obterMaiorId(EstacaoBombeiros estacao) throws IOException {
+        if (!LogHistorico.existe(estacao)) {
+            return 0;
+        }
+
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                return obterMaiorId(acesso);
+            }
+        }
+    }
+
+    /**
+     * Obtém o maior ID de ocorrência com entrada no índice, com a trava da cidade
+     * já em posse.
+     *
+     * @param acesso trava do histórico da cidade
+     * @return maior ID indexado
+     * @throws IOException se não for possível ler o índice
+     */
+    static int obterMaiorId(TravaHistorico acesso) throws IOException {
+        try (FileChannel canal = abrir(acesso.getEstacao())) {
+            garantirAtualizado(acesso, canal);
+            return (int) Math.max(0, (canal.size() - TAMANHO_CABECALHO) / TAMANHO_ENTRADA - 1);
+        }
+    }
+
+    /**
+     * Reconstrói o índice se ele estiver ausente ou desatualizado em relação ao histórico.
+     */
+    private static void garantirAtualizado(TravaHistorico acesso, FileChannel canal) throws IOException {
+        if (!estaAtualizado(acesso.getEstacao(), canal)) {
+            reconstruir(acesso, canal);
+        }
+    }
+
+    /**
+     * Verifica se o índice corresponde à geração atual do manifesto e ao tamanho
+     * atual do segmento aberto.
+     */
+    private static boolean estaAtualizado(EstacaoBombeiros estacao, FileChannel canal) throws IOException {
+        ManifestoHistorico manifesto = ManifestoHistorico.ler(estacao);
+        Path historico = Paths.get(LogHistorico.obterNomeArquivo(estacao));
+        long tamanhoHistorico = Files.exists(historico) ? Files.size(historico) : 0;
+        return estaAtualizado(canal, manifesto.getGeracao(), tamanhoHistorico);
+    }
+
+    /**
+     * Grava entradas no índice, reconstruindo-o por completo se ele não estiver
+     * atualizado em relação ao estado anterior do histórico.
+     */
+    private static void atualizar(EstacaoBombeiros estacao, int[] ids, long[] posicoes, long geracaoAnterior,
+                                  long tamanhoAnterior, long geracao, long tamanhoHistorico,
+                                  boolean sincronizar) throws IOException {
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao); FileChannel canal = abrir(estacao)) {
+                if (!estaAtualizado(canal, geracaoAnterior, tamanhoAnterior)) {
+                    // Índice desatualizado em relação ao histórico: reconstruir por completo
+                    reconstruir(acesso, canal);
+                    return;
+                }
+
+                ByteBuffer entrada = ByteBuffer.allocate(TAMANHO_ENTRADA);
+                for (int i = 0; i < ids.length; i++) {
+                    if (ids[i] < 0) {
+                        continue;
+                    }
+                    entrada.clear();
+                    entrada.putLong(0, posicoes[i]);
+                    escreverTudo(canal, entrada, posicaoDaEntrada(ids[i]));
+                }
+                escreverCabecalho(canal, geracao, tamanhoHistorico);
+                if (sincronizar) {
+                    canal.force(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconstrói o índice no canal informado, descartando o conteúdo anterior.
+     * Os segmentos selados são percorridos em ordem cronológica e o segmento aberto
+     * por último, de modo que a versão mais recente de cada ID prevalece.
+     */
+    private static void reconstruir(TravaHistorico acesso, FileChannel indice) throws IOException {
+        acesso.exigirExclusiva();
+        EstacaoBombeiros estacao = acesso.getEstacao();
+        indice.truncate(0);
+        ManifestoHistorico manifesto = ManifestoHistorico.ler(estacao);
+        for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+            indexarSegmento(indice, Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, segmento.getNumero())),
+                    segmento.getNumero());
+        }
+
+        Path historico = Paths.get(LogHistorico.obterNomeArquivo(estacao));
+        indexarSegmento(indice, historico, 0);
+        escreverCabecalho(indice, manifesto.getGeracao(), Files.exists(historico) ? Files.size(historico) : 0);
+    }
+
+    /**
+     * Grava no índice a posição de cada registro de um segmento.
+     */
+    private static void indexarSegmento(FileChannel indice, Path arquivo, int numeroSegmento) throws IOException {
+        if (!Files.exists(arquivo)) {
+            return;
+        }
+
+        try (SegmentoComprimido.Leitor dados = SegmentoComprimido.Leitor.abrir(arquivo)) {
+            long tamanho = dados.getTamanho();
+            long totalRegistros = (tamanho - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+            ByteBuffer bloco = ByteBuffer.allocate(REGISTROS_POR_LEITURA * RegistroBinario.TAMANHO_REGISTRO);
+            ByteBuffer entrada = ByteBuffer.allocate(TAMANHO_ENTRADA);
+
+            for (long primeiro = 0; primeiro < totalRegistros; primeiro += REGISTROS_POR_LEITURA) {
+                long quantidade = Math.min(REGISTROS_POR_LEITURA, totalRegistros - primeiro);
+                long inicio = RegistroBinario.TAMANHO_CABECALHO + primeiro * RegistroBinario.TAMANHO_REGISTRO;
+                bloco.clear();
+                bloco.limit((int) (quantidade * RegistroBinario.TAMANHO_REGISTRO));
+                dados.ler(bloco, inicio);
+
+                for (int i = 0; i < quantidade; i++) {
+                    int id = RegistroBinario.lerId(bloco, i * RegistroBinario.TAMANHO_REGISTRO);
+                    if (id < 0) {
+                        continue;
+                    }
+                    entrada.clear();
+                    entrada.putLong(0, posicao(numeroSegmento, inicio + (long) i * RegistroBinario.TAMANHO_REGISTRO));
+                    escreverTudo(indice, entrada, posicaoDaEntrada(id));
+                }
+            }
+        }
+    }
+
+    /**
+     * Abre o arquivo de índice para leitura e escrita, criando-o se necessário.
+     */
+    private static FileChannel abrir(EstacaoBombeiros estacao) throws IOException {
+        return FileChannel.open(Paths.get(obterNomeArquivo(estacao)),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Verifica se o cabeçalho do índice corresponde à geração do manifesto e ao
+     * tamanho do segmento aberto informados.
+     */
+    private static boolean estaAtualizado(FileChannel canal, long geracao, long tamanhoHistorico) throws IOException {
+        if (canal.size() < TAMANHO_CABECALHO) {
+            return false;
+        }
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        while (cabecalho.hasRemaining() && canal.read(cabecalho, cabecalho.position()) > 0) {
+            // Leitura posicional até completar o cabeçalho
+        }
+        return cabecalho.getInt(0) == MAGICO
+                && cabecalho.getShort(4) == VERSAO
+                && cabecalho.getLong(8) == geracao
+                && cabecalho.getLong(16) == tamanhoHistorico;
+    }
+
+    /**
+     * Escreve o cabeçalho do índice com a geração do manifesto e o tamanho coberto.
+     */
+    private static void escreverCabecalho(FileChannel canal, long geracao, long tamanhoCoberto) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        cabecalho.putInt(MAGICO);
+        cabecalho.putShort(VERSAO);
+        cabecalho.putShort((short) TAMANHO_ENTRADA);
+        cabecalho.putLong(geracao);
+        cabecalho.putLong(tamanhoCoberto);
+        cabecalho.flip();
+        escreverTudo(canal, cabecalho, 0);
+    }
+
+    /**
+     * Calcula a posição da entrada de um ID no arquivo de índice.
+     */
+    private static long posicaoDaEntrada(int idOcorrencia) {
+        return TAMANHO_CABECALHO + (long) idOcorrencia * TAMANHO_ENTRADA;
+    }
+
+    /**
+     * Escreve todo o conteúdo restante do buffer a partir da posição informada.
+     */
+    private static void escreverTudo(FileChannel canal, ByteBuffer buffer, long posicao) throws IOException {
+        while (buffer.hasRemaining()) {
+            posicao += canal.write(buffer, posicao);
+        }
+    }
+}
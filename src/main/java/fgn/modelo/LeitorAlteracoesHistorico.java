@@ -0,0 +1,394 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>
+ * Esta classe implementa a captura de alterações (CDC) do histórico de uma
+ * cidade no sistema Forest Guardian Network, para consumidores externos como o
+ * painel de despacho. Em vez de reler o histórico inteiro, o leitor guarda a
+ * posição do log até a qual já publicou e, a cada leitura, decodifica apenas os
+ * registros anexados depois dela, publicando-os como {@link Evento}s através de
+ * um {@link Flow.Publisher}. O custo de cada leitura é proporcional às
+ * alterações, e não ao tamanho do histórico.
+ * </p>
+ * <p>
+ * A posição é persistida por consumidor em {@code historico_<cidade>.<consumidor>.cdc}
+ * depois que os eventos são publicados, portanto a entrega é ao menos uma vez:
+ * após uma falha, ou quando a compactação reorganizou registros ainda não lidos,
+ * uma mesma versão de ocorrência pode ser publicada novamente. Como cada evento
+ * traz o estado completo da ocorrência, reaplicá-lo não altera o resultado.
+ * </p>
+ * <p>
+ * Com {@link #iniciar()}, uma thread acompanha o diretório do histórico com um
+ * {@link WatchService} e lê as alterações assim que o segmento aberto ou o
+ * manifesto da cidade mudam. Como volumes compartilhados em rede nem sempre
+ * notificam alterações feitas por outras máquinas, a leitura também é feita
+ * periodicamente quando nenhuma notificação chega.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class LeitorAlteracoesHistorico implements Flow.Publisher<LeitorAlteracoesHistorico.Evento>, AutoCloseable {
+    /**
+     * Intervalo padrão, em milissegundos, da leitura periódica sem notificações
+     */
+    public static final long PADRAO_INTERVALO_MS = 2000;
+    /**
+     * Quantidade de registros lidos por vez de cada segmento
+     */
+    private static final int REGISTROS_POR_LEITURA = 8192;
+
+    /**
+     * Alteração publicada pelo leitor: uma nova versão de ocorrência ou uma
+     * limpeza do histórico de uma estação.
+     */
+    public static class Evento {
+        private final Ocorrencia ocorrencia;
+        private final int idEstacaoLimpa;
+        private final int limiteLimpeza;
+
+        private Evento(Ocorrencia ocorrencia, int idEstacaoLimpa, int limiteLimpeza) {
+            this.ocorrencia = ocorrencia;
+            this.idEstacaoLimpa = idEstacaoLimpa;
+            this.limiteLimpeza = limiteLimpeza;
+        }
+
+        /**
+         * Obtém o estado completo da ocorrência criada ou alterada.
+         *
+         * @return ocorrência, ou null se o evento for uma limpeza
+         */
+        public Ocorrencia getOcorrencia() {
+            return ocorrencia;
+        }
+
+        /**
+         * Indica se o evento é uma limpeza do histórico de uma estação.
+         *
+         * @return true para limpezas
+         */
+        public boolean isLimpeza() {
+            return ocorrencia == null;
+        }
+
+        /**
+         * Obtém o ID da estação cujo histórico foi limpo.
+         *
+         * @return ID da estação, ou 0 se o evento não for uma limpeza
+         */
+        public int getIdEstacaoLimpa() {
+            return idEstacaoLimpa;
+        }
+
+        /**
+         * Obtém o ID de ocorrência até o qual o histórico da estação passa a estar
+         * oculto. Um limite menor que o da limpeza anterior indica que ela foi
+         * desfeita, e o consumidor deve recarregar as ocorrências da estação.
+         *
+         * @return limite da limpeza, inclusivo
+         */
+        public int getLimiteLimpeza() {
+            return limiteLimpeza;
+        }
+    }
+
+    private final EstacaoBombeiros estacao;
+    private final Path arquivoPosicao;
+    private final CatalogoEntidades catalogo;
+    private final SubmissionPublisher<Evento> publicador = new SubmissionPublisher<>();
+    private long posicao;
+    private long intervaloMs = PADRAO_INTERVALO_MS;
+    private WatchService servico;
+    private Thread observador;
+
+    /**
+     * Construtor do leitor de alterações do histórico da cidade. Retoma a partir
+     * da posição persistida do consumidor ou, na primeira execução, do início do
+     * histórico.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param consumidor nome do consumidor, que identifica a posição persistida
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @throws IOException se não for possível ler a posição persistida
+     */
+    public LeitorAlteracoesHistorico(EstacaoBombeiros estacao, String consumidor, CatalogoEntidades catalogo) throws IOException {
+        this.estacao = estacao;
+        this.arquivoPosicao = Paths.get(obterNomeArquivoPosicao(estacao, consumidor));
+        this.catalogo = catalogo;
+        if (Files.exists(arquivoPosicao) && Files.size(arquivoPosicao) == Long.BYTES) {
+            posicao = ByteBuffer.wrap(Files.readAllBytes(arquivoPosicao)).getLong();
+        }
+    }
+
+    /**
+     * Obtém o nome do arquivo com a posição persistida de um consumidor.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param consumidor nome do consumidor
+     * @return nome do arquivo de posição
+     */
+    public static String obterNomeArquivoPosicao(EstacaoBombeiros estacao, String consumidor) {
+        return Arquivo.obterNomeBaseHistorico(estacao) + "." + consumidor + ".cdc";
+    }
+
+    /**
+     * Inscreve um consumidor dos eventos publicados a partir de agora.
+     *
+     * @param assinante consumidor dos eventos
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Evento> assinante) {
+        publicador.subscribe(assinante);
+    }
+
+    /**
+     * Publica os registros anexados ao histórico desde a última posição lida e
+     * persiste a nova posição. A publicação aguarda consumidores que estejam com
+     * o buffer cheio, sem manter o histórico travado.
+     *
+     * @return quantidade de eventos publicados
+     * @throws IOException se não for possível ler o histórico ou persistir a posição
+     */
+    public synchronized int ler() throws IOException {
+        if (!LogHistorico.existe(estacao)) {
+            return 0;
+        }
+
+        ArrayList<Evento> eventos = new ArrayList<>();
+        long posicaoFinal;
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                ManifestoHistorico manifesto = LogHistorico.abrirManifesto(acesso);
+                Path aberto = Paths.get(LogHistorico.obterNomeArquivo(estacao));
+                posicaoFinal = manifesto.getPosicaoAberto() + contarRegistros(aberto);
+                if (posicao > posicaoFinal) {
+                    posicao = 0; // O histórico foi recriado desde a última leitura
+                }
+
+                List<ManifestoHistorico.Segmento> segmentos = manifesto.getSegmentos();
+                for (int i = 0; i < segmentos.size(); i++) {
+                    ManifestoHistorico.Segmento segmento = segmentos.get(i);
+                    if (segmento.getPosicaoFinal() <= posicao) {
+                        continue;
+                    }
+                    // Só é possível saltar registros de segmentos que a compactação não reorganizou
+                    long inicio = i > 0 ? segmentos.get(i - 1).getPosicaoFinal() : 0;
+                    long pular = 0;
+                    if (segmento.getRegistros() == segmento.getPosicaoFinal() - inicio) {
+                        pular = Math.max(0, posicao - inicio);
+                    }
+                    lerSegmento(Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, segmento.getNumero())),
+                            pular, manifesto, eventos);
+                }
+                lerSegmento(aberto, Math.max(0, posicao - manifesto.getPosicaoAberto()), manifesto, eventos);
+            }
+        }
+
+        for (Evento evento : eventos) {
+            publicador.submit(evento);
+        }
+        if (posicaoFinal != posicao) {
+            posicao = posicaoFinal;
+            gravarPosicao();
+        }
+        return eventos.size();
+    }
+
+    /**
+     * Avança a posição do consumidor até o final atual do histórico, sem publicar
+     * eventos. Utilizado por consumidores que obtêm o estado inicial por outro meio.
+     *
+     * @throws IOException se não for possível ler o histórico ou persistir a posição
+     */
+    public synchronized void posicionarNoFinal() throws IOException {
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            posicao = LogHistorico.existe(estacao) ? LogHistorico.obterPosicaoLog(estacao) : 0;
+        }
+        gravarPosicao();
+    }
+
+    /**
+     * Obtém a posição do log até a qual as alterações já foram publicadas.
+     *
+     * @return posição persistida do consumidor
+     */
+    public synchronized long getPosicao() {
+        return posicao;
+    }
+
+    /**
+     * Configura o intervalo da leitura periódica feita quando nenhuma notificação
+     * de alteração chega. Deve ser chamado antes de {@link #iniciar()}.
+     *
+     * @param intervaloMs intervalo em milissegundos
+     */
+    public void configurarIntervalo(long intervaloMs) {
+        this.intervaloMs = Math.max(1, intervaloMs);
+    }
+
+    /**
+     * Inicia a thread que acompanha o diretório do histórico e publica as
+     * alterações assim que são gravadas.
+     *
+     * @throws IOException se não for possível registrar o diretório no {@link WatchService}
+     */
+    public synchronized void iniciar() throws IOException {
+        if (observador != null) {
+            return;
+        }
+        Path diretorio = Paths.get(LogHistorico.obterNomeArquivo(estacao)).toAbsolutePath().getParent();
+        servico = diretorio.getFileSystem().newWatchService();
+        diretorio.register(servico, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        observador = new Thread(this::observar, "fgn-cdc-" + Arquivo.obterNomeBaseHistorico(estacao));
+        observador.setDaemon(true);
+        observador.start();
+    }
+
+    /**
+     * Encerra a thread de acompanhamento e conclui a publicação para os consumidores.
+     *
+     * @throws IOException se não for possível encerrar o {@link WatchService}
+     */
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            thread = observador;
+            observador = null;
+            if (servico != null) {
+                servico.close();
+            }
+        }
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        publicador.close();
+    }
+
+    /**
+     * Laço da thread de acompanhamento: lê as alterações a cada notificação sobre
+     * o segmento aberto ou o manifesto da cidade e, sem notificações, a cada intervalo.
+     */
+    private void observar() {
+        String segmentoAberto = Paths.get(LogHistorico.obterNomeArquivo(estacao)).getFileName().toString();
+        String manifesto = Paths.get(ManifestoHistorico.obterNomeArquivo(estacao)).getFileName().toString();
+
+        while (true) {
+            try {
+                WatchKey chave = servico.poll(intervaloMs, TimeUnit.MILLISECONDS);
+                boolean alterado = chave == null;
+                if (chave != null) {
+                    for (WatchEvent<?> evento : chave.pollEvents()) {
+                        String nome = String.valueOf(evento.context());
+                        if (evento.kind() == StandardWatchEventKinds.OVERFLOW
+                                || nome.equals(segmentoAberto) || nome.equals(manifesto)) {
+                            alterado = true;
+                        }
+                    }
+                    chave.reset();
+                }
+                if (alterado) {
+                    ler();
+                }
+            } catch (ClosedWatchServiceException e) {
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                System.out.println("⚠️ Erro ao acompanhar histórico de " + estacao.getCidade() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Decodifica os registros do segmento a partir do registro informado,
+     * acrescentando os eventos à lista.
+     */
+    private void lerSegmento(Path caminho, long primeiroRegistro, ManifestoHistorico manifesto,
+                             ArrayList<Evento> eventos) throws IOException {
+        if (!Files.exists(caminho) || Files.size(caminho) < RegistroBinario.TAMANHO_CABECALHO) {
+            return;
+        }
+        try (SegmentoComprimido.Leitor origem = SegmentoComprimido.Leitor.abrir(caminho)) {
+            if (!RegistroBinario.validarCabecalho(origem.getCabecalho())) {
+                return;
+            }
+            boolean aceitarSemCrc = RegistroBinario.aceitaRegistrosSemCrc(origem.getCabecalho());
+            long totalRegistros = (origem.getTamanho() - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+            ByteBuffer bloco = ByteBuffer.allocate(REGISTROS_POR_LEITURA * RegistroBinario.TAMANHO_REGISTRO);
+            CRC32C crc = new CRC32C();
+
+            for (long primeiro = primeiroRegistro; primeiro < totalRegistros; primeiro += REGISTROS_POR_LEITURA) {
+                int quantidade = (int) Math.min(REGISTROS_POR_LEITURA, totalRegistros - primeiro);
+                bloco.clear();
+                bloco.limit(quantidade * RegistroBinario.TAMANHO_REGISTRO);
+                origem.ler(bloco, RegistroBinario.TAMANHO_CABECALHO + primeiro * RegistroBinario.TAMANHO_REGISTRO);
+
+                for (int posicaoRegistro = 0; posicaoRegistro < bloco.limit(); posicaoRegistro += RegistroBinario.TAMANHO_REGISTRO) {
+                    if (!RegistroBinario.isIntegro(bloco, posicaoRegistro, crc, aceitarSemCrc)) {
+                        continue;
+                    }
+                    if (!RegistroBinario.isOcorrencia(bloco, posicaoRegistro)) {
+                        eventos.add(new Evento(null, RegistroBinario.lerIdEstacaoLimpeza(bloco, posicaoRegistro),
+                                RegistroBinario.lerLimiteLimpeza(bloco, posicaoRegistro)));
+                        continue;
+                    }
+                    Ocorrencia ocorrencia = RegistroBinario.ler(bloco, posicaoRegistro, catalogo);
+                    if (ocorrencia != null && !manifesto.isOculta(ocorrencia.getAreaAfetada().getIdArea(),
+                            ocorrencia.getIdOcorrencia())) {
+                        eventos.add(new Evento(ocorrencia, 0, 0));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Conta os registros completos do segmento aberto.
+     */
+    private static long contarRegistros(Path aberto) throws IOException {
+        long tamanho = Files.exists(aberto) ? Files.size(aberto) : 0;
+        return Math.max(0, tamanho - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+    }
+
+    /**
+     * Persiste a posição do consumidor em um arquivo temporário substituído atomicamente.
+     */
+    private void gravarPosicao() throws IOException {
+        Path temporario = Paths.get(arquivoPosicao + ".tmp");
+        ByteBuffer conteudo = ByteBuffer.allocate(Long.BYTES).putLong(0, posicao);
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(false);
+        }
+        Files.move(temporario, arquivoPosicao, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,136 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/**
+ * <p>
+ * Esta classe implementa a limpeza lógica do histórico de uma estação no sistema
+ * Forest Guardian Network. Em vez de reescrever o histórico da cidade, a limpeza
+ * anexa ao log uma lápide ({@link RegistroBinario#TIPO_LIMPEZA}) indicando que as
+ * ocorrências das áreas da estação estão removidas até um ID de ocorrência, e
+ * registra esse limite no {@link ManifestoHistorico}. O custo da limpeza é de um
+ * registro e uma gravação do manifesto, independente do tamanho do histórico, e
+ * as demais estações da cidade não são afetadas.
+ * </p>
+ * <p>
+ * Os registros ocultos permanecem nos segmentos, preservando a auditoria, até que
+ * o {@link CompactadorHistorico} mescle a partição em que estão e os descarte.
+ * Enquanto isso não acontece, a limpeza pode ser desfeita com {@link #desfazer},
+ * que restaura o limite anterior e também é registrada no log por uma lápide.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class LimpezaHistorico {
+
+    /**
+     * Oculta do histórico as ocorrências das áreas da estação com ID até o limite
+     * informado. A lápide é gravada e sincronizada antes do manifesto, que é quem
+     * torna a limpeza efetiva.
+     *
+     * @param estacao estação cujo histórico será limpo
+     * @param areasFlorestais lista de áreas florestais do sistema
+     * @param limite maior ID de ocorrência a ser ocultado
+     * @return limpeza registrada no manifesto
+     * @throws IOException se não for possível gravar a lápide ou o manifesto
+     */
+    public static ManifestoHistorico.Limpeza limpar(EstacaoBombeiros estacao, ArrayList<AreaFlorestal> areasFlorestais,
+                                                    int limite) throws IOException {
+        ArrayList<Integer> idsAreas = new ArrayList<>();
+        for (AreaFlorestal area : areasFlorestais) {
+            if (area.getIdEstacaoResponsavel() == estacao.getIdEstacao()) {
+                idsAreas.add(area.getIdArea());
+            }
+        }
+        int[] areas = new int[idsAreas.size()];
+        for (int i = 0; i < areas.length; i++) {
+            areas[i] = idsAreas.get(i);
+        }
+
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                ManifestoHistorico.Limpeza vigente = LogHistorico.abrirManifesto(acesso).getLimpeza(estacao.getIdEstacao());
+                int limiteAnterior = vigente != null ? vigente.getLimite() : 0;
+                LogHistorico.anexarRegistros(criarLapides(estacao, limite, limiteAnterior, areas), estacao, true);
+
+                // A anexação pode ter selado o segmento aberto e gravado um novo manifesto
+                ManifestoHistorico manifesto = LogHistorico.abrirManifesto(acesso);
+                ManifestoHistorico.Limpeza limpeza = manifesto.registrarLimpeza(estacao.getIdEstacao(), limite, areas);
+                manifesto.gravar(estacao);
+                return limpeza;
+            }
+        }
+    }
+
+    /**
+     * Desfaz a última limpeza da estação, restaurando o limite anterior a ela. O
+     * instantâneo da cidade é descartado, pois foi gravado sem as ocorrências
+     * ocultas; o próximo carregamento relê o log completo.
+     *
+     * @param estacao estação cuja limpeza será desfeita
+     * @return limpeza restaurada, ou null se não há limpeza que possa ser desfeita
+     * @throws IOException se não for possível gravar a lápide ou o manifesto
+     */
+    public static ManifestoHistorico.Limpeza desfazer(EstacaoBombeiros estacao) throws IOException {
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                ManifestoHistorico.Limpeza vigente = LogHistorico.abrirManifesto(acesso).getLimpeza(estacao.getIdEstacao());
+                if (vigente == null || !vigente.isReversivel()) {
+                    return null;
+                }
+                LogHistorico.anexarRegistros(criarLapides(estacao, vigente.getLimiteAnterior(), vigente.getLimite(),
+                        vigente.getAreas()), estacao, true);
+
+                ManifestoHistorico manifesto = LogHistorico.abrirManifesto(acesso);
+                ManifestoHistorico.Limpeza restaurada = manifesto.desfazerLimpeza(estacao.getIdEstacao());
+                manifesto.gravar(estacao);
+                Files.deleteIfExists(Paths.get(SnapshotHistorico.obterNomeArquivo(estacao)));
+                return restaurada;
+            }
+        }
+    }
+
+    /**
+     * Obtém o maior limite entre as limpezas vigentes na cidade da estação. IDs de
+     * novas ocorrências precisam ser maiores que ele para não nascerem ocultos.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return maior limite ou 0 se a cidade não possui limpezas
+     * @throws IOException se não for possível ler o manifesto
+     */
+    public static int obterMaiorLimite(EstacaoBombeiros estacao) throws IOException {
+        if (!LogHistorico.existe(estacao)) {
+            return 0;
+        }
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                return LogHistorico.abrirManifesto(acesso).getMaiorLimiteLimpeza();
+            }
+        }
+    }
+
+    /**
+     * Cria as lápides da limpeza, uma para cada grupo de até
+     * {@link RegistroBinario#MAXIMO_AREAS_LIMPEZA} áreas.
+     */
+    private static ArrayList<byte[]> criarLapides(EstacaoBombeiros estacao, int limite, int limiteAnterior, int[] areas) {
+        ArrayList<byte[]> lapides = new ArrayList<>();
+        long instante = System.currentTimeMillis();
+        int inicio = 0;
+        do {
+            int fim = Math.min(areas.length, inicio + RegistroBinario.MAXIMO_AREAS_LIMPEZA);
+            int[] grupo = new int[fim - inicio];
+            System.arraycopy(areas, inicio, grupo, 0, grupo.length);
+            ByteBuffer lapide = ByteBuffer.allocate(RegistroBinario.TAMANHO_REGISTRO);
+            RegistroBinario.escreverLimpeza(estacao.getIdEstacao(), limite, limiteAnterior, grupo, instante, lapide);
+            lapides.add(lapide.array());
+            inicio = fim;
+        } while (inicio < areas.length);
+        return lapides;
+    }
+}
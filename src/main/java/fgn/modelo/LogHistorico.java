@@ -0,0 +1,872 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Esta classe implementa o log de escrita antecipada (append-only) do histórico
+ * de ocorrências de cada cidade no sistema Forest Guardian Network. Cada criação
+ * ou mudança de status de uma ocorrência gera exatamente um registro binário de
+ * largura fixa ({@link RegistroBinario}) anexado ao final do segmento aberto
+ * {@code historico_<cidade>.dat}, de modo que persistir uma ocorrência tem custo
+ * constante, independente do tamanho do histórico.
+ * </p>
+ * <p>
+ * O histórico binário é a fonte de verdade; o relatório
+ * {@code historico_<cidade>.txt} passa a ser apenas uma exportação legível.
+ * Os registros representam sempre o estado completo da ocorrência, portanto o
+ * carregamento aplica a última versão de cada ID (a última escrita vence). O
+ * carregamento é feito através de {@link FileChannel#map}, decodificando os
+ * registros diretamente de blocos mapeados em memória.
+ * </p>
+ * <p>
+ * Quando o segmento aberto atinge {@link #getRegistrosPorSegmento()} registros,
+ * ele é selado: passa a ser um segmento imutável listado no
+ * {@link ManifestoHistorico} e um novo segmento aberto é iniciado. Os segmentos
+ * selados são mesclados em segundo plano pelo {@link CompactadorHistorico}, que
+ * descarta as versões superadas de cada ocorrência.
+ * </p>
+ * <p>
+ * O segmento aberto também é selado na virada do dia, de modo que cada segmento
+ * selado é uma partição diária com o intervalo de detecção de seus registros
+ * registrado no manifesto. {@link #carregarPorPeriodo} lê apenas as partições
+ * que cruzam o período consultado.
+ * </p>
+ * <p>
+ * Registros ocultos por uma limpeza vigente no manifesto, registrada pela
+ * {@link LimpezaHistorico}, não são carregados por nenhuma das consultas.
+ * </p>
+ * <p>
+ * Vários processos podem compartilhar o histórico de uma cidade: as anexações e
+ * as demais alterações obtêm a trava exclusiva de {@link TravaHistorico} e as
+ * consultas, a trava compartilhada. Como outro processo pode anexar registros
+ * que esta instância nunca leu, {@link #obterPosicaoLog} informa apenas a posição
+ * até a qual a memória desta instância conhece todo o log.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class LogHistorico {
+    /**
+     * Quantidade padrão de registros do segmento aberto que dispara sua selagem
+     */
+    public static final int PADRAO_REGISTROS_POR_SEGMENTO = 4096;
+    /**
+     * Quantidade padrão de segmentos selados de uma partição diária que dispara sua compactação
+     */
+    public static final int PADRAO_SEGMENTOS_PARA_COMPACTACAO = 4;
+
+    private static int registrosPorSegmento =
+            Integer.getInteger("fgn.historico.registrosPorSegmento", PADRAO_REGISTROS_POR_SEGMENTO);
+    private static int segmentosParaCompactacao =
+            Integer.getInteger("fgn.historico.segmentosParaCompactacao", PADRAO_SEGMENTOS_PARA_COMPACTACAO);
+    /**
+     * Monitores que serializam o acesso aos arquivos de histórico de cada cidade
+     */
+    private static final ConcurrentHashMap<String, Object> travas = new ConcurrentHashMap<>();
+    /**
+     * Relógio que define o dia das partições diárias
+     */
+    private static Clock relogio = Clock.systemDefaultZone();
+    /**
+     * Posição do log até a qual esta instância conhece todos os registros, por
+     * cidade; deixa de avançar quando outro processo anexa registros
+     */
+    private static final ConcurrentHashMap<String, Long> posicoesConhecidas = new ConcurrentHashMap<>();
+
+    /**
+     * Obtém o nome do segmento aberto do histórico da cidade da estação informada.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return nome do arquivo binário da cidade
+     */
+    public static String obterNomeArquivo(EstacaoBombeiros estacao) {
+        return Arquivo.obterNomeBaseHistorico(estacao) + ".dat";
+    }
+
+    /**
+     * Verifica se a cidade da estação já possui histórico binário.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return true se o segmento aberto ou o manifesto existir
+     */
+    public static boolean existe(EstacaoBombeiros estacao) {
+        return Files.exists(Paths.get(obterNomeArquivo(estacao)))
+                || Files.exists(Paths.get(ManifestoHistorico.obterNomeArquivo(estacao)));
+    }
+
+    /**
+     * Obtém o monitor que protege os arquivos de histórico da cidade da estação.
+     * Estações da mesma cidade compartilham o monitor.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return monitor da cidade
+     */
+    static Object obterTrava(EstacaoBombeiros estacao) {
+        return travas.computeIfAbsent(Arquivo.obterNomeBaseHistorico(estacao), nome -> new Object());
+    }
+
+    /**
+     * Anexa ao final do log um registro com o estado atual da ocorrência.
+     * Cria o arquivo com cabeçalho caso ainda não exista.
+     *
+     * @param ocorrencia ocorrência criada ou alterada
+     * @param estacao estação responsável pela jurisdição da ocorrência
+     * @throws IOException se não for possível escrever no log
+     */
+    public static void anexarRegistro(Ocorrencia ocorrencia, EstacaoBombeiros estacao) throws IOException {
+        ArrayList<byte[]> registros = new ArrayList<>();
+        registros.add(serializar(ocorrencia));
+        anexarRegistros(registros, estacao, false);
+        ocorrencia.marcarComoPersistida();
+    }
+
+    /**
+     * Anexa ao final do segmento aberto um lote de registros já serializados, com
+     * uma única escrita e, opcionalmente, uma única sincronização com o disco.
+     * Cria o arquivo com cabeçalho caso ainda não exista e sela o segmento quando
+     * ele atinge o limite de registros ou quando o dia muda.
+     *
+     * @param registros registros de {@link RegistroBinario#TAMANHO_REGISTRO} bytes, em ordem
+     * @param estacao estação responsável pelo histórico
+     * @param sincronizar true para forçar a gravação física com {@link FileChannel#force}
+     * @throws IOException se não for possível escrever no log
+     */
+    public static void anexarRegistros(ArrayList<byte[]> registros, EstacaoBombeiros estacao, boolean sincronizar) throws IOException {
+        synchronized (obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                ManifestoHistorico manifesto = abrirManifesto(acesso);
+                long hoje = LocalDate.now(relogio).toEpochDay();
+                if (manifesto.getDiaAberto() != hoje) {
+                    // Virada do dia: os registros do dia anterior formam uma partição selada
+                    if (obterPosicaoFinal(estacao, manifesto) > manifesto.getPosicaoAberto()) {
+                        selarSegmentoAberto(estacao, manifesto);
+                    }
+                    manifesto.iniciarDia(hoje);
+                    manifesto.gravar(estacao);
+                }
+                long tamanhoFinal;
+                long posicaoAnterior = obterPosicaoFinal(estacao, manifesto);
+
+                try (FileChannel canal = FileChannel.open(Paths.get(obterNomeArquivo(estacao)),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    long tamanhoAnterior = canal.size();
+                    boolean novo = tamanhoAnterior == 0;
+                    ByteBuffer buffer = ByteBuffer.allocate((novo ? RegistroBinario.TAMANHO_CABECALHO : 0)
+                            + registros.size() * RegistroBinario.TAMANHO_REGISTRO);
+                    if (novo) {
+                        RegistroBinario.escreverCabecalho(buffer);
+                    }
+                    for (byte[] registro : registros) {
+                        buffer.put(registro);
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        canal.write(buffer);
+                    }
+                    if (sincronizar) {
+                        canal.force(false);
+                    }
+
+                    int[] ids = new int[registros.size()];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = RegistroBinario.lerId(ByteBuffer.wrap(registros.get(i)), 0);
+                    }
+                    long primeiroDeslocamento = novo ? RegistroBinario.TAMANHO_CABECALHO : tamanhoAnterior;
+                    tamanhoFinal = canal.size();
+                    IndiceHistorico.registrar(estacao, ids, primeiroDeslocamento, tamanhoFinal,
+                            manifesto.getGeracao(), sincronizar);
+                }
+                posicoesConhecidas.computeIfPresent(Arquivo.obterNomeBaseHistorico(estacao), (nome, conhecida) ->
+                        conhecida == posicaoAnterior ? posicaoAnterior + registros.size() : conhecida);
+
+                long registrosAbertos = (tamanhoFinal - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+                if (registrosAbertos >= registrosPorSegmento) {
+                    selarSegmentoAberto(estacao, manifesto);
+                }
+            }
+        }
+    }
+
+    /**
+     * Serializa o estado atual da ocorrência em um registro binário.
+     *
+     * @param ocorrencia ocorrência a ser serializada
+     * @return registro de {@link RegistroBinario#TAMANHO_REGISTRO} bytes
+     */
+    public static byte[] serializar(Ocorrencia ocorrencia) {
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroBinario.TAMANHO_REGISTRO);
+        RegistroBinario.escrever(ocorrencia, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Carrega o histórico binário da cidade sobre a lista de ocorrências.
+     * Quando há um {@link SnapshotHistorico}, suas ocorrências são carregadas e
+     * apenas os registros do log posteriores a ele são reaplicados; caso contrário,
+     * todo o log é lido. Os segmentos selados e o segmento aberto são lidos em
+     * ordem cronológica, cada um em blocos paralelos pelo
+     * {@link CarregadorHistoricoParalelo}, aplicando a última versão de cada ID;
+     * registros de IDs existentes substituem a versão em memória e registros de
+     * IDs novos são acrescentados em ordem de ID. A lista passa a conhecer todo o
+     * log da cidade até a posição atual.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param ocorrencias lista de ocorrências a ser atualizada
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return quantidade de ocorrências novas carregadas
+     */
+    public static int carregar(EstacaoBombeiros estacao, ArrayList<Ocorrencia> ocorrencias,
+                               CatalogoEntidades catalogo) {
+        synchronized (obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                ManifestoHistorico manifesto = abrirManifesto(acesso);
+                ArrayList<Ocorrencia> historico = lerHistorico(estacao, manifesto, catalogo);
+                posicoesConhecidas.put(Arquivo.obterNomeBaseHistorico(estacao), obterPosicaoFinal(estacao, manifesto));
+                return CarregadorHistoricoParalelo.mesclarPorId(ocorrencias, historico);
+            } catch (IOException e) {
+                System.out.println("⚠️ Erro ao carregar histórico binário: " + e.getMessage());
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Lê a versão mais recente de todas as ocorrências da cidade, como em
+     * {@link #carregar}, sem alterar a posição do log conhecida por esta instância.
+     * Utilizado para gerar o relatório texto fora do console do operador.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return ocorrências da cidade, em ordem de ID
+     * @throws IOException se não for possível ler o histórico
+     */
+    public static ArrayList<Ocorrencia> lerOcorrencias(EstacaoBombeiros estacao, CatalogoEntidades catalogo) throws IOException {
+        synchronized (obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                return lerHistorico(estacao, abrirManifesto(acesso), catalogo);
+            }
+        }
+    }
+
+    /**
+     * Lê o instantâneo e os registros posteriores a ele, aplicando a última versão
+     * de cada ID. Deve ser chamado com a trava da cidade obtida.
+     */
+    private static ArrayList<Ocorrencia> lerHistorico(EstacaoBombeiros estacao, ManifestoHistorico manifesto,
+                                                      CatalogoEntidades catalogo) throws IOException {
+        ArrayList<Ocorrencia> historico = new ArrayList<>();
+
+        // Instantâneo posterior ao final do log pertence a um histórico que foi perdido ou substituído
+        SnapshotHistorico snapshot = SnapshotHistorico.ler(estacao);
+        if (snapshot != null && snapshot.getPosicaoLog() > obterPosicaoFinal(estacao, manifesto)) {
+            snapshot = null;
+        }
+        long posicaoCoberta = -1;
+        if (snapshot != null) {
+            historico = snapshot.carregarOcorrencias(estacao, catalogo).getOcorrencias();
+            posicaoCoberta = snapshot.getPosicaoLog();
+        }
+
+        for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+            if (segmento.getPosicaoFinal() <= posicaoCoberta) {
+                continue; // Todos os registros do segmento já estão no instantâneo
+            }
+            CarregadorHistoricoParalelo.Resultado resultado = carregarSegmento(estacao,
+                    Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, segmento.getNumero())),
+                    0, catalogo);
+            if (resultado != null) {
+                CarregadorHistoricoParalelo.mesclarPorId(historico, resultado.getOcorrencias());
+            }
+        }
+        long primeiroRegistro = Math.max(0, posicaoCoberta - manifesto.getPosicaoAberto());
+        CarregadorHistoricoParalelo.Resultado aberto = carregarSegmento(estacao,
+                Paths.get(obterNomeArquivo(estacao)), primeiroRegistro, catalogo);
+        if (aberto != null) {
+            CarregadorHistoricoParalelo.mesclarPorId(historico, aberto.getOcorrencias());
+        }
+
+        removerOcultas(historico, manifesto);
+        historico.sort(Comparator.comparingInt(Ocorrencia::getIdOcorrencia));
+        return historico;
+    }
+
+    /**
+     * Carrega apenas os incêndios ativos da cidade sobre a lista de ocorrências.
+     * Segmentos selados sem incêndios ativos são ignorados por completo; para os
+     * demais, o {@link IndiceHistorico} confirma que o registro ativo é a versão
+     * mais recente da ocorrência, descartando incêndios já concluídos em segmentos
+     * que não foram lidos.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param ocorrencias lista de ocorrências a ser atualizada
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return quantidade de ocorrências novas carregadas
+     */
+    public static int carregarAtivas(EstacaoBombeiros estacao, ArrayList<Ocorrencia> ocorrencias,
+                                     CatalogoEntidades catalogo) {
+        synchronized (obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                ManifestoHistorico manifesto = abrirManifesto(acesso);
+                HashMap<Integer, Ocorrencia> candidatas = new HashMap<>();
+                HashMap<Integer, Integer> segmentoPorId = new HashMap<>();
+
+                ArrayList<Integer> numeros = new ArrayList<>();
+                for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+                    if (segmento.getAtivos() > 0) {
+                        numeros.add(segmento.getNumero());
+                    }
+                }
+                numeros.add(0);
+
+                for (int numero : numeros) {
+                    Path caminho = Paths.get(numero == 0 ? obterNomeArquivo(estacao)
+                            : ManifestoHistorico.obterNomeSegmento(estacao, numero));
+                    CarregadorHistoricoParalelo.Resultado resultado =
+                            carregarSegmento(estacao, caminho, 0, catalogo);
+                    if (resultado == null) {
+                        continue;
+                    }
+                    for (Ocorrencia ocorrencia : resultado.getOcorrencias()) {
+                        if (ocorrencia.isIncendioAtivo()) {
+                            candidatas.put(ocorrencia.getIdOcorrencia(), ocorrencia);
+                            segmentoPorId.put(ocorrencia.getIdOcorrencia(), numero);
+                        } else {
+                            candidatas.remove(ocorrencia.getIdOcorrencia());
+                        }
+                    }
+                }
+
+                // Descartar candidatas superadas por registros de segmentos não lidos
+                ArrayList<Ocorrencia> ativas = new ArrayList<>(candidatas.values());
+                int[] ids = new int[ativas.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = ativas.get(i).getIdOcorrencia();
+                }
+                long[] posicoes = IndiceHistorico.buscarPosicoes(estacao, ids);
+                ArrayList<Ocorrencia> confirmadas = new ArrayList<>();
+                for (int i = 0; i < ids.length; i++) {
+                    if (posicoes[i] >= 0 && IndiceHistorico.segmentoDaPosicao(posicoes[i]) == segmentoPorId.get(ids[i])) {
+                        confirmadas.add(ativas.get(i));
+                    }
+                }
+                removerOcultas(confirmadas, manifesto);
+
+                confirmadas.sort(Comparator.comparingInt(Ocorrencia::getIdOcorrencia));
+                return CarregadorHistoricoParalelo.mesclarPorId(ocorrencias, confirmadas);
+            } catch (IOException e) {
+                System.out.println("⚠️ Erro ao carregar histórico binário: " + e.getMessage());
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Obtém a versão mais recente das ocorrências da cidade detectadas no período
+     * informado. Apenas as partições diárias cujo intervalo de detecção cruza o
+     * período e o segmento aberto são lidos; o {@link IndiceHistorico} confirma
+     * que cada registro encontrado é a versão mais recente da ocorrência.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param inicio início do período, inclusivo
+     * @param fim fim do período, exclusivo
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return ocorrências detectadas no período, em ordem de ID
+     */
+    public static ArrayList<Ocorrencia> carregarPorPeriodo(EstacaoBombeiros estacao, LocalDateTime inicio, LocalDateTime fim,
+                                                           CatalogoEntidades catalogo) {
+        long inicioMillis = inicio.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long fimMillis = fim.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        synchronized (obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                ManifestoHistorico manifesto = abrirManifesto(acesso);
+                ArrayList<Integer> numeros = new ArrayList<>();
+                for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+                    if (segmento.cruzaPeriodo(inicioMillis, fimMillis)) {
+                        numeros.add(segmento.getNumero());
+                    }
+                }
+                numeros.add(0);
+
+                HashMap<Integer, Ocorrencia> candidatas = new HashMap<>();
+                HashMap<Integer, Integer> segmentoPorId = new HashMap<>();
+                for (int numero : numeros) {
+                    Path caminho = Paths.get(numero == 0 ? obterNomeArquivo(estacao)
+                            : ManifestoHistorico.obterNomeSegmento(estacao, numero));
+                    CarregadorHistoricoParalelo.Resultado resultado =
+                            carregarSegmento(estacao, caminho, 0, catalogo);
+                    if (resultado == null) {
+                        continue;
+                    }
+                    for (Ocorrencia ocorrencia : resultado.getOcorrencias()) {
+                        if (!ocorrencia.getDataHoraDeteccao().isBefore(inicio) && ocorrencia.getDataHoraDeteccao().isBefore(fim)) {
+                            candidatas.put(ocorrencia.getIdOcorrencia(), ocorrencia);
+                            segmentoPorId.put(ocorrencia.getIdOcorrencia(), numero);
+                        }
+                    }
+                }
+
+                ArrayList<Ocorrencia> encontradas = new ArrayList<>(candidatas.values());
+                int[] ids = new int[encontradas.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = encontradas.get(i).getIdOcorrencia();
+                }
+                long[] posicoes = IndiceHistorico.buscarPosicoes(estacao, ids);
+                ArrayList<Ocorrencia> confirmadas = new ArrayList<>();
+                for (int i = 0; i < ids.length; i++) {
+                    if (posicoes[i] >= 0 && IndiceHistorico.segmentoDaPosicao(posicoes[i]) == segmentoPorId.get(ids[i])) {
+                        confirmadas.add(encontradas.get(i));
+                    }
+                }
+                removerOcultas(confirmadas, manifesto);
+                confirmadas.sort(Comparator.comparingInt(Ocorrencia::getIdOcorrencia));
+                return confirmadas;
+            } catch (IOException e) {
+                System.out.println("⚠️ Erro ao consultar histórico binário: " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
+    }
+
+    /**
+     * Lê do histórico binário a versão mais recente de uma única ocorrência, sem
+     * carregar o restante do histórico. A posição do registro é obtida no
+     * {@link IndiceHistorico} e o registro é lido com uma leitura posicional.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param idOcorrencia ID da ocorrência procurada
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return ocorrência encontrada ou null se o ID não existir no histórico
+     */
+    public static Ocorrencia buscarPorId(EstacaoBombeiros estacao, int idOcorrencia,
+                                         CatalogoEntidades catalogo) {
+        ByteBuffer registro = ByteBuffer.allocate(RegistroBinario.TAMANHO_REGISTRO);
+        ManifestoHistorico manifesto;
+
+        synchronized (obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                manifesto = abrirManifesto(acesso);
+                long posicao = IndiceHistorico.buscarPosicao(estacao, idOcorrencia);
+                if (posicao < 0) {
+                    return null;
+                }
+
+                int segmento = IndiceHistorico.segmentoDaPosicao(posicao);
+                long deslocamento = IndiceHistorico.deslocamentoDaPosicao(posicao);
+                Path caminho = Paths.get(segmento == 0 ? obterNomeArquivo(estacao)
+                        : ManifestoHistorico.obterNomeSegmento(estacao, segmento));
+                try (SegmentoComprimido.Leitor leitor = SegmentoComprimido.Leitor.abrir(caminho)) {
+                    leitor.ler(registro, deslocamento);
+                    if (registro.hasRemaining()) {
+                        return null;
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("⚠️ Erro ao consultar histórico binário: " + e.getMessage());
+                return null;
+            }
+        }
+        if (RegistroBinario.lerId(registro, 0) != idOcorrencia
+                || manifesto.isOculta(RegistroBinario.lerIdArea(registro, 0), idOcorrencia)) {
+            return null;
+        }
+
+        return RegistroBinario.ler(registro, 0, catalogo);
+    }
+
+    /**
+     * Reescreve o histórico binário da cidade contendo apenas a versão atual de
+     * cada ocorrência, descartando os segmentos selados, as versões superadas e o
+     * instantâneo da cidade.
+     * <p>
+     * A reescrita é feita de modo que uma falha em qualquer etapa possa ser
+     * concluída ou desfeita por {@link #abrirManifesto}: o novo segmento aberto é
+     * gravado e sincronizado em um arquivo temporário, a intenção da reescrita
+     * (posição do log e segmentos a remover) é gravada no arquivo
+     * {@code historico_<cidade>.reescrita}, e o temporário substitui atomicamente o
+     * segmento aberto. Somente então o manifesto é atualizado e os segmentos
+     * selados, o instantâneo e a intenção são apagados.
+     * </p>
+     *
+     * @param ocorrenciasDaEstacao ocorrências atuais da cidade
+     * @param estacao estação responsável pelo histórico
+     * @throws IOException se não for possível reescrever o arquivo
+     */
+    public static void reescrever(ArrayList<Ocorrencia> ocorrenciasDaEstacao, EstacaoBombeiros estacao) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO
+                + ocorrenciasDaEstacao.size() * RegistroBinario.TAMANHO_REGISTRO);
+        RegistroBinario.escreverCabecalho(buffer);
+        for (Ocorrencia ocorrencia : ocorrenciasDaEstacao) {
+            RegistroBinario.escrever(ocorrencia, buffer);
+        }
+        buffer.flip();
+
+        synchronized (obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                ManifestoHistorico manifesto = abrirManifesto(acesso);
+                // Os registros reescritos recebem posições novas no log, após tudo o que já foi gravado
+                long posicaoFinal = obterPosicaoFinal(estacao, manifesto);
+
+                Path temporario = Paths.get(obterNomeTemporarioReescrita(estacao));
+                try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    while (buffer.hasRemaining()) {
+                        canal.write(buffer);
+                    }
+                    canal.force(true);
+                }
+                gravarReescrita(estacao, posicaoFinal, manifesto.getSegmentos());
+                Files.move(temporario, Paths.get(obterNomeArquivo(estacao)),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                concluirReescrita(acesso, manifesto);
+                posicoesConhecidas.put(Arquivo.obterNomeBaseHistorico(estacao), posicaoFinal + ocorrenciasDaEstacao.size());
+            }
+        }
+        for (Ocorrencia ocorrencia : ocorrenciasDaEstacao) {
+            ocorrencia.marcarComoPersistida();
+        }
+    }
+
+    /**
+     * Obtém o nome do arquivo com a intenção de uma reescrita do histórico da cidade.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return nome do arquivo de intenção da reescrita
+     */
+    public static String obterNomeArquivoReescrita(EstacaoBombeiros estacao) {
+        return Arquivo.obterNomeBaseHistorico(estacao) + ".reescrita";
+    }
+
+    /**
+     * Obtém o nome do arquivo temporário com o novo segmento aberto de uma reescrita.
+     */
+    private static String obterNomeTemporarioReescrita(EstacaoBombeiros estacao) {
+        return obterNomeArquivo(estacao) + ".reescrita";
+    }
+
+    /**
+     * Grava a intenção da reescrita: a posição do log do novo segmento aberto e os
+     * números dos segmentos selados que ela descarta.
+     */
+    private static void gravarReescrita(EstacaoBombeiros estacao, long posicaoFinal,
+                                        List<ManifestoHistorico.Segmento> segmentos) throws IOException {
+        ByteBuffer conteudo = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + segmentos.size() * Integer.BYTES);
+        conteudo.putLong(posicaoFinal);
+        conteudo.putInt(segmentos.size());
+        for (ManifestoHistorico.Segmento segmento : segmentos) {
+            conteudo.putInt(segmento.getNumero());
+        }
+        conteudo.flip();
+
+        Path destino = Paths.get(obterNomeArquivoReescrita(estacao));
+        Path temporario = Paths.get(obterNomeArquivoReescrita(estacao) + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(false);
+        }
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Conclui uma reescrita cujo novo segmento aberto já substituiu o anterior:
+     * atualiza o manifesto, se ainda não foi atualizado, apaga os segmentos
+     * descartados e o instantâneo, reconstrói o índice e por fim apaga a intenção.
+     * Cada etapa pode ser repetida, portanto uma falha durante a conclusão é
+     * retomada pela próxima abertura do manifesto.
+     */
+    private static void concluirReescrita(TravaHistorico acesso, ManifestoHistorico manifesto) throws IOException {
+        EstacaoBombeiros estacao = acesso.getEstacao();
+        Path reescrita = Paths.get(obterNomeArquivoReescrita(estacao));
+        ByteBuffer conteudo = ByteBuffer.wrap(Files.readAllBytes(reescrita));
+        long posicaoFinal = conteudo.getLong();
+        int[] numeros = new int[conteudo.getInt()];
+        for (int i = 0; i < numeros.length; i++) {
+            numeros[i] = conteudo.getInt();
+        }
+
+        if (!manifesto.getSegmentos().isEmpty() || manifesto.getPosicaoAberto() != posicaoFinal) {
+            manifesto.removerSegmentos();
+            manifesto.reiniciarSegmentoAberto(posicaoFinal, LocalDate.now(relogio).toEpochDay());
+            manifesto.gravar(estacao);
+        }
+        for (int numero : numeros) {
+            Files.deleteIfExists(Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, numero)));
+        }
+        // O instantâneo pode conter ocorrências removidas pela reescrita
+        Files.deleteIfExists(Paths.get(SnapshotHistorico.obterNomeArquivo(estacao)));
+        IndiceHistorico.reconstruir(acesso);
+        Files.delete(reescrita);
+    }
+
+    /**
+     * Obtém a posição atual do log da cidade, isto é, a posição que o próximo
+     * registro anexado receberá. Se outro processo anexou registros que esta
+     * instância não carregou, obtém a posição do primeiro deles. Um instantâneo
+     * gravado agora cobre o log até ela.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return posição atual do log
+     * @throws IOException se não for possível ler o manifesto
+     */
+    public static long obterPosicaoLog(EstacaoBombeiros estacao) throws IOException {
+        synchronized (obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                return obterPosicaoLog(acesso);
+            }
+        }
+    }
+
+    /**
+     * Obtém a posição atual do log da cidade com a trava da cidade já em posse.
+     *
+     * @param acesso trava do histórico da cidade
+     * @return posição atual do log
+     * @throws IOException se não for possível ler o manifesto
+     */
+    static long obterPosicaoLog(TravaHistorico acesso) throws IOException {
+        EstacaoBombeiros estacao = acesso.getEstacao();
+        long posicaoFinal = obterPosicaoFinal(estacao, abrirManifesto(acesso));
+        return Math.min(posicaoFinal, posicoesConhecidas.getOrDefault(Arquivo.obterNomeBaseHistorico(estacao), posicaoFinal));
+    }
+
+    /**
+     * Configura os limites de segmentação do histórico.
+     *
+     * @param registrosPorSegmento quantidade de registros do segmento aberto que dispara sua selagem
+     * @param segmentosParaCompactacao quantidade de segmentos selados de uma partição diária que dispara sua compactação
+     */
+    public static void configurarSegmentos(int registrosPorSegmento, int segmentosParaCompactacao) {
+        LogHistorico.registrosPorSegmento = Math.max(1, registrosPorSegmento);
+        LogHistorico.segmentosParaCompactacao = Math.max(1, segmentosParaCompactacao);
+    }
+
+    /**
+     * Configura o relógio que define o dia das partições diárias.
+     *
+     * @param relogio relógio utilizado na selagem por virada do dia
+     */
+    static void configurarRelogio(Clock relogio) {
+        LogHistorico.relogio = relogio;
+    }
+
+    /**
+     * Obtém a quantidade de registros do segmento aberto que dispara sua selagem.
+     *
+     * @return limite de registros por segmento
+     */
+    public static int getRegistrosPorSegmento() {
+        return registrosPorSegmento;
+    }
+
+    /**
+     * Obtém a quantidade de segmentos selados de uma partição diária que dispara sua compactação.
+     *
+     * @return limite de segmentos selados
+     */
+    public static int getSegmentosParaCompactacao() {
+        return segmentosParaCompactacao;
+    }
+
+    /**
+     * Lê o manifesto da cidade, concluindo uma selagem interrompida: se o último
+     * segmento listado não existe, o segmento aberto ainda não havia sido movido.
+     * Também retoma uma reescrita interrompida ({@link #reescrever}): se o
+     * temporário ainda existe, o segmento aberto não foi substituído e a reescrita
+     * é descartada; caso contrário, ela é concluída a partir da intenção gravada.
+     * A trava compartilhada só é obtida quando não há reparo pendente, portanto os
+     * reparos sempre ocorrem com a trava exclusiva.
+     *
+     * @param acesso trava do histórico da cidade
+     * @return manifesto da cidade
+     * @throws IOException se não for possível ler o manifesto ou concluir a selagem
+     */
+    static ManifestoHistorico abrirManifesto(TravaHistorico acesso) throws IOException {
+        EstacaoBombeiros estacao = acesso.getEstacao();
+        ManifestoHistorico manifesto = ManifestoHistorico.ler(estacao);
+        if (isReescritaInterrompida(estacao)) {
+            acesso.exigirExclusiva();
+            Path temporario = Paths.get(obterNomeTemporarioReescrita(estacao));
+            if (Files.exists(temporario)) {
+                Files.delete(temporario);
+                Files.deleteIfExists(Paths.get(obterNomeArquivoReescrita(estacao)));
+            } else {
+                concluirReescrita(acesso, manifesto);
+            }
+        }
+        if (isSelagemInterrompida(estacao, manifesto)) {
+            acesso.exigirExclusiva();
+            ManifestoHistorico.Segmento ultimo = manifesto.getSegmentos().get(manifesto.getSegmentos().size() - 1);
+            Files.move(Paths.get(obterNomeArquivo(estacao)),
+                    Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, ultimo.getNumero())),
+                    StandardCopyOption.ATOMIC_MOVE);
+            criarSegmentoAberto(estacao);
+        }
+        return manifesto;
+    }
+
+    /**
+     * Verifica se o histórico da cidade precisa de reparo antes de ser lido: uma
+     * reescrita ou selagem interrompida ou um índice desatualizado. Chamado pela
+     * {@link TravaHistorico} com a trava de arquivo obtida, antes que o chamador
+     * leia o histórico.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return true se a leitura precisa da trava exclusiva para reparar o histórico
+     * @throws IOException se não for possível ler o manifesto ou o índice
+     */
+    static boolean precisaReparo(EstacaoBombeiros estacao) throws IOException {
+        return isReescritaInterrompida(estacao)
+                || isSelagemInterrompida(estacao, ManifestoHistorico.ler(estacao))
+                || IndiceHistorico.precisaReconstrucao(estacao);
+    }
+
+    /**
+     * Verifica se restou o temporário ou a intenção de uma reescrita.
+     */
+    private static boolean isReescritaInterrompida(EstacaoBombeiros estacao) {
+        return Files.exists(Paths.get(obterNomeTemporarioReescrita(estacao)))
+                || Files.exists(Paths.get(obterNomeArquivoReescrita(estacao)));
+    }
+
+    /**
+     * Verifica se o último segmento listado no manifesto ainda não foi movido
+     * para o nome de segmento selado.
+     */
+    private static boolean isSelagemInterrompida(EstacaoBombeiros estacao, ManifestoHistorico manifesto) {
+        if (manifesto.getSegmentos().isEmpty()) {
+            return false;
+        }
+        ManifestoHistorico.Segmento ultimo = manifesto.getSegmentos().get(manifesto.getSegmentos().size() - 1);
+        return !Files.exists(Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, ultimo.getNumero())))
+                && Files.exists(Paths.get(obterNomeArquivo(estacao)));
+    }
+
+    /**
+     * Calcula a posição do log após o último registro completo do segmento aberto.
+     */
+    private static long obterPosicaoFinal(EstacaoBombeiros estacao, ManifestoHistorico manifesto) throws IOException {
+        Path aberto = Paths.get(obterNomeArquivo(estacao));
+        long tamanho = Files.exists(aberto) ? Files.size(aberto) : 0;
+        long registros = Math.max(0, tamanho - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+        return manifesto.getPosicaoAberto() + registros;
+    }
+
+    /**
+     * Sela o segmento aberto: registra-o no manifesto como segmento imutável,
+     * move o arquivo para o nome do segmento e inicia um novo segmento aberto.
+     * As entradas do índice passam a apontar para o segmento selado.
+     */
+    private static void selarSegmentoAberto(EstacaoBombeiros estacao, ManifestoHistorico manifesto) throws IOException {
+        Path aberto = Paths.get(obterNomeArquivo(estacao));
+        ByteBuffer conteudo = ByteBuffer.wrap(Files.readAllBytes(aberto));
+        int registros = (conteudo.limit() - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+
+        int ativos = 0;
+        long menorDeteccao = Long.MAX_VALUE;
+        long maiorDeteccao = Long.MIN_VALUE;
+        int[] ids = new int[registros];
+        long[] deslocamentos = new long[registros];
+        for (int i = 0; i < registros; i++) {
+            int posicao = RegistroBinario.TAMANHO_CABECALHO + i * RegistroBinario.TAMANHO_REGISTRO;
+            ids[i] = RegistroBinario.lerId(conteudo, posicao);
+            deslocamentos[i] = posicao;
+            if (!RegistroBinario.isOcorrencia(conteudo, posicao)) {
+                continue;
+            }
+            if (RegistroBinario.isIncendioAtivo(conteudo, posicao)) {
+                ativos++;
+            }
+            long deteccao = RegistroBinario.lerInstanteDeteccao(conteudo, posicao);
+            menorDeteccao = Math.min(menorDeteccao, deteccao);
+            maiorDeteccao = Math.max(maiorDeteccao, deteccao);
+        }
+
+        long geracaoAnterior = manifesto.getGeracao();
+        int numero = manifesto.selarSegmentoAberto(registros, ativos, menorDeteccao, maiorDeteccao);
+        manifesto.gravar(estacao);
+        // Um arquivo com o mesmo número só pode ser resto de uma compactação interrompida
+        Files.move(aberto, Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, numero)),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        criarSegmentoAberto(estacao);
+
+        long[] posicoes = new long[registros];
+        for (int i = 0; i < registros; i++) {
+            posicoes[i] = IndiceHistorico.posicao(numero, deslocamentos[i]);
+        }
+        IndiceHistorico.realocar(estacao, ids, posicoes, geracaoAnterior, conteudo.limit(),
+                manifesto.getGeracao(), RegistroBinario.TAMANHO_CABECALHO);
+    }
+
+    /**
+     * Remove da lista as ocorrências ocultas pelas limpezas vigentes no manifesto.
+     */
+    private static void removerOcultas(ArrayList<Ocorrencia> ocorrencias, ManifestoHistorico manifesto) {
+        if (manifesto.getMaiorLimiteLimpeza() > 0) {
+            ocorrencias.removeIf(ocorrencia -> manifesto.isOculta(ocorrencia.getAreaAfetada().getIdArea(),
+                    ocorrencia.getIdOcorrencia()));
+        }
+    }
+
+    /**
+     * Cria um segmento aberto vazio, contendo apenas o cabeçalho.
+     */
+    private static void criarSegmentoAberto(EstacaoBombeiros estacao) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO);
+        RegistroBinario.escreverCabecalho(cabecalho);
+        cabecalho.flip();
+        try (FileChannel canal = FileChannel.open(Paths.get(obterNomeArquivo(estacao)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (cabecalho.hasRemaining()) {
+                canal.write(cabecalho);
+            }
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Carrega um segmento do histórico a partir do registro informado, avisando
+     * sobre formato incompatível ou registro incompleto.
+     *
+     * @return resultado do carregamento ou null se o segmento não puder ser lido
+     */
+    private static CarregadorHistoricoParalelo.Resultado carregarSegmento(EstacaoBombeiros estacao, Path caminho,
+                                                                           long primeiroRegistro,
+                                                                           CatalogoEntidades catalogo) throws IOException {
+        if (!Files.exists(caminho) || Files.size(caminho) == 0) {
+            return null;
+        }
+
+        CarregadorHistoricoParalelo.Resultado resultado =
+                CarregadorHistoricoParalelo.carregarBinario(caminho, primeiroRegistro, catalogo);
+        if (resultado == null) {
+            System.out.println("⚠️ Histórico binário de " + estacao.getCidade() + " com formato incompatível: " + caminho);
+            return null;
+        }
+        if (resultado.isRegistroIncompleto()) {
+            System.out.println("⚠️ Registro incompleto ignorado no final do histórico de " + estacao.getCidade() + ".");
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,676 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>
+ * Esta classe representa o manifesto dos segmentos do histórico de uma cidade no
+ * sistema Forest Guardian Network. O histórico é dividido em um segmento aberto
+ * ({@code historico_<cidade>.dat}), que recebe os novos registros, e em segmentos
+ * selados ({@code historico_<cidade>.<numero>.seg}), que nunca são alterados
+ * depois de criados. O manifesto ({@code historico_<cidade>.manifesto}) lista os
+ * segmentos selados em ordem cronológica com a quantidade de registros e de
+ * incêndios ativos de cada um.
+ * </p>
+ * <p>
+ * Os segmentos também são partições diárias: o segmento aberto é selado quando
+ * o dia muda, e cada segmento guarda o dia em que foi gravado e o menor e o
+ * maior instante de detecção de seus registros. Consultas por período leem
+ * apenas os segmentos cujo intervalo de detecção cruza o período consultado.
+ * </p>
+ * <p>
+ * O manifesto é a fonte de verdade sobre quais segmentos compõem o histórico:
+ * arquivos de segmento que não constam nele são descartados. Ele é sempre gravado
+ * em um arquivo temporário e substituído por movimentação atômica, de modo que
+ * uma falha durante a gravação preserva a versão anterior. Cada alteração
+ * incrementa a geração do manifesto, utilizada pelo {@link IndiceHistorico} para
+ * detectar índices desatualizados.
+ * </p>
+ * <p>
+ * O manifesto também mantém a posição do log: cada registro anexado ao histórico
+ * da cidade recebe uma posição sequencial que nunca se repete, mesmo após selagens
+ * e compactações. Cada segmento selado guarda a posição final que contém, o que
+ * permite ao {@link SnapshotHistorico} reaplicar apenas os segmentos posteriores
+ * ao instantâneo.
+ * </p>
+ * <p>
+ * A partir da versão 4, o manifesto também guarda as limpezas de histórico
+ * vigentes: para cada estação limpa pela {@link LimpezaHistorico}, o ID de
+ * ocorrência até o qual seus registros estão ocultos, as áreas da estação e se a
+ * limpeza ainda pode ser desfeita. A lápide gravada no log registra a limpeza; o
+ * manifesto a torna efetiva e permite filtrar registros sem percorrer o log.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class ManifestoHistorico {
+    /**
+     * Número mágico que identifica arquivos de manifesto ("FGNM")
+     */
+    public static final int MAGICO = 0x46474E4D;
+    /**
+     * Versão atual do formato do manifesto
+     */
+    public static final short VERSAO = 4;
+    /**
+     * Tamanho em bytes do cabeçalho do manifesto
+     */
+    private static final int TAMANHO_CABECALHO = 40;
+    /**
+     * Tamanho em bytes da descrição de cada segmento no manifesto
+     */
+    private static final int TAMANHO_SEGMENTO = 44;
+    /**
+     * Tamanho em bytes do cabeçalho e da descrição de segmento na versão 1, sem posições do log
+     */
+    private static final int TAMANHO_CABECALHO_V1 = 24;
+    private static final int TAMANHO_SEGMENTO_V1 = 12;
+    /**
+     * Tamanho em bytes do cabeçalho e da descrição de segmento na versão 2, sem partições diárias
+     */
+    private static final int TAMANHO_CABECALHO_V2 = 32;
+    private static final int TAMANHO_SEGMENTO_V2 = 20;
+
+    /**
+     * Limpeza vigente do histórico de uma estação.
+     */
+    public static class Limpeza {
+        private final int idEstacao;
+        private final int limite;
+        private final int limiteAnterior;
+        private final boolean reversivel;
+        private final int[] areas;
+
+        /**
+         * Construtor da limpeza vigente de uma estação.
+         *
+         * @param idEstacao ID da estação cujo histórico foi limpo
+         * @param limite ID de ocorrência até o qual os registros estão ocultos
+         * @param limiteAnterior limite restaurado se a limpeza for desfeita
+         * @param reversivel true enquanto nenhum registro oculto foi descartado pela compactação
+         * @param areas IDs das áreas da estação no momento da limpeza
+         */
+        public Limpeza(int idEstacao, int limite, int limiteAnterior, boolean reversivel, int[] areas) {
+            this.idEstacao = idEstacao;
+            this.limite = limite;
+            this.limiteAnterior = limiteAnterior;
+            this.reversivel = reversivel;
+            this.areas = areas;
+        }
+
+        /**
+         * Obtém o ID da estação cujo histórico foi limpo.
+         *
+         * @return ID da estação
+         */
+        public int getIdEstacao() {
+            return idEstacao;
+        }
+
+        /**
+         * Obtém o ID de ocorrência até o qual os registros da estação estão ocultos.
+         *
+         * @return limite da limpeza, inclusivo
+         */
+        public int getLimite() {
+            return limite;
+        }
+
+        /**
+         * Obtém o limite que volta a vigorar se a limpeza for desfeita.
+         *
+         * @return limite anterior à limpeza
+         */
+        public int getLimiteAnterior() {
+            return limiteAnterior;
+        }
+
+        /**
+         * Indica se a limpeza ainda pode ser desfeita, isto é, se a compactação
+         * ainda não descartou registros ocultos por ela.
+         *
+         * @return true se a limpeza é reversível
+         */
+        public boolean isReversivel() {
+            return reversivel;
+        }
+
+        /**
+         * Obtém os IDs das áreas da estação no momento da limpeza.
+         *
+         * @return IDs das áreas
+         */
+        public int[] getAreas() {
+            return areas;
+        }
+    }
+
+    /**
+     * Descrição de um segmento selado do histórico.
+     */
+    public static class Segmento {
+        private final int numero;
+        private final int registros;
+        private final int ativos;
+        private final long posicaoFinal;
+        private final long dia;
+        private final long menorDeteccao;
+        private final long maiorDeteccao;
+
+        /**
+         * Construtor da descrição de um segmento selado.
+         *
+         * @param numero número do segmento, que compõe o nome do arquivo
+         * @param registros quantidade de registros gravados no segmento
+         * @param ativos quantidade de registros de incêndios ativos no segmento
+         * @param posicaoFinal posição do log imediatamente após o último registro do segmento
+         * @param dia dia da gravação do segmento, em dias desde 01/01/1970
+         * @param menorDeteccao menor instante de detecção dos registros, em milissegundos desde a época
+         * @param maiorDeteccao maior instante de detecção dos registros, em milissegundos desde a época
+         */
+        public Segmento(int numero, int registros, int ativos, long posicaoFinal,
+                        long dia, long menorDeteccao, long maiorDeteccao) {
+            this.numero = numero;
+            this.registros = registros;
+            this.ativos = ativos;
+            this.posicaoFinal = posicaoFinal;
+            this.dia = dia;
+            this.menorDeteccao = menorDeteccao;
+            this.maiorDeteccao = maiorDeteccao;
+        }
+
+        /**
+         * Obtém o número do segmento.
+         *
+         * @return número do segmento
+         */
+        public int getNumero() {
+            return numero;
+        }
+
+        /**
+         * Obtém a quantidade de registros gravados no segmento.
+         *
+         * @return quantidade de registros
+         */
+        public int getRegistros() {
+            return registros;
+        }
+
+        /**
+         * Obtém a quantidade de registros de incêndios ativos no segmento.
+         * Segmentos sem incêndios ativos podem ser ignorados por completo no
+         * carregamento dos incêndios ativos.
+         *
+         * @return quantidade de registros de incêndios ativos
+         */
+        public int getAtivos() {
+            return ativos;
+        }
+
+        /**
+         * Obtém a posição do log imediatamente após o último registro do segmento.
+         * Um instantâneo que cobre essa posição já contém todos os registros do segmento.
+         *
+         * @return posição final do segmento no log
+         */
+        public long getPosicaoFinal() {
+            return posicaoFinal;
+        }
+
+        /**
+         * Obtém o dia da gravação do segmento, que identifica sua partição diária.
+         *
+         * @return dias desde 01/01/1970
+         */
+        public long getDia() {
+            return dia;
+        }
+
+        /**
+         * Obtém o menor instante de detecção dos registros do segmento.
+         *
+         * @return milissegundos desde a época
+         */
+        public long getMenorDeteccao() {
+            return menorDeteccao;
+        }
+
+        /**
+         * Obtém o maior instante de detecção dos registros do segmento.
+         *
+         * @return milissegundos desde a época
+         */
+        public long getMaiorDeteccao() {
+            return maiorDeteccao;
+        }
+
+        /**
+         * Verifica se algum registro do segmento pode ter sido detectado no período informado.
+         *
+         * @param inicio início do período, inclusivo, em milissegundos desde a época
+         * @param fim fim do período, exclusivo, em milissegundos desde a época
+         * @return true se o intervalo de detecção do segmento cruza o período
+         */
+        public boolean cruzaPeriodo(long inicio, long fim) {
+            return menorDeteccao < fim && maiorDeteccao >= inicio;
+        }
+    }
+
+    private long geracao;
+    private int proximoNumero = 1;
+    /**
+     * Posição do log do primeiro registro do segmento aberto
+     */
+    private long posicaoAberto;
+    /**
+     * Dia em que o segmento aberto começou a receber registros
+     */
+    private long diaAberto;
+    private final ArrayList<Segmento> segmentos = new ArrayList<>();
+    private final ArrayList<Limpeza> limpezas = new ArrayList<>();
+    /**
+     * Limpeza vigente indexada pelo ID de cada área, montada sob demanda
+     */
+    private HashMap<Integer, Limpeza> limpezaPorArea;
+
+    /**
+     * Obtém o nome do arquivo de manifesto da cidade da estação informada.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return nome do arquivo de manifesto
+     */
+    public static String obterNomeArquivo(EstacaoBombeiros estacao) {
+        return Arquivo.obterNomeBaseHistorico(estacao) + ".manifesto";
+    }
+
+    /**
+     * Obtém o nome do arquivo de um segmento selado da cidade.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param numero número do segmento
+     * @return nome do arquivo do segmento
+     */
+    public static String obterNomeSegmento(EstacaoBombeiros estacao, int numero) {
+        return Arquivo.obterNomeBaseHistorico(estacao) + String.format(".%06d.seg", numero);
+    }
+
+    /**
+     * Lê o manifesto da cidade. Cidades sem manifesto possuem apenas o segmento aberto.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return manifesto lido ou vazio se o arquivo não existir
+     * @throws IOException se o arquivo não puder ser lido ou tiver formato incompatível
+     */
+    public static ManifestoHistorico ler(EstacaoBombeiros estacao) throws IOException {
+        ManifestoHistorico manifesto = new ManifestoHistorico();
+        Path caminho = Paths.get(obterNomeArquivo(estacao));
+        if (!Files.exists(caminho)) {
+            return manifesto;
+        }
+
+        ByteBuffer conteudo = ByteBuffer.wrap(Files.readAllBytes(caminho));
+        int versao = conteudo.limit() < TAMANHO_CABECALHO_V1 || conteudo.getInt(0) != MAGICO ? 0 : conteudo.getShort(4);
+        if (versao < 1 || versao > VERSAO) {
+            throw new IOException("Manifesto de " + estacao.getCidade() + " com formato incompatível");
+        }
+        // A versão 1 não registrava posições do log; seus segmentos são anteriores a qualquer instantâneo.
+        // Segmentos anteriores à versão 3 não têm intervalo de detecção e são lidos em qualquer período.
+        int tamanhoCabecalho = versao == 1 ? TAMANHO_CABECALHO_V1 : versao == 2 ? TAMANHO_CABECALHO_V2 : TAMANHO_CABECALHO;
+        int tamanhoSegmento = versao == 1 ? TAMANHO_SEGMENTO_V1 : versao == 2 ? TAMANHO_SEGMENTO_V2 : TAMANHO_SEGMENTO;
+
+        manifesto.geracao = conteudo.getLong(8);
+        manifesto.proximoNumero = conteudo.getInt(16);
+        int quantidade = conteudo.getInt(20);
+        manifesto.posicaoAberto = versao == 1 ? 0 : conteudo.getLong(24);
+        manifesto.diaAberto = versao < 3 ? 0 : conteudo.getLong(32);
+        if (conteudo.limit() < tamanhoCabecalho + quantidade * tamanhoSegmento) {
+            throw new IOException("Manifesto de " + estacao.getCidade() + " incompleto");
+        }
+        for (int i = 0; i < quantidade; i++) {
+            int posicao = tamanhoCabecalho + i * tamanhoSegmento;
+            manifesto.segmentos.add(new Segmento(conteudo.getInt(posicao), conteudo.getInt(posicao + 4),
+                    conteudo.getInt(posicao + 8), versao == 1 ? 0 : conteudo.getLong(posicao + 12),
+                    versao < 3 ? 0 : conteudo.getLong(posicao + 20),
+                    versao < 3 ? Long.MIN_VALUE : conteudo.getLong(posicao + 28),
+                    versao < 3 ? Long.MAX_VALUE : conteudo.getLong(posicao + 36)));
+        }
+        if (versao >= 4) {
+            lerLimpezas(manifesto, conteudo, tamanhoCabecalho + quantidade * tamanhoSegmento, estacao);
+        }
+        return manifesto;
+    }
+
+    /**
+     * Lê a lista de limpezas vigentes, gravada após a lista de segmentos.
+     */
+    private static void lerLimpezas(ManifestoHistorico manifesto, ByteBuffer conteudo, int posicao,
+                                    EstacaoBombeiros estacao) throws IOException {
+        if (conteudo.limit() < posicao + Integer.BYTES) {
+            throw new IOException("Manifesto de " + estacao.getCidade() + " incompleto");
+        }
+        int quantidade = conteudo.getInt(posicao);
+        posicao += Integer.BYTES;
+        for (int i = 0; i < quantidade; i++) {
+            if (conteudo.limit() < posicao + 16 || conteudo.limit() < posicao + 16 + conteudo.getInt(posicao + 12) * Integer.BYTES) {
+                throw new IOException("Manifesto de " + estacao.getCidade() + " incompleto");
+            }
+            int[] areas = new int[conteudo.getInt(posicao + 12)];
+            for (int j = 0; j < areas.length; j++) {
+                areas[j] = conteudo.getInt(posicao + 16 + j * Integer.BYTES);
+            }
+            int limiteAnterior = conteudo.getInt(posicao + 8);
+            manifesto.limpezas.add(new Limpeza(conteudo.getInt(posicao), conteudo.getInt(posicao + 4),
+                    limiteAnterior & Integer.MAX_VALUE, limiteAnterior >= 0, areas));
+            posicao += 16 + areas.length * Integer.BYTES;
+        }
+    }
+
+    /**
+     * Grava o manifesto em um arquivo temporário e o substitui atomicamente.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @throws IOException se não for possível gravar o manifesto
+     */
+    public void gravar(EstacaoBombeiros estacao) throws IOException {
+        int tamanhoLimpezas = Integer.BYTES;
+        for (Limpeza limpeza : limpezas) {
+            tamanhoLimpezas += 16 + limpeza.areas.length * Integer.BYTES;
+        }
+        ByteBuffer conteudo = ByteBuffer.allocate(TAMANHO_CABECALHO + segmentos.size() * TAMANHO_SEGMENTO + tamanhoLimpezas);
+        conteudo.putInt(MAGICO);
+        conteudo.putShort(VERSAO);
+        conteudo.putShort((short) TAMANHO_SEGMENTO);
+        conteudo.putLong(geracao);
+        conteudo.putInt(proximoNumero);
+        conteudo.putInt(segmentos.size());
+        conteudo.putLong(posicaoAberto);
+        conteudo.putLong(diaAberto);
+        for (Segmento segmento : segmentos) {
+            conteudo.putInt(segmento.numero);
+            conteudo.putInt(segmento.registros);
+            conteudo.putInt(segmento.ativos);
+            conteudo.putLong(segmento.posicaoFinal);
+            conteudo.putLong(segmento.dia);
+            conteudo.putLong(segmento.menorDeteccao);
+            conteudo.putLong(segmento.maiorDeteccao);
+        }
+        conteudo.putInt(limpezas.size());
+        for (Limpeza limpeza : limpezas) {
+            conteudo.putInt(limpeza.idEstacao);
+            conteudo.putInt(limpeza.limite);
+            // Bit de sinal marca a limpeza que não pode mais ser desfeita
+            conteudo.putInt(limpeza.reversivel ? limpeza.limiteAnterior : limpeza.limiteAnterior | Integer.MIN_VALUE);
+            conteudo.putInt(limpeza.areas.length);
+            for (int area : limpeza.areas) {
+                conteudo.putInt(area);
+            }
+        }
+        conteudo.flip();
+
+        Path destino = Paths.get(obterNomeArquivo(estacao));
+        Path temporario = Paths.get(obterNomeArquivo(estacao) + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(false);
+        }
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Sela o segmento aberto: acrescenta-o ao final da lista como partição do dia
+     * em que foi aberto, reservando seu número, e avança a posição do log do novo
+     * segmento aberto.
+     *
+     * @param registros quantidade de registros gravados no segmento
+     * @param ativos quantidade de registros de incêndios ativos no segmento
+     * @param menorDeteccao menor instante de detecção dos registros, em milissegundos desde a época
+     * @param maiorDeteccao maior instante de detecção dos registros, em milissegundos desde a época
+     * @return número atribuído ao segmento
+     */
+    public int selarSegmentoAberto(int registros, int ativos, long menorDeteccao, long maiorDeteccao) {
+        posicaoAberto += registros;
+        int numero = proximoNumero++;
+        segmentos.add(new Segmento(numero, registros, ativos, posicaoAberto, diaAberto, menorDeteccao, maiorDeteccao));
+        geracao++;
+        return numero;
+    }
+
+    /**
+     * Substitui segmentos consecutivos por um único segmento mesclado, mantido na
+     * mesma posição da lista, reservando seu número. Sem registros, os segmentos
+     * são apenas removidos.
+     *
+     * @param substituidos segmentos consecutivos da lista, em ordem
+     * @param registros quantidade de registros do segmento mesclado
+     * @param ativos quantidade de registros de incêndios ativos do segmento mesclado
+     * @param menorDeteccao menor instante de detecção dos registros mantidos
+     * @param maiorDeteccao maior instante de detecção dos registros mantidos
+     * @return número atribuído ao segmento mesclado ou 0 se não houver registros
+     */
+    public int substituirSegmentos(List<Segmento> substituidos, int registros, int ativos,
+                                   long menorDeteccao, long maiorDeteccao) {
+        int posicao = segmentos.indexOf(substituidos.get(0));
+        long posicaoFinal = 0;
+        for (Segmento segmento : substituidos) {
+            posicaoFinal = Math.max(posicaoFinal, segmento.posicaoFinal);
+        }
+        segmentos.removeAll(substituidos);
+        geracao++;
+        if (registros == 0) {
+            return 0;
+        }
+
+        int numero = proximoNumero++;
+        segmentos.add(posicao, new Segmento(numero, registros, ativos, posicaoFinal,
+                substituidos.get(0).dia, menorDeteccao, maiorDeteccao));
+        return numero;
+    }
+
+    /**
+     * Reinicia o segmento aberto na posição informada do log, utilizado quando o
+     * segmento aberto é reescrito por completo.
+     *
+     * @param posicao posição do log do primeiro registro do novo segmento aberto
+     * @param dia dia em que o novo segmento aberto começa a receber registros
+     */
+    public void reiniciarSegmentoAberto(long posicao, long dia) {
+        posicaoAberto = posicao;
+        diaAberto = dia;
+        geracao++;
+    }
+
+    /**
+     * Inicia uma nova partição diária no segmento aberto, que deve estar vazio.
+     * A lista de segmentos não muda, portanto a geração é mantida.
+     *
+     * @param dia dia em que o segmento aberto começa a receber registros
+     */
+    public void iniciarDia(long dia) {
+        diaAberto = dia;
+    }
+
+    /**
+     * Obtém o dia em que o segmento aberto começou a receber registros.
+     *
+     * @return dias desde 01/01/1970
+     */
+    public long getDiaAberto() {
+        return diaAberto;
+    }
+
+    /**
+     * Obtém a posição do log do primeiro registro do segmento aberto.
+     *
+     * @return posição inicial do segmento aberto
+     */
+    public long getPosicaoAberto() {
+        return posicaoAberto;
+    }
+
+    /**
+     * Remove todos os segmentos selados do manifesto.
+     *
+     * @return segmentos removidos, cujos arquivos podem ser apagados após a gravação do manifesto
+     */
+    public ArrayList<Segmento> removerSegmentos() {
+        ArrayList<Segmento> removidos = new ArrayList<>(segmentos);
+        segmentos.clear();
+        geracao++;
+        return removidos;
+    }
+
+    /**
+     * Registra a limpeza do histórico da estação até o ID informado, substituindo
+     * a limpeza vigente da estação. A nova limpeza pode ser desfeita até que a
+     * compactação descarte registros ocultos por ela.
+     *
+     * @param idEstacao ID da estação cujo histórico foi limpo
+     * @param limite ID de ocorrência até o qual os registros ficam ocultos
+     * @param areas IDs das áreas da estação
+     * @return limpeza registrada
+     */
+    public Limpeza registrarLimpeza(int idEstacao, int limite, int[] areas) {
+        Limpeza vigente = getLimpeza(idEstacao);
+        Limpeza limpeza = new Limpeza(idEstacao, limite, vigente != null ? vigente.limite : 0, true, areas);
+        limpezas.remove(vigente);
+        limpezas.add(limpeza);
+        limpezaPorArea = null;
+        return limpeza;
+    }
+
+    /**
+     * Desfaz a limpeza vigente da estação, restaurando o limite anterior. A
+     * restauração em si não pode ser desfeita.
+     *
+     * @param idEstacao ID da estação
+     * @return limpeza restaurada, ou null se não há limpeza reversível
+     */
+    public Limpeza desfazerLimpeza(int idEstacao) {
+        Limpeza vigente = getLimpeza(idEstacao);
+        if (vigente == null || !vigente.reversivel) {
+            return null;
+        }
+        Limpeza restaurada = new Limpeza(idEstacao, vigente.limiteAnterior, vigente.limiteAnterior, false, vigente.areas);
+        limpezas.remove(vigente);
+        if (restaurada.limite > 0) {
+            limpezas.add(restaurada);
+        }
+        limpezaPorArea = null;
+        return restaurada;
+    }
+
+    /**
+     * Torna irreversíveis as limpezas das estações informadas, depois que a
+     * compactação descartou registros ocultos por elas.
+     *
+     * @param idsEstacao IDs das estações
+     */
+    public void consolidarLimpezas(Set<Integer> idsEstacao) {
+        for (int i = 0; i < limpezas.size(); i++) {
+            Limpeza limpeza = limpezas.get(i);
+            if (limpeza.reversivel && idsEstacao.contains(limpeza.idEstacao)) {
+                limpezas.set(i, new Limpeza(limpeza.idEstacao, limpeza.limite, limpeza.limite, false, limpeza.areas));
+            }
+        }
+        limpezaPorArea = null;
+    }
+
+    /**
+     * Obtém a limpeza vigente da estação.
+     *
+     * @param idEstacao ID da estação
+     * @return limpeza vigente ou null se o histórico da estação nunca foi limpo
+     */
+    public Limpeza getLimpeza(int idEstacao) {
+        for (Limpeza limpeza : limpezas) {
+            if (limpeza.idEstacao == idEstacao) {
+                return limpeza;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtém a limpeza vigente que oculta o registro informado.
+     *
+     * @param idArea ID da área florestal do registro
+     * @param idOcorrencia ID da ocorrência do registro
+     * @return limpeza que oculta o registro ou null se ele é visível
+     */
+    public Limpeza obterLimpezaQueOculta(int idArea, int idOcorrencia) {
+        if (limpezas.isEmpty()) {
+            return null;
+        }
+        if (limpezaPorArea == null) {
+            HashMap<Integer, Limpeza> porArea = new HashMap<>();
+            for (Limpeza limpeza : limpezas) {
+                for (int area : limpeza.areas) {
+                    porArea.put(area, limpeza);
+                }
+            }
+            limpezaPorArea = porArea;
+        }
+        Limpeza limpeza = limpezaPorArea.get(idArea);
+        return limpeza != null && idOcorrencia <= limpeza.limite ? limpeza : null;
+    }
+
+    /**
+     * Indica se o registro informado está oculto por uma limpeza vigente.
+     *
+     * @param idArea ID da área florestal do registro
+     * @param idOcorrencia ID da ocorrência do registro
+     * @return true se o registro não deve ser carregado
+     */
+    public boolean isOculta(int idArea, int idOcorrencia) {
+        return obterLimpezaQueOculta(idArea, idOcorrencia) != null;
+    }
+
+    /**
+     * Obtém o maior limite entre as limpezas vigentes. Novas ocorrências precisam
+     * de IDs maiores que ele para não nascerem ocultas.
+     *
+     * @return maior limite ou 0 se não há limpezas
+     */
+    public int getMaiorLimiteLimpeza() {
+        int maior = 0;
+        for (Limpeza limpeza : limpezas) {
+            maior = Math.max(maior, limpeza.limite);
+        }
+        return maior;
+    }
+
+    /**
+     * Obtém a geração do manifesto, incrementada a cada alteração.
+     *
+     * @return geração atual
+     */
+    public long getGeracao() {
+        return geracao;
+    }
+
+    /**
+     * Obtém os segmentos selados em ordem cronológica.
+     *
+     * @return lista somente leitura dos segmentos
+     */
+    public List<Segmento> getSegmentos() {
+        return Collections.unmodifiableList(segmentos);
+    }
+}
@@ -0,0 +1,140 @@
+package fgn.modelo;
+
+/**
+ * <p>
+ * Esta enumeração representa os níveis de risco de uma ocorrência no sistema
+ * Forest Guardian Network. Cada nível mantém o rótulo utilizado nas telas, nos
+ * relatórios e no histórico texto, e sua posição na enumeração é o código
+ * gravado no {@link RegistroBinario}, por isso a ordem não deve ser alterada.
+ * </p>
+ * <p>
+ * Comparações e contagens usam diretamente as constantes, sem comparar textos;
+ * os rótulos são convertidos apenas na leitura de dados externos.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public enum NivelRisco {
+    /**
+     * Área averiguada e confirmada como segura
+     */
+    SEGURO("Seguro"),
+    /**
+     * Incêndio de 1 a 40 hectares
+     */
+    INVESTIGACAO("Investigação"),
+    /**
+     * Incêndio de 41 a 100 hectares
+     */
+    ALERTA_ATIVO("Alerta Ativo"),
+    /**
+     * Incêndio acima de 100 hectares
+     */
+    EMERGENCIA("Emergência");
+
+    /**
+     * Níveis indexados pelo código gravado, evitando a cópia feita por values()
+     */
+    private static final NivelRisco[] POR_CODIGO = values();
+
+    /**
+     * Rótulo exibido e gravado no histórico texto
+     */
+    private final String rotulo;
+
+    NivelRisco(String rotulo) {
+        this.rotulo = rotulo;
+    }
+
+    /**
+     * Obtém o rótulo do nível de risco.
+     *
+     * @return rótulo exibido ("Seguro", "Investigação", "Alerta Ativo" ou "Emergência")
+     */
+    public String getRotulo() {
+        return rotulo;
+    }
+
+    /**
+     * Obtém o código gravado no {@link RegistroBinario}.
+     *
+     * @return código do nível de risco (0 = Seguro)
+     */
+    public byte getCodigo() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Indica se o nível representa um incêndio, e não uma área segura.
+     *
+     * @return true para qualquer nível diferente de {@link #SEGURO}
+     */
+    public boolean isIncendio() {
+        return this != SEGURO;
+    }
+
+    /**
+     * Calcula o nível de risco de um incêndio a partir da extensão da área afetada.
+     *
+     * @param hectares extensão em hectares da área impactada
+     * @return nível de risco correspondente
+     */
+    public static NivelRisco calcular(int hectares) {
+        if (hectares >= 1 && hectares <= 40) {
+            return INVESTIGACAO;
+        } else if (hectares >= 41 && hectares <= 100) {
+            return ALERTA_ATIVO;
+        } else {
+            return EMERGENCIA;
+        }
+    }
+
+    /**
+     * Converte o código gravado no {@link RegistroBinario} em nível de risco.
+     *
+     * @param codigo código gravado no registro
+     * @return nível correspondente, ou {@link #SEGURO} se o código for desconhecido
+     */
+    public static NivelRisco doCodigo(int codigo) {
+        return codigo >= 0 && codigo < POR_CODIGO.length ? POR_CODIGO[codigo] : SEGURO;
+    }
+
+    /**
+     * Converte o rótulo em nível de risco.
+     *
+     * @param rotulo rótulo do nível de risco
+     * @return nível correspondente, ou {@link #SEGURO} se o rótulo for desconhecido
+     */
+    public static NivelRisco doRotulo(String rotulo) {
+        for (NivelRisco nivel : POR_CODIGO) {
+            if (nivel.rotulo.equals(rotulo)) {
+                return nivel;
+            }
+        }
+        return SEGURO;
+    }
+
+    /**
+     * Obtém os rótulos de todos os níveis, na ordem dos códigos.
+     *
+     * @return rótulos indexados pelo código
+     */
+    public static String[] rotulos() {
+        String[] rotulos = new String[POR_CODIGO.length];
+        for (NivelRisco nivel : POR_CODIGO) {
+            rotulos[nivel.ordinal()] = nivel.rotulo;
+        }
+        return rotulos;
+    }
+
+    /**
+     * Retorna o rótulo do nível de risco, para exibição.
+     *
+     * @return rótulo do nível de risco
+     */
+    @Override
+    public String toString() {
+        return rotulo;
+    }
+}
@@ -2,6 +2,7 @@ package fgn.modelo;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 
 /**
  * <p>
@@ -21,6 +22,21 @@ import java.time.format.DateTimeFormatter;
  * @version 1.0
  */
 public class Ocorrencia {
+    /**
+     * Interessado nas mudanças de status e de nível de risco de uma ocorrência,
+     * como os índices de incêndios ativos do {@link RepositorioOcorrencias}.
+     */
+    public interface Ouvinte {
+        /**
+         * Chamado após a mudança de status ou de nível de risco da ocorrência.
+         *
+         * @param ocorrencia ocorrência alterada, já com os novos valores
+         * @param nivelRiscoAnterior nível de risco antes da mudança
+         * @param statusAnterior status antes da mudança
+         */
+        void aoAlterarSituacao(Ocorrencia ocorrencia, NivelRisco nivelRiscoAnterior, StatusOcorrencia statusAnterior);
+    }
+
     /**
      * Identificador único sequencial da ocorrência
      */
@@ -36,7 +52,7 @@ public class Ocorrencia {
     /**
      * Nível de risco calculado da ocorrência através da quantidade de hectares
      */
-    private String nivelRisco;
+    private NivelRisco nivelRisco;
     /**
      * Sensor responsável pela detecção inicial
      */
@@ -56,11 +72,20 @@ public class Ocorrencia {
     /**
      * Identifica o Status da Ocorrencia como Ativo ou Concluido
      */
-    private String statusOcorrencia;
+    private StatusOcorrencia statusOcorrencia;
     /**
      * Cidadão que reportou a possível ocorrência
      */
     private Usuario usuarioDenunciante;
+    /**
+     * Indica se a ocorrência possui alterações ainda não gravadas no histórico.
+     * Ocorrências novas nascem alteradas; ocorrências reconstituídas do histórico, não.
+     */
+    private boolean alterada = true;
+    /**
+     * Interessados nas mudanças de situação, criada apenas quando há algum
+     */
+    private ArrayList<Ouvinte> ouvintes;
 
     /**
      * Construtor para ocorrências de incêndio detectadas por sensores durante varredura.
@@ -81,8 +106,8 @@ public class Ocorrencia {
         this.droneVarredura = droneVarredura;
         this.tempoChegadaMinutos = tempoChegadaMinutos;
         this.dataHoraDeteccao = LocalDateTime.now();
-        this.statusOcorrencia = "Ativo";
-        this.nivelRisco = calcularNivelRisco(hectaresAfetados);
+        this.statusOcorrencia = StatusOcorrencia.ATIVO;
+        this.nivelRisco = NivelRisco.calcular(hectaresAfetados);
         this.usuarioDenunciante = null;
     }
 
@@ -101,8 +126,8 @@ public class Ocorrencia {
         this.droneVarredura = droneVarredura;
         this.tempoChegadaMinutos = 0;
         this.dataHoraDeteccao = LocalDateTime.now();
-        this.statusOcorrencia = "Concluído";
-        this.nivelRisco = "Seguro";
+        this.statusOcorrencia = StatusOcorrencia.CONCLUIDO;
+        this.nivelRisco = NivelRisco.SEGURO;
         this.usuarioDenunciante = null;
     }
 
@@ -128,11 +153,11 @@ public class Ocorrencia {
         this.usuarioDenunciante = usuarioDenunciante;
 
         if (hectaresAfetados == 0) {
-            this.statusOcorrencia = "Concluído";
-            this.nivelRisco = "Seguro";
+            this.statusOcorrencia = StatusOcorrencia.CONCLUIDO;
+            this.nivelRisco = NivelRisco.SEGURO;
         } else {
-            this.statusOcorrencia = "Ativo";
-            this.nivelRisco = calcularNivelRisco(hectaresAfetados);
+            this.statusOcorrencia = StatusOcorrencia.ATIVO;
+            this.nivelRisco = NivelRisco.calcular(hectaresAfetados);
         }
     }
 
@@ -152,27 +177,64 @@ public class Ocorrencia {
         this.droneVarredura = droneVarredura;
         this.tempoChegadaMinutos = 0;
         this.dataHoraDeteccao = LocalDateTime.now();
-        this.statusOcorrencia = "Concluído";
-        this.nivelRisco = "Seguro";
+        this.statusOcorrencia = StatusOcorrencia.CONCLUIDO;
+        this.nivelRisco = NivelRisco.SEGURO;
         this.usuarioDenunciante = usuarioDenunciante;
     }
 
     /**
-     * Calcula automaticamente o nível de risco baseado na extensão da área afetada.
-     * Utiliza escala padronizada para classificação de severidade, auxiliando
-     * na priorização de recursos e tomada de decisões operacionais.
+     * Construtor para reconstituição de ocorrências persistidas no histórico.
+     * Restaura exatamente o estado gravado, sem recalcular nível de risco,
+     * status ou data/hora de detecção.
      *
-     * @param hectares extensão em hectares da área impactada pelo incêndio
-     * @return string representando o nível de risco calculado
-     */
-    private String calcularNivelRisco(int hectares) {
-        if (hectares >= 1 && hectares <= 40) {
-            return "Investigação";
-        } else if (hectares >= 41 && hectares <= 100) {
-            return "Alerta Ativo";
-        } else {
-            return "Emergência";
-        }
+     * @param idOcorrencia identificador único sequencial da ocorrência
+     * @param areaAfetada área florestal associada ao registro
+     * @param hectaresAfetados extensão em hectares gravada no registro
+     * @param nivelRisco nível de risco gravado no registro
+     * @param statusOcorrencia status gravado no registro
+     * @param sensorDetector sensor detector ou null se detecção por drone
+     * @param droneVarredura drone utilizado na varredura
+     * @param usuarioDenunciante cidadão denunciante ou null se detecção automática
+     * @param tempoChegadaMinutos tempo estimado de chegada gravado no registro
+     * @param dataHoraDeteccao data e hora originais da detecção
+     */
+    public Ocorrencia(int idOcorrencia, AreaFlorestal areaAfetada, int hectaresAfetados, NivelRisco nivelRisco,
+                      StatusOcorrencia statusOcorrencia, Sensor sensorDetector, Drone droneVarredura,
+                      Usuario usuarioDenunciante, int tempoChegadaMinutos, LocalDateTime dataHoraDeteccao) {
+        this.idOcorrencia = idOcorrencia;
+        this.areaAfetada = areaAfetada;
+        this.hectaresAfetados = hectaresAfetados;
+        this.nivelRisco = nivelRisco;
+        this.statusOcorrencia = statusOcorrencia;
+        this.sensorDetector = sensorDetector;
+        this.droneVarredura = droneVarredura;
+        this.usuarioDenunciante = usuarioDenunciante;
+        this.tempoChegadaMinutos = tempoChegadaMinutos;
+        this.dataHoraDeteccao = dataHoraDeteccao;
+        this.alterada = false;
+    }
+
+    /**
+     * Construtor para reconstituição de ocorrências a partir dos rótulos de nível
+     * de risco e status, como gravados no histórico texto.
+     *
+     * @param idOcorrencia identificador único sequencial da ocorrência
+     * @param areaAfetada área florestal associada ao registro
+     * @param hectaresAfetados extensão em hectares gravada no registro
+     * @param nivelRisco rótulo do nível de risco gravado no registro
+     * @param statusOcorrencia rótulo do status gravado no registro
+     * @param sensorDetector sensor detector ou null se detecção por drone
+     * @param droneVarredura drone utilizado na varredura
+     * @param usuarioDenunciante cidadão denunciante ou null se detecção automática
+     * @param tempoChegadaMinutos tempo estimado de chegada gravado no registro
+     * @param dataHoraDeteccao data e hora originais da detecção
+     */
+    public Ocorrencia(int idOcorrencia, AreaFlorestal areaAfetada, int hectaresAfetados, String nivelRisco,
+                      String statusOcorrencia, Sensor sensorDetector, Drone droneVarredura,
+                      Usuario usuarioDenunciante, int tempoChegadaMinutos, LocalDateTime dataHoraDeteccao) {
+        this(idOcorrencia, areaAfetada, hectaresAfetados, NivelRisco.doRotulo(nivelRisco),
+                StatusOcorrencia.doRotulo(statusOcorrencia), sensorDetector, droneVarredura, usuarioDenunciante,
+                tempoChegadaMinutos, dataHoraDeteccao);
     }
 
     /**
@@ -225,6 +287,15 @@ public class Ocorrencia {
      * @return string representando nível de risco ("Investigação", "Alerta Ativo", "Emergência", "Seguro")
      */
     public String getNivelRisco() {
+        return nivelRisco.getRotulo();
+    }
+
+    /**
+     * Obtém o nível de risco da ocorrência como constante, para comparações e contagens.
+     *
+     * @return nível de risco da ocorrência
+     */
+    public NivelRisco getRisco() {
         return nivelRisco;
     }
 
@@ -275,9 +346,37 @@ public class Ocorrencia {
      * @return string representando status ("Ativo" ou "Concluído")
      */
     public String getStatusOcorrencia() {
+        return statusOcorrencia.getRotulo();
+    }
+
+    /**
+     * Obtém o status da ocorrência como constante, para comparações e contagens.
+     *
+     * @return status da ocorrência
+     */
+    public StatusOcorrencia getStatus() {
         return statusOcorrencia;
     }
 
+    /**
+     * Verifica se a ocorrência é de uma área confirmada como segura.
+     *
+     * @return true se o nível de risco é "Seguro"
+     */
+    public boolean isSegura() {
+        return nivelRisco == NivelRisco.SEGURO;
+    }
+
+    /**
+     * Verifica se a ocorrência é um incêndio ativo: status "Ativo" e nível de
+     * risco diferente de "Seguro".
+     *
+     * @return true se a ocorrência requer combate
+     */
+    public boolean isIncendioAtivo() {
+        return statusOcorrencia == StatusOcorrencia.ATIVO && nivelRisco.isIncendio();
+    }
+
     /**
      * Obtém dados do cidadão que reportou a ocorrência.
      * Pode ser null para detecções automáticas por sensores.
@@ -293,10 +392,24 @@ public class Ocorrencia {
      * Define novo status para a ocorrência.
      * Utilizado para atualizar estado conforme progresso das operações.
      *
-     * @param statusOcorrencia novo status a ser definido ("Ativo" ou "Concluído")
+     * @param statusOcorrencia rótulo do novo status ("Ativo" ou "Concluído")
      */
     public void setStatusOcorrencia(String statusOcorrencia) {
-        this.statusOcorrencia = statusOcorrencia;
+        setStatus(StatusOcorrencia.doRotulo(statusOcorrencia));
+    }
+
+    /**
+     * Define novo status para a ocorrência.
+     *
+     * @param statusOcorrencia novo status a ser definido
+     */
+    public void setStatus(StatusOcorrencia statusOcorrencia) {
+        if (statusOcorrencia != this.statusOcorrencia) {
+            StatusOcorrencia statusAnterior = this.statusOcorrencia;
+            this.statusOcorrencia = statusOcorrencia;
+            this.alterada = true;
+            notificarOuvintes(nivelRisco, statusAnterior);
+        }
     }
 
     /**
@@ -305,9 +418,67 @@ public class Ocorrencia {
      * de combate, zerando hectares afetados e atualizando status.
      */
     public void marcarComoSegura() {
-        this.statusOcorrencia = "Concluído";
-        this.nivelRisco = "Seguro";
+        if (statusOcorrencia == StatusOcorrencia.CONCLUIDO && nivelRisco == NivelRisco.SEGURO && hectaresAfetados == 0) {
+            return; // Já está segura, nada a persistir
+        }
+        NivelRisco nivelRiscoAnterior = this.nivelRisco;
+        StatusOcorrencia statusAnterior = this.statusOcorrencia;
+        this.statusOcorrencia = StatusOcorrencia.CONCLUIDO;
+        this.nivelRisco = NivelRisco.SEGURO;
         this.hectaresAfetados = 0;
+        this.alterada = true;
+        notificarOuvintes(nivelRiscoAnterior, statusAnterior);
+    }
+
+    /**
+     * Registra um interessado nas mudanças de status e de nível de risco.
+     *
+     * @param ouvinte interessado a ser notificado
+     */
+    public void adicionarOuvinte(Ouvinte ouvinte) {
+        if (ouvintes == null) {
+            ouvintes = new ArrayList<>(1);
+        }
+        ouvintes.add(ouvinte);
+    }
+
+    /**
+     * Remove um interessado registrado com {@link #adicionarOuvinte}.
+     *
+     * @param ouvinte interessado a ser removido
+     */
+    public void removerOuvinte(Ouvinte ouvinte) {
+        if (ouvintes != null) {
+            ouvintes.remove(ouvinte);
+        }
+    }
+
+    /**
+     * Notifica os interessados sobre a mudança de situação.
+     */
+    private void notificarOuvintes(NivelRisco nivelRiscoAnterior, StatusOcorrencia statusAnterior) {
+        if (ouvintes != null) {
+            for (Ouvinte ouvinte : new ArrayList<>(ouvintes)) {
+                ouvinte.aoAlterarSituacao(this, nivelRiscoAnterior, statusAnterior);
+            }
+        }
+    }
+
+    /**
+     * Verifica se a ocorrência possui alterações ainda não gravadas no histórico.
+     *
+     * @return true se a ocorrência é nova ou mudou desde a última gravação
+     */
+    public boolean isAlterada() {
+        return alterada;
+    }
+
+    /**
+     * Marca a ocorrência como gravada no histórico.
+     * Chamado pela camada de persistência após escrever o estado atual.
+     */
+    public void marcarComoPersistida() {
+        this.alterada = false;
     }
 
     /**
@@ -321,7 +492,7 @@ public class Ocorrencia {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
 
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
-        if ("Seguro".equals(nivelRisco)) {
+        if (isSegura()) {
             System.out.println("✅ ÁREA AVERIGUADA #" + idOcorrencia);
         } else {
             System.out.println("🚨 OCORRÊNCIA REGISTRADA #" + idOcorrencia);
@@ -331,7 +502,7 @@ public class Ocorrencia {
         System.out.println("🏢 Estação: " + estacaoResponsavel.getNomeEstacao());
         System.out.println("🌆 Cidade: " + estacaoResponsavel.getCidade() + ", " + estacaoResponsavel.getEstado());
 
-        if ("Seguro".equals(nivelRisco)) {
+        if (isSegura()) {
             System.out.println("🔍 Local Averiguado: Área confirmada como segura");
         } else {
             System.out.println("🔥 Área Afetada: " + hectaresAfetados + " hectares");
@@ -355,7 +526,7 @@ public class Ocorrencia {
         System.out.println("📊 Status: " + statusOcorrencia);
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
 
-        if ("Seguro".equals(nivelRisco)) {
+        if (isSegura()) {
             System.out.println("✅ Notificação positiva enviada para o Corpo de Bombeiros!");
             System.out.println("🔔 Área confirmada como segura para atividades...");
         } else {
@@ -377,8 +548,8 @@ public class Ocorrencia {
     public void exibirResumo(EstacaoBombeiros estacaoResponsavel) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
-        String emoji = "Seguro".equals(nivelRisco) ? "✅" : "🚨";
-        String tipoOcorrencia = "Seguro".equals(nivelRisco) ? "ÁREA SEGURA" : "INCÊNDIO";
+        String emoji = isSegura() ? "✅" : "🚨";
+        String tipoOcorrencia = isSegura() ? "ÁREA SEGURA" : "INCÊNDIO";
 
         System.out.println(emoji + " #" + idOcorrencia + " - " + tipoOcorrencia);
         System.out.println("    📍 " + areaAfetada.getNomeArea());
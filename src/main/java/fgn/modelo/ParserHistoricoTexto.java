@@ -0,0 +1,486 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+
+/**
+ * <p>
+ * Esta classe implementa a leitura em fluxo do relatório texto legado
+ * ({@code historico_<cidade>.txt}) do sistema Forest Guardian Network. Os bytes
+ * UTF-8 são interpretados diretamente de um {@link ByteBuffer}, linha a linha,
+ * sem criar Strings, arrays ou exceções por campo: cada registro é preenchido em
+ * um único {@link RegistroTexto} reutilizável e entregue a um
+ * {@link ReceptorRegistroTexto}.
+ * </p>
+ * <p>
+ * Um registro começa em uma linha iniciada por 🚨 ou ✅ e termina na primeira linha
+ * em branco ou no próximo cabeçalho. Registros com área desconhecida são
+ * descartados individualmente, sem consumir linhas do registro seguinte.
+ * Instâncias não são seguras para uso concorrente; utilize uma por thread.
+ * </p>
+ * <p>
+ * Formato de um registro, como gravado por {@link Arquivo#salvarHistoricoDaCidade}
+ * (as linhas de hectares e de drone são opcionais):
+ * </p>
+ * <pre>
+ * 🚨 #12 - INCÊNDIO
+ *     📍 Parque Nacional
+ *     🏢 Campinas, SP
+ *     ⚠️  Alerta Ativo | 📊 Ativo | ⏰ 05/03/2025 14:07:31 [1741194451123]
+ *     🔥 75 hectares afetados
+ *     🔍 ThermoDetect
+ *     🚁 DJI Phantom (#101)
+ *     👤 Denúncia: Drone
+ * </pre>
+ * <p>
+ * A data de detecção é gravada duas vezes na linha de risco: legível, com
+ * precisão de segundos, e entre colchetes em milissegundos desde a época, que é
+ * o valor restaurado. Relatórios gravados antes dos colchetes trazem apenas a
+ * data legível ({@code dd/MM/yyyy HH:mm} ou {@code dd/MM/yyyy HH:mm:ss}), lida no
+ * fuso do sistema. Em denúncias de usuários, a linha 👤 traz o nome e é seguida
+ * por {@code 📄 CPF: <cpf> | 📅 Nascimento: <dd/MM/yyyy>}.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class ParserHistoricoTexto {
+    private static final byte[] MARCA_INCENDIO = "🚨".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MARCA_AREA_SEGURA = "✅".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MARCA_AREA = "📍".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MARCA_RISCO = "⚠️".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MARCA_STATUS = "📊".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MARCA_DATA_HORA = "⏰".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MARCA_HECTARES = "🔥".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MARCA_SENSOR = "🔍".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MARCA_DRONE = "🚁".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MARCA_DENUNCIA = "👤".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MARCA_CPF = "📄".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ROTULO_DENUNCIA = "Denúncia:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ROTULO_CPF = "CPF:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ROTULO_NASCIMENTO = "Nascimento:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DENUNCIA_DRONE = "Drone".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEPARADOR = " |".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PREFIXO_ID_DRONE = "(#".getBytes(StandardCharsets.UTF_8);
+    /**
+     * Maior quantidade de bytes de um emoji de início de registro
+     */
+    static final int TAMANHO_MAXIMO_MARCA = Math.max(MARCA_INCENDIO.length, MARCA_AREA_SEGURA.length);
+
+    /**
+     * Áreas florestais reconhecíveis, indexadas como na tabela de nomes
+     */
+    private final AreaFlorestal[] areas;
+    /**
+     * Sensores reconhecíveis, indexados como na tabela de nomes
+     */
+    private final Sensor[] sensores;
+    /**
+     * Drones indexados por ID e por estação, e denunciantes compartilhados
+     */
+    private final CatalogoEntidades catalogo;
+    private final TabelaNomesUtf8 tabelaAreas;
+    private final TabelaNomesUtf8 tabelaSensores;
+    private final TabelaNomesUtf8 tabelaRiscos = new TabelaNomesUtf8(NivelRisco.rotulos());
+    private final TabelaNomesUtf8 tabelaStatus = new TabelaNomesUtf8(StatusOcorrencia.rotulos());
+    /**
+     * Registro reutilizado para todas as ocorrências lidas
+     */
+    private final RegistroTexto registro = new RegistroTexto();
+    /**
+     * Quantidade de registros descartados na última análise
+     */
+    private int registrosDescartados;
+
+    /**
+     * Construtor que prepara as tabelas de reconhecimento de nomes.
+     *
+     * @param catalogo catálogo com as áreas e sensores reconhecíveis pelo nome
+     *                 e os drones reconhecíveis pelo ID
+     */
+    public ParserHistoricoTexto(CatalogoEntidades catalogo) {
+        this.areas = catalogo.getAreasFlorestais().toArray(new AreaFlorestal[0]);
+        this.sensores = catalogo.getSensores().toArray(new Sensor[0]);
+
+        String[] nomesAreas = new String[areas.length];
+        for (int i = 0; i < areas.length; i++) {
+            nomesAreas[i] = areas[i].getNomeArea();
+        }
+        String[] nomesSensores = new String[this.sensores.length];
+        for (int i = 0; i < this.sensores.length; i++) {
+            nomesSensores[i] = this.sensores[i].getNomeSensor();
+        }
+        this.tabelaAreas = new TabelaNomesUtf8(nomesAreas);
+        this.tabelaSensores = new TabelaNomesUtf8(nomesSensores);
+        this.catalogo = catalogo;
+    }
+
+    /**
+     * Mapeia o arquivo em memória e interpreta todos os seus registros.
+     *
+     * @param caminho caminho do relatório texto
+     * @param receptor destino de cada registro válido
+     * @return quantidade de registros válidos entregues
+     * @throws IOException se não for possível ler o arquivo
+     */
+    public int analisarArquivo(Path caminho, ReceptorRegistroTexto receptor) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo maior que 2 GB; utilize o carregamento em blocos.");
+            }
+            return analisar(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()), receptor);
+        }
+    }
+
+    /**
+     * Interpreta os registros contidos entre a posição e o limite do buffer.
+     * A posição do buffer não é alterada.
+     *
+     * @param buffer bytes UTF-8 do relatório texto
+     * @param receptor destino de cada registro válido
+     * @return quantidade de registros válidos entregues
+     */
+    public int analisar(ByteBuffer buffer, ReceptorRegistroTexto receptor) {
+        int posicao = buffer.position();
+        int limite = buffer.limit();
+        boolean dentroDoRegistro = false;
+        int entregues = 0;
+        registrosDescartados = 0;
+
+        while (posicao < limite) {
+            int fimLinha = buscarByte(buffer, posicao, limite, (byte) '\n');
+            int fim = fimLinha;
+            if (fim > posicao && buffer.get(fim - 1) == '\r') {
+                fim--;
+            }
+
+            if (iniciaRegistro(buffer, posicao, fim)) {
+                if (dentroDoRegistro) {
+                    entregues += entregar(receptor);
+                }
+                iniciarRegistro(buffer, posicao, fim);
+                dentroDoRegistro = true;
+            } else if (dentroDoRegistro) {
+                int inicio = pularEspacos(buffer, posicao, fim);
+                if (inicio == fim) {
+                    entregues += entregar(receptor);
+                    dentroDoRegistro = false;
+                } else {
+                    interpretarLinha(buffer, inicio, fim);
+                }
+            }
+
+            posicao = fimLinha + 1;
+        }
+
+        if (dentroDoRegistro) {
+            entregues += entregar(receptor);
+        }
+        return entregues;
+    }
+
+    /**
+     * Obtém a quantidade de registros descartados na última análise por não
+     * possuírem ID ou área reconhecida.
+     *
+     * @return quantidade de registros descartados
+     */
+    public int getRegistrosDescartados() {
+        return registrosDescartados;
+    }
+
+    /**
+     * Converte o registro interpretado em uma ocorrência do sistema.
+     * Quando o registro traz nível de risco e status reconhecidos, o estado gravado
+     * e a data de detecção são restaurados; caso contrário os construtores usuais
+     * recalculam o estado.
+     *
+     * @param registro registro válido entregue pelo parser
+     * @return ocorrência correspondente ao registro
+     */
+    public Ocorrencia criarOcorrencia(RegistroTexto registro) {
+        AreaFlorestal area = areas[registro.getIndiceArea()];
+        Sensor sensor = registro.getIndiceSensor() >= 0 ? sensores[registro.getIndiceSensor()] : null;
+
+        Drone drone = catalogo.buscarDrone(registro.getIdDrone());
+        if (drone == null) {
+            drone = catalogo.obterDroneDaEstacao(area.getIdEstacaoResponsavel());
+        }
+
+        Usuario usuario = null;
+        if (registro.getCpf() != 0) {
+            usuario = catalogo.internarUsuario(registro.obterNomeDenunciante(), registro.getCpf(),
+                    registro.obterDataNascimento());
+        }
+
+        int id = registro.getIdOcorrencia();
+        if (registro.getCodigoRisco() >= 0 && registro.getCodigoStatus() >= 0) {
+            LocalDateTime dataHora = registro.getInstanteDeteccao() == RegistroTexto.SEM_INSTANTE ? LocalDateTime.now()
+                    : LocalDateTime.ofInstant(Instant.ofEpochMilli(registro.getInstanteDeteccao()), ZoneId.systemDefault());
+            return new Ocorrencia(id, area, registro.getHectares(),
+                    NivelRisco.doCodigo(registro.getCodigoRisco()),
+                    StatusOcorrencia.doCodigo(registro.getCodigoStatus()),
+                    sensor, drone, usuario, 0, dataHora);
+        }
+
+        if (registro.isAreaSegura()) {
+            return new Ocorrencia(id, area, drone, usuario);
+        } else if (usuario != null) {
+            return new Ocorrencia(id, area, registro.getHectares(), drone, usuario, 0);
+        } else {
+            return new Ocorrencia(id, area, registro.getHectares(), sensor, drone, 0);
+        }
+    }
+
+    /**
+     * Verifica se a linha iniciada na posição informada é um cabeçalho de registro (🚨 ou ✅).
+     *
+     * @param buffer buffer de origem
+     * @param inicio início da linha
+     * @param fim limite da verificação
+     * @return true se a linha inicia um novo registro
+     */
+    static boolean iniciaRegistro(ByteBuffer buffer, int inicio, int fim) {
+        return comecaCom(buffer, inicio, fim, MARCA_INCENDIO) || comecaCom(buffer, inicio, fim, MARCA_AREA_SEGURA);
+    }
+
+    /**
+     * Entrega o registro atual ao receptor se for válido.
+     *
+     * @param receptor destino do registro
+     * @return 1 se o registro foi entregue, 0 se foi descartado
+     */
+    private int entregar(ReceptorRegistroTexto receptor) {
+        if (!registro.isValido()) {
+            registrosDescartados++;
+            return 0;
+        }
+        receptor.aoLerRegistro(registro);
+        return 1;
+    }
+
+    /**
+     * Inicia um novo registro a partir da linha de cabeçalho.
+     * Formato: "🚨 #1 - INCÊNDIO" ou "✅ #2 - ÁREA SEGURA".
+     *
+     * @param buffer buffer de origem
+     * @param inicio início da linha
+     * @param fim fim da linha
+     */
+    private void iniciarRegistro(ByteBuffer buffer, int inicio, int fim) {
+        registro.limpar(buffer);
+        registro.areaSegura = comecaCom(buffer, inicio, fim, MARCA_AREA_SEGURA);
+
+        int cerquilha = buscarByte(buffer, inicio, fim, (byte) '#');
+        if (cerquilha < fim) {
+            registro.idOcorrencia = (int) lerNumero(buffer, cerquilha + 1, fim);
+        }
+    }
+
+    /**
+     * Interpreta uma linha de detalhe do registro conforme o emoji inicial.
+     *
+     * @param buffer buffer de origem
+     * @param inicio primeiro caractere não branco da linha
+     * @param fim fim da linha
+     */
+    private void interpretarLinha(ByteBuffer buffer, int inicio, int fim) {
+        if (comecaCom(buffer, inicio, fim, MARCA_AREA)) {
+            int inicioNome = pularEspacos(buffer, inicio + MARCA_AREA.length, fim);
+            registro.indiceArea = tabelaAreas.buscar(buffer, inicioNome, removerEspacosFinais(buffer, inicioNome, fim));
+
+        } else if (comecaCom(buffer, inicio, fim, MARCA_RISCO)) {
+            // "⚠️  Nível | 📊 Status | ⏰ dd/MM/yyyy HH:mm:ss [milissegundos]"
+            int inicioRisco = pularEspacos(buffer, inicio + MARCA_RISCO.length, fim);
+            int fimRisco = buscar(buffer, inicioRisco, fim, SEPARADOR);
+            registro.codigoRisco = tabelaRiscos.buscar(buffer, inicioRisco, fimRisco);
+
+            int marcaStatus = buscar(buffer, fimRisco, fim, MARCA_STATUS);
+            if (marcaStatus < fim) {
+                int inicioStatus = pularEspacos(buffer, marcaStatus + MARCA_STATUS.length, fim);
+                int fimStatus = buscar(buffer, inicioStatus, fim, SEPARADOR);
+                registro.codigoStatus = tabelaStatus.buscar(buffer, inicioStatus, removerEspacosFinais(buffer, inicioStatus, fimStatus));
+            }
+
+            int marcaDataHora = buscar(buffer, fimRisco, fim, MARCA_DATA_HORA);
+            if (marcaDataHora < fim) {
+                registro.instanteDeteccao = lerInstante(buffer, marcaDataHora + MARCA_DATA_HORA.length, fim);
+            }
+
+        } else if (comecaCom(buffer, inicio, fim, MARCA_HECTARES)) {
+            registro.hectares = (int) lerNumero(buffer, inicio + MARCA_HECTARES.length, fim);
+
+        } else if (comecaCom(buffer, inicio, fim, MARCA_SENSOR)) {
+            int inicioNome = pularEspacos(buffer, inicio + MARCA_SENSOR.length, fim);
+            registro.indiceSensor = tabelaSensores.buscar(buffer, inicioNome, removerEspacosFinais(buffer, inicioNome, fim));
+
+        } else if (comecaCom(buffer, inicio, fim, MARCA_DRONE)) {
+            int prefixo = buscar(buffer, inicio, fim, PREFIXO_ID_DRONE);
+            if (prefixo < fim) {
+                registro.idDrone = (int) lerNumero(buffer, prefixo + PREFIXO_ID_DRONE.length, fim);
+            }
+
+        } else if (comecaCom(buffer, inicio, fim, MARCA_DENUNCIA)) {
+            int rotulo = buscar(buffer, inicio, fim, ROTULO_DENUNCIA);
+            if (rotulo < fim) {
+                int inicioNome = pularEspacos(buffer, rotulo + ROTULO_DENUNCIA.length, fim);
+                int fimNome = removerEspacosFinais(buffer, inicioNome, fim);
+                if (!(fimNome - inicioNome == DENUNCIA_DRONE.length && comecaCom(buffer, inicioNome, fimNome, DENUNCIA_DRONE))) {
+                    registro.inicioNome = inicioNome;
+                    registro.fimNome = fimNome;
+                }
+            }
+
+        } else if (comecaCom(buffer, inicio, fim, MARCA_CPF) && registro.fimNome > registro.inicioNome) {
+            // "📄 CPF: 12345678901 | 📅 Nascimento: 15/03/1990"
+            int rotuloCpf = buscar(buffer, inicio, fim, ROTULO_CPF);
+            int rotuloNascimento = buscar(buffer, inicio, fim, ROTULO_NASCIMENTO);
+            if (rotuloCpf < fim && rotuloNascimento < fim) {
+                registro.cpf = lerNumero(buffer, rotuloCpf + ROTULO_CPF.length, fim);
+                registro.inicioNascimento = pularEspacos(buffer, rotuloNascimento + ROTULO_NASCIMENTO.length, fim);
+                registro.fimNascimento = removerEspacosFinais(buffer, registro.inicioNascimento, fim);
+            }
+        }
+    }
+
+    /**
+     * Lê um número decimal não negativo, ignorando espaços iniciais.
+     *
+     * @param buffer buffer de origem
+     * @param inicio posição inicial da leitura
+     * @param fim limite da leitura
+     * @return valor lido (0 se não houver dígitos)
+     */
+    private long lerNumero(ByteBuffer buffer, int inicio, int fim) {
+        int posicao = pularEspacos(buffer, inicio, fim);
+        long valor = 0;
+        while (posicao < fim) {
+            byte b = buffer.get(posicao);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            valor = valor * 10 + (b - '0');
+            posicao++;
+        }
+        return valor;
+    }
+
+    /**
+     * Lê o instante de detecção: os milissegundos entre colchetes quando presentes
+     * ou, nos relatórios antigos, a data "dd/MM/yyyy HH:mm[:ss]" no fuso do sistema.
+     *
+     * @param buffer buffer de origem
+     * @param inicio posição após o emoji ⏰
+     * @param fim fim da linha
+     * @return milissegundos desde a época ou {@link RegistroTexto#SEM_INSTANTE} se inválido
+     */
+    private long lerInstante(ByteBuffer buffer, int inicio, int fim) {
+        int colchete = buscarByte(buffer, inicio, fim, (byte) '[');
+        if (colchete < fim) {
+            return lerNumero(buffer, colchete + 1, fim);
+        }
+
+        // Dia, mês, ano, hora, minuto e segundo, separados por qualquer caractere não numérico
+        int[] campos = new int[6];
+        int quantidade = 0;
+        int posicao = pularEspacos(buffer, inicio, fim);
+        while (posicao < fim && quantidade < campos.length) {
+            byte b = buffer.get(posicao);
+            if (b >= '0' && b <= '9') {
+                int valor = 0;
+                while (posicao < fim && buffer.get(posicao) >= '0' && buffer.get(posicao) <= '9') {
+                    valor = valor * 10 + (buffer.get(posicao) - '0');
+                    posicao++;
+                }
+                campos[quantidade++] = valor;
+            } else {
+                posicao++;
+            }
+        }
+        if (quantidade < 5) {
+            return RegistroTexto.SEM_INSTANTE;
+        }
+        try {
+            return LocalDateTime.of(campos[2], campos[1], campos[0], campos[3], campos[4], campos[5])
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeException e) {
+            return RegistroTexto.SEM_INSTANTE;
+        }
+    }
+
+    /**
+     * Verifica se o intervalo começa com a sequência de bytes informada.
+     */
+    private static boolean comecaCom(ByteBuffer buffer, int inicio, int fim, byte[] prefixo) {
+        if (fim - inicio < prefixo.length) {
+            return false;
+        }
+        for (int i = 0; i < prefixo.length; i++) {
+            if (buffer.get(inicio + i) != prefixo[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Busca a primeira ocorrência de uma sequência de bytes no intervalo.
+     *
+     * @return posição encontrada ou {@code fim} se inexistente
+     */
+    private static int buscar(ByteBuffer buffer, int inicio, int fim, byte[] alvo) {
+        for (int i = inicio; i <= fim - alvo.length; i++) {
+            if (comecaCom(buffer, i, fim, alvo)) {
+                return i;
+            }
+        }
+        return fim;
+    }
+
+    /**
+     * Busca a primeira ocorrência de um byte no intervalo.
+     *
+     * @return posição encontrada ou {@code fim} se inexistente
+     */
+    private static int buscarByte(ByteBuffer buffer, int inicio, int fim, byte alvo) {
+        for (int i = inicio; i < fim; i++) {
+            if (buffer.get(i) == alvo) {
+                return i;
+            }
+        }
+        return fim;
+    }
+
+    /**
+     * Avança sobre espaços e tabulações.
+     *
+     * @return posição do primeiro caractere não branco ou {@code fim}
+     */
+    private static int pularEspacos(ByteBuffer buffer, int inicio, int fim) {
+        while (inicio < fim && (buffer.get(inicio) == ' ' || buffer.get(inicio) == '\t')) {
+            inicio++;
+        }
+        return inicio;
+    }
+
+    /**
+     * Recua sobre espaços e tabulações finais.
+     *
+     * @return posição após o último caractere não branco
+     */
+    private static int removerEspacosFinais(ByteBuffer buffer, int inicio, int fim) {
+        while (fim > inicio && (buffer.get(fim - 1) == ' ' || buffer.get(fim - 1) == '\t')) {
+            fim--;
+        }
+        return fim;
+    }
+}
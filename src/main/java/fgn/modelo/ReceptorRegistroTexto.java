@@ -0,0 +1,23 @@
+package fgn.modelo;
+
+/**
+ * <p>
+ * Interface de retorno (callback) utilizada pelo {@link ParserHistoricoTexto} para
+ * entregar cada registro interpretado do histórico texto. O mesmo objeto
+ * {@link RegistroTexto} é reutilizado entre chamadas, portanto seus dados são
+ * válidos apenas durante a execução de {@link #aoLerRegistro(RegistroTexto)}.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ReceptorRegistroTexto {
+
+    /**
+     * Recebe um registro completo interpretado do histórico texto.
+     *
+     * @param registro registro reutilizável com os campos da ocorrência lida
+     */
+    void aoLerRegistro(RegistroTexto registro);
+}
@@ -0,0 +1,280 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>
+ * Esta classe implementa a recuperação do histórico binário após uma queda no
+ * sistema Forest Guardian Network. Uma queda durante a gravação pode deixar o
+ * final do segmento aberto com um registro gravado pela metade ou com setores
+ * que nunca chegaram ao disco; sem tratamento, os registros anexados depois disso
+ * ficariam desalinhados.
+ * </p>
+ * <p>
+ * A verificação percorre o arquivo em janelas mapeadas em memória, conferindo o
+ * CRC32C de cada registro ({@link RegistroBinario#isIntegro}). O primeiro
+ * registro inválido marca o ponto de corte: o segmento aberto é truncado nessa
+ * posição e é informado exatamente o que foi perdido, com a quantidade de
+ * registros e bytes descartados e os IDs de ocorrência que puderam ser lidos na
+ * região descartada. O {@link IndiceHistorico} e o {@link SnapshotHistorico}
+ * percebem o novo tamanho do log e se ajustam no carregamento seguinte.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class RecuperacaoHistorico {
+    /**
+     * Tamanho de cada janela mapeada durante a verificação, múltiplo do tamanho do registro
+     */
+    private static final int TAMANHO_JANELA = 64 * 1024 * 1024;
+    /**
+     * Quantidade máxima de IDs perdidos exibidos no aviso de recuperação
+     */
+    private static final int IDS_EXIBIDOS = 20;
+
+    /**
+     * Motivo de corte para um registro com tamanho ou CRC inválido
+     */
+    public static final String MOTIVO_CRC_INVALIDO = "CRC inválido";
+    /**
+     * Motivo de corte para um registro gravado pela metade no final do arquivo
+     */
+    public static final String MOTIVO_REGISTRO_INCOMPLETO = "registro incompleto";
+
+    /**
+     * <p>
+     * Resultado da verificação de um arquivo de histórico.
+     * </p>
+     */
+    public static class Relatorio {
+        private final long registrosVerificados;
+        private final long registrosValidos;
+        private final long posicaoCorte;
+        private final long registrosDescartados;
+        private final long bytesDescartados;
+        private final List<Integer> idsDescartados;
+        private final String motivo;
+
+        Relatorio(long registrosVerificados, long registrosValidos, long posicaoCorte, long registrosDescartados,
+                  long bytesDescartados, List<Integer> idsDescartados, String motivo) {
+            this.registrosVerificados = registrosVerificados;
+            this.registrosValidos = registrosValidos;
+            this.posicaoCorte = posicaoCorte;
+            this.registrosDescartados = registrosDescartados;
+            this.bytesDescartados = bytesDescartados;
+            this.idsDescartados = idsDescartados;
+            this.motivo = motivo;
+        }
+
+        /**
+         * Obtém a quantidade de registros completos cujo CRC foi conferido.
+         *
+         * @return registros verificados
+         */
+        public long getRegistrosVerificados() {
+            return registrosVerificados;
+        }
+
+        /**
+         * Obtém a quantidade de registros íntegros antes do ponto de corte.
+         *
+         * @return registros válidos
+         */
+        public long getRegistrosValidos() {
+            return registrosValidos;
+        }
+
+        /**
+         * Obtém a posição do arquivo a partir da qual o conteúdo é descartado.
+         *
+         * @return posição de corte, igual ao tamanho do arquivo quando não há perda
+         */
+        public long getPosicaoCorte() {
+            return posicaoCorte;
+        }
+
+        /**
+         * Obtém a quantidade de registros completos a partir do ponto de corte.
+         *
+         * @return registros descartados
+         */
+        public long getRegistrosDescartados() {
+            return registrosDescartados;
+        }
+
+        /**
+         * Obtém a quantidade de bytes a partir do ponto de corte.
+         *
+         * @return bytes descartados
+         */
+        public long getBytesDescartados() {
+            return bytesDescartados;
+        }
+
+        /**
+         * Obtém os IDs de ocorrência lidos nos registros descartados, que podem
+         * estar incorretos quando o próprio registro está corrompido.
+         *
+         * @return IDs das ocorrências afetadas
+         */
+        public List<Integer> getIdsDescartados() {
+            return idsDescartados;
+        }
+
+        /**
+         * Obtém o motivo do corte.
+         *
+         * @return {@link #MOTIVO_CRC_INVALIDO}, {@link #MOTIVO_REGISTRO_INCOMPLETO} ou null sem perda
+         */
+        public String getMotivo() {
+            return motivo;
+        }
+
+        /**
+         * Indica se algum conteúdo precisa ser descartado.
+         *
+         * @return true se há bytes após o ponto de corte
+         */
+        public boolean houvePerda() {
+            return bytesDescartados > 0;
+        }
+    }
+
+    /**
+     * Verifica o CRC de todos os registros do arquivo de histórico, sem alterá-lo.
+     *
+     * @param caminho caminho do arquivo de histórico
+     * @return relatório da verificação ou null se o cabeçalho for incompatível
+     * @throws IOException se não for possível ler o arquivo
+     */
+    public static Relatorio verificar(Path caminho) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho < RegistroBinario.TAMANHO_CABECALHO) {
+                // Cabeçalho gravado pela metade: nenhum registro pode ser aproveitado
+                return new Relatorio(0, 0, 0, 0, tamanho, new ArrayList<>(),
+                        tamanho == 0 ? null : MOTIVO_REGISTRO_INCOMPLETO);
+            }
+
+            ByteBuffer cabecalho = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO);
+            canal.read(cabecalho, 0);
+            cabecalho.flip();
+            if (!RegistroBinario.validarCabecalho(cabecalho)) {
+                return null;
+            }
+            boolean aceitarSemCrc = RegistroBinario.aceitaRegistrosSemCrc(cabecalho);
+
+            long totalRegistros = (tamanho - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+            long fimRegistros = RegistroBinario.TAMANHO_CABECALHO + totalRegistros * RegistroBinario.TAMANHO_REGISTRO;
+            CRC32C crc = new CRC32C();
+            long validos = 0;
+            long corte = -1;
+
+            for (long inicio = RegistroBinario.TAMANHO_CABECALHO; inicio < fimRegistros && corte < 0; inicio += TAMANHO_JANELA) {
+                int tamanhoJanela = (int) Math.min(TAMANHO_JANELA, fimRegistros - inicio);
+                MappedByteBuffer janela = canal.map(FileChannel.MapMode.READ_ONLY, inicio, tamanhoJanela);
+                for (int posicao = 0; posicao < tamanhoJanela; posicao += RegistroBinario.TAMANHO_REGISTRO) {
+                    if (!RegistroBinario.isIntegro(janela, posicao, crc, aceitarSemCrc)) {
+                        corte = inicio + posicao;
+                        break;
+                    }
+                    validos++;
+                }
+            }
+
+            String motivo = null;
+            if (corte >= 0) {
+                motivo = MOTIVO_CRC_INVALIDO;
+            } else {
+                corte = fimRegistros;
+                if (fimRegistros < tamanho) {
+                    motivo = MOTIVO_REGISTRO_INCOMPLETO;
+                }
+            }
+
+            long descartados = (fimRegistros - corte) / RegistroBinario.TAMANHO_REGISTRO;
+            return new Relatorio(validos + Math.min(descartados, 1), validos, corte, descartados,
+                    tamanho - corte, lerIds(canal, corte, fimRegistros), motivo);
+        }
+    }
+
+    /**
+     * Verifica o segmento aberto do histórico da cidade e, se houver registros
+     * inválidos, trunca-o no primeiro deles e avisa o operador sobre a perda.
+     * Os segmentos selados já foram sincronizados antes da selagem e não são
+     * alterados; registros inválidos neles são apenas ignorados no carregamento.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return relatório da verificação ou null se não houver segmento aberto válido
+     * @throws IOException se não for possível ler ou truncar o arquivo
+     */
+    public static Relatorio recuperar(EstacaoBombeiros estacao) throws IOException {
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                Path aberto = Paths.get(LogHistorico.obterNomeArquivo(estacao));
+                if (!Files.exists(aberto)) {
+                    return null;
+                }
+                Relatorio relatorio = verificar(aberto);
+                if (relatorio == null || !relatorio.houvePerda()) {
+                    return relatorio;
+                }
+
+                try (FileChannel canal = FileChannel.open(aberto, StandardOpenOption.WRITE)) {
+                    canal.truncate(relatorio.getPosicaoCorte());
+                    canal.force(true);
+                }
+                // O índice cobria o tamanho anterior do segmento aberto
+                IndiceHistorico.reconstruir(acesso);
+                exibirPerda(estacao, relatorio);
+                return relatorio;
+            }
+        }
+    }
+
+    /**
+     * Lê o campo de ID dos registros completos da região descartada.
+     */
+    private static ArrayList<Integer> lerIds(FileChannel canal, long inicio, long fim) throws IOException {
+        ArrayList<Integer> ids = new ArrayList<>();
+        ByteBuffer id = ByteBuffer.allocate(Integer.BYTES);
+        for (long posicao = inicio; posicao < fim; posicao += RegistroBinario.TAMANHO_REGISTRO) {
+            id.clear();
+            canal.read(id, posicao);
+            int valor = RegistroBinario.lerId(id, 0);
+            if (valor > 0) {
+                ids.add(valor);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Exibe o aviso de recuperação com o que foi descartado do histórico.
+     */
+    private static void exibirPerda(EstacaoBombeiros estacao, Relatorio relatorio) {
+        System.out.println("⚠️ Histórico de " + estacao.getCidade() + " recuperado após falha de gravação ("
+                + relatorio.getMotivo() + ")");
+        System.out.println("   Truncado na posição " + relatorio.getPosicaoCorte() + ": "
+                + relatorio.getRegistrosValidos() + " registros preservados, "
+                + relatorio.getRegistrosDescartados() + " registros e "
+                + relatorio.getBytesDescartados() + " bytes descartados");
+        List<Integer> ids = relatorio.getIdsDescartados();
+        if (!ids.isEmpty()) {
+            String lista = ids.subList(0, Math.min(IDS_EXIBIDOS, ids.size())).toString();
+            System.out.println("   Ocorrências afetadas: " + lista
+                    + (ids.size() > IDS_EXIBIDOS ? " e mais " + (ids.size() - IDS_EXIBIDOS) : ""));
+        }
+    }
+}
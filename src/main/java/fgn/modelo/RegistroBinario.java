@@ -0,0 +1,500 @@
+package fgn.modelo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>
+ * Esta classe define o formato binário versionado de largura fixa utilizado para
+ * persistir ocorrências no histórico do sistema Forest Guardian Network. Cada
+ * registro ocupa exatamente {@link #TAMANHO_REGISTRO} bytes, o que permite
+ * localizar qualquer registro por simples aritmética de deslocamento e ler o
+ * arquivo inteiro através de um buffer mapeado em memória.
+ * </p>
+ * <p>
+ * Nível de risco e status são gravados pelos códigos de {@link NivelRisco} e
+ * {@link StatusOcorrencia}, e áreas, sensores e drones são referenciados apenas
+ * por seus IDs. O arquivo começa com um
+ * cabeçalho de {@link #TAMANHO_CABECALHO} bytes contendo número mágico, versão
+ * do formato e tamanho do registro, validados antes de qualquer leitura.
+ * </p>
+ * <p>
+ * A partir da versão 2, cada registro é enquadrado pelo tamanho de seus dados e
+ * por um CRC32C calculado sobre os dados e o tamanho, o que permite à
+ * {@link RecuperacaoHistorico} identificar registros gravados pela metade ou
+ * corrompidos. Registros da versão 1 não possuem enquadramento e são aceitos
+ * apenas em arquivos com cabeçalho da versão 1.
+ * </p>
+ *
+ * <pre>
+ * Deslocamento  Campo
+ *   0  int    ID da ocorrência
+ *   4  int    ID da área florestal
+ *   8  int    hectares afetados
+ *  12  byte   código do nível de risco
+ *  13  byte   código do status
+ *  14  byte   tipo do registro
+ *  15  byte   tamanho do nome do denunciante (bytes UTF-8)
+ *  16  long   data/hora de detecção (epoch em milissegundos)
+ *  24  int    ID do sensor (0 = detecção por drone)
+ *  28  int    ID do drone
+ *  32  int    tempo estimado de chegada em minutos
+ *  36  int    data de nascimento do denunciante (aaaammdd, 0 = sem denunciante)
+ *  40  long   CPF do denunciante (0 = sem denunciante)
+ *  48  byte[64] nome do denunciante em UTF-8
+ * 112  int    tamanho dos dados do registro ({@link #TAMANHO_DADOS})
+ * 116  int    CRC32C dos bytes 0 a 115
+ * 120  byte[8] reservado
+ * </pre>
+ * <p>
+ * Registros do tipo {@link #TIPO_LIMPEZA} são lápides gravadas pela
+ * {@link LimpezaHistorico}: indicam que o histórico de uma estação foi limpo até
+ * um ID de ocorrência. Seu campo de ID é negativo, para que nunca sejam
+ * confundidos com ocorrências nem indexados, e os demais campos são:
+ * </p>
+ *
+ * <pre>
+ * Deslocamento  Campo
+ *   0  int    ID da estação, negativo
+ *   4  int    ID da estação
+ *   8  int    ID de ocorrência até o qual o histórico está limpo (0 = nenhum)
+ *  14  byte   tipo do registro ({@link #TIPO_LIMPEZA})
+ *  15  byte   quantidade de áreas da estação
+ *  16  long   instante da limpeza (epoch em milissegundos)
+ *  24  int    limite vigente antes desta lápide
+ *  48  int[16] IDs das áreas da estação
+ * 112  int    tamanho dos dados do registro ({@link #TAMANHO_DADOS})
+ * 116  int    CRC32C dos bytes 0 a 115
+ * </pre>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class RegistroBinario {
+    /**
+     * Número mágico que identifica arquivos de histórico binário ("FGNH")
+     */
+    public static final int MAGICO = 0x46474E48;
+    /**
+     * Versão atual do formato binário
+     */
+    public static final short VERSAO = 2;
+    /**
+     * Versão do formato binário sem enquadramento dos registros
+     */
+    public static final short VERSAO_SEM_CRC = 1;
+    /**
+     * Tamanho em bytes do cabeçalho do arquivo
+     */
+    public static final int TAMANHO_CABECALHO = 16;
+    /**
+     * Tamanho em bytes de cada registro de ocorrência
+     */
+    public static final int TAMANHO_REGISTRO = 128;
+    /**
+     * Tamanho em bytes dos dados de cada registro, antes do enquadramento
+     */
+    public static final int TAMANHO_DADOS = 112;
+    /**
+     * Deslocamento do CRC32C dentro do registro; o CRC cobre todos os bytes anteriores
+     */
+    private static final int POSICAO_CRC = 116;
+    /**
+     * Tipo de registro que representa o estado completo de uma ocorrência
+     */
+    public static final byte TIPO_OCORRENCIA = 0;
+    /**
+     * Tipo de registro que marca a limpeza do histórico de uma estação
+     */
+    public static final byte TIPO_LIMPEZA = 1;
+    /**
+     * Quantidade máxima de áreas referenciadas por uma lápide de limpeza
+     */
+    public static final int MAXIMO_AREAS_LIMPEZA = 16;
+    /**
+     * Quantidade máxima de bytes UTF-8 do nome do denunciante
+     */
+    private static final int TAMANHO_MAXIMO_NOME = 64;
+
+    /**
+     * Escreve o cabeçalho do arquivo na posição atual do buffer.
+     *
+     * @param destino buffer com pelo menos {@link #TAMANHO_CABECALHO} bytes restantes
+     */
+    public static void escreverCabecalho(ByteBuffer destino) {
+        destino.putInt(MAGICO);
+        destino.putShort(VERSAO);
+        destino.putShort((short) TAMANHO_REGISTRO);
+        destino.putLong(0L); // Reservado
+    }
+
+    /**
+     * Valida o cabeçalho presente no início do buffer.
+     *
+     * @param origem buffer posicionado no início do arquivo
+     * @return true se número mágico, versão e tamanho de registro forem compatíveis
+     */
+    public static boolean validarCabecalho(ByteBuffer origem) {
+        if (origem.limit() < TAMANHO_CABECALHO) {
+            return false;
+        }
+        return origem.getInt(0) == MAGICO
+                && (origem.getShort(4) == VERSAO || origem.getShort(4) == VERSAO_SEM_CRC)
+                && origem.getShort(6) == TAMANHO_REGISTRO;
+    }
+
+    /**
+     * Indica se o cabeçalho válido no início do buffer é de um arquivo que pode
+     * conter registros sem enquadramento.
+     *
+     * @param origem buffer posicionado no início do arquivo
+     * @return true se o arquivo foi criado na versão 1 do formato
+     */
+    public static boolean aceitaRegistrosSemCrc(ByteBuffer origem) {
+        return origem.getShort(4) == VERSAO_SEM_CRC;
+    }
+
+    /**
+     * Grava o tamanho dos dados e o CRC32C do registro que começa na posição
+     * absoluta informada. Utilizado na escrita e ao copiar registros da versão 1.
+     *
+     * @param destino buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     */
+    public static void enquadrar(ByteBuffer destino, int posicao) {
+        destino.putInt(posicao + TAMANHO_DADOS, TAMANHO_DADOS);
+        CRC32C crc = new CRC32C();
+        crc.update(destino.slice(posicao, POSICAO_CRC));
+        destino.putInt(posicao + POSICAO_CRC, (int) crc.getValue());
+    }
+
+    /**
+     * Verifica o enquadramento do registro na posição absoluta informada.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @param crc instância reutilizável de CRC32C, reiniciada a cada chamada
+     * @param aceitarSemCrc true para aceitar registros da versão 1, sem enquadramento
+     * @return true se o registro estiver íntegro
+     */
+    public static boolean isIntegro(ByteBuffer origem, int posicao, CRC32C crc, boolean aceitarSemCrc) {
+        int tamanho = origem.getInt(posicao + TAMANHO_DADOS);
+        if (tamanho == 0 && aceitarSemCrc) {
+            // Registro da versão 1: apenas descarta áreas zeradas deixadas por uma gravação interrompida
+            return origem.getInt(posicao + POSICAO_CRC) == 0 && origem.getInt(posicao) != 0;
+        }
+        if (tamanho != TAMANHO_DADOS) {
+            return false;
+        }
+        crc.reset();
+        crc.update(origem.slice(posicao, POSICAO_CRC));
+        return origem.getInt(posicao + POSICAO_CRC) == (int) crc.getValue();
+    }
+
+    /**
+     * Indica se o registro na posição absoluta informada é da versão 1, sem enquadramento.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @return true se o registro não possui tamanho nem CRC
+     */
+    public static boolean isSemCrc(ByteBuffer origem, int posicao) {
+        return origem.getInt(posicao + TAMANHO_DADOS) == 0;
+    }
+
+    /**
+     * Escreve o estado completo da ocorrência como um registro na posição atual do buffer.
+     *
+     * @param ocorrencia ocorrência a ser gravada
+     * @param destino buffer com pelo menos {@link #TAMANHO_REGISTRO} bytes restantes
+     */
+    public static void escrever(Ocorrencia ocorrencia, ByteBuffer destino) {
+        int inicio = destino.position();
+        Usuario usuario = ocorrencia.getUsuarioDenunciante();
+        byte[] nome = usuario != null ? codificarNome(usuario.getNome()) : new byte[0];
+
+        destino.putInt(inicio, ocorrencia.getIdOcorrencia());
+        destino.putInt(inicio + 4, ocorrencia.getAreaAfetada().getIdArea());
+        destino.putInt(inicio + 8, ocorrencia.getHectaresAfetados());
+        destino.put(inicio + 12, ocorrencia.getRisco().getCodigo());
+        destino.put(inicio + 13, ocorrencia.getStatus().getCodigo());
+        destino.put(inicio + 14, TIPO_OCORRENCIA);
+        destino.put(inicio + 15, (byte) nome.length);
+        destino.putLong(inicio + 16, ocorrencia.getDataHoraDeteccao().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        destino.putInt(inicio + 24, ocorrencia.getSensorDetector() != null ? ocorrencia.getSensorDetector().getIdSensor() : 0);
+        destino.putInt(inicio + 28, ocorrencia.getDroneVarredura() != null ? ocorrencia.getDroneVarredura().getIdDrone() : 0);
+        destino.putInt(inicio + 32, ocorrencia.getTempoChegadaMinutos());
+        destino.putInt(inicio + 36, usuario != null ? codificarData(usuario.getDataNascimento()) : 0);
+        destino.putLong(inicio + 40, usuario != null ? usuario.getCpf() : 0L);
+
+        for (int i = 0; i < TAMANHO_MAXIMO_NOME + 16; i++) {
+            destino.put(inicio + 48 + i, i < nome.length ? nome[i] : 0);
+        }
+        enquadrar(destino, inicio);
+
+        destino.position(inicio + TAMANHO_REGISTRO);
+    }
+
+    /**
+     * Escreve uma lápide de limpeza na posição atual do buffer.
+     *
+     * @param idEstacao ID da estação cujo histórico foi limpo
+     * @param limite ID de ocorrência até o qual o histórico está limpo
+     * @param limiteAnterior limite vigente antes da lápide
+     * @param areas IDs das áreas da estação, no máximo {@link #MAXIMO_AREAS_LIMPEZA}
+     * @param instante instante da limpeza em milissegundos desde a época
+     * @param destino buffer com pelo menos {@link #TAMANHO_REGISTRO} bytes restantes
+     */
+    public static void escreverLimpeza(int idEstacao, int limite, int limiteAnterior, int[] areas, long instante,
+                                       ByteBuffer destino) {
+        int inicio = destino.position();
+        for (int i = 0; i < TAMANHO_DADOS; i++) {
+            destino.put(inicio + i, (byte) 0);
+        }
+        destino.putInt(inicio, -idEstacao);
+        destino.putInt(inicio + 4, idEstacao);
+        destino.putInt(inicio + 8, limite);
+        destino.put(inicio + 14, TIPO_LIMPEZA);
+        destino.put(inicio + 15, (byte) areas.length);
+        destino.putLong(inicio + 16, instante);
+        destino.putInt(inicio + 24, limiteAnterior);
+        for (int i = 0; i < areas.length; i++) {
+            destino.putInt(inicio + 48 + i * Integer.BYTES, areas[i]);
+        }
+        enquadrar(destino, inicio);
+
+        destino.position(inicio + TAMANHO_REGISTRO);
+    }
+
+    /**
+     * Indica se o registro na posição informada representa uma ocorrência, e não
+     * uma lápide ou outro registro de controle.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @return true se o registro for do tipo {@link #TIPO_OCORRENCIA}
+     */
+    public static boolean isOcorrencia(ByteBuffer origem, int posicao) {
+        return origem.get(posicao + 14) == TIPO_OCORRENCIA;
+    }
+
+    /**
+     * Obtém o ID da área florestal gravada na posição informada sem decodificar o registro.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @return ID da área florestal
+     */
+    public static int lerIdArea(ByteBuffer origem, int posicao) {
+        return origem.getInt(posicao + 4);
+    }
+
+    /**
+     * Obtém os hectares afetados gravados na posição informada sem decodificar o registro.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @return hectares afetados
+     */
+    public static int lerHectares(ByteBuffer origem, int posicao) {
+        return origem.getInt(posicao + 8);
+    }
+
+    /**
+     * Obtém o nível de risco gravado na posição informada sem decodificar o registro.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @return nível de risco correspondente ao código gravado
+     */
+    public static NivelRisco lerRisco(ByteBuffer origem, int posicao) {
+        return NivelRisco.doCodigo(origem.get(posicao + 12));
+    }
+
+    /**
+     * Obtém o status gravado na posição informada sem decodificar o registro.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @return status correspondente ao código gravado
+     */
+    public static StatusOcorrencia lerStatus(ByteBuffer origem, int posicao) {
+        return StatusOcorrencia.doCodigo(origem.get(posicao + 13));
+    }
+
+    /**
+     * Indica se a ocorrência gravada na posição informada foi relatada por um
+     * usuário, sem decodificar o registro.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @return true se o registro possui CPF de denunciante
+     */
+    public static boolean possuiDenunciante(ByteBuffer origem, int posicao) {
+        return origem.getLong(posicao + 40) != 0;
+    }
+
+    /**
+     * Obtém o ID da estação cujo histórico foi limpo pela lápide na posição informada.
+     *
+     * @param origem buffer contendo a lápide
+     * @param posicao deslocamento absoluto do início do registro
+     * @return ID da estação
+     */
+    public static int lerIdEstacaoLimpeza(ByteBuffer origem, int posicao) {
+        return origem.getInt(posicao + 4);
+    }
+
+    /**
+     * Obtém o ID de ocorrência até o qual a lápide na posição informada oculta o histórico.
+     *
+     * @param origem buffer contendo a lápide
+     * @param posicao deslocamento absoluto do início do registro
+     * @return limite da limpeza, inclusivo
+     */
+    public static int lerLimiteLimpeza(ByteBuffer origem, int posicao) {
+        return origem.getInt(posicao + 8);
+    }
+
+    /**
+     * Reconstitui a ocorrência gravada na posição absoluta informada do buffer.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @param catalogo catálogo de áreas, sensores, drones e denunciantes
+     * @return ocorrência reconstituída ou null se a área referenciada não existir,
+     *         se o registro não for de ocorrência ou se o tamanho do nome gravado
+     *         exceder o campo do denunciante
+     */
+    public static Ocorrencia ler(ByteBuffer origem, int posicao, CatalogoEntidades catalogo) {
+        if (!isOcorrencia(origem, posicao)) {
+            return null;
+        }
+        AreaFlorestal area = catalogo.buscarArea(lerIdArea(origem, posicao));
+        if (area == null) {
+            return null;
+        }
+
+        Usuario usuario = null;
+        long cpf = origem.getLong(posicao + 40);
+        if (possuiDenunciante(origem, posicao)) {
+            int tamanhoNome = origem.get(posicao + 15) & 0xFF;
+            if (tamanhoNome > TAMANHO_MAXIMO_NOME) {
+                return null;
+            }
+            byte[] nome = new byte[tamanhoNome];
+            origem.get(posicao + 48, nome);
+            usuario = catalogo.internarUsuario(new String(nome, StandardCharsets.UTF_8), cpf,
+                    decodificarData(origem.getInt(posicao + 36)));
+        }
+
+        LocalDateTime dataHora = LocalDateTime.ofInstant(Instant.ofEpochMilli(origem.getLong(posicao + 16)), ZoneId.systemDefault());
+
+        return new Ocorrencia(
+                origem.getInt(posicao),
+                area,
+                lerHectares(origem, posicao),
+                lerRisco(origem, posicao),
+                lerStatus(origem, posicao),
+                catalogo.buscarSensor(origem.getInt(posicao + 24)),
+                catalogo.buscarDrone(origem.getInt(posicao + 28)),
+                usuario,
+                origem.getInt(posicao + 32),
+                dataHora
+        );
+    }
+
+    /**
+     * Obtém o ID da ocorrência gravada na posição informada sem decodificar o registro.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @return ID da ocorrência
+     */
+    public static int lerId(ByteBuffer origem, int posicao) {
+        return origem.getInt(posicao);
+    }
+
+    /**
+     * Obtém o instante de detecção gravado na posição informada sem decodificar o registro.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @return instante de detecção em milissegundos desde a época
+     */
+    public static long lerInstanteDeteccao(ByteBuffer origem, int posicao) {
+        return origem.getLong(posicao + 16);
+    }
+
+    /**
+     * Verifica se o registro na posição informada representa um incêndio ativo
+     * (status "Ativo" e nível de risco diferente de "Seguro"), sem decodificá-lo.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @return true se o registro for de um incêndio ativo
+     */
+    public static boolean isIncendioAtivo(ByteBuffer origem, int posicao) {
+        return origem.get(posicao + 13) == StatusOcorrencia.ATIVO.getCodigo()
+                && origem.get(posicao + 12) != NivelRisco.SEGURO.getCodigo();
+    }
+
+    /**
+     * Codifica o nome em UTF-8, truncando em fronteira de caractere se exceder
+     * o espaço reservado no registro.
+     *
+     * @param nome nome do denunciante
+     * @return bytes UTF-8 com no máximo {@link #TAMANHO_MAXIMO_NOME} bytes
+     */
+    private static byte[] codificarNome(String nome) {
+        byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= TAMANHO_MAXIMO_NOME) {
+            return bytes;
+        }
+
+        int tamanho = TAMANHO_MAXIMO_NOME;
+        while (tamanho > 0 && (bytes[tamanho] & 0xC0) == 0x80) {
+            tamanho--; // Não cortar no meio de um caractere multibyte
+        }
+        byte[] truncado = new byte[tamanho];
+        System.arraycopy(bytes, 0, truncado, 0, tamanho);
+        return truncado;
+    }
+
+    /**
+     * Converte data no formato dd/MM/yyyy para inteiro aaaammdd.
+     *
+     * @param data data no formato dd/MM/yyyy
+     * @return data codificada ou 0 se o formato for inválido
+     */
+    private static int codificarData(String data) {
+        if (data == null || data.length() != 10) {
+            return 0;
+        }
+        try {
+            int dia = Integer.parseInt(data.substring(0, 2));
+            int mes = Integer.parseInt(data.substring(3, 5));
+            int ano = Integer.parseInt(data.substring(6, 10));
+            return ano * 10000 + mes * 100 + dia;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Converte inteiro aaaammdd para data no formato dd/MM/yyyy.
+     *
+     * @param data data codificada
+     * @return data no formato dd/MM/yyyy ou string vazia se não informada
+     */
+    private static String decodificarData(int data) {
+        if (data == 0) {
+            return "";
+        }
+        return String.format("%02d/%02d/%04d", data % 100, (data / 100) % 100, data / 10000);
+    }
+}
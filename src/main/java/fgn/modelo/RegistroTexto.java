@@ -0,0 +1,234 @@
+package fgn.modelo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * Esta classe representa um registro de ocorrência interpretado do histórico texto
+ * pelo {@link ParserHistoricoTexto}. Armazena apenas campos primitivos e posições
+ * de texto dentro do buffer de origem, sendo reutilizada entre registros para que
+ * a leitura do arquivo não aloque objetos por campo.
+ * </p>
+ * <p>
+ * Textos livres (nome e data de nascimento do denunciante) são convertidos em
+ * String somente quando solicitados, normalmente no momento em que o registro
+ * é transformado em {@link Ocorrencia}.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class RegistroTexto {
+    /**
+     * Valor de {@link #getInstanteDeteccao()} quando o registro não informa a data de detecção
+     */
+    public static final long SEM_INSTANTE = Long.MIN_VALUE;
+
+    /**
+     * Buffer de origem do registro, utilizado para extrair textos sob demanda
+     */
+    ByteBuffer buffer;
+    /**
+     * Identificador da ocorrência lido do cabeçalho (-1 se ausente)
+     */
+    int idOcorrencia;
+    /**
+     * Indica se o cabeçalho identifica uma área segura (✅)
+     */
+    boolean areaSegura;
+    /**
+     * Índice da área florestal reconhecida (-1 se desconhecida)
+     */
+    int indiceArea;
+    /**
+     * Hectares afetados (0 se a linha não existir)
+     */
+    int hectares;
+    /**
+     * Código do nível de risco reconhecido (-1 se desconhecido)
+     */
+    int codigoRisco;
+    /**
+     * Código do status reconhecido (-1 se desconhecido)
+     */
+    int codigoStatus;
+    /**
+     * Instante de detecção em milissegundos desde a época ({@link #SEM_INSTANTE} se ausente)
+     */
+    long instanteDeteccao;
+    /**
+     * Índice do sensor detector reconhecido (-1 se detecção por drone)
+     */
+    int indiceSensor;
+    /**
+     * ID do drone informado no registro (0 se ausente)
+     */
+    int idDrone;
+    /**
+     * CPF do denunciante (0 se detecção automática)
+     */
+    long cpf;
+    /**
+     * Posições do nome do denunciante no buffer
+     */
+    int inicioNome, fimNome;
+    /**
+     * Posições da data de nascimento do denunciante no buffer
+     */
+    int inicioNascimento, fimNascimento;
+
+    /**
+     * Restaura os valores padrão antes da leitura de um novo registro.
+     *
+     * @param buffer buffer de origem do novo registro
+     */
+    void limpar(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.idOcorrencia = -1;
+        this.areaSegura = false;
+        this.indiceArea = -1;
+        this.hectares = 0;
+        this.codigoRisco = -1;
+        this.codigoStatus = -1;
+        this.instanteDeteccao = SEM_INSTANTE;
+        this.indiceSensor = -1;
+        this.idDrone = 0;
+        this.cpf = 0;
+        this.inicioNome = this.fimNome = 0;
+        this.inicioNascimento = this.fimNascimento = 0;
+    }
+
+    /**
+     * Verifica se o registro possui os dados mínimos para gerar uma ocorrência.
+     *
+     * @return true se ID e área foram reconhecidos
+     */
+    public boolean isValido() {
+        return idOcorrencia >= 0 && indiceArea >= 0;
+    }
+
+    /**
+     * Obtém o identificador da ocorrência.
+     *
+     * @return ID da ocorrência ou -1 se ausente
+     */
+    public int getIdOcorrencia() {
+        return idOcorrencia;
+    }
+
+    /**
+     * Indica se o registro representa uma área segura.
+     *
+     * @return true se o cabeçalho é de área segura
+     */
+    public boolean isAreaSegura() {
+        return areaSegura;
+    }
+
+    /**
+     * Obtém o índice da área florestal na lista informada ao parser.
+     *
+     * @return índice da área ou -1 se desconhecida
+     */
+    public int getIndiceArea() {
+        return indiceArea;
+    }
+
+    /**
+     * Obtém os hectares afetados.
+     *
+     * @return hectares afetados
+     */
+    public int getHectares() {
+        return hectares;
+    }
+
+    /**
+     * Obtém o código do nível de risco no formato de {@link RegistroBinario}.
+     *
+     * @return código do nível de risco ou -1 se desconhecido
+     */
+    public int getCodigoRisco() {
+        return codigoRisco;
+    }
+
+    /**
+     * Obtém o código do status no formato de {@link RegistroBinario}.
+     *
+     * @return código do status ou -1 se desconhecido
+     */
+    public int getCodigoStatus() {
+        return codigoStatus;
+    }
+
+    /**
+     * Obtém o instante de detecção: exato nos relatórios que gravam os
+     * milissegundos, com precisão de minuto nos relatórios mais antigos.
+     *
+     * @return milissegundos desde a época ou {@link #SEM_INSTANTE} se ausente
+     */
+    public long getInstanteDeteccao() {
+        return instanteDeteccao;
+    }
+
+    /**
+     * Obtém o índice do sensor detector na lista informada ao parser.
+     *
+     * @return índice do sensor ou -1 se detecção por drone
+     */
+    public int getIndiceSensor() {
+        return indiceSensor;
+    }
+
+    /**
+     * Obtém o ID do drone informado no registro.
+     *
+     * @return ID do drone ou 0 se ausente
+     */
+    public int getIdDrone() {
+        return idDrone;
+    }
+
+    /**
+     * Obtém o CPF do denunciante.
+     *
+     * @return CPF ou 0 se detecção automática
+     */
+    public long getCpf() {
+        return cpf;
+    }
+
+    /**
+     * Extrai o nome do denunciante do buffer de origem.
+     * Aloca uma nova String a cada chamada.
+     *
+     * @return nome do denunciante ou null se detecção automática
+     */
+    public String obterNomeDenunciante() {
+        return fimNome > inicioNome ? extrairTexto(inicioNome, fimNome) : null;
+    }
+
+    /**
+     * Extrai a data de nascimento do denunciante do buffer de origem.
+     * Aloca uma nova String a cada chamada.
+     *
+     * @return data no formato dd/MM/yyyy ou string vazia se ausente
+     */
+    public String obterDataNascimento() {
+        return extrairTexto(inicioNascimento, fimNascimento);
+    }
+
+    /**
+     * Decodifica um intervalo UTF-8 do buffer de origem.
+     *
+     * @param inicio posição absoluta inicial
+     * @param fim posição absoluta final (exclusiva)
+     * @return texto decodificado
+     */
+    private String extrairTexto(int inicio, int fim) {
+        byte[] bytes = new byte[fim - inicio];
+        buffer.get(inicio, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
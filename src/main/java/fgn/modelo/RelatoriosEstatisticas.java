@@ -24,16 +24,18 @@ public class RelatoriosEstatisticas {
     /**
      * Exibe o menu principal de relatórios e estatísticas do sistema.
      * Oferece opções para visualizar estações cadastradas, dados da estação atual,
-     * limpeza de dados e navegação. Mantém loop até o usuário escolher voltar.
+     * incêndios recentes, limpeza de dados e seu desfazimento, exportação,
+     * importação de focos de calor e navegação. Mantém loop até o usuário escolher voltar.
      *
      * @param ocorrencias lista completa de ocorrências do sistema
      * @param estacoes lista de todas as estações de bombeiros
-     * @param areasFlorestais lista de áreas florestais monitoradas
+     * @param catalogo catálogo de áreas, sensores e drones do sistema
      * @param estacaoAtual estação de bombeiros atualmente logada
      * @param scanner objeto Scanner para captura de entrada do usuário
      */
-    public static void exibirMenuRelatorios(ArrayList<Ocorrencia> ocorrencias, ArrayList<EstacaoBombeiros> estacoes,
-                                            ArrayList<AreaFlorestal> areasFlorestais, EstacaoBombeiros estacaoAtual, Scanner scanner) {
+    public static void exibirMenuRelatorios(RepositorioOcorrencias ocorrencias, ArrayList<EstacaoBombeiros> estacoes,
+                                            CatalogoEntidades catalogo, EstacaoBombeiros estacaoAtual, Scanner scanner) {
+        ArrayList<AreaFlorestal> areasFlorestais = catalogo.getAreasFlorestais();
         boolean voltarMenu = false;
 
         while (!voltarMenu) {
@@ -44,7 +46,11 @@ public class RelatoriosEstatisticas {
             System.out.println("1.  🏢 Estações de Bombeiros Cadastradas");
             System.out.println("2.  📈 Verificar Dados da Estação Atual");
             System.out.println("3.  🗑️  Limpar Todas Ocorrências da Cidade");
-            System.out.println("4.  🔙 Voltar");
+            System.out.println("4.  ⏱️  Incêndios das Últimas 72 Horas");
+            System.out.println("5.  📤 Exportar Histórico (CSV e JSON Lines)");
+            System.out.println("6.  📥 Importar Focos de Calor (CSV)");
+            System.out.println("7.  ↩️  Desfazer Última Limpeza");
+            System.out.println("8.  🔙 Voltar");
             System.out.print("👉 Digite sua opção: ");
 
             try {
@@ -54,7 +60,7 @@ public class RelatoriosEstatisticas {
                 switch (opcao) {
                     case 1:
                         System.out.println();
-                        exibirEstacoesCadastradas(estacoes);
+                        exibirEstacoesCadastradas(ocorrencias, estacoes, catalogo, estacaoAtual);
                         break;
 
                     case 2:
@@ -64,16 +70,37 @@ public class RelatoriosEstatisticas {
 
                     case 3:
                         System.out.println();
-                        limparOcorrenciasDaCidade(ocorrencias, estacaoAtual, scanner);
+                        limparOcorrenciasDaCidade(ocorrencias, areasFlorestais, estacaoAtual, scanner);
                         break;
 
                     case 4:
+                        System.out.println();
+                        exibirIncendiosRecentes(estacaoAtual, catalogo, 72);
+                        break;
+
+                    case 5:
+                        System.out.println();
+                        exportarHistorico(estacaoAtual, catalogo);
+                        break;
+
+                    case 6:
+                        System.out.println();
+                        importarFocosDeCalor(ocorrencias, estacoes, areasFlorestais, catalogo.getDrones(),
+                                estacaoAtual, scanner);
+                        break;
+
+                    case 7:
+                        System.out.println();
+                        desfazerLimpezaDaCidade(ocorrencias, catalogo, estacaoAtual);
+                        break;
+
+                    case 8:
                         voltarMenu = true;
                         break;
 
                     default:
                         System.out.println();
-                        System.out.println("❌ Opção inválida! Por favor, escolha uma opção de 1 a 4.");
+                        System.out.println("❌ Opção inválida! Por favor, escolha uma opção de 1 a 8.");
                         System.out.println();
                         break;
                 }
@@ -90,11 +117,16 @@ public class RelatoriosEstatisticas {
     /**
      * Exibe relatório completo de todas as estações de bombeiros cadastradas.
      * Apresenta informações consolidadas incluindo comandantes, localizações
-     * e estatísticas gerais de cobertura do sistema.
+     * e estatísticas gerais de cobertura do sistema, com os incêndios ativos
+     * de cada estação.
      *
+     * @param ocorrencias repositório com as ocorrências da cidade logada
      * @param estacoes lista de estações de bombeiros a serem exibidas
+     * @param catalogo catálogo de áreas, sensores e drones do sistema
+     * @param estacaoAtual estação de bombeiros atualmente logada
      */
-    public static void exibirEstacoesCadastradas(ArrayList<EstacaoBombeiros> estacoes) {
+    public static void exibirEstacoesCadastradas(RepositorioOcorrencias ocorrencias, ArrayList<EstacaoBombeiros> estacoes,
+                                                 CatalogoEntidades catalogo, EstacaoBombeiros estacaoAtual) {
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println("🏢 ESTAÇÕES DE BOMBEIROS CADASTRADAS NO SISTEMA");
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
@@ -110,14 +142,65 @@ public class RelatoriosEstatisticas {
         System.out.println("🌍 Área de cobertura: Interior de São Paulo");
         System.out.println();
 
+        HashMap<Integer, Long> incendiosAtivos = contarIncendiosAtivosPorEstacao(ocorrencias, estacoes, catalogo, estacaoAtual);
         for (EstacaoBombeiros estacao : estacoes) {
             System.out.println("🏢 #" + estacao.getIdEstacao() + " - " + estacao.getNomeEstacao());
             System.out.println("    🌆 Cidade: " + estacao.getCidade() + ", " + estacao.getEstado());
             System.out.println("    👮 Comandante: " + estacao.getNomeComandante() + ", ID Comandante: " + estacao.getIdComandante());
+            if (incendiosAtivos.containsKey(estacao.getIdEstacao())) {
+                System.out.println("    🔥 Incêndios ativos: " + incendiosAtivos.get(estacao.getIdEstacao()));
+            }
             System.out.println();
         }
     }
 
+    /**
+     * Conta os incêndios ativos de cada estação. As estações da cidade logada são
+     * consultadas no repositório; o histórico das demais cidades, que não é
+     * carregado em memória, é importado em uma {@link TabelaOcorrenciasForaHeap}
+     * e percorrido fora do heap, uma cidade por vez.
+     *
+     * @param ocorrencias repositório com as ocorrências da cidade logada
+     * @param estacoes lista de todas as estações de bombeiros
+     * @param catalogo catálogo de áreas, sensores e drones do sistema
+     * @param estacaoAtual estação de bombeiros atualmente logada
+     * @return incêndios ativos por ID de estação, sem as estações de cidades ainda sem
+     *         histórico binário ou cujo histórico não pôde ser lido
+     */
+    private static HashMap<Integer, Long> contarIncendiosAtivosPorEstacao(RepositorioOcorrencias ocorrencias,
+                                                                          ArrayList<EstacaoBombeiros> estacoes,
+                                                                          CatalogoEntidades catalogo,
+                                                                          EstacaoBombeiros estacaoAtual) {
+        HashMap<Integer, Long> incendiosAtivos = new HashMap<>();
+        String cidadeAtual = Arquivo.obterNomeBaseHistorico(estacaoAtual);
+        LinkedHashMap<String, ArrayList<EstacaoBombeiros>> outrasCidades = new LinkedHashMap<>();
+        for (EstacaoBombeiros estacao : estacoes) {
+            String cidade = Arquivo.obterNomeBaseHistorico(estacao);
+            if (cidade.equals(cidadeAtual)) {
+                incendiosAtivos.put(estacao.getIdEstacao(), (long) ocorrencias.contarIncendiosAtivos(estacao.getIdEstacao()));
+            } else if (LogHistorico.existe(estacao)) {
+                outrasCidades.computeIfAbsent(cidade, chave -> new ArrayList<>()).add(estacao);
+            }
+        }
+
+        for (ArrayList<EstacaoBombeiros> daCidade : outrasCidades.values()) {
+            try (TabelaOcorrenciasForaHeap tabela = TabelaOcorrenciasForaHeap.criar(1024)) {
+                tabela.importarHistorico(daCidade.get(0));
+                tabela.manterUltimasVersoes();
+                for (EstacaoBombeiros estacao : daCidade) {
+                    long ativos = 0;
+                    for (AreaFlorestal area : obterAreasFlorestaisPorEstacao(catalogo.getAreasFlorestais(), estacao.getIdEstacao())) {
+                        ativos += tabela.contarIncendiosAtivos(area.getIdArea());
+                    }
+                    incendiosAtivos.put(estacao.getIdEstacao(), ativos);
+                }
+            } catch (java.io.IOException e) {
+                System.out.println("⚠️ Erro ao consultar histórico de " + daCidade.get(0).getCidade() + ": " + e.getMessage());
+            }
+        }
+        return incendiosAtivos;
+    }
+
     /**
      * Verifica e exibe dados detalhados da estação atualmente logada.
      * Filtra automaticamente ocorrências e áreas da estação para análise
@@ -127,16 +210,17 @@ public class RelatoriosEstatisticas {
      * @param estacaoAtual estação de bombeiros atualmente logada
      * @param areasFlorestais lista de áreas florestais monitoradas
      */
-    public static void verificarDadosDaEstacaoAtual(ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacaoAtual, ArrayList<AreaFlorestal> areasFlorestais) {
+    public static void verificarDadosDaEstacaoAtual(RepositorioOcorrencias ocorrencias, EstacaoBombeiros estacaoAtual, ArrayList<AreaFlorestal> areasFlorestais) {
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println("📈 DADOS DETALHADOS DA ESTAÇÃO ATUAL");
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
 
-        // Filtrar ocorrências e áreas da estação atual
-        ArrayList<Ocorrencia> ocorrenciasDaEstacao = filtrarOcorrenciasPorEstacao(ocorrencias, estacaoAtual.getIdEstacao());
+        // Resumir as colunas da estação atual e filtrar suas áreas
+        ColunasOcorrencias.Resumo resumo = ocorrencias.resumirDaEstacao(estacaoAtual.getIdEstacao());
+        ArrayList<Ocorrencia> ultimas = ocorrencias.ultimasDaEstacao(estacaoAtual.getIdEstacao(), 3);
         ArrayList<AreaFlorestal> areasDaEstacao = obterAreasFlorestaisPorEstacao(areasFlorestais, estacaoAtual.getIdEstacao());
 
-        exibirEstatisticasCompletasDaEstacao(estacaoAtual, ocorrenciasDaEstacao, areasDaEstacao);
+        exibirEstatisticasCompletasDaEstacao(estacaoAtual, resumo, ultimas, areasDaEstacao);
     }
 
     /**
@@ -144,11 +228,16 @@ public class RelatoriosEstatisticas {
      * Calcula métricas avançadas incluindo taxa de resolução, distribuição por risco,
      * análise de áreas mais afetadas e classificação de desempenho automatizada.
      *
+     * Os totais vêm de uma única varredura das {@link ColunasOcorrencias} da
+     * estação, mantidas pelo {@link RepositorioOcorrencias}.
+     *
      * @param estacao estação de bombeiros para análise
-     * @param ocorrencias lista de ocorrências filtradas da estação
+     * @param resumo totais das ocorrências da estação
+     * @param ultimas ocorrências mais recentes da estação, da mais nova para a mais antiga
      * @param areas lista de áreas florestais supervisionadas pela estação
      */
-    private static void exibirEstatisticasCompletasDaEstacao(EstacaoBombeiros estacao, ArrayList<Ocorrencia> ocorrencias, ArrayList<AreaFlorestal> areas) {
+    private static void exibirEstatisticasCompletasDaEstacao(EstacaoBombeiros estacao, ColunasOcorrencias.Resumo resumo,
+                                                             ArrayList<Ocorrencia> ultimas, ArrayList<AreaFlorestal> areas) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
         System.out.println();
@@ -172,9 +261,9 @@ public class RelatoriosEstatisticas {
 
         // Estatísticas gerais
         System.out.println("📊 ESTATÍSTICAS GERAIS:");
-        System.out.println("   • Total de casos: " + ocorrencias.size());
+        System.out.println("   • Total de casos: " + resumo.getTotal());
 
-        if (ocorrencias.isEmpty()) {
+        if (resumo.getTotal() == 0) {
             System.out.println("   • Nenhuma ocorrência registrada ainda.");
             System.out.println();
             System.out.println("🏆 AVALIAÇÃO DE DESEMPENHO:");
@@ -186,86 +275,42 @@ public class RelatoriosEstatisticas {
         }
 
         // Contadores por status
-        int ativos = 0, concluidos = 0;
-        for (Ocorrencia ocorrencia : ocorrencias) {
-            if ("Ativo".equals(ocorrencia.getStatusOcorrencia())) {
-                ativos++;
-            } else {
-                concluidos++;
-            }
-        }
+        int ativos = resumo.getAtivos();
+        int concluidos = resumo.getConcluidos();
 
         System.out.println("   • Casos ativos: " + ativos);
         System.out.println("   • Casos concluídos: " + concluidos);
         System.out.println();
 
         // Estatísticas por nível de risco
-        Map<String, Integer> contadorRisco = new HashMap<>();
-        contadorRisco.put("Seguro", 0);
-        contadorRisco.put("Investigação", 0);
-        contadorRisco.put("Alerta Ativo", 0);
-        contadorRisco.put("Emergência", 0);
-
-        int totalHectares = 0;
-        int denuncias = 0;
-        int deteccaoAutomatica = 0;
-
-        for (Ocorrencia ocorrencia : ocorrencias) {
-            String nivelRisco = ocorrencia.getNivelRisco();
-            contadorRisco.put(nivelRisco, contadorRisco.get(nivelRisco) + 1);
-
-            totalHectares += ocorrencia.getHectaresAfetados();
-
-            if (ocorrencia.getUsuarioDenunciante() != null) {
-                denuncias++;
-            } else {
-                deteccaoAutomatica++;
-            }
-        }
-
         System.out.println("⚠️  DISTRIBUIÇÃO POR NÍVEL DE RISCO:");
-        System.out.println("   • Áreas Seguras: " + contadorRisco.get("Seguro"));
-        System.out.println("   • Investigação: " + contadorRisco.get("Investigação"));
-        System.out.println("   • Alerta Ativo: " + contadorRisco.get("Alerta Ativo"));
-        System.out.println("   • Emergência: " + contadorRisco.get("Emergência"));
+        System.out.println("   • Áreas Seguras: " + resumo.getPorRisco(NivelRisco.SEGURO));
+        System.out.println("   • Investigação: " + resumo.getPorRisco(NivelRisco.INVESTIGACAO));
+        System.out.println("   • Alerta Ativo: " + resumo.getPorRisco(NivelRisco.ALERTA_ATIVO));
+        System.out.println("   • Emergência: " + resumo.getPorRisco(NivelRisco.EMERGENCIA));
         System.out.println();
 
         System.out.println("🔥 ESTATÍSTICAS DE COMBATE:");
-        System.out.println("   • Total de hectares afetados: " + totalHectares);
-        if (ocorrencias.size() > 0) {
-            System.out.println("   • Média de hectares por caso: " + (totalHectares / ocorrencias.size()));
-        }
-        System.out.println("   • Denúncias de usuários: " + denuncias);
-        System.out.println("   • Detecções automáticas: " + deteccaoAutomatica);
+        System.out.println("   • Total de hectares afetados: " + resumo.getTotalHectares());
+        System.out.println("   • Média de hectares por caso: " + (resumo.getTotalHectares() / resumo.getTotal()));
+        System.out.println("   • Denúncias de usuários: " + resumo.getDenuncias());
+        System.out.println("   • Detecções automáticas: " + resumo.getDeteccoesAutomaticas());
         System.out.println();
 
         // Taxa de eficiência
-        if (ocorrencias.size() > 0) {
-            double taxaResolucao = (double) concluidos / ocorrencias.size() * 100;
-            System.out.println("🎯 EFICIÊNCIA:");
-            System.out.printf("   • Taxa de resolução: %.1f%%\n", taxaResolucao);
-
-            // Análise das áreas mais afetadas
-            Map<String, Integer> contadorAreas = new HashMap<>();
-            for (Ocorrencia ocorrencia : ocorrencias) {
-                String nomeArea = ocorrencia.getAreaAfetada().getNomeArea();
-                contadorAreas.put(nomeArea, contadorAreas.getOrDefault(nomeArea, 0) + 1);
+        double taxaResolucao = (double) concluidos / resumo.getTotal() * 100;
+        System.out.println("🎯 EFICIÊNCIA:");
+        System.out.printf("   • Taxa de resolução: %.1f%%\n", taxaResolucao);
+
+        // Análise da área mais afetada
+        String areaMaisAfetada = "Área " + resumo.getIdAreaMaisAfetada();
+        for (AreaFlorestal area : areas) {
+            if (area.getIdArea() == resumo.getIdAreaMaisAfetada()) {
+                areaMaisAfetada = area.getNomeArea();
             }
-
-            if (!contadorAreas.isEmpty()) {
-                String areaMaisAfetada = "";
-                int maxOcorrencias = 0;
-                for (Map.Entry<String, Integer> entry : contadorAreas.entrySet()) {
-                    if (entry.getValue() > maxOcorrencias) {
-                        maxOcorrencias = entry.getValue();
-                        areaMaisAfetada = entry.getKey();
-                    }
-                }
-                System.out.println("   • Área com mais ocorrências: " + areaMaisAfetada + " (" + maxOcorrencias + " caso(s))");
-            }
-
-            System.out.println();
         }
+        System.out.println("   • Área com mais ocorrências: " + areaMaisAfetada + " (" + resumo.getOcorrenciasAreaMaisAfetada() + " caso(s))");
+        System.out.println();
 
         // STATUS ATUAL E ÚLTIMAS ATIVIDADES (novo)
         System.out.println("🚨 STATUS ATUAL:");
@@ -280,10 +325,8 @@ public class RelatoriosEstatisticas {
 
         // Últimas atividades (novo)
         System.out.println("📋 ÚLTIMAS ATIVIDADES:");
-        int mostrarUltimas = Math.min(3, ocorrencias.size());
-        for (int i = ocorrencias.size() - 1; i >= ocorrencias.size() - mostrarUltimas; i--) {
-            Ocorrencia ocorrencia = ocorrencias.get(i);
-            String status = "Seguro".equals(ocorrencia.getNivelRisco()) ? "✅ Área Segura" : "🚨 Incêndio";
+        for (Ocorrencia ocorrencia : ultimas) {
+            String status = ocorrencia.isSegura() ? "✅ Área Segura" : "🚨 Incêndio";
             System.out.println("   • " + status + " #" + ocorrencia.getIdOcorrencia() + " - " +
                     ocorrencia.getAreaAfetada().getNomeArea() + " (" +
                     ocorrencia.getDataHoraDeteccao().format(formatter) + ")");
@@ -292,7 +335,7 @@ public class RelatoriosEstatisticas {
 
         // Avaliação de desempenho (novo)
         System.out.println("🏆 AVALIAÇÃO DE DESEMPENHO:");
-        if (ativos == 0 && ocorrencias.size() > 0) {
+        if (ativos == 0) {
             System.out.println("   • Classificação: ⭐⭐⭐ EXCELENTE");
             System.out.println("   • Todos os incêndios controlados com sucesso!");
         } else if (ativos > 0 && ativos <= 2) {
@@ -308,23 +351,134 @@ public class RelatoriosEstatisticas {
         System.out.println();
     }
 
+    /**
+     * Exibe os incêndios da cidade detectados nas últimas horas, consultando no
+     * histórico binário apenas as partições diárias do período.
+     *
+     * @param estacaoAtual estação de bombeiros atualmente logada
+     * @param catalogo catálogo de áreas, sensores e drones para associação das ocorrências
+     * @param horas tamanho do período consultado, em horas
+     */
+    public static void exibirIncendiosRecentes(EstacaoBombeiros estacaoAtual, CatalogoEntidades catalogo, int horas) {
+        System.out.println("═══════════════════════════════════════════════════════════════════════════");
+        System.out.println("⏱️ INCÊNDIOS DAS ÚLTIMAS " + horas + " HORAS - " + estacaoAtual.getCidade().toUpperCase());
+        System.out.println("═══════════════════════════════════════════════════════════════════════════");
+        System.out.println();
+
+        // Alterações ainda na fila precisam estar no histórico para a consulta
+        ServicoPersistencia.descarregar();
+        java.time.LocalDateTime agora = java.time.LocalDateTime.now();
+        ArrayList<Ocorrencia> incendios = new ArrayList<>();
+        for (Ocorrencia ocorrencia : LogHistorico.carregarPorPeriodo(estacaoAtual, agora.minusHours(horas),
+                agora.plusSeconds(1), catalogo)) {
+            if (!ocorrencia.isSegura()) {
+                incendios.add(ocorrencia);
+            }
+        }
+
+        if (incendios.isEmpty()) {
+            System.out.println("✅ Nenhum incêndio detectado em " + estacaoAtual.getCidade() + " no período.");
+        } else {
+            System.out.println("📊 Total de incêndios no período: " + incendios.size());
+            System.out.println();
+            for (Ocorrencia ocorrencia : incendios) {
+                ocorrencia.exibirResumo(estacaoAtual);
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Exporta a versão mais recente de cada ocorrência do histórico da cidade para
+     * {@code historico_<cidade>.csv} e {@code historico_<cidade>.jsonl}, para
+     * consumo por ferramentas de análise.
+     *
+     * @param estacaoAtual estação de bombeiros atualmente logada
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     */
+    public static void exportarHistorico(EstacaoBombeiros estacaoAtual, CatalogoEntidades catalogo) {
+        String nomeBase = Arquivo.obterNomeBaseHistorico(estacaoAtual);
+        try (ExportadorOcorrencias csv = ExportadorOcorrencias.abrirCsv(java.nio.file.Paths.get(nomeBase + ".csv"));
+             ExportadorOcorrencias jsonLinhas = ExportadorOcorrencias.abrirJsonLinhas(java.nio.file.Paths.get(nomeBase + ".jsonl"))) {
+            long exportadas = ExportadorOcorrencias.exportarHistorico(estacaoAtual, csv, catalogo);
+            ExportadorOcorrencias.exportarHistorico(estacaoAtual, jsonLinhas, catalogo);
+            System.out.println("📤 " + exportadas + " ocorrências de " + estacaoAtual.getCidade() + " exportadas para '"
+                    + nomeBase + ".csv' e '" + nomeBase + ".jsonl'");
+        } catch (java.io.IOException e) {
+            System.out.println("❌ Erro ao exportar histórico: " + e.getMessage());
+        }
+        System.out.println();
+    }
+
+    /**
+     * Importa um arquivo CSV de focos de calor de satélite, criando ocorrências
+     * para as áreas florestais da estação atual que contêm os focos. Exibe o
+     * resumo da importação com as linhas ignoradas e os focos agrupados.
+     *
+     * @param ocorrencias lista completa de ocorrências do sistema
+     * @param estacoes lista de todas as estações de bombeiros
+     * @param areasFlorestais lista de áreas florestais monitoradas
+     * @param drones lista de drones associados às novas ocorrências
+     * @param estacaoAtual estação de bombeiros atualmente logada
+     * @param scanner objeto Scanner para captura de entrada do usuário
+     */
+    public static void importarFocosDeCalor(RepositorioOcorrencias ocorrencias, ArrayList<EstacaoBombeiros> estacoes,
+                                            ArrayList<AreaFlorestal> areasFlorestais, ArrayList<Drone> drones,
+                                            EstacaoBombeiros estacaoAtual, Scanner scanner) {
+        System.out.print("📂 Caminho do arquivo CSV de focos de calor: ");
+        String caminho = scanner.nextLine().trim();
+        if (caminho.isEmpty() || !java.nio.file.Files.isRegularFile(java.nio.file.Paths.get(caminho))) {
+            System.out.println("❌ Arquivo não encontrado: '" + caminho + "'");
+            System.out.println();
+            return;
+        }
+
+        ArrayList<AreaFlorestal> areasDaEstacao = new ArrayList<>();
+        for (AreaFlorestal area : areasFlorestais) {
+            if (area.getIdEstacaoResponsavel() == estacaoAtual.getIdEstacao()) {
+                areasDaEstacao.add(area);
+            }
+        }
+
+        try {
+            long inicio = System.nanoTime();
+            ImportadorFocosCalor.Resultado resultado = ImportadorFocosCalor.importar(java.nio.file.Paths.get(caminho),
+                    areasDaEstacao, estacoes, drones, ocorrencias);
+            long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            System.out.println("📥 " + resultado.getOcorrenciasCriadas().size() + " ocorrências importadas para "
+                    + estacaoAtual.getCidade() + " em " + duracaoMs + " ms");
+            System.out.println("   • Linhas lidas: " + resultado.getLinhasLidas()
+                    + " (" + resultado.getLinhasInvalidas() + " inválidas)");
+            System.out.println("   • Focos fora das áreas da estação: " + resultado.getFocosForaDasAreas());
+            System.out.println("   • Focos agrupados na mesma área e hora: " + resultado.getFocosAgrupados());
+            System.out.println("   • Já registrados anteriormente: " + resultado.getFocosJaRegistrados());
+        } catch (java.io.IOException e) {
+            System.out.println("❌ Erro ao importar focos de calor: " + e.getMessage());
+        }
+        System.out.println();
+    }
+
     /**
      * Executa processo seguro de limpeza de todas as ocorrências da cidade atual.
      * Solicita confirmação do usuário, exibe resumo das ocorrências a serem removidas
-     * e atualiza automaticamente o arquivo de histórico após a operação.
+     * e registra a limpeza no histórico com uma lápide através da
+     * {@link LimpezaHistorico}, sem reescrever os arquivos. A limpeza pode ser
+     * desfeita até que a compactação descarte as ocorrências removidas.
      *
      * @param ocorrencias lista completa de ocorrências do sistema
+     * @param areasFlorestais lista de áreas florestais monitoradas
      * @param estacaoAtual estação de bombeiros atualmente logada
      * @param scanner objeto Scanner para captura de entrada do usuário
      */
-    public static void limparOcorrenciasDaCidade(ArrayList<Ocorrencia> ocorrencias, EstacaoBombeiros estacaoAtual, Scanner scanner) {
+    public static void limparOcorrenciasDaCidade(RepositorioOcorrencias ocorrencias, ArrayList<AreaFlorestal> areasFlorestais,
+                                                 EstacaoBombeiros estacaoAtual, Scanner scanner) {
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println("🗑️  LIMPAR TODAS OCORRÊNCIAS DA CIDADE");
         System.out.println("═══════════════════════════════════════════════════════════════════════════");
         System.out.println();
 
         // Contar ocorrências da cidade
-        ArrayList<Ocorrencia> ocorrenciasDaCidade = filtrarOcorrenciasPorEstacao(ocorrencias, estacaoAtual.getIdEstacao());
+        ArrayList<Ocorrencia> ocorrenciasDaCidade = ocorrencias.daEstacao(estacaoAtual.getIdEstacao());
 
         if (ocorrenciasDaCidade.isEmpty()) {
             System.out.println("📭 Nenhuma ocorrência encontrada em " + estacaoAtual.getCidade() + " para limpar.");
@@ -333,14 +487,14 @@ public class RelatoriosEstatisticas {
             return;
         }
 
-        System.out.println("⚠️  ATENÇÃO: Esta operação é IRREVERSÍVEL!");
+        System.out.println("⚠️  ATENÇÃO: Esta operação só pode ser desfeita até a próxima compactação do histórico!");
         System.out.println("🌆 Cidade: " + estacaoAtual.getCidade());
         System.out.println("📊 Ocorrências a serem removidas: " + ocorrenciasDaCidade.size());
         System.out.println();
         System.out.println("📋 Resumo das ocorrências:");
 
         for (Ocorrencia ocorrencia : ocorrenciasDaCidade) {
-            String tipo = "Seguro".equals(ocorrencia.getNivelRisco()) ? "✅ Área Segura" : "🚨 Incêndio";
+            String tipo = ocorrencia.isSegura() ? "✅ Área Segura" : "🚨 Incêndio";
             System.out.println("   • " + tipo + " #" + ocorrencia.getIdOcorrencia() + " - " + ocorrencia.getAreaAfetada().getNomeArea());
         }
 
@@ -353,18 +507,26 @@ public class RelatoriosEstatisticas {
             // Contar quantas ocorrências serão removidas para exibir
             int quantidadeRemovida = ocorrenciasDaCidade.size();
 
-            // Remover todas as ocorrências da cidade
-            ocorrencias.removeIf(ocorrencia ->
-                    ocorrencia.getAreaAfetada().getIdEstacaoResponsavel() == estacaoAtual.getIdEstacao());
+            // Ocorrências de outros consoles também têm ID até o último reservado na cidade
+            try {
+                int limite = ContadorIdsHistorico.obterUltimoReservado(estacaoAtual);
+                LimpezaHistorico.limpar(estacaoAtual, areasFlorestais, limite);
+            } catch (java.io.IOException e) {
+                System.out.println();
+                System.out.println("❌ Erro ao registrar limpeza no histórico: " + e.getMessage());
+                System.out.println("📊 Todas as ocorrências foram preservadas.");
+                System.out.println();
+                return;
+            }
 
-            // Salvar arquivo vazio
-            ArrayList<Ocorrencia> listaVazia = new ArrayList<>();
-            Arquivo.salvarHistoricoDaCidade(listaVazia, estacaoAtual);
+            // Remover as ocorrências da estação da memória; o histórico em disco não é reescrito
+            ocorrencias.removerDaEstacao(estacaoAtual.getIdEstacao());
+            Arquivo.registrarOcorrenciasAnexadas(1, ocorrencias, estacaoAtual);
 
             System.out.println();
             System.out.println("✅ LIMPEZA CONCLUÍDA COM SUCESSO!");
             System.out.println("🗑️  Todas as " + quantidadeRemovida + " ocorrências foram removidas.");
-            System.out.println("📄 Arquivo histórico limpo: historico_" + estacaoAtual.getCidade().toLowerCase().replace(" ", "_") + ".txt");
+            System.out.println("↩️  Use a opção 'Desfazer Última Limpeza' para restaurá-las antes da próxima compactação.");
             System.out.println("🆕 Sistema pronto para novos registros!");
             System.out.println();
 
@@ -383,22 +545,45 @@ public class RelatoriosEstatisticas {
     }
 
     /**
-     * Filtra ocorrências pertencentes a uma estação específica.
-     * Metodo utilitário usado para análises e operações que requerem
-     * dados isolados por jurisdição da estação.
+     * Desfaz a última limpeza da cidade atual, restaurando as ocorrências que ela
+     * ocultou do histórico. Só é possível enquanto a compactação ainda não
+     * descartou as ocorrências removidas.
      *
      * @param ocorrencias lista completa de ocorrências do sistema
-     * @param idEstacao ID da estação de bombeiros para filtrar
-     * @return lista contendo apenas ocorrências da estação especificada
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @param estacaoAtual estação de bombeiros atualmente logada
      */
-    private static ArrayList<Ocorrencia> filtrarOcorrenciasPorEstacao(ArrayList<Ocorrencia> ocorrencias, int idEstacao) {
-        ArrayList<Ocorrencia> ocorrenciasFiltradas = new ArrayList<>();
-        for (Ocorrencia ocorrencia : ocorrencias) {
-            if (ocorrencia.getAreaAfetada().getIdEstacaoResponsavel() == idEstacao) {
-                ocorrenciasFiltradas.add(ocorrencia);
-            }
+    public static void desfazerLimpezaDaCidade(RepositorioOcorrencias ocorrencias, CatalogoEntidades catalogo,
+                                               EstacaoBombeiros estacaoAtual) {
+        System.out.println("═══════════════════════════════════════════════════════════════════════════");
+        System.out.println("↩️  DESFAZER ÚLTIMA LIMPEZA DA CIDADE");
+        System.out.println("═══════════════════════════════════════════════════════════════════════════");
+        System.out.println();
+
+        // O histórico é relido do disco; alterações ainda na fila precisam estar gravadas
+        ServicoPersistencia.descarregar();
+        ManifestoHistorico.Limpeza restaurada;
+        try {
+            restaurada = LimpezaHistorico.desfazer(estacaoAtual);
+        } catch (java.io.IOException e) {
+            System.out.println("❌ Erro ao desfazer limpeza: " + e.getMessage());
+            System.out.println();
+            return;
         }
-        return ocorrenciasFiltradas;
+        if (restaurada == null) {
+            System.out.println("📭 Não há limpeza de " + estacaoAtual.getCidade() + " que possa ser desfeita.");
+            System.out.println("🗜️  Limpezas já compactadas no histórico são definitivas.");
+            System.out.println();
+            return;
+        }
+
+        // Recarregar a cidade: as ocorrências restauradas são as de IDs ausentes da memória
+        int restauradas = LogHistorico.carregar(estacaoAtual, ocorrencias, catalogo);
+        Arquivo.registrarOcorrenciasAnexadas(Math.max(1, restauradas), ocorrencias, estacaoAtual);
+
+        System.out.println("✅ LIMPEZA DESFEITA COM SUCESSO!");
+        System.out.println("📊 Ocorrências restauradas: " + restauradas);
+        System.out.println();
     }
 
     /**
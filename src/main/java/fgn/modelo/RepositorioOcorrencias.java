@@ -0,0 +1,588 @@
+package fgn.modelo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * <p>
+ * Esta classe representa a lista global de ocorrências do sistema Forest
+ * Guardian Network, mantendo índices por estação responsável, por área
+ * florestal e por ID de ocorrência. Como cada cidade numera suas ocorrências
+ * de forma independente, o índice por ID é chaveado pela estação e pelo ID,
+ * como as alterações pendentes do {@link ServicoPersistencia}. As consultas por jurisdição, feitas a cada
+ * ação dos menus, custam proporcionalmente ao resultado, e não à quantidade de
+ * ocorrências de toda a rede.
+ * </p>
+ * <p>
+ * O repositório é uma {@link ArrayList} para continuar sendo aceito pelas
+ * rotinas de carregamento e persistência, que recebem a lista global. Os
+ * índices são atualizados em todas as operações que alteram a lista: inserções
+ * e substituições, como a de uma versão mais recente de uma ocorrência, são
+ * indexadas uma a uma, e remoções em lote reconstroem os índices, exceto a
+ * remoção de todas as ocorrências de uma estação por {@link #removerDaEstacao},
+ * que apenas descarta os grupos da estação. Estação, área
+ * e ID de uma ocorrência não mudam com a alteração de status, por isso
+ * atendimentos não movem a ocorrência entre esses índices.
+ * </p>
+ * <p>
+ * Os incêndios ativos (status "Ativo" e risco diferente de "Seguro") de cada
+ * estação são mantidos em um índice próprio, agrupado por nível de risco. O
+ * repositório acompanha cada ocorrência como {@link Ocorrencia.Ouvinte}, e o
+ * índice é atualizado quando {@link Ocorrencia#marcarComoSegura()} ou
+ * {@link Ocorrencia#setStatusOcorrencia} alteram a situação. A tela de alertas
+ * custa proporcionalmente aos incêndios ativos, independente do histórico de
+ * ocorrências concluídas.
+ * </p>
+ * <p>
+ * Cada estação também possui suas {@link ColunasOcorrencias}, com uma linha por
+ * ID de ocorrência, atualizadas nas mesmas operações e mudanças de situação.
+ * As estatísticas dos relatórios são calculadas sobre essas colunas por
+ * {@link #resumirDaEstacao}, sem percorrer as ocorrências nem reler o histórico.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+@SuppressWarnings("serial")
+public class RepositorioOcorrencias extends ArrayList<Ocorrencia> {
+    /**
+     * Ordem de exibição dos incêndios ativos, dos mais graves para os mais leves
+     */
+    private static final NivelRisco[] ORDEM_RISCO = {NivelRisco.EMERGENCIA, NivelRisco.ALERTA_ATIVO, NivelRisco.INVESTIGACAO};
+
+    private HashMap<Integer, ArrayList<Ocorrencia>> porEstacao = new HashMap<>();
+    private HashMap<Integer, ArrayList<Ocorrencia>> porArea = new HashMap<>();
+    private HashMap<Long, Ocorrencia> porId = new HashMap<>();
+    private HashMap<Integer, EnumMap<NivelRisco, LinkedHashSet<Ocorrencia>>> ativasPorEstacao = new HashMap<>();
+    private HashMap<Integer, ColunasOcorrencias> colunasPorEstacao = new HashMap<>();
+    private Ocorrencia.Ouvinte ouvinte = this::aoAlterarSituacao;
+
+    /**
+     * Construtor de um repositório vazio.
+     */
+    public RepositorioOcorrencias() {
+    }
+
+    /**
+     * Construtor de um repositório com as ocorrências informadas.
+     *
+     * @param ocorrencias ocorrências iniciais
+     */
+    public RepositorioOcorrencias(Collection<? extends Ocorrencia> ocorrencias) {
+        super(ocorrencias);
+        reindexar();
+    }
+
+    /**
+     * Obtém as ocorrências de uma estação, na ordem em que foram inseridas.
+     *
+     * @param idEstacao ID da estação responsável
+     * @return nova lista com as ocorrências da estação
+     */
+    public ArrayList<Ocorrencia> daEstacao(int idEstacao) {
+        ArrayList<Ocorrencia> ocorrencias = porEstacao.get(idEstacao);
+        return ocorrencias != null ? new ArrayList<>(ocorrencias) : new ArrayList<>();
+    }
+
+    /**
+     * Obtém as ocorrências de uma área florestal, na ordem em que foram inseridas.
+     *
+     * @param idArea ID da área florestal
+     * @return nova lista com as ocorrências da área
+     */
+    public ArrayList<Ocorrencia> daArea(int idArea) {
+        ArrayList<Ocorrencia> ocorrencias = porArea.get(idArea);
+        return ocorrencias != null ? new ArrayList<>(ocorrencias) : new ArrayList<>();
+    }
+
+    /**
+     * Obtém a quantidade de ocorrências de uma estação sem copiá-las.
+     *
+     * @param idEstacao ID da estação responsável
+     * @return quantidade de ocorrências da estação
+     */
+    public int contarDaEstacao(int idEstacao) {
+        ArrayList<Ocorrencia> ocorrencias = porEstacao.get(idEstacao);
+        return ocorrencias != null ? ocorrencias.size() : 0;
+    }
+
+    /**
+     * Busca uma ocorrência de uma estação pelo ID.
+     *
+     * @param idEstacao ID da estação responsável
+     * @param idOcorrencia ID da ocorrência
+     * @return ocorrência da estação inserida mais recentemente com o ID, ou null se não houver
+     */
+    public Ocorrencia buscarPorId(int idEstacao, int idOcorrencia) {
+        return porId.get(chave(idEstacao, idOcorrencia));
+    }
+
+    /**
+     * Verifica se uma ocorrência da estação com o ID informado está no repositório.
+     *
+     * @param idEstacao ID da estação responsável
+     * @param idOcorrencia ID procurado
+     * @return true se a ocorrência estiver no repositório
+     */
+    public boolean contemId(int idEstacao, int idOcorrencia) {
+        return porId.containsKey(chave(idEstacao, idOcorrencia));
+    }
+
+    /**
+     * Obtém as últimas ocorrências inseridas de uma estação.
+     *
+     * @param idEstacao ID da estação responsável
+     * @param quantidade quantidade máxima de ocorrências
+     * @return nova lista com as ocorrências, da mais recente para a mais antiga
+     */
+    public ArrayList<Ocorrencia> ultimasDaEstacao(int idEstacao, int quantidade) {
+        ArrayList<Ocorrencia> ultimas = new ArrayList<>();
+        ArrayList<Ocorrencia> ocorrencias = porEstacao.get(idEstacao);
+        if (ocorrencias != null) {
+            for (int i = ocorrencias.size() - 1; i >= 0 && ultimas.size() < quantidade; i--) {
+                ultimas.add(ocorrencias.get(i));
+            }
+        }
+        return ultimas;
+    }
+
+    /**
+     * Obtém os incêndios ativos de uma estação, dos níveis de risco mais graves
+     * para os mais leves e, em cada nível, na ordem em que se tornaram ativos.
+     *
+     * @param idEstacao ID da estação responsável
+     * @return nova lista com os incêndios ativos da estação
+     */
+    public ArrayList<Ocorrencia> incendiosAtivosDaEstacao(int idEstacao) {
+        ArrayList<Ocorrencia> ativas = new ArrayList<>();
+        EnumMap<NivelRisco, LinkedHashSet<Ocorrencia>> porRisco = ativasPorEstacao.get(idEstacao);
+        if (porRisco == null) {
+            return ativas;
+        }
+        for (NivelRisco nivelRisco : ORDEM_RISCO) {
+            LinkedHashSet<Ocorrencia> grupo = porRisco.get(nivelRisco);
+            if (grupo != null) {
+                ativas.addAll(grupo);
+            }
+        }
+        return ativas;
+    }
+
+    /**
+     * Obtém os incêndios ativos de uma estação com o nível de risco informado.
+     *
+     * @param idEstacao ID da estação responsável
+     * @param nivelRisco nível de risco procurado
+     * @return nova lista com os incêndios ativos do nível
+     */
+    public ArrayList<Ocorrencia> incendiosAtivosDaEstacao(int idEstacao, NivelRisco nivelRisco) {
+        EnumMap<NivelRisco, LinkedHashSet<Ocorrencia>> porRisco = ativasPorEstacao.get(idEstacao);
+        LinkedHashSet<Ocorrencia> grupo = porRisco != null ? porRisco.get(nivelRisco) : null;
+        return grupo != null ? new ArrayList<>(grupo) : new ArrayList<>();
+    }
+
+    /**
+     * Obtém a quantidade de incêndios ativos de uma estação sem copiá-los.
+     *
+     * @param idEstacao ID da estação responsável
+     * @return quantidade de incêndios ativos
+     */
+    public int contarIncendiosAtivos(int idEstacao) {
+        EnumMap<NivelRisco, LinkedHashSet<Ocorrencia>> porRisco = ativasPorEstacao.get(idEstacao);
+        int total = 0;
+        if (porRisco != null) {
+            for (LinkedHashSet<Ocorrencia> grupo : porRisco.values()) {
+                total += grupo.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Calcula os totais das ocorrências de uma estação sobre as suas colunas.
+     *
+     * @param idEstacao ID da estação responsável
+     * @return resumo das ocorrências da estação
+     */
+    public ColunasOcorrencias.Resumo resumirDaEstacao(int idEstacao) {
+        ColunasOcorrencias colunas = colunasPorEstacao.get(idEstacao);
+        return (colunas != null ? colunas : new ColunasOcorrencias()).resumir();
+    }
+
+    /**
+     * Remove todas as ocorrências de uma estação, como na limpeza do seu
+     * histórico. Os grupos da estação são descartados dos índices sem
+     * reconstruir os das demais estações; como cada área pertence a uma única
+     * estação, os grupos das suas áreas também são descartados inteiros.
+     *
+     * @param idEstacao ID da estação responsável
+     * @return quantidade de ocorrências removidas
+     */
+    public int removerDaEstacao(int idEstacao) {
+        ArrayList<Ocorrencia> removidas = porEstacao.remove(idEstacao);
+        if (removidas == null) {
+            return 0;
+        }
+        ativasPorEstacao.remove(idEstacao);
+        colunasPorEstacao.remove(idEstacao);
+        Set<Ocorrencia> conjunto = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Ocorrencia ocorrencia : removidas) {
+            ocorrencia.removerOuvinte(ouvinte);
+            porArea.remove(ocorrencia.getAreaAfetada().getIdArea());
+            porId.remove(chave(ocorrencia), ocorrencia);
+            conjunto.add(ocorrencia);
+        }
+        super.removeIf(conjunto::contains);
+        return removidas.size();
+    }
+
+    /**
+     * Indica se a situação corresponde a um incêndio ativo.
+     *
+     * @param nivelRisco nível de risco da ocorrência
+     * @param statusOcorrencia status da ocorrência
+     * @return true se a ocorrência é um incêndio ativo
+     */
+    public static boolean isIncendioAtivo(NivelRisco nivelRisco, StatusOcorrencia statusOcorrencia) {
+        return nivelRisco.isIncendio() && statusOcorrencia == StatusOcorrencia.ATIVO;
+    }
+
+    @Override
+    public boolean add(Ocorrencia ocorrencia) {
+        super.add(ocorrencia);
+        indexar(ocorrencia);
+        return true;
+    }
+
+    @Override
+    public void add(int posicao, Ocorrencia ocorrencia) {
+        super.add(posicao, ocorrencia);
+        reindexar(); // Preserva nos índices a ordem da lista
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Ocorrencia> ocorrencias) {
+        Object[] novas = ocorrencias.toArray();
+        boolean alterado = super.addAll(ocorrencias);
+        for (Object ocorrencia : novas) {
+            indexar((Ocorrencia) ocorrencia);
+        }
+        return alterado;
+    }
+
+    @Override
+    public boolean addAll(int posicao, Collection<? extends Ocorrencia> ocorrencias) {
+        boolean alterado = super.addAll(posicao, ocorrencias);
+        if (alterado) {
+            reindexar();
+        }
+        return alterado;
+    }
+
+    @Override
+    public Ocorrencia set(int posicao, Ocorrencia ocorrencia) {
+        Ocorrencia anterior = super.set(posicao, ocorrencia);
+        substituir(porEstacao, anterior.getAreaAfetada().getIdEstacaoResponsavel(),
+                ocorrencia.getAreaAfetada().getIdEstacaoResponsavel(), anterior, ocorrencia);
+        substituir(porArea, anterior.getAreaAfetada().getIdArea(), ocorrencia.getAreaAfetada().getIdArea(),
+                anterior, ocorrencia);
+        porId.remove(chave(anterior), anterior);
+        porId.put(chave(ocorrencia), ocorrencia);
+        deixarDeAcompanhar(anterior);
+        acompanhar(ocorrencia);
+        atualizarColunas(anterior);
+        atualizarColunas(ocorrencia);
+        return anterior;
+    }
+
+    @Override
+    public Ocorrencia remove(int posicao) {
+        Ocorrencia removida = super.remove(posicao);
+        desindexar(removida);
+        return removida;
+    }
+
+    @Override
+    public boolean remove(Object ocorrencia) {
+        int posicao = indexOf(ocorrencia);
+        if (posicao < 0) {
+            return false;
+        }
+        remove(posicao);
+        return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Ocorrencia> filtro) {
+        boolean alterado = super.removeIf(filtro);
+        if (alterado) {
+            reindexar();
+        }
+        return alterado;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> ocorrencias) {
+        boolean alterado = super.removeAll(ocorrencias);
+        if (alterado) {
+            reindexar();
+        }
+        return alterado;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> ocorrencias) {
+        boolean alterado = super.retainAll(ocorrencias);
+        if (alterado) {
+            reindexar();
+        }
+        return alterado;
+    }
+
+    @Override
+    protected void removeRange(int inicio, int fim) {
+        super.removeRange(inicio, fim);
+        reindexar();
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<Ocorrencia> operador) {
+        super.replaceAll(operador);
+        reindexar();
+    }
+
+    @Override
+    public void sort(Comparator<? super Ocorrencia> comparador) {
+        super.sort(comparador);
+        reindexar(); // Preserva nos índices a ordem da lista
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        liberarOuvintes();
+        porEstacao.clear();
+        porArea.clear();
+        porId.clear();
+        ativasPorEstacao.clear();
+        colunasPorEstacao.clear();
+    }
+
+    /**
+     * Obtém uma visão somente leitura de um trecho do repositório. Alterações
+     * por sublistas não passariam pelos índices.
+     *
+     * @param inicio posição inicial, inclusiva
+     * @param fim posição final, exclusiva
+     * @return visão somente leitura do trecho
+     */
+    @Override
+    public List<Ocorrencia> subList(int inicio, int fim) {
+        return Collections.unmodifiableList(super.subList(inicio, fim));
+    }
+
+    @Override
+    public Object clone() {
+        RepositorioOcorrencias copia = (RepositorioOcorrencias) super.clone();
+        copia.porEstacao = new HashMap<>();
+        copia.porArea = new HashMap<>();
+        copia.porId = new HashMap<>();
+        copia.ativasPorEstacao = new HashMap<>();
+        copia.colunasPorEstacao = new HashMap<>();
+        copia.ouvinte = copia::aoAlterarSituacao;
+        copia.reindexar();
+        return copia;
+    }
+
+    /**
+     * Acrescenta a ocorrência ao final dos índices.
+     */
+    private void indexar(Ocorrencia ocorrencia) {
+        porEstacao.computeIfAbsent(ocorrencia.getAreaAfetada().getIdEstacaoResponsavel(), id -> new ArrayList<>())
+                .add(ocorrencia);
+        porArea.computeIfAbsent(ocorrencia.getAreaAfetada().getIdArea(), id -> new ArrayList<>()).add(ocorrencia);
+        porId.put(chave(ocorrencia), ocorrencia);
+        acompanhar(ocorrencia);
+        atualizarColunas(ocorrencia);
+    }
+
+    /**
+     * Remove a ocorrência dos índices.
+     */
+    private void desindexar(Ocorrencia ocorrencia) {
+        deixarDeAcompanhar(ocorrencia);
+        removerDoGrupo(porEstacao, ocorrencia.getAreaAfetada().getIdEstacaoResponsavel(), ocorrencia);
+        removerDoGrupo(porArea, ocorrencia.getAreaAfetada().getIdArea(), ocorrencia);
+        if (porId.remove(chave(ocorrencia), ocorrencia)) {
+            // Outra ocorrência com o mesmo ID pode continuar na lista
+            for (Ocorrencia restante : porEstacao.getOrDefault(ocorrencia.getAreaAfetada().getIdEstacaoResponsavel(),
+                    new ArrayList<>())) {
+                if (restante.getIdOcorrencia() == ocorrencia.getIdOcorrencia()) {
+                    porId.put(chave(restante), restante);
+                }
+            }
+        }
+        atualizarColunas(ocorrencia);
+    }
+
+    /**
+     * Reconstrói os índices a partir da lista.
+     */
+    private void reindexar() {
+        liberarOuvintes();
+        porEstacao.clear();
+        porArea.clear();
+        porId.clear();
+        ativasPorEstacao.clear();
+        colunasPorEstacao.clear();
+        for (Ocorrencia ocorrencia : this) {
+            indexar(ocorrencia);
+        }
+    }
+
+    /**
+     * Passa a acompanhar a situação da ocorrência, incluindo-a nos incêndios
+     * ativos se for o caso.
+     */
+    private void acompanhar(Ocorrencia ocorrencia) {
+        ocorrencia.adicionarOuvinte(ouvinte);
+        if (ocorrencia.isIncendioAtivo()) {
+            incluirAtiva(ocorrencia);
+        }
+    }
+
+    /**
+     * Deixa de acompanhar a situação da ocorrência, retirando-a dos incêndios ativos.
+     */
+    private void deixarDeAcompanhar(Ocorrencia ocorrencia) {
+        ocorrencia.removerOuvinte(ouvinte);
+        retirarAtiva(ocorrencia, ocorrencia.getRisco());
+    }
+
+    /**
+     * Remove o ouvinte de todas as ocorrências indexadas, antes de reconstruir os índices.
+     */
+    private void liberarOuvintes() {
+        for (ArrayList<Ocorrencia> grupo : porEstacao.values()) {
+            for (Ocorrencia ocorrencia : grupo) {
+                ocorrencia.removerOuvinte(ouvinte);
+            }
+        }
+    }
+
+    /**
+     * Move a ocorrência entre os grupos de incêndios ativos conforme a nova
+     * situação e atualiza sua linha nas colunas da estação.
+     */
+    private void aoAlterarSituacao(Ocorrencia ocorrencia, NivelRisco nivelRiscoAnterior, StatusOcorrencia statusAnterior) {
+        if (isIncendioAtivo(nivelRiscoAnterior, statusAnterior)) {
+            retirarAtiva(ocorrencia, nivelRiscoAnterior);
+        }
+        if (ocorrencia.isIncendioAtivo()) {
+            incluirAtiva(ocorrencia);
+        }
+        atualizarColunas(ocorrencia);
+    }
+
+    /**
+     * Atualiza a linha do ID da ocorrência nas colunas da sua estação com a
+     * ocorrência indexada para esse ID, ou remove a linha se não houver nenhuma.
+     */
+    private void atualizarColunas(Ocorrencia ocorrencia) {
+        int idEstacao = ocorrencia.getAreaAfetada().getIdEstacaoResponsavel();
+        Ocorrencia atual = porId.get(chave(ocorrencia));
+        if (atual != null) {
+            colunasPorEstacao.computeIfAbsent(idEstacao, id -> new ColunasOcorrencias()).adicionar(atual);
+            return;
+        }
+        ColunasOcorrencias colunas = colunasPorEstacao.get(idEstacao);
+        if (colunas != null) {
+            colunas.remover(ocorrencia.getIdOcorrencia());
+        }
+    }
+
+    /**
+     * Inclui a ocorrência no grupo do seu nível de risco atual.
+     */
+    private void incluirAtiva(Ocorrencia ocorrencia) {
+        ativasPorEstacao.computeIfAbsent(ocorrencia.getAreaAfetada().getIdEstacaoResponsavel(), id -> new EnumMap<>(NivelRisco.class))
+                .computeIfAbsent(ocorrencia.getRisco(), nivel -> new LinkedHashSet<>())
+                .add(ocorrencia);
+    }
+
+    /**
+     * Retira a ocorrência do grupo do nível de risco informado.
+     */
+    private void retirarAtiva(Ocorrencia ocorrencia, NivelRisco nivelRisco) {
+        int idEstacao = ocorrencia.getAreaAfetada().getIdEstacaoResponsavel();
+        EnumMap<NivelRisco, LinkedHashSet<Ocorrencia>> porRisco = ativasPorEstacao.get(idEstacao);
+        if (porRisco == null) {
+            return;
+        }
+        LinkedHashSet<Ocorrencia> grupo = porRisco.get(nivelRisco);
+        if (grupo != null && grupo.remove(ocorrencia) && grupo.isEmpty()) {
+            porRisco.remove(nivelRisco);
+            if (porRisco.isEmpty()) {
+                ativasPorEstacao.remove(idEstacao);
+            }
+        }
+    }
+
+    /**
+     * Obtém a chave do índice por ID: estação nos 32 bits altos e ID da ocorrência nos baixos.
+     */
+    private static long chave(int idEstacao, int idOcorrencia) {
+        return ((long) idEstacao << 32) | (idOcorrencia & 0xFFFFFFFFL);
+    }
+
+    private static long chave(Ocorrencia ocorrencia) {
+        return chave(ocorrencia.getAreaAfetada().getIdEstacaoResponsavel(), ocorrencia.getIdOcorrencia());
+    }
+
+    /**
+     * Substitui a ocorrência no seu grupo, mantendo a posição quando a chave não muda.
+     */
+    private static void substituir(HashMap<Integer, ArrayList<Ocorrencia>> indice, int chaveAnterior, int chave,
+                                   Ocorrencia anterior, Ocorrencia ocorrencia) {
+        if (chaveAnterior == chave) {
+            ArrayList<Ocorrencia> grupo = indice.get(chave);
+            for (int i = grupo.size() - 1; i >= 0; i--) {
+                if (grupo.get(i) == anterior) {
+                    grupo.set(i, ocorrencia);
+                    return;
+                }
+            }
+        }
+        removerDoGrupo(indice, chaveAnterior, anterior);
+        indice.computeIfAbsent(chave, id -> new ArrayList<>()).add(ocorrencia);
+    }
+
+    /**
+     * Remove a ocorrência do seu grupo, procurando a partir das mais recentes.
+     */
+    private static void removerDoGrupo(HashMap<Integer, ArrayList<Ocorrencia>> indice, int chave, Ocorrencia ocorrencia) {
+        ArrayList<Ocorrencia> grupo = indice.get(chave);
+        if (grupo == null) {
+            return;
+        }
+        for (int i = grupo.size() - 1; i >= 0; i--) {
+            if (grupo.get(i) == ocorrencia) {
+                grupo.remove(i);
+                break;
+            }
+        }
+        if (grupo.isEmpty()) {
+            indice.remove(chave);
+        }
+    }
+}
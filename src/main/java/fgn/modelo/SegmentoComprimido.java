@@ -0,0 +1,413 @@
+package fgn.modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <p>
+ * Esta classe implementa a compressão dos segmentos selados frios do histórico
+ * no sistema Forest Guardian Network. Os registros do {@link RegistroBinario} já
+ * referenciam áreas, sensores e drones pelo ID, que funciona como dicionário dos
+ * nomes; o que resta de redundância está nos campos repetidos de registros
+ * vizinhos (mesma área, mesmo drone, datas próximas, status iguais).
+ * </p>
+ * <p>
+ * O segmento é dividido em blocos de {@link #REGISTROS_POR_BLOCO} registros. Antes
+ * da compressão com {@link Deflater}, cada bloco é transposto byte a byte: todos os
+ * primeiros bytes dos registros, depois todos os segundos bytes e assim por
+ * diante, o que coloca lado a lado os valores de um mesmo campo. Um diretório no
+ * início do arquivo guarda a posição de cada bloco comprimido, de modo que a
+ * leitura descomprime um bloco por vez e o acesso a um único registro descomprime
+ * apenas o bloco que o contém.
+ * </p>
+ * <p>
+ * As posições continuam sendo as do segmento original: o {@link Leitor} apresenta
+ * segmentos comprimidos e não comprimidos da mesma forma, portanto as posições do
+ * {@link IndiceHistorico} e os limites do {@link ManifestoHistorico} não mudam
+ * quando um segmento é comprimido.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class SegmentoComprimido {
+    /**
+     * Número mágico que identifica segmentos comprimidos ("FGNC")
+     */
+    public static final int MAGICO = 0x46474E43;
+    /**
+     * Versão atual do formato do segmento comprimido
+     */
+    public static final short VERSAO = 1;
+    /**
+     * Quantidade de registros de cada bloco comprimido
+     */
+    public static final int REGISTROS_POR_BLOCO = 512;
+    /**
+     * Tamanho do cabeçalho, que inclui o cabeçalho original do segmento
+     */
+    private static final int TAMANHO_CABECALHO = 24 + RegistroBinario.TAMANHO_CABECALHO;
+    /**
+     * Tamanho de cada entrada do diretório de blocos: posição e tamanho comprimido
+     */
+    private static final int TAMANHO_ENTRADA_BLOCO = 12;
+
+    /**
+     * Verifica se o arquivo é um segmento comprimido.
+     *
+     * @param caminho caminho do segmento
+     * @return true se o arquivo começa com o número mágico do segmento comprimido
+     * @throws IOException se não for possível ler o arquivo
+     */
+    public static boolean isComprimido(Path caminho) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            return iniciaComMagico(canal);
+        }
+    }
+
+    /**
+     * Comprime um segmento selado. O arquivo de origem não é alterado.
+     *
+     * @param origem segmento não comprimido
+     * @param destino arquivo que receberá o segmento comprimido
+     * @return tamanho em bytes do segmento comprimido
+     * @throws IOException se não for possível ler a origem ou gravar o destino
+     */
+    public static long comprimir(Path origem, Path destino) throws IOException {
+        try (FileChannel entrada = FileChannel.open(origem, StandardOpenOption.READ);
+             FileChannel saida = FileChannel.open(destino, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer cabecalhoOriginal = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO);
+            lerTudo(entrada, cabecalhoOriginal, 0);
+            cabecalhoOriginal.flip();
+            if (!RegistroBinario.validarCabecalho(cabecalhoOriginal)) {
+                throw new IOException("segmento com formato incompatível: " + origem);
+            }
+
+            long totalRegistros = (entrada.size() - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+            int quantidadeBlocos = (int) ((totalRegistros + REGISTROS_POR_BLOCO - 1) / REGISTROS_POR_BLOCO);
+            ByteBuffer diretorio = ByteBuffer.allocate(quantidadeBlocos * TAMANHO_ENTRADA_BLOCO);
+
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            cabecalho.putInt(MAGICO);
+            cabecalho.putShort(VERSAO);
+            cabecalho.putShort((short) RegistroBinario.TAMANHO_REGISTRO);
+            cabecalho.putInt(REGISTROS_POR_BLOCO);
+            cabecalho.putInt(quantidadeBlocos);
+            cabecalho.putLong(totalRegistros);
+            cabecalho.put(cabecalhoOriginal);
+            cabecalho.flip();
+            escreverTudo(saida, cabecalho, 0);
+
+            int tamanhoBloco = REGISTROS_POR_BLOCO * RegistroBinario.TAMANHO_REGISTRO;
+            ByteBuffer bloco = ByteBuffer.allocate(tamanhoBloco);
+            byte[] transposto = new byte[tamanhoBloco];
+            byte[] comprimido = new byte[tamanhoBloco + tamanhoBloco / 100 + 64];
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            long posicao = TAMANHO_CABECALHO + diretorio.capacity();
+
+            try {
+                for (int i = 0; i < quantidadeBlocos; i++) {
+                    long primeiro = (long) i * REGISTROS_POR_BLOCO;
+                    int quantidade = (int) Math.min(REGISTROS_POR_BLOCO, totalRegistros - primeiro);
+                    bloco.clear();
+                    bloco.limit(quantidade * RegistroBinario.TAMANHO_REGISTRO);
+                    lerTudo(entrada, bloco, RegistroBinario.TAMANHO_CABECALHO + primeiro * RegistroBinario.TAMANHO_REGISTRO);
+                    transpor(bloco.array(), transposto, quantidade);
+
+                    deflater.reset();
+                    deflater.setInput(transposto, 0, bloco.limit());
+                    deflater.finish();
+                    int tamanhoComprimido = 0;
+                    while (!deflater.finished()) {
+                        tamanhoComprimido += deflater.deflate(comprimido, tamanhoComprimido, comprimido.length - tamanhoComprimido);
+                    }
+
+                    diretorio.putLong(posicao);
+                    diretorio.putInt(tamanhoComprimido);
+                    escreverTudo(saida, ByteBuffer.wrap(comprimido, 0, tamanhoComprimido), posicao);
+                    posicao += tamanhoComprimido;
+                }
+            } finally {
+                deflater.end();
+            }
+
+            diretorio.flip();
+            escreverTudo(saida, diretorio, TAMANHO_CABECALHO);
+            saida.force(false);
+            return posicao;
+        }
+    }
+
+    /**
+     * <p>
+     * Leitor de um segmento do histórico, comprimido ou não, que apresenta o
+     * conteúdo nas posições do segmento original.
+     * </p>
+     */
+    public static class Leitor implements Closeable {
+        private final FileChannel canal;
+        private final boolean comprimido;
+        private final ByteBuffer cabecalho;
+        private final long tamanho;
+        private final int registrosPorBloco;
+        private final long[] posicoesBlocos;
+        private final int[] tamanhosBlocos;
+        private int blocoEmCache = -1;
+        private ByteBuffer cache;
+
+        private Leitor(FileChannel canal) throws IOException {
+            this.canal = canal;
+            this.comprimido = iniciaComMagico(canal);
+            if (!comprimido) {
+                cabecalho = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO);
+                lerTudo(canal, cabecalho, 0);
+                cabecalho.flip();
+                tamanho = canal.size();
+                registrosPorBloco = 0;
+                posicoesBlocos = new long[0];
+                tamanhosBlocos = new int[0];
+                return;
+            }
+
+            ByteBuffer cabecalhoComprimido = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            lerTudo(canal, cabecalhoComprimido, 0);
+            if (cabecalhoComprimido.position() < TAMANHO_CABECALHO
+                    || cabecalhoComprimido.getShort(4) != VERSAO
+                    || cabecalhoComprimido.getShort(6) != RegistroBinario.TAMANHO_REGISTRO) {
+                throw new IOException("segmento comprimido com formato incompatível");
+            }
+            registrosPorBloco = cabecalhoComprimido.getInt(8);
+            int quantidadeBlocos = cabecalhoComprimido.getInt(12);
+            long totalRegistros = cabecalhoComprimido.getLong(16);
+            cabecalho = cabecalhoComprimido.slice(24, RegistroBinario.TAMANHO_CABECALHO);
+            tamanho = RegistroBinario.TAMANHO_CABECALHO + totalRegistros * RegistroBinario.TAMANHO_REGISTRO;
+
+            ByteBuffer diretorio = ByteBuffer.allocate(quantidadeBlocos * TAMANHO_ENTRADA_BLOCO);
+            lerTudo(canal, diretorio, TAMANHO_CABECALHO);
+            posicoesBlocos = new long[quantidadeBlocos];
+            tamanhosBlocos = new int[quantidadeBlocos];
+            for (int i = 0; i < quantidadeBlocos; i++) {
+                posicoesBlocos[i] = diretorio.getLong(i * TAMANHO_ENTRADA_BLOCO);
+                tamanhosBlocos[i] = diretorio.getInt(i * TAMANHO_ENTRADA_BLOCO + 8);
+            }
+        }
+
+        /**
+         * Abre um segmento para leitura.
+         *
+         * @param caminho caminho do segmento
+         * @return leitor do segmento
+         * @throws IOException se não for possível abrir o arquivo ou o diretório de blocos for inválido
+         */
+        public static Leitor abrir(Path caminho) throws IOException {
+            FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ);
+            try {
+                return new Leitor(canal);
+            } catch (IOException e) {
+                canal.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Indica se o segmento está comprimido.
+         *
+         * @return true se o segmento está comprimido
+         */
+        public boolean isComprimido() {
+            return comprimido;
+        }
+
+        /**
+         * Obtém o cabeçalho {@link RegistroBinario} do segmento original.
+         *
+         * @return buffer com o cabeçalho, possivelmente incompleto em arquivos truncados
+         */
+        public ByteBuffer getCabecalho() {
+            return cabecalho.duplicate();
+        }
+
+        /**
+         * Obtém o tamanho do segmento original, incluindo o cabeçalho.
+         *
+         * @return tamanho em bytes
+         * @throws IOException se não for possível consultar o arquivo
+         */
+        public long getTamanho() throws IOException {
+            return comprimido ? tamanho : canal.size();
+        }
+
+        /**
+         * Obtém a quantidade de registros de cada bloco comprimido.
+         *
+         * @return registros por bloco, ou 0 se o segmento não está comprimido
+         */
+        public int getRegistrosPorBloco() {
+            return registrosPorBloco;
+        }
+
+        /**
+         * Obtém a quantidade de blocos comprimidos.
+         *
+         * @return quantidade de blocos, ou 0 se o segmento não está comprimido
+         */
+        public int getQuantidadeBlocos() {
+            return posicoesBlocos.length;
+        }
+
+        /**
+         * Descomprime um bloco do segmento. Pode ser chamado por várias threads ao
+         * mesmo tempo, pois utiliza apenas leituras posicionais.
+         *
+         * @param indice índice do bloco
+         * @return buffer com os registros do bloco, a partir da posição 0
+         * @throws IOException se não for possível ler o bloco ou os dados estiverem corrompidos
+         */
+        public ByteBuffer lerBloco(int indice) throws IOException {
+            ByteBuffer dados = ByteBuffer.allocate(tamanhosBlocos[indice]);
+            lerTudo(canal, dados, posicoesBlocos[indice]);
+            long primeiro = (long) indice * registrosPorBloco;
+            int quantidade = (int) Math.min(registrosPorBloco,
+                    (tamanho - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO - primeiro);
+            byte[] transposto = new byte[quantidade * RegistroBinario.TAMANHO_REGISTRO];
+
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(dados.array(), 0, dados.position());
+                int lidos = 0;
+                while (lidos < transposto.length && !inflater.finished()) {
+                    int descomprimidos = inflater.inflate(transposto, lidos, transposto.length - lidos);
+                    if (descomprimidos == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    lidos += descomprimidos;
+                }
+                if (lidos != transposto.length) {
+                    throw new IOException("bloco " + indice + " do segmento comprimido está incompleto");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("bloco " + indice + " do segmento comprimido está corrompido", e);
+            } finally {
+                inflater.end();
+            }
+
+            byte[] registros = new byte[transposto.length];
+            destranspor(transposto, registros, quantidade);
+            return ByteBuffer.wrap(registros);
+        }
+
+        /**
+         * Lê o conteúdo do segmento original a partir da posição informada até
+         * preencher o buffer ou atingir o final do segmento. Em segmentos
+         * comprimidos, o último bloco descomprimido é mantido em memória para
+         * leituras consecutivas.
+         *
+         * @param destino buffer a ser preenchido a partir de sua posição atual
+         * @param posicao posição no segmento original
+         * @throws IOException se não for possível ler o segmento
+         */
+        public void ler(ByteBuffer destino, long posicao) throws IOException {
+            if (!comprimido) {
+                lerTudo(canal, destino, posicao);
+                return;
+            }
+
+            long atual = posicao;
+            while (destino.hasRemaining() && atual < tamanho) {
+                if (atual < RegistroBinario.TAMANHO_CABECALHO) {
+                    destino.put(cabecalho.get((int) atual));
+                    atual++;
+                    continue;
+                }
+                long deslocamento = atual - RegistroBinario.TAMANHO_CABECALHO;
+                int tamanhoBloco = registrosPorBloco * RegistroBinario.TAMANHO_REGISTRO;
+                int indice = (int) (deslocamento / tamanhoBloco);
+                if (indice != blocoEmCache) {
+                    cache = lerBloco(indice);
+                    blocoEmCache = indice;
+                }
+                int inicio = (int) (deslocamento % tamanhoBloco);
+                int quantidade = Math.min(destino.remaining(), cache.limit() - inicio);
+                destino.put(cache.slice(inicio, quantidade));
+                atual += quantidade;
+            }
+        }
+
+        /**
+         * Fecha o arquivo do segmento.
+         *
+         * @throws IOException se não for possível fechar o arquivo
+         */
+        @Override
+        public void close() throws IOException {
+            canal.close();
+        }
+    }
+
+    /**
+     * Verifica o número mágico no início do canal.
+     */
+    private static boolean iniciaComMagico(FileChannel canal) throws IOException {
+        ByteBuffer magico = ByteBuffer.allocate(Integer.BYTES);
+        lerTudo(canal, magico, 0);
+        return magico.position() == Integer.BYTES && magico.getInt(0) == MAGICO;
+    }
+
+    /**
+     * Agrupa os bytes de mesma posição de cada registro: o byte j do registro i
+     * vai para a posição j * quantidade + i.
+     */
+    private static void transpor(byte[] registros, byte[] destino, int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            int origem = i * RegistroBinario.TAMANHO_REGISTRO;
+            for (int j = 0; j < RegistroBinario.TAMANHO_REGISTRO; j++) {
+                destino[j * quantidade + i] = registros[origem + j];
+            }
+        }
+    }
+
+    /**
+     * Desfaz a transposição de {@link #transpor}.
+     */
+    private static void destranspor(byte[] transposto, byte[] registros, int quantidade) {
+        for (int j = 0; j < RegistroBinario.TAMANHO_REGISTRO; j++) {
+            int origem = j * quantidade;
+            for (int i = 0; i < quantidade; i++) {
+                registros[i * RegistroBinario.TAMANHO_REGISTRO + j] = transposto[origem + i];
+            }
+        }
+    }
+
+    /**
+     * Lê do canal a partir da posição informada até preencher o buffer ou atingir o final do arquivo.
+     */
+    private static void lerTudo(FileChannel canal, ByteBuffer destino, long posicao) throws IOException {
+        long atual = posicao;
+        while (destino.hasRemaining()) {
+            int lidos = canal.read(destino, atual);
+            if (lidos < 0) {
+                break;
+            }
+            atual += lidos;
+        }
+    }
+
+    /**
+     * Escreve todo o conteúdo restante do buffer a partir da posição informada.
+     */
+    private static void escreverTudo(FileChannel canal, ByteBuffer buffer, long posicao) throws IOException {
+        long atual = posicao;
+        while (buffer.hasRemaining()) {
+            atual += canal.write(buffer, atual);
+        }
+    }
+}
@@ -0,0 +1,543 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>
+ * Esta classe implementa o serviço de persistência em segundo plano (write-behind)
+ * do sistema Forest Guardian Network. As alterações de ocorrências são serializadas
+ * no momento em que acontecem e colocadas em uma fila; uma thread gravadora dedicada
+ * anexa os registros ao histórico binário de cada cidade, liberando o console do
+ * operador da espera pelo disco.
+ * </p>
+ * <p>
+ * Alterações sucessivas da mesma ocorrência ainda não gravadas são coalescidas,
+ * mantendo apenas o estado mais recente. Os registros são gravados em grupos
+ * (group commit) com uma única escrita e uma única chamada a {@code force()} por
+ * arquivo de cidade em cada janela. O limite de durabilidade é configurável: um
+ * grupo é gravado quando a alteração mais antiga atinge {@link #getMaximoMs()}
+ * milissegundos na fila ou quando a fila acumula {@link #getMaximoRegistros()}
+ * registros. Os valores padrão podem ser alterados pelas propriedades de sistema
+ * {@code fgn.persistencia.maxMs} e {@code fgn.persistencia.maxRegistros}.
+ * </p>
+ * <p>
+ * Após gravar um grupo, a thread gravadora também regenera o relatório texto
+ * {@code historico_<cidade>.txt} das cidades gravadas a partir do histórico
+ * binário ({@link Arquivo#exportarHistoricoDoLog}), no máximo uma vez a cada
+ * {@link #getIntervaloExportacaoMs()} milissegundos por cidade (propriedade
+ * {@code fgn.exportacao.intervaloMs}). Alterações gravadas dentro do intervalo
+ * entram no relatório no próximo grupo após o intervalo ou no encerramento.
+ * </p>
+ * <p>
+ * No encerramento, grupos cuja gravação falhou são tentados novamente de forma
+ * síncrona. Os registros que ainda assim não puderam ser gravados são anexados ao
+ * arquivo {@code historico_<cidade>.pendentes}, reaplicado ao histórico pelo
+ * {@link #reaplicarPendentes} no próximo carregamento da cidade.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class ServicoPersistencia {
+    /**
+     * Tempo máximo padrão, em milissegundos, que uma alteração aguarda na fila
+     */
+    public static final long PADRAO_MAXIMO_MS = 200;
+    /**
+     * Quantidade padrão de registros na fila que dispara a gravação imediata do grupo
+     */
+    public static final int PADRAO_MAXIMO_REGISTROS = 64;
+    /**
+     * Intervalo padrão, em milissegundos, entre exportações do relatório texto de uma cidade
+     */
+    public static final long PADRAO_INTERVALO_EXPORTACAO_MS = 60_000;
+    /**
+     * Tentativas síncronas de gravação das alterações restantes no encerramento
+     */
+    private static final int TENTATIVAS_ENCERRAMENTO = 3;
+    /**
+     * Intervalo em milissegundos entre as tentativas do encerramento
+     */
+    private static final long INTERVALO_TENTATIVAS_MS = 100;
+
+    /**
+     * Alteração aguardando gravação: registro serializado e estação de destino.
+     */
+    private static class PedidoGravacao {
+        final long chave;
+        final EstacaoBombeiros estacao;
+        final byte[] registro;
+
+        PedidoGravacao(Ocorrencia ocorrencia, EstacaoBombeiros estacao) {
+            this.chave = ((long) estacao.getIdEstacao() << 32) | (ocorrencia.getIdOcorrencia() & 0xFFFFFFFFL);
+            this.estacao = estacao;
+            this.registro = LogHistorico.serializar(ocorrencia);
+        }
+    }
+
+    /**
+     * Monitor que protege a fila e o estado da thread gravadora
+     */
+    private static final Object trava = new Object();
+    /**
+     * Fila de alterações pendentes, indexada por estação e ocorrência para coalescência
+     */
+    private static final LinkedHashMap<Long, PedidoGravacao> pendentes = new LinkedHashMap<>();
+    private static long maximoMs = Long.getLong("fgn.persistencia.maxMs", PADRAO_MAXIMO_MS);
+    private static int maximoRegistros = Integer.getInteger("fgn.persistencia.maxRegistros", PADRAO_MAXIMO_REGISTROS);
+    private static long intervaloExportacaoMs = Long.getLong("fgn.exportacao.intervaloMs", PADRAO_INTERVALO_EXPORTACAO_MS);
+    /**
+     * Instante (System.nanoTime) da última exportação do relatório texto, indexado pelo nome base da cidade
+     */
+    private static final java.util.concurrent.ConcurrentHashMap<String, Long> ultimaExportacaoNanos =
+            new java.util.concurrent.ConcurrentHashMap<>();
+    /**
+     * Instante (System.nanoTime) em que a alteração mais antiga da fila foi enfileirada
+     */
+    private static long inicioJanelaNanos;
+    /**
+     * Indica que um grupo está sendo gravado fora da fila
+     */
+    private static boolean gravando;
+    /**
+     * Solicita que a janela atual seja gravada sem aguardar o limite de tempo
+     */
+    private static boolean descarregarAgora;
+    /**
+     * Quantidade de grupos cuja gravação falhou, utilizada para não bloquear descarregamentos
+     */
+    private static long falhas;
+    /**
+     * Quantidade de grupos gravados desde o início da execução
+     */
+    private static long gruposGravados;
+    /**
+     * Thread gravadora, criada sob demanda na primeira alteração
+     */
+    private static Thread gravador;
+
+    /**
+     * Enfileira o estado atual da ocorrência para gravação em segundo plano.
+     * O registro é serializado imediatamente, portanto alterações posteriores na
+     * ocorrência exigem um novo enfileiramento.
+     *
+     * @param ocorrencia ocorrência criada ou alterada
+     * @param estacao estação responsável pela jurisdição da ocorrência
+     */
+    public static void enfileirar(Ocorrencia ocorrencia, EstacaoBombeiros estacao) {
+        PedidoGravacao pedido = new PedidoGravacao(ocorrencia, estacao);
+
+        synchronized (trava) {
+            if (pendentes.isEmpty()) {
+                inicioJanelaNanos = System.nanoTime();
+            }
+            pendentes.put(pedido.chave, pedido);
+            iniciarGravador();
+            trava.notifyAll();
+        }
+        ocorrencia.marcarComoPersistida();
+    }
+
+    /**
+     * Grava imediatamente todas as alterações pendentes e aguarda a conclusão.
+     * Retorna antecipadamente se uma gravação falhar durante a espera.
+     */
+    public static void descarregar() {
+        synchronized (trava) {
+            if (pendentes.isEmpty() && !gravando) {
+                return;
+            }
+            long falhasIniciais = falhas;
+            descarregarAgora = true;
+            trava.notifyAll();
+            while ((!pendentes.isEmpty() || gravando) && falhas == falhasIniciais) {
+                try {
+                    trava.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Grava as alterações pendentes e encerra a thread gravadora.
+     * Utilizado no encerramento do sistema; novas alterações reiniciam o serviço.
+     * Alterações que a thread gravadora não conseguiu gravar são tentadas novamente
+     * nesta thread e, se continuarem falhando, mantidas no arquivo de pendentes da
+     * cidade para o próximo carregamento.
+     */
+    public static void encerrar() {
+        descarregar();
+        Thread encerrado;
+        synchronized (trava) {
+            encerrado = gravador;
+            gravador = null;
+            trava.notifyAll();
+        }
+        if (encerrado != null) {
+            try {
+                encerrado.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        for (int tentativa = 1; tentativa <= TENTATIVAS_ENCERRAMENTO; tentativa++) {
+            ArrayList<PedidoGravacao> grupo = retirarPendentes();
+            if (grupo.isEmpty() || gravarGrupo(grupo)) {
+                return;
+            }
+            if (tentativa < TENTATIVAS_ENCERRAMENTO) {
+                try {
+                    Thread.sleep(INTERVALO_TENTATIVAS_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        guardarPendentes(retirarPendentes());
+    }
+
+    /**
+     * Obtém o nome do arquivo de alterações que não puderam ser gravadas no
+     * encerramento da cidade da estação informada.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return nome do arquivo de pendentes da cidade
+     */
+    public static String obterNomeArquivoPendentes(EstacaoBombeiros estacao) {
+        return Arquivo.obterNomeBaseHistorico(estacao) + ".pendentes";
+    }
+
+    /**
+     * Anexa ao histórico da cidade as alterações guardadas no arquivo de pendentes
+     * por um encerramento anterior e remove o arquivo. Registros corrompidos ou
+     * incompletos são ignorados. Deve ser chamado no carregamento da cidade, antes
+     * da leitura do histórico.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return quantidade de registros reaplicados
+     * @throws IOException se não for possível ler os pendentes ou gravar o histórico
+     */
+    public static int reaplicarPendentes(EstacaoBombeiros estacao) throws IOException {
+        Path caminho = Paths.get(obterNomeArquivoPendentes(estacao));
+        if (!Files.exists(caminho)) {
+            return 0;
+        }
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                if (!Files.exists(caminho)) {
+                    return 0; // Reaplicado por outro console
+                }
+                ByteBuffer conteudo = ByteBuffer.wrap(Files.readAllBytes(caminho));
+                ArrayList<byte[]> registros = new ArrayList<>();
+                CRC32C crc = new CRC32C();
+                for (int posicao = 0; posicao + RegistroBinario.TAMANHO_REGISTRO <= conteudo.limit();
+                     posicao += RegistroBinario.TAMANHO_REGISTRO) {
+                    if (RegistroBinario.isIntegro(conteudo, posicao, crc, false)) {
+                        byte[] registro = new byte[RegistroBinario.TAMANHO_REGISTRO];
+                        conteudo.get(posicao, registro);
+                        registros.add(registro);
+                    }
+                }
+                if (!registros.isEmpty()) {
+                    LogHistorico.anexarRegistros(registros, acesso.getEstacao(), true);
+                }
+                Files.delete(caminho);
+                return registros.size();
+            }
+        }
+    }
+
+    /**
+     * Configura o limite de durabilidade do serviço.
+     *
+     * @param maximoMs tempo máximo em milissegundos que uma alteração aguarda na fila (0 = gravar imediatamente)
+     * @param maximoRegistros quantidade de registros na fila que dispara a gravação do grupo
+     */
+    public static void configurar(long maximoMs, int maximoRegistros) {
+        synchronized (trava) {
+            ServicoPersistencia.maximoMs = Math.max(0, maximoMs);
+            ServicoPersistencia.maximoRegistros = Math.max(1, maximoRegistros);
+            trava.notifyAll();
+        }
+    }
+
+    /**
+     * Configura o intervalo mínimo entre exportações do relatório texto de uma cidade.
+     *
+     * @param intervaloMs intervalo em milissegundos (0 = exportar após cada grupo)
+     */
+    public static void configurarExportacao(long intervaloMs) {
+        synchronized (trava) {
+            intervaloExportacaoMs = Math.max(0, intervaloMs);
+        }
+    }
+
+    /**
+     * Obtém o intervalo mínimo entre exportações do relatório texto de uma cidade.
+     *
+     * @return intervalo em milissegundos
+     */
+    public static long getIntervaloExportacaoMs() {
+        synchronized (trava) {
+            return intervaloExportacaoMs;
+        }
+    }
+
+    /**
+     * Obtém o tempo máximo que uma alteração aguarda na fila antes de ser gravada.
+     *
+     * @return limite em milissegundos
+     */
+    public static long getMaximoMs() {
+        synchronized (trava) {
+            return maximoMs;
+        }
+    }
+
+    /**
+     * Obtém a quantidade de registros na fila que dispara a gravação do grupo.
+     *
+     * @return limite de registros
+     */
+    public static int getMaximoRegistros() {
+        synchronized (trava) {
+            return maximoRegistros;
+        }
+    }
+
+    /**
+     * Obtém a quantidade de alterações aguardando gravação.
+     *
+     * @return tamanho atual da fila
+     */
+    public static int getRegistrosPendentes() {
+        synchronized (trava) {
+            return pendentes.size();
+        }
+    }
+
+    /**
+     * Obtém a quantidade de grupos gravados desde o início da execução.
+     *
+     * @return grupos gravados
+     */
+    public static long getGruposGravados() {
+        synchronized (trava) {
+            return gruposGravados;
+        }
+    }
+
+    /**
+     * Cria a thread gravadora caso ainda não exista. Deve ser chamado com a trava obtida.
+     */
+    private static void iniciarGravador() {
+        if (gravador == null) {
+            gravador = new Thread(ServicoPersistencia::executarGravador, "fgn-persistencia");
+            gravador.setDaemon(true);
+            gravador.start();
+        }
+    }
+
+    /**
+     * Laço da thread gravadora: aguarda o fechamento de cada janela e grava o grupo.
+     */
+    private static void executarGravador() {
+        Thread atual = Thread.currentThread();
+
+        while (true) {
+            ArrayList<PedidoGravacao> grupo;
+            synchronized (trava) {
+                try {
+                    while (pendentes.isEmpty() && gravador == atual) {
+                        trava.wait();
+                    }
+                    // Janela de group commit: aguarda o prazo, o limite de registros ou um descarregamento
+                    while (gravador == atual && !descarregarAgora && pendentes.size() < maximoRegistros) {
+                        long restanteNanos = inicioJanelaNanos + maximoMs * 1_000_000L - System.nanoTime();
+                        if (restanteNanos <= 0) {
+                            break;
+                        }
+                        trava.wait(Math.max(1, restanteNanos / 1_000_000L));
+                    }
+                } catch (InterruptedException e) {
+                    if (gravador == atual) {
+                        gravador = null; // Grava o que restar e encerra
+                    }
+                }
+
+                if (pendentes.isEmpty()) {
+                    descarregarAgora = false;
+                    if (gravador != atual) {
+                        return;
+                    }
+                    continue;
+                }
+                grupo = new ArrayList<>(pendentes.values());
+                pendentes.clear();
+                descarregarAgora = false;
+                gravando = true;
+            }
+
+            boolean sucesso = gravarGrupo(grupo);
+
+            synchronized (trava) {
+                gravando = false;
+                if (sucesso) {
+                    gruposGravados++;
+                } else {
+                    falhas++;
+                    inicioJanelaNanos = System.nanoTime();
+                    if (gravador != atual) {
+                        // O encerramento tenta novamente os registros devolvidos à fila
+                        trava.notifyAll();
+                        return;
+                    }
+                }
+                trava.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Grava um grupo de alterações, agrupando os registros por arquivo de cidade,
+     * compacta os segmentos selados das cidades que atingiram o limite e exporta o
+     * relatório texto das cidades cujo intervalo de exportação terminou.
+     * Em caso de falha, os registros que ainda não foram substituídos voltam para a fila.
+     *
+     * @param grupo alterações na ordem em que foram enfileiradas
+     * @return true se todos os registros foram gravados
+     */
+    private static boolean gravarGrupo(ArrayList<PedidoGravacao> grupo) {
+        boolean sucesso = true;
+        for (ArrayList<PedidoGravacao> pedidos : agruparPorCidade(grupo)) {
+            EstacaoBombeiros estacao = pedidos.get(0).estacao;
+            ArrayList<byte[]> registros = new ArrayList<>(pedidos.size());
+            for (PedidoGravacao pedido : pedidos) {
+                registros.add(pedido.registro);
+            }
+
+            try {
+                LogHistorico.anexarRegistros(registros, estacao, true);
+            } catch (IOException e) {
+                System.out.println("❌ Erro ao gravar histórico de " + estacao.getCidade() + ": " + e.getMessage());
+                sucesso = false;
+                devolverParaFila(pedidos);
+                continue;
+            }
+
+            try {
+                CompactadorHistorico.compactarSeNecessario(estacao);
+            } catch (IOException e) {
+                System.out.println("⚠️ Erro ao compactar histórico de " + estacao.getCidade() + ": " + e.getMessage());
+            }
+            exportarSeNecessario(estacao);
+        }
+        return sucesso;
+    }
+
+    /**
+     * Regenera o relatório texto da cidade se ele ainda não foi exportado nesta
+     * execução ou se o intervalo de exportação já terminou.
+     *
+     * @param estacao estação responsável pelo histórico gravado
+     */
+    private static void exportarSeNecessario(EstacaoBombeiros estacao) {
+        String cidade = Arquivo.obterNomeBaseHistorico(estacao);
+        long agora = System.nanoTime();
+        Long ultima = ultimaExportacaoNanos.get(cidade);
+        if (ultima != null && agora - ultima < getIntervaloExportacaoMs() * 1_000_000L) {
+            return;
+        }
+        if (Arquivo.exportarHistoricoDoLog(estacao)) {
+            ultimaExportacaoNanos.put(cidade, agora);
+        }
+    }
+
+    /**
+     * Separa os pedidos pelo arquivo de histórico da cidade, preservando a ordem de
+     * enfileiramento, para que estações da mesma cidade compartilhem a escrita.
+     *
+     * @param grupo alterações na ordem em que foram enfileiradas
+     * @return pedidos de cada cidade
+     */
+    private static java.util.Collection<ArrayList<PedidoGravacao>> agruparPorCidade(ArrayList<PedidoGravacao> grupo) {
+        LinkedHashMap<String, ArrayList<PedidoGravacao>> porCidade = new LinkedHashMap<>();
+        for (PedidoGravacao pedido : grupo) {
+            porCidade.computeIfAbsent(Arquivo.obterNomeBaseHistorico(pedido.estacao), cidade -> new ArrayList<>()).add(pedido);
+        }
+        return porCidade.values();
+    }
+
+    /**
+     * Retira da fila todas as alterações pendentes.
+     *
+     * @return alterações na ordem em que foram enfileiradas
+     */
+    private static ArrayList<PedidoGravacao> retirarPendentes() {
+        synchronized (trava) {
+            ArrayList<PedidoGravacao> grupo = new ArrayList<>(pendentes.values());
+            pendentes.clear();
+            return grupo;
+        }
+    }
+
+    /**
+     * Anexa ao arquivo de pendentes de cada cidade as alterações que não puderam ser
+     * gravadas no histórico durante o encerramento.
+     *
+     * @param grupo alterações na ordem em que foram enfileiradas
+     */
+    private static void guardarPendentes(ArrayList<PedidoGravacao> grupo) {
+        for (ArrayList<PedidoGravacao> pedidos : agruparPorCidade(grupo)) {
+            EstacaoBombeiros estacao = pedidos.get(0).estacao;
+            ByteBuffer buffer = ByteBuffer.allocate(pedidos.size() * RegistroBinario.TAMANHO_REGISTRO);
+            for (PedidoGravacao pedido : pedidos) {
+                buffer.put(pedido.registro);
+            }
+            buffer.flip();
+
+            synchronized (LogHistorico.obterTrava(estacao)) {
+                try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao);
+                     FileChannel canal = FileChannel.open(Paths.get(obterNomeArquivoPendentes(acesso.getEstacao())),
+                             StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    while (buffer.hasRemaining()) {
+                        canal.write(buffer);
+                    }
+                    canal.force(false);
+                    System.out.println("⚠️ " + pedidos.size() + " alterações de " + estacao.getCidade()
+                            + " guardadas em '" + obterNomeArquivoPendentes(estacao) + "' para o próximo carregamento.");
+                } catch (IOException e) {
+                    System.out.println("❌ " + pedidos.size() + " alterações de " + estacao.getCidade()
+                            + " não puderam ser gravadas no encerramento: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Recoloca na fila pedidos cuja gravação falhou, sem sobrescrever versões mais novas.
+     *
+     * @param pedidos pedidos não gravados
+     */
+    private static void devolverParaFila(ArrayList<PedidoGravacao> pedidos) {
+        synchronized (trava) {
+            for (PedidoGravacao pedido : pedidos) {
+                pendentes.putIfAbsent(pedido.chave, pedido);
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Esta classe representa o instantâneo (snapshot) do histórico de uma cidade no
+ * sistema Forest Guardian Network. O instantâneo
+ * ({@code historico_<cidade>.snapshot}) guarda o estado em memória da cidade em
+ * formato binário compacto: a versão atual de cada ocorrência, o próximo ID de
+ * ocorrência e os contadores de cada estação, junto com a posição do log
+ * ({@link ManifestoHistorico}) que ele cobre.
+ * </p>
+ * <p>
+ * Na inicialização, o {@link LogHistorico} carrega o instantâneo e reaplica
+ * apenas os registros do log posteriores à sua posição, de modo que o tempo de
+ * reinício depende da quantidade de ocorrências atuais e do final do log, e não
+ * do total de alterações já gravadas. Os instantâneos são gravados a cada
+ * {@link #getIntervalo()} alterações de uma estação e ao encerrar o sistema; o
+ * intervalo padrão pode ser alterado pela propriedade de sistema
+ * {@code fgn.snapshot.intervalo}.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class SnapshotHistorico {
+    /**
+     * Número mágico que identifica arquivos de instantâneo ("FGNS")
+     */
+    public static final int MAGICO = 0x46474E53;
+    /**
+     * Versão atual do formato do instantâneo
+     */
+    public static final short VERSAO = 2;
+    /**
+     * Quantidade padrão de alterações de uma estação entre dois instantâneos
+     */
+    public static final int PADRAO_INTERVALO = 10000;
+    /**
+     * Tamanho em bytes do cabeçalho do instantâneo
+     */
+    private static final int TAMANHO_CABECALHO = 32;
+    /**
+     * Tamanho em bytes dos contadores de cada estação
+     */
+    private static final int TAMANHO_CONTADOR = 12;
+
+    private static int intervalo = Integer.getInteger("fgn.snapshot.intervalo", PADRAO_INTERVALO);
+
+    /**
+     * Contadores de ocorrências de uma estação no momento do instantâneo.
+     */
+    public static class ContadorEstacao {
+        private final int idEstacao;
+        private final int total;
+        private final int ativas;
+
+        /**
+         * Construtor dos contadores de uma estação.
+         *
+         * @param idEstacao ID da estação
+         * @param total quantidade de ocorrências da estação
+         * @param ativas quantidade de incêndios ativos da estação
+         */
+        public ContadorEstacao(int idEstacao, int total, int ativas) {
+            this.idEstacao = idEstacao;
+            this.total = total;
+            this.ativas = ativas;
+        }
+
+        /**
+         * Obtém o ID da estação.
+         *
+         * @return ID da estação
+         */
+        public int getIdEstacao() {
+            return idEstacao;
+        }
+
+        /**
+         * Obtém a quantidade de ocorrências da estação.
+         *
+         * @return total de ocorrências
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * Obtém a quantidade de incêndios ativos da estação.
+         *
+         * @return incêndios ativos
+         */
+        public int getAtivas() {
+            return ativas;
+        }
+    }
+
+    private final long posicaoLog;
+    private final int proximoIdOcorrencia;
+    private final int quantidadeOcorrencias;
+    private final ArrayList<ContadorEstacao> contadores;
+    private final long inicioRegistros;
+
+    private SnapshotHistorico(long posicaoLog, int proximoIdOcorrencia, int quantidadeOcorrencias,
+                              ArrayList<ContadorEstacao> contadores, long inicioRegistros) {
+        this.posicaoLog = posicaoLog;
+        this.proximoIdOcorrencia = proximoIdOcorrencia;
+        this.quantidadeOcorrencias = quantidadeOcorrencias;
+        this.contadores = contadores;
+        this.inicioRegistros = inicioRegistros;
+    }
+
+    /**
+     * Obtém o nome do arquivo de instantâneo da cidade da estação informada.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return nome do arquivo de instantâneo
+     */
+    public static String obterNomeArquivo(EstacaoBombeiros estacao) {
+        return Arquivo.obterNomeBaseHistorico(estacao) + ".snapshot";
+    }
+
+    /**
+     * Grava o instantâneo da cidade com as ocorrências informadas. As alterações
+     * na fila do {@link ServicoPersistencia} são gravadas antes, para que a posição
+     * do log registrada cubra todo o estado em memória. O arquivo é gravado em um
+     * arquivo temporário e substituído atomicamente.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param ocorrenciasDaCidade versão atual de todas as ocorrências da cidade
+     * @param proximoIdOcorrencia próximo ID de ocorrência disponível no sistema
+     * @throws IOException se não for possível gravar o instantâneo
+     */
+    public static void gravar(EstacaoBombeiros estacao, ArrayList<Ocorrencia> ocorrenciasDaCidade,
+                              int proximoIdOcorrencia) throws IOException {
+        ServicoPersistencia.descarregar();
+
+        LinkedHashMap<Integer, int[]> contagem = new LinkedHashMap<>();
+        for (Ocorrencia ocorrencia : ocorrenciasDaCidade) {
+            int[] contador = contagem.computeIfAbsent(ocorrencia.getAreaAfetada().getIdEstacaoResponsavel(), id -> new int[2]);
+            contador[0]++;
+            if (ocorrencia.isIncendioAtivo()) {
+                contador[1]++;
+            }
+        }
+
+        ByteBuffer conteudo = ByteBuffer.allocate(TAMANHO_CABECALHO + contagem.size() * TAMANHO_CONTADOR
+                + ocorrenciasDaCidade.size() * RegistroBinario.TAMANHO_REGISTRO);
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                conteudo.putInt(MAGICO);
+                conteudo.putShort(VERSAO);
+                conteudo.putShort((short) RegistroBinario.TAMANHO_REGISTRO);
+                conteudo.putLong(LogHistorico.obterPosicaoLog(acesso));
+                conteudo.putInt(proximoIdOcorrencia);
+                conteudo.putInt(contagem.size());
+                conteudo.putInt(ocorrenciasDaCidade.size());
+                conteudo.putInt(0); // Reservado
+                for (Map.Entry<Integer, int[]> contador : contagem.entrySet()) {
+                    conteudo.putInt(contador.getKey());
+                    conteudo.putInt(contador.getValue()[0]);
+                    conteudo.putInt(contador.getValue()[1]);
+                }
+                for (Ocorrencia ocorrencia : ocorrenciasDaCidade) {
+                    RegistroBinario.escrever(ocorrencia, conteudo);
+                }
+                conteudo.flip();
+
+                Path destino = Paths.get(obterNomeArquivo(estacao));
+                Path temporario = Paths.get(obterNomeArquivo(estacao) + ".tmp");
+                try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    while (conteudo.hasRemaining()) {
+                        canal.write(conteudo);
+                    }
+                    canal.force(false);
+                }
+                Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+    }
+
+    /**
+     * Lê o cabeçalho e os contadores do instantâneo da cidade. As ocorrências são
+     * carregadas separadamente por {@link #carregarOcorrencias}.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return instantâneo lido ou null se não existir ou estiver incompleto
+     * @throws IOException se não for possível ler o arquivo
+     */
+    public static SnapshotHistorico ler(EstacaoBombeiros estacao) throws IOException {
+        Path caminho = Paths.get(obterNomeArquivo(estacao));
+        if (!Files.exists(caminho)) {
+            return null;
+        }
+
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            while (cabecalho.hasRemaining() && canal.read(cabecalho) > 0) {
+                // Leitura até completar o cabeçalho
+            }
+            if (cabecalho.hasRemaining() || cabecalho.getInt(0) != MAGICO || cabecalho.getShort(4) != VERSAO
+                    || cabecalho.getShort(6) != RegistroBinario.TAMANHO_REGISTRO) {
+                return null;
+            }
+
+            long posicaoLog = cabecalho.getLong(8);
+            int proximoIdOcorrencia = cabecalho.getInt(16);
+            int quantidadeEstacoes = cabecalho.getInt(20);
+            int quantidadeOcorrencias = cabecalho.getInt(24);
+            long inicioRegistros = TAMANHO_CABECALHO + (long) quantidadeEstacoes * TAMANHO_CONTADOR;
+            if (quantidadeEstacoes < 0 || quantidadeOcorrencias < 0 || canal.size()
+                    != inicioRegistros + (long) quantidadeOcorrencias * RegistroBinario.TAMANHO_REGISTRO) {
+                return null;
+            }
+
+            ByteBuffer bytesContadores = ByteBuffer.allocate(quantidadeEstacoes * TAMANHO_CONTADOR);
+            while (bytesContadores.hasRemaining() && canal.read(bytesContadores) > 0) {
+                // Leitura até completar os contadores
+            }
+            bytesContadores.flip();
+            ArrayList<ContadorEstacao> contadores = new ArrayList<>();
+            for (int i = 0; i < quantidadeEstacoes; i++) {
+                contadores.add(new ContadorEstacao(bytesContadores.getInt(), bytesContadores.getInt(), bytesContadores.getInt()));
+            }
+            return new SnapshotHistorico(posicaoLog, proximoIdOcorrencia, quantidadeOcorrencias, contadores, inicioRegistros);
+        }
+    }
+
+    /**
+     * Carrega as ocorrências do instantâneo em blocos paralelos pelo
+     * {@link CarregadorHistoricoParalelo}.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return resultado do carregamento, com as ocorrências em ordem de ID
+     * @throws IOException se não for possível ler o arquivo
+     */
+    public CarregadorHistoricoParalelo.Resultado carregarOcorrencias(EstacaoBombeiros estacao,
+                                                                     CatalogoEntidades catalogo) throws IOException {
+        return CarregadorHistoricoParalelo.carregarIntervalo(Paths.get(obterNomeArquivo(estacao)), inicioRegistros,
+                inicioRegistros + (long) quantidadeOcorrencias * RegistroBinario.TAMANHO_REGISTRO,
+                catalogo);
+    }
+
+    /**
+     * Configura a quantidade de alterações de uma estação entre dois instantâneos.
+     *
+     * @param intervalo quantidade de alterações que dispara um novo instantâneo
+     */
+    public static void configurarIntervalo(int intervalo) {
+        SnapshotHistorico.intervalo = Math.max(1, intervalo);
+    }
+
+    /**
+     * Obtém a quantidade de alterações de uma estação entre dois instantâneos.
+     *
+     * @return intervalo entre instantâneos
+     */
+    public static int getIntervalo() {
+        return intervalo;
+    }
+
+    /**
+     * Obtém a posição do log coberta pelo instantâneo: apenas registros a partir
+     * dela precisam ser reaplicados.
+     *
+     * @return posição do log
+     */
+    public long getPosicaoLog() {
+        return posicaoLog;
+    }
+
+    /**
+     * Obtém o próximo ID de ocorrência disponível no momento do instantâneo.
+     *
+     * @return próximo ID de ocorrência
+     */
+    public int getProximoIdOcorrencia() {
+        return proximoIdOcorrencia;
+    }
+
+    /**
+     * Obtém a quantidade de ocorrências gravadas no instantâneo.
+     *
+     * @return quantidade de ocorrências
+     */
+    public int getQuantidadeOcorrencias() {
+        return quantidadeOcorrencias;
+    }
+
+    /**
+     * Obtém os contadores de cada estação no momento do instantâneo.
+     *
+     * @return lista somente leitura dos contadores
+     */
+    public List<ContadorEstacao> getContadores() {
+        return Collections.unmodifiableList(contadores);
+    }
+}
@@ -0,0 +1,104 @@
+package fgn.modelo;
+
+/**
+ * <p>
+ * Esta enumeração representa o status de uma ocorrência no sistema Forest
+ * Guardian Network: em andamento ou resolvida. Cada status mantém o rótulo
+ * utilizado nas telas, nos relatórios e no histórico texto, e sua posição na
+ * enumeração é o código gravado no {@link RegistroBinario}, por isso a ordem
+ * não deve ser alterada.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public enum StatusOcorrencia {
+    /**
+     * Ocorrência que ainda requer ação das equipes
+     */
+    ATIVO("Ativo"),
+    /**
+     * Ocorrência resolvida
+     */
+    CONCLUIDO("Concluído");
+
+    /**
+     * Status indexados pelo código gravado, evitando a cópia feita por values()
+     */
+    private static final StatusOcorrencia[] POR_CODIGO = values();
+
+    /**
+     * Rótulo exibido e gravado no histórico texto
+     */
+    private final String rotulo;
+
+    StatusOcorrencia(String rotulo) {
+        this.rotulo = rotulo;
+    }
+
+    /**
+     * Obtém o rótulo do status.
+     *
+     * @return rótulo exibido ("Ativo" ou "Concluído")
+     */
+    public String getRotulo() {
+        return rotulo;
+    }
+
+    /**
+     * Obtém o código gravado no {@link RegistroBinario}.
+     *
+     * @return código do status (0 = Ativo)
+     */
+    public byte getCodigo() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Converte o código gravado no {@link RegistroBinario} em status.
+     *
+     * @param codigo código gravado no registro
+     * @return status correspondente, ou {@link #ATIVO} se o código for desconhecido
+     */
+    public static StatusOcorrencia doCodigo(int codigo) {
+        return codigo >= 0 && codigo < POR_CODIGO.length ? POR_CODIGO[codigo] : ATIVO;
+    }
+
+    /**
+     * Converte o rótulo em status.
+     *
+     * @param rotulo rótulo do status
+     * @return status correspondente, ou {@link #ATIVO} se o rótulo for desconhecido
+     */
+    public static StatusOcorrencia doRotulo(String rotulo) {
+        for (StatusOcorrencia status : POR_CODIGO) {
+            if (status.rotulo.equals(rotulo)) {
+                return status;
+            }
+        }
+        return ATIVO;
+    }
+
+    /**
+     * Obtém os rótulos de todos os status, na ordem dos códigos.
+     *
+     * @return rótulos indexados pelo código
+     */
+    public static String[] rotulos() {
+        String[] rotulos = new String[POR_CODIGO.length];
+        for (StatusOcorrencia status : POR_CODIGO) {
+            rotulos[status.ordinal()] = status.rotulo;
+        }
+        return rotulos;
+    }
+
+    /**
+     * Retorna o rótulo do status, para exibição.
+     *
+     * @return rótulo do status
+     */
+    @Override
+    public String toString() {
+        return rotulo;
+    }
+}
@@ -0,0 +1,134 @@
+package fgn.modelo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * Esta classe implementa uma tabela hash de endereçamento aberto que associa nomes
+ * codificados em UTF-8 a índices, permitindo localizar um nome diretamente a partir
+ * de um intervalo de bytes de um {@link ByteBuffer}, sem criar objetos String.
+ * </p>
+ * <p>
+ * Utilizada pelo {@link ParserHistoricoTexto} para reconhecer nomes de áreas,
+ * sensores, níveis de risco e status durante a leitura do histórico texto.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class TabelaNomesUtf8 {
+    /**
+     * Nomes codificados em UTF-8, na ordem recebida no construtor
+     */
+    private final byte[][] nomes;
+    /**
+     * Posições da tabela hash contendo índice do nome + 1 (0 indica posição livre)
+     */
+    private final int[] posicoes;
+    /**
+     * Máscara para cálculo da posição a partir do hash (capacidade - 1)
+     */
+    private final int mascara;
+
+    /**
+     * Construtor que codifica e indexa os nomes informados.
+     *
+     * @param nomes nomes a serem reconhecidos; o índice de cada nome é sua posição no array
+     */
+    public TabelaNomesUtf8(String[] nomes) {
+        this.nomes = new byte[nomes.length][];
+
+        int capacidade = 8;
+        while (capacidade < nomes.length * 2) {
+            capacidade <<= 1;
+        }
+        this.posicoes = new int[capacidade];
+        this.mascara = capacidade - 1;
+
+        for (int i = 0; i < nomes.length; i++) {
+            byte[] bytes = nomes[i].getBytes(StandardCharsets.UTF_8);
+            this.nomes[i] = bytes;
+
+            int posicao = calcularHash(bytes, 0, bytes.length) & mascara;
+            while (posicoes[posicao] != 0) {
+                posicao = (posicao + 1) & mascara;
+            }
+            posicoes[posicao] = i + 1;
+        }
+    }
+
+    /**
+     * Busca o nome contido no intervalo de bytes do buffer.
+     *
+     * @param buffer buffer contendo o texto
+     * @param inicio posição absoluta do primeiro byte do nome
+     * @param fim posição absoluta após o último byte do nome
+     * @return índice do nome encontrado ou -1 se não existir na tabela
+     */
+    public int buscar(ByteBuffer buffer, int inicio, int fim) {
+        int posicao = calcularHash(buffer, inicio, fim) & mascara;
+
+        while (posicoes[posicao] != 0) {
+            int indice = posicoes[posicao] - 1;
+            if (iguais(nomes[indice], buffer, inicio, fim)) {
+                return indice;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Compara os bytes de um nome com um intervalo do buffer.
+     *
+     * @param nome bytes do nome cadastrado
+     * @param buffer buffer contendo o texto
+     * @param inicio posição absoluta inicial
+     * @param fim posição absoluta final (exclusiva)
+     * @return true se o conteúdo for idêntico
+     */
+    private static boolean iguais(byte[] nome, ByteBuffer buffer, int inicio, int fim) {
+        if (nome.length != fim - inicio) {
+            return false;
+        }
+        for (int i = 0; i < nome.length; i++) {
+            if (nome[i] != buffer.get(inicio + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calcula hash FNV-1a de um intervalo de um array de bytes.
+     *
+     * @param bytes array de origem
+     * @param inicio posição inicial
+     * @param fim posição final (exclusiva)
+     * @return valor do hash
+     */
+    private static int calcularHash(byte[] bytes, int inicio, int fim) {
+        int hash = 0x811C9DC5;
+        for (int i = inicio; i < fim; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    /**
+     * Calcula hash FNV-1a de um intervalo de um buffer.
+     *
+     * @param buffer buffer de origem
+     * @param inicio posição absoluta inicial
+     * @param fim posição absoluta final (exclusiva)
+     * @return valor do hash
+     */
+    private static int calcularHash(ByteBuffer buffer, int inicio, int fim) {
+        int hash = 0x811C9DC5;
+        for (int i = inicio; i < fim; i++) {
+            hash = (hash ^ (buffer.get(i) & 0xFF)) * 0x01000193;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,522 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32C;
+
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+
+/**
+ * <p>
+ * Esta classe implementa uma tabela de ocorrências mantida fora do heap do
+ * sistema Forest Guardian Network, através da API de memória externa
+ * ({@link MemorySegment} e {@link Arena}). Os registros ocupam memória nativa,
+ * que não é percorrida pelo coletor de lixo, de modo que um histórico de vários
+ * anos pode ser mantido carregado sem aumentar as pausas do console.
+ * </p>
+ * <p>
+ * Cada linha usa exatamente o layout de largura fixa do {@link RegistroBinario},
+ * descrito por {@link #LAYOUT_REGISTRO}, precedido pelo mesmo cabeçalho. Assim,
+ * quando a tabela é mapeada em um arquivo com {@link #mapear}, o próprio arquivo
+ * é um segmento de histórico válido, legível pelo {@link SegmentoComprimido.Leitor},
+ * e nenhuma cópia ou conversão é necessária para persistir a tabela.
+ * </p>
+ * <p>
+ * Os campos usados em varreduras são lidos diretamente da memória pelas
+ * posições do layout, sem criar objetos; {@link #ler} reconstitui a
+ * {@link Ocorrencia} completa apenas quando necessário. Quando a capacidade se
+ * esgota, a tabela é realocada (ou remapeada) com o dobro do tamanho.
+ * </p>
+ * <p>
+ * O relatório de estações usa a tabela para consultar o histórico das cidades
+ * que não estão carregadas no {@link RepositorioOcorrencias}: o histórico é
+ * importado com {@link #importarHistorico}, reduzido à última versão de cada
+ * ocorrência com {@link #manterUltimasVersoes} e percorrido sem criar objetos.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class TabelaOcorrenciasForaHeap implements AutoCloseable {
+    /**
+     * Layout de cada registro na memória, idêntico ao do {@link RegistroBinario}
+     */
+    public static final StructLayout LAYOUT_REGISTRO = MemoryLayout.structLayout(
+            ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN).withName("idOcorrencia"),
+            ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN).withName("idArea"),
+            ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN).withName("hectaresAfetados"),
+            ValueLayout.JAVA_BYTE.withName("nivelRisco"),
+            ValueLayout.JAVA_BYTE.withName("status"),
+            ValueLayout.JAVA_BYTE.withName("tipo"),
+            ValueLayout.JAVA_BYTE.withName("tamanhoNome"),
+            ValueLayout.JAVA_LONG.withOrder(ByteOrder.BIG_ENDIAN).withName("instanteDeteccao"),
+            ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN).withName("idSensor"),
+            ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN).withName("idDrone"),
+            ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN).withName("tempoChegada"),
+            ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN).withName("nascimentoDenunciante"),
+            ValueLayout.JAVA_LONG.withOrder(ByteOrder.BIG_ENDIAN).withName("cpfDenunciante"),
+            MemoryLayout.sequenceLayout(64, ValueLayout.JAVA_BYTE).withName("nomeDenunciante"),
+            ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN).withName("tamanhoDados"),
+            ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN).withName("crc"),
+            MemoryLayout.paddingLayout(8));
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final long POSICAO_ID = LAYOUT_REGISTRO.byteOffset(groupElement("idOcorrencia"));
+    private static final long POSICAO_AREA = LAYOUT_REGISTRO.byteOffset(groupElement("idArea"));
+    private static final long POSICAO_HECTARES = LAYOUT_REGISTRO.byteOffset(groupElement("hectaresAfetados"));
+    private static final long POSICAO_RISCO = LAYOUT_REGISTRO.byteOffset(groupElement("nivelRisco"));
+    private static final long POSICAO_STATUS = LAYOUT_REGISTRO.byteOffset(groupElement("status"));
+    private static final long POSICAO_INSTANTE = LAYOUT_REGISTRO.byteOffset(groupElement("instanteDeteccao"));
+    private static final long POSICAO_TAMANHO_DADOS = LAYOUT_REGISTRO.byteOffset(groupElement("tamanhoDados"));
+    /**
+     * Quantidade de registros lidos por vez de cada segmento do histórico
+     */
+    private static final int REGISTROS_POR_LEITURA = 8192;
+    /**
+     * Capacidade inicial, em registros, de uma tabela mapeada em arquivo novo
+     */
+    private static final long CAPACIDADE_INICIAL_ARQUIVO = 1024;
+
+    /**
+     * Canal do arquivo mapeado, ou null para tabelas apenas em memória
+     */
+    private final FileChannel canal;
+    /**
+     * Buffer no heap em que cada registro é codificado ou decodificado pelo {@link RegistroBinario}
+     */
+    private final ByteBuffer registro = ByteBuffer.allocate(RegistroBinario.TAMANHO_REGISTRO);
+    private Arena arena;
+    private MemorySegment memoria;
+    private long capacidade;
+    private long quantidade;
+
+    private TabelaOcorrenciasForaHeap(FileChannel canal) {
+        this.canal = canal;
+    }
+
+    /**
+     * Cria uma tabela em memória nativa, liberada ao fechar a tabela.
+     *
+     * @param capacidadeInicial quantidade de registros reservada inicialmente
+     * @return tabela vazia
+     */
+    public static TabelaOcorrenciasForaHeap criar(long capacidadeInicial) {
+        TabelaOcorrenciasForaHeap tabela = new TabelaOcorrenciasForaHeap(null);
+        tabela.arena = Arena.ofShared();
+        tabela.capacidade = Math.max(1, capacidadeInicial);
+        tabela.memoria = tabela.arena.allocate(tabela.tamanhoEmBytes(tabela.capacidade), Long.BYTES);
+        tabela.escreverCabecalho();
+        return tabela;
+    }
+
+    /**
+     * Mapeia a tabela no arquivo informado, criando-o se não existir. Os
+     * registros de um arquivo existente ficam disponíveis sem serem copiados.
+     *
+     * @param arquivo caminho do arquivo da tabela
+     * @return tabela mapeada no arquivo
+     * @throws IOException se o arquivo não puder ser aberto ou não for um histórico binário válido
+     */
+    public static TabelaOcorrenciasForaHeap mapear(Path arquivo) throws IOException {
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            TabelaOcorrenciasForaHeap tabela = new TabelaOcorrenciasForaHeap(canal);
+            long tamanho = canal.size();
+            long registros = Math.max(0, (tamanho - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO);
+            tabela.mapearArquivo(Math.max(registros, CAPACIDADE_INICIAL_ARQUIVO));
+
+            if (tamanho < RegistroBinario.TAMANHO_CABECALHO) {
+                tabela.escreverCabecalho();
+            } else if (!tabela.isCabecalhoCompativel()) {
+                tabela.arena.close();
+                throw new IOException("arquivo não é uma tabela de ocorrências: " + arquivo);
+            }
+
+            // Descarta registros vazios deixados por um encerramento sem close()
+            while (registros > 0 && tabela.memoria.get(INT, tabela.posicao(registros - 1) + POSICAO_TAMANHO_DADOS) == 0) {
+                registros--;
+            }
+            tabela.quantidade = registros;
+            return tabela;
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtém a quantidade de registros da tabela.
+     *
+     * @return quantidade de registros
+     */
+    public synchronized long getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Indica se a tabela está mapeada em um arquivo.
+     *
+     * @return true se a tabela está mapeada em um arquivo
+     */
+    public boolean isMapeada() {
+        return canal != null;
+    }
+
+    /**
+     * Acrescenta o estado atual da ocorrência como um novo registro.
+     *
+     * @param ocorrencia ocorrência a ser gravada
+     * @return índice do registro gravado
+     * @throws IOException se não for possível ampliar o arquivo mapeado
+     */
+    public synchronized long adicionar(Ocorrencia ocorrencia) throws IOException {
+        garantirCapacidade();
+        gravarRegistro(quantidade, ocorrencia);
+        return quantidade++;
+    }
+
+    /**
+     * Acrescenta uma cópia do registro binário informado, sem decodificá-lo.
+     *
+     * @param origem buffer contendo o registro
+     * @param posicao deslocamento absoluto do início do registro
+     * @return índice do registro gravado
+     * @throws IOException se não for possível ampliar o arquivo mapeado
+     */
+    public synchronized long adicionarRegistro(ByteBuffer origem, int posicao) throws IOException {
+        garantirCapacidade();
+        MemorySegment.copy(MemorySegment.ofBuffer(origem.slice(posicao, RegistroBinario.TAMANHO_REGISTRO)), 0,
+                memoria, posicao(quantidade), RegistroBinario.TAMANHO_REGISTRO);
+        return quantidade++;
+    }
+
+    /**
+     * Substitui o registro do índice informado pelo estado atual da ocorrência.
+     *
+     * @param indice índice do registro
+     * @param ocorrencia ocorrência a ser gravada
+     */
+    public synchronized void substituir(long indice, Ocorrencia ocorrencia) {
+        gravarRegistro(verificarIndice(indice), ocorrencia);
+    }
+
+    /**
+     * Reconstitui a ocorrência do registro informado.
+     *
+     * @param indice índice do registro
+     * @param catalogo catálogo de áreas, sensores e drones para associação por ID
+     * @return ocorrência reconstituída ou null se a área referenciada não existir
+     */
+    public synchronized Ocorrencia ler(long indice, CatalogoEntidades catalogo) {
+        MemorySegment.copy(memoria, posicao(verificarIndice(indice)), MemorySegment.ofBuffer(registro.clear()), 0,
+                RegistroBinario.TAMANHO_REGISTRO);
+        return RegistroBinario.ler(registro, 0, catalogo);
+    }
+
+    /**
+     * Obtém o ID da ocorrência do registro informado.
+     *
+     * @param indice índice do registro
+     * @return ID da ocorrência
+     */
+    public synchronized int getIdOcorrencia(long indice) {
+        return memoria.get(INT, posicao(verificarIndice(indice)) + POSICAO_ID);
+    }
+
+    /**
+     * Obtém o ID da área florestal do registro informado.
+     *
+     * @param indice índice do registro
+     * @return ID da área florestal
+     */
+    public synchronized int getIdArea(long indice) {
+        return memoria.get(INT, posicao(verificarIndice(indice)) + POSICAO_AREA);
+    }
+
+    /**
+     * Obtém os hectares afetados do registro informado.
+     *
+     * @param indice índice do registro
+     * @return hectares afetados
+     */
+    public synchronized int getHectaresAfetados(long indice) {
+        return memoria.get(INT, posicao(verificarIndice(indice)) + POSICAO_HECTARES);
+    }
+
+    /**
+     * Obtém o nível de risco do registro informado.
+     *
+     * @param indice índice do registro
+     * @return rótulo do nível de risco
+     */
+    public synchronized String getNivelRisco(long indice) {
+        return NivelRisco.doCodigo(memoria.get(ValueLayout.JAVA_BYTE, posicao(verificarIndice(indice)) + POSICAO_RISCO)).getRotulo();
+    }
+
+    /**
+     * Obtém o status do registro informado.
+     *
+     * @param indice índice do registro
+     * @return rótulo do status
+     */
+    public synchronized String getStatusOcorrencia(long indice) {
+        return StatusOcorrencia.doCodigo(memoria.get(ValueLayout.JAVA_BYTE, posicao(verificarIndice(indice)) + POSICAO_STATUS)).getRotulo();
+    }
+
+    /**
+     * Obtém o instante de detecção do registro informado.
+     *
+     * @param indice índice do registro
+     * @return instante de detecção em milissegundos desde a época
+     */
+    public synchronized long getInstanteDeteccao(long indice) {
+        return memoria.get(LONG, posicao(verificarIndice(indice)) + POSICAO_INSTANTE);
+    }
+
+    /**
+     * Conta os incêndios ativos (status "Ativo" e nível de risco diferente de
+     * "Seguro") da área informada, lendo apenas os campos necessários.
+     *
+     * @param idArea ID da área florestal
+     * @return quantidade de registros de incêndios ativos da área
+     */
+    public synchronized long contarIncendiosAtivos(int idArea) {
+        long contagem = 0;
+        for (long i = 0; i < quantidade; i++) {
+            long posicao = posicao(i);
+            if (memoria.get(INT, posicao + POSICAO_AREA) == idArea
+                    && memoria.get(ValueLayout.JAVA_BYTE, posicao + POSICAO_STATUS) == StatusOcorrencia.ATIVO.getCodigo()
+                    && memoria.get(ValueLayout.JAVA_BYTE, posicao + POSICAO_RISCO) != NivelRisco.SEGURO.getCodigo()) {
+                contagem++;
+            }
+        }
+        return contagem;
+    }
+
+    /**
+     * Remove as versões superadas das ocorrências, mantendo apenas o último
+     * registro de cada ID. Os registros restantes são deslocados dentro da
+     * própria memória, na ordem em que foram acrescentados.
+     *
+     * @return quantidade de registros removidos
+     */
+    public synchronized long manterUltimasVersoes() {
+        // Do fim para o início, o primeiro registro de cada ID é a sua última versão
+        BitSet vistos = new BitSet();
+        for (long i = quantidade - 1; i >= 0; i--) {
+            long posicao = posicao(i);
+            int id = memoria.get(INT, posicao + POSICAO_ID);
+            if (vistos.get(id)) {
+                memoria.set(INT, posicao + POSICAO_TAMANHO_DADOS, 0);
+            } else {
+                vistos.set(id);
+            }
+        }
+
+        long mantidos = 0;
+        for (long i = 0; i < quantidade; i++) {
+            if (memoria.get(INT, posicao(i) + POSICAO_TAMANHO_DADOS) == 0) {
+                continue;
+            }
+            if (mantidos != i) {
+                MemorySegment.copy(memoria, posicao(i), memoria, posicao(mantidos), LAYOUT_REGISTRO.byteSize());
+            }
+            mantidos++;
+        }
+        long removidos = quantidade - mantidos;
+        // Registros vazios ao final são descartados ao remapear um arquivo não fechado
+        memoria.asSlice(posicao(mantidos), removidos * LAYOUT_REGISTRO.byteSize()).fill((byte) 0);
+        quantidade = mantidos;
+        return removidos;
+    }
+
+    /**
+     * Acrescenta à tabela os registros de ocorrência íntegros do histórico binário
+     * da cidade da estação, ignorando os ocultos por limpezas. Os registros são
+     * copiados como estão, sem criar objetos {@link Ocorrencia}.
+     *
+     * @param estacao estação cujo histórico da cidade será importado
+     * @return quantidade de registros importados
+     * @throws IOException se não for possível ler o histórico ou ampliar o arquivo mapeado
+     */
+    public long importarHistorico(EstacaoBombeiros estacao) throws IOException {
+        if (!LogHistorico.existe(estacao)) {
+            return 0;
+        }
+        long importados = 0;
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                ManifestoHistorico manifesto = LogHistorico.abrirManifesto(acesso);
+                for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+                    importados += importarSegmento(Paths.get(ManifestoHistorico.obterNomeSegmento(estacao, segmento.getNumero())),
+                            manifesto);
+                }
+                importados += importarSegmento(Paths.get(LogHistorico.obterNomeArquivo(estacao)), manifesto);
+            }
+        }
+        return importados;
+    }
+
+    /**
+     * Grava no disco as alterações de uma tabela mapeada em arquivo.
+     */
+    public synchronized void sincronizar() {
+        if (canal != null) {
+            memoria.force();
+        }
+    }
+
+    /**
+     * Libera a memória da tabela. Uma tabela mapeada é gravada no disco e o
+     * arquivo é reduzido aos registros existentes.
+     *
+     * @throws IOException se não for possível ajustar o arquivo mapeado
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!arena.scope().isAlive()) {
+            return;
+        }
+        sincronizar();
+        arena.close();
+        if (canal != null) {
+            try (FileChannel arquivo = canal) {
+                arquivo.truncate(tamanhoEmBytes(quantidade));
+            }
+        }
+    }
+
+    /**
+     * Acrescenta os registros do segmento que devem ser importados.
+     */
+    private long importarSegmento(Path caminho, ManifestoHistorico manifesto) throws IOException {
+        if (!Files.exists(caminho) || Files.size(caminho) < RegistroBinario.TAMANHO_CABECALHO) {
+            return 0;
+        }
+        long importados = 0;
+        try (SegmentoComprimido.Leitor origem = SegmentoComprimido.Leitor.abrir(caminho)) {
+            if (!RegistroBinario.validarCabecalho(origem.getCabecalho())) {
+                return 0;
+            }
+            boolean aceitarSemCrc = RegistroBinario.aceitaRegistrosSemCrc(origem.getCabecalho());
+            long totalRegistros = (origem.getTamanho() - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+            ByteBuffer bloco = ByteBuffer.allocate(REGISTROS_POR_LEITURA * RegistroBinario.TAMANHO_REGISTRO);
+            CRC32C crc = new CRC32C();
+
+            for (long primeiro = 0; primeiro < totalRegistros; primeiro += REGISTROS_POR_LEITURA) {
+                int quantidadeBloco = (int) Math.min(REGISTROS_POR_LEITURA, totalRegistros - primeiro);
+                bloco.clear();
+                bloco.limit(quantidadeBloco * RegistroBinario.TAMANHO_REGISTRO);
+                origem.ler(bloco, RegistroBinario.TAMANHO_CABECALHO + primeiro * RegistroBinario.TAMANHO_REGISTRO);
+
+                for (int posicao = 0; posicao < bloco.limit(); posicao += RegistroBinario.TAMANHO_REGISTRO) {
+                    if (!RegistroBinario.isOcorrencia(bloco, posicao)
+                            || !RegistroBinario.isIntegro(bloco, posicao, crc, aceitarSemCrc)
+                            || manifesto.isOculta(RegistroBinario.lerIdArea(bloco, posicao), RegistroBinario.lerId(bloco, posicao))) {
+                        continue;
+                    }
+                    if (RegistroBinario.isSemCrc(bloco, posicao)) {
+                        // A tabela usa a versão atual do formato, por isso registros da versão 1 são enquadrados
+                        RegistroBinario.enquadrar(bloco, posicao);
+                    }
+                    adicionarRegistro(bloco, posicao);
+                    importados++;
+                }
+            }
+        }
+        return importados;
+    }
+
+    /**
+     * Dobra a capacidade da tabela quando está cheia, realocando a memória ou
+     * remapeando o arquivo.
+     */
+    private void garantirCapacidade() throws IOException {
+        if (quantidade < capacidade) {
+            return;
+        }
+        long novaCapacidade = capacidade * 2;
+        if (canal != null) {
+            memoria.force();
+            arena.close();
+            mapearArquivo(novaCapacidade);
+            return;
+        }
+        Arena novaArena = Arena.ofShared();
+        MemorySegment novaMemoria = novaArena.allocate(tamanhoEmBytes(novaCapacidade), Long.BYTES);
+        MemorySegment.copy(memoria, 0, novaMemoria, 0, tamanhoEmBytes(quantidade));
+        arena.close();
+        arena = novaArena;
+        memoria = novaMemoria;
+        capacidade = novaCapacidade;
+    }
+
+    /**
+     * Mapeia o arquivo com espaço para a quantidade de registros informada,
+     * ampliando-o se necessário.
+     */
+    private void mapearArquivo(long registros) throws IOException {
+        arena = Arena.ofShared();
+        capacidade = registros;
+        memoria = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoEmBytes(registros), arena);
+    }
+
+    /**
+     * Codifica a ocorrência no buffer de registro e a copia para a posição do índice.
+     * O CRC32C do enquadramento é calculado no heap, já que buffers sobre memória
+     * compartilhada não podem ser repassados a operações nativas.
+     */
+    private void gravarRegistro(long indice, Ocorrencia ocorrencia) {
+        registro.clear();
+        RegistroBinario.escrever(ocorrencia, registro);
+        MemorySegment.copy(MemorySegment.ofBuffer(registro.clear()), 0, memoria, posicao(indice),
+                RegistroBinario.TAMANHO_REGISTRO);
+    }
+
+    /**
+     * Escreve o cabeçalho do {@link RegistroBinario} no início da memória.
+     */
+    private void escreverCabecalho() {
+        ByteBuffer cabecalho = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO);
+        RegistroBinario.escreverCabecalho(cabecalho);
+        MemorySegment.copy(MemorySegment.ofBuffer(cabecalho.clear()), 0, memoria, 0, RegistroBinario.TAMANHO_CABECALHO);
+    }
+
+    /**
+     * Verifica se o cabeçalho do arquivo mapeado é da versão atual do {@link RegistroBinario}.
+     */
+    private boolean isCabecalhoCompativel() {
+        ByteBuffer cabecalho = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO);
+        MemorySegment.copy(memoria, 0, MemorySegment.ofBuffer(cabecalho), 0, RegistroBinario.TAMANHO_CABECALHO);
+        return RegistroBinario.validarCabecalho(cabecalho) && !RegistroBinario.aceitaRegistrosSemCrc(cabecalho);
+    }
+
+    private long verificarIndice(long indice) {
+        if (indice < 0 || indice >= quantidade) {
+            throw new IndexOutOfBoundsException("Índice: " + indice + ", Quantidade: " + quantidade);
+        }
+        return indice;
+    }
+
+    private long posicao(long indice) {
+        return RegistroBinario.TAMANHO_CABECALHO + indice * LAYOUT_REGISTRO.byteSize();
+    }
+
+    private long tamanhoEmBytes(long registros) {
+        return RegistroBinario.TAMANHO_CABECALHO + registros * LAYOUT_REGISTRO.byteSize();
+    }
+}
@@ -0,0 +1,265 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Esta classe implementa a coordenação entre processos do acesso ao histórico de
+ * cada cidade no sistema Forest Guardian Network, para que vários consoles possam
+ * operar sobre os mesmos arquivos em um volume compartilhado. A coordenação usa
+ * {@link FileChannel#lock} sobre o arquivo {@code historico_<cidade>.lock}:
+ * anexações, selagens, compactações e gravações de instantâneo e relatório
+ * obtêm a trava exclusiva apenas durante a operação, e os carregamentos obtêm a
+ * trava compartilhada, podendo ocorrer em paralelo entre processos.
+ * </p>
+ * <p>
+ * Dentro de um mesmo processo o acesso continua serializado pelo monitor da
+ * cidade ({@link LogHistorico#obterTrava}), que deve estar em posse da thread ao
+ * obter a trava de arquivo. A trava é reentrante: aquisições aninhadas reutilizam
+ * a trava já obtida. Uma trava compartilhada nunca é promovida, pois entre a
+ * liberação e a nova aquisição outro processo poderia alterar o histórico que o
+ * chamador já leu: uma aquisição exclusiva aninhada em uma compartilhada falha
+ * com {@link IllegalStateException}.
+ * </p>
+ * <p>
+ * As leituras podem precisar reparar o histórico, concluindo uma selagem
+ * interrompida ou reconstruindo o índice. Por isso a aquisição compartilhada mais
+ * externa verifica, já com a trava obtida, se há reparo pendente
+ * ({@link LogHistorico#precisaReparo}) e, nesse caso, obtém a trava exclusiva
+ * antes de o chamador ler qualquer arquivo. Enquanto a trava compartilhada está
+ * em posse deste processo nenhum outro pode gravar, portanto nenhum reparo passa
+ * a ser necessário durante a leitura.
+ * </p>
+ * <p>
+ * A trava obtida é repassada às operações que dependem dela, como
+ * {@link LogHistorico#abrirManifesto}, que exigem a trava exclusiva com
+ * {@link #exigirExclusiva()} antes de alterar arquivos.
+ * </p>
+ * <p>
+ * As métricas de disputa contabilizam as aquisições que encontraram a trava em
+ * posse de outro processo e o tempo de espera por ela.
+ * </p>
+ *
+ * @author Renan Dias Utida, Fernanda Rocha Menon e Luiza Macena Dantas
+ * @version 1.0
+ */
+public class TravaHistorico implements AutoCloseable {
+    /**
+     * Travas de arquivo em posse deste processo, por cidade
+     */
+    private static final ConcurrentHashMap<String, Estado> estados = new ConcurrentHashMap<>();
+
+    private static final AtomicLong aquisicoes = new AtomicLong();
+    private static final AtomicLong aquisicoesDisputadas = new AtomicLong();
+    private static final AtomicLong esperaTotalNanos = new AtomicLong();
+    private static final AtomicLong maiorEsperaNanos = new AtomicLong();
+
+    /**
+     * Trava de arquivo de uma cidade e a quantidade de aquisições aninhadas.
+     * Acessado apenas com o monitor da cidade em posse.
+     */
+    private static class Estado {
+        private final FileChannel canal;
+        private FileLock trava;
+        private int profundidade;
+
+        private Estado(FileChannel canal) {
+            this.canal = canal;
+        }
+    }
+
+    private final EstacaoBombeiros estacao;
+    private final String nomeBase;
+    private boolean liberada;
+
+    private TravaHistorico(EstacaoBombeiros estacao, String nomeBase) {
+        this.estacao = estacao;
+        this.nomeBase = nomeBase;
+    }
+
+    /**
+     * Obtém o nome do arquivo de trava do histórico da cidade da estação informada.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return nome do arquivo de trava da cidade
+     */
+    public static String obterNomeArquivo(EstacaoBombeiros estacao) {
+        return Arquivo.obterNomeBaseHistorico(estacao) + ".lock";
+    }
+
+    /**
+     * Obtém a trava exclusiva do histórico da cidade, aguardando que outros
+     * processos a liberem. Deve ser chamado com o monitor da cidade em posse e
+     * sem uma trava compartilhada da cidade em posse da thread.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return trava obtida, a ser liberada com {@link #close()}
+     * @throws IOException se não for possível abrir ou travar o arquivo de trava
+     * @throws IllegalStateException se a thread estiver com a trava compartilhada da cidade
+     */
+    public static TravaHistorico exclusiva(EstacaoBombeiros estacao) throws IOException {
+        return adquirir(estacao, false);
+    }
+
+    /**
+     * Obtém a trava compartilhada do histórico da cidade, aguardando que outros
+     * processos liberem a trava exclusiva. Deve ser chamado com o monitor da
+     * cidade em posse. Se o histórico precisar de reparo, obtém a trava
+     * exclusiva em seu lugar.
+     *
+     * @param estacao estação responsável pelo histórico
+     * @return trava obtida, a ser liberada com {@link #close()}
+     * @throws IOException se não for possível abrir ou travar o arquivo de trava
+     */
+    public static TravaHistorico compartilhada(EstacaoBombeiros estacao) throws IOException {
+        return adquirir(estacao, true);
+    }
+
+    /**
+     * Obtém ou reutiliza a trava de arquivo da cidade.
+     */
+    private static TravaHistorico adquirir(EstacaoBombeiros estacao, boolean compartilhada) throws IOException {
+        if (!Thread.holdsLock(LogHistorico.obterTrava(estacao))) {
+            throw new IllegalStateException("Monitor do histórico de " + estacao.getCidade() + " não obtido");
+        }
+        String nomeBase = Arquivo.obterNomeBaseHistorico(estacao);
+        Estado estado = estados.get(nomeBase);
+        if (estado == null) {
+            estado = new Estado(FileChannel.open(Paths.get(obterNomeArquivo(estacao)),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            try {
+                estado.trava = travar(estado.canal, compartilhada);
+                if (compartilhada && LogHistorico.precisaReparo(estacao)) {
+                    // Nada foi lido ainda: trocar pela trava exclusiva não expõe estado antigo ao chamador
+                    estado.trava.release();
+                    estado.trava = travar(estado.canal, false);
+                }
+            } catch (IOException | RuntimeException e) {
+                estado.canal.close();
+                throw e;
+            }
+            estados.put(nomeBase, estado);
+        } else if (estado.trava.isShared() && !compartilhada) {
+            throw new IllegalStateException("Trava compartilhada do histórico de " + estacao.getCidade()
+                    + " não pode ser promovida; obtenha a trava exclusiva antes da leitura");
+        }
+        estado.profundidade++;
+        return new TravaHistorico(estacao, nomeBase);
+    }
+
+    /**
+     * Obtém a estação cujo histórico esta trava protege.
+     *
+     * @return estação informada na aquisição
+     */
+    public EstacaoBombeiros getEstacao() {
+        return estacao;
+    }
+
+    /**
+     * Indica se a trava de arquivo em posse deste processo é exclusiva.
+     *
+     * @return true se a trava permite alterar o histórico
+     */
+    public boolean isExclusiva() {
+        return !estados.get(nomeBase).trava.isShared();
+    }
+
+    /**
+     * Garante que a trava em posse permite alterar o histórico, antes de um reparo
+     * ou de outra gravação feita por uma operação que recebeu a trava.
+     *
+     * @throws IllegalStateException se a trava em posse for compartilhada
+     */
+    public void exigirExclusiva() {
+        if (!isExclusiva()) {
+            throw new IllegalStateException("Trava exclusiva do histórico de " + estacao.getCidade() + " não obtida");
+        }
+    }
+
+    /**
+     * Trava o arquivo, contabilizando a espera quando a trava está em posse de
+     * outro processo.
+     */
+    private static FileLock travar(FileChannel canal, boolean compartilhada) throws IOException {
+        aquisicoes.incrementAndGet();
+        FileLock trava = canal.tryLock(0, Long.MAX_VALUE, compartilhada);
+        if (trava != null) {
+            return trava;
+        }
+
+        aquisicoesDisputadas.incrementAndGet();
+        long inicio = System.nanoTime();
+        trava = canal.lock(0, Long.MAX_VALUE, compartilhada);
+        long espera = System.nanoTime() - inicio;
+        esperaTotalNanos.addAndGet(espera);
+        maiorEsperaNanos.accumulateAndGet(espera, Math::max);
+        return trava;
+    }
+
+    /**
+     * Libera esta aquisição da trava. O arquivo só é destravado na liberação da
+     * aquisição mais externa.
+     *
+     * @throws IOException se não for possível destravar ou fechar o arquivo de trava
+     */
+    @Override
+    public void close() throws IOException {
+        if (liberada) {
+            return;
+        }
+        liberada = true;
+        Estado estado = estados.get(nomeBase);
+        if (--estado.profundidade == 0) {
+            estados.remove(nomeBase);
+            try {
+                estado.trava.release();
+            } finally {
+                estado.canal.close();
+            }
+        }
+    }
+
+    /**
+     * Obtém a quantidade de travas de arquivo obtidas desde o início da execução.
+     * Aquisições aninhadas que reutilizam uma trava já obtida não são contadas.
+     *
+     * @return travas obtidas
+     */
+    public static long getAquisicoes() {
+        return aquisicoes.get();
+    }
+
+    /**
+     * Obtém a quantidade de aquisições que encontraram a trava em posse de outro processo.
+     *
+     * @return aquisições disputadas
+     */
+    public static long getAquisicoesDisputadas() {
+        return aquisicoesDisputadas.get();
+    }
+
+    /**
+     * Obtém o tempo total de espera pelas travas em posse de outros processos.
+     *
+     * @return espera total em nanossegundos
+     */
+    public static long getEsperaTotalNanos() {
+        return esperaTotalNanos.get();
+    }
+
+    /**
+     * Obtém o maior tempo de espera por uma trava em posse de outro processo.
+     *
+     * @return maior espera em nanossegundos
+     */
+    public static long getMaiorEsperaNanos() {
+        return maiorEsperaNanos.get();
+    }
+}
@@ -27,20 +27,14 @@ public class Varredura {
      * de usuários e listagem de ocorrências. Coordena o fluxo principal das
      * atividades de monitoramento aéreo.
      *
-     * @param areasFlorestais lista de áreas florestais disponíveis para varredura
-     * @param sensores lista de sensores disponíveis para equipar os drones
-     * @param drones lista de drones disponíveis na estação
+     * @param catalogo catálogo de áreas, sensores e drones do sistema
      * @param ocorrencias lista de ocorrências registradas no sistema
-     * @param proximoIdOcorrencia próximo ID disponível para novas ocorrências
      * @param estacaoAtual estação de bombeiros atualmente logada
      * @param estacoes lista completa de estações para referência
      * @param scanner objeto Scanner para captura de entrada do usuário
-     * @return ID atualizado para próxima ocorrência após operações realizadas
      */
-    public static int gerenciarDrones(ArrayList<AreaFlorestal> areasFlorestais, ArrayList<Sensor> sensores,
-                                      ArrayList<Drone> drones, ArrayList<Ocorrencia> ocorrencias,
-                                      int proximoIdOcorrencia, EstacaoBombeiros estacaoAtual,
-                                      ArrayList<EstacaoBombeiros> estacoes, Scanner scanner) {
+    public static void gerenciarDrones(CatalogoEntidades catalogo, RepositorioOcorrencias ocorrencias,
+                                       EstacaoBombeiros estacaoAtual, ArrayList<EstacaoBombeiros> estacoes, Scanner scanner) {
         boolean voltarMenu = false;
 
         while (!voltarMenu) {
@@ -61,16 +55,14 @@ public class Varredura {
                 switch (opcao) {
                     case 1:
                         System.out.println();
-                        proximoIdOcorrencia = iniciarVarredura(areasFlorestais, sensores, drones,
-                                ocorrencias, proximoIdOcorrencia,
-                                estacaoAtual, estacoes, scanner);
+                        iniciarVarredura(catalogo, ocorrencias, estacaoAtual, estacoes, scanner);
                         break;
 
                     case 2:
                         System.out.println();
-                        proximoIdOcorrencia = Casos.relatarDenunciaUsuario(
-                                areasFlorestais, drones, ocorrencias,
-                                proximoIdOcorrencia, estacaoAtual, estacoes, scanner
+                        Casos.relatarDenunciaUsuario(
+                                catalogo, ocorrencias,
+                                estacaoAtual, estacoes, scanner
                         );
                         System.out.println();
                         break;
@@ -98,8 +90,6 @@ public class Varredura {
                 System.out.println();
             }
         }
-
-        return proximoIdOcorrencia;
     }
 
     /**
@@ -107,20 +97,14 @@ public class Varredura {
      * Oferece opções para registrar novas ocorrências de incêndio ou confirmar
      * áreas seguras após varredura. Delega operações específicas para a classe Casos.
      *
-     * @param areasFlorestais lista de áreas florestais disponíveis para varredura
-     * @param sensores lista de sensores disponíveis para detecção
-     * @param drones lista de drones disponíveis para a missão
+     * @param catalogo catálogo de áreas, sensores e drones disponíveis para a missão
      * @param ocorrencias lista de ocorrências registradas no sistema
-     * @param proximoIdOcorrencia próximo ID disponível para novas ocorrências
      * @param estacaoAtual estação de bombeiros executando a varredura
      * @param estacoes lista completa de estações para referência
      * @param scanner objeto Scanner para captura de entrada do usuário
-     * @return ID atualizado para próxima ocorrência após varredura realizada
      */
-    public static int iniciarVarredura(ArrayList<AreaFlorestal> areasFlorestais, ArrayList<Sensor> sensores,
-                                       ArrayList<Drone> drones, ArrayList<Ocorrencia> ocorrencias,
-                                       int proximoIdOcorrencia, EstacaoBombeiros estacaoAtual,
-                                       ArrayList<EstacaoBombeiros> estacoes, Scanner scanner) {
+    public static void iniciarVarredura(CatalogoEntidades catalogo, RepositorioOcorrencias ocorrencias,
+                                        EstacaoBombeiros estacaoAtual, ArrayList<EstacaoBombeiros> estacoes, Scanner scanner) {
         boolean voltarVarredura = false;
 
         while (!voltarVarredura) {
@@ -140,17 +124,17 @@ public class Varredura {
                 switch (opcao) {
                     case 1:
                         System.out.println();
-                        proximoIdOcorrencia = Casos.registrarNovaOcorrencia(
-                                areasFlorestais, sensores, drones, ocorrencias,
-                                proximoIdOcorrencia, estacaoAtual, estacoes, scanner
+                        Casos.registrarNovaOcorrencia(
+                                catalogo, ocorrencias,
+                                estacaoAtual, estacoes, scanner
                         );
                         break;
 
                     case 2:
                         System.out.println();
-                        proximoIdOcorrencia = Casos.registrarAreaSegura(
-                                areasFlorestais, drones, ocorrencias,
-                                proximoIdOcorrencia, estacaoAtual, estacoes, scanner
+                        Casos.registrarAreaSegura(
+                                catalogo, ocorrencias,
+                                estacaoAtual, estacoes, scanner
                         );
                         break;
 
@@ -172,7 +156,5 @@ public class Varredura {
                 System.out.println();
             }
         }
-
-        return proximoIdOcorrencia;
     }
 }
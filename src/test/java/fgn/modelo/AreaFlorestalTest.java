@@ -29,6 +29,19 @@ public class AreaFlorestalTest {
         assertEquals(1001, area.getIdEstacaoResponsavel());
     }
 
+    @Test
+    @DisplayName("Deve calcular distância até um ponto a partir das coordenadas")
+    void testCoordenadas() {
+        assertFalse(area.possuiCoordenadas());
+
+        AreaFlorestal georreferenciada = new AreaFlorestal(2, "Serra das Cabras", "Campinas", 35, 1001,
+                -22.85, -46.86, 6);
+        assertTrue(georreferenciada.possuiCoordenadas());
+        assertEquals(0.0, georreferenciada.distanciaAteKm(-22.85, -46.86), 1e-9);
+        // Um décimo de grau de latitude corresponde a cerca de 11,1 km
+        assertEquals(11.1, georreferenciada.distanciaAteKm(-22.75, -46.86), 0.1);
+    }
+
     @Test
     @DisplayName("Deve alterar ID da área")
     void testSetIdArea() {
@@ -0,0 +1,83 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe Arquivo
+ */
+public class ArquivoTest {
+
+    private EstacaoBombeiros estacao;
+    private EstacaoBombeiros vizinha;
+    private ArrayList<EstacaoBombeiros> estacoes;
+    private AreaFlorestal area;
+    private AreaFlorestal areaVizinha;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Sensor> sensores;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9931, "Estação de Teste", "Rua A, 123",
+                "Teste Arquivo", "SP", "Capitão Silva", 10001);
+        vizinha = new EstacaoBombeiros(9932, "Estação Vizinha", "Rua B, 456",
+                "Teste Arquivo", "SP", "Capitã Souza", 10002);
+        estacoes = new ArrayList<>();
+        estacoes.add(estacao);
+        estacoes.add(vizinha);
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9931);
+        areaVizinha = new AreaFlorestal(2, "Reserva Municipal", "Zona Sul", 12, 9932);
+        areas = new ArrayList<>();
+        areas.add(area);
+        areas.add(areaVizinha);
+        sensores = new ArrayList<>();
+        drones = new ArrayList<>();
+        drones.add(new Drone(101, "DJI Phantom", 9931));
+        catalogo = new CatalogoEntidades(areas, sensores, drones);
+        apagarArquivos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + "*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve gravar o instantâneo com as ocorrências de todas as estações da cidade")
+    void testSnapshotCidadeCompartilhada() throws IOException {
+        LogHistorico.anexarRegistro(new Ocorrencia(1, area, 10, null, drones.get(0), 5), estacao);
+        LogHistorico.anexarRegistro(new Ocorrencia(2, areaVizinha, 20, null, drones.get(0), 5), vizinha);
+        LogHistorico.anexarRegistro(new Ocorrencia(3, area, 30, null, drones.get(0), 5), estacao);
+
+        RepositorioOcorrencias ocorrencias = new RepositorioOcorrencias();
+        Arquivo.carregarHistoricoDaCidade(estacao, ocorrencias, estacoes, catalogo);
+        assertEquals(3, ocorrencias.size());
+
+        Arquivo.gravarSnapshotSeAlterado(ocorrencias, estacao);
+
+        RepositorioOcorrencias recarregadas = new RepositorioOcorrencias();
+        LogHistorico.carregar(estacao, recarregadas, catalogo);
+        assertEquals(3, recarregadas.size());
+        assertEquals(1, recarregadas.daEstacao(9932).size());
+        assertEquals(3, SnapshotHistorico.ler(estacao).getQuantidadeOcorrencias());
+    }
+}
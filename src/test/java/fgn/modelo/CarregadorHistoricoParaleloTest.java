@@ -0,0 +1,133 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe CarregadorHistoricoParalelo
+ */
+public class CarregadorHistoricoParaleloTest {
+
+    @TempDir
+    Path diretorio;
+
+    private AreaFlorestal area;
+    private Drone drone;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Sensor> sensores;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+
+    @BeforeEach
+    void setUp() {
+        area = new AreaFlorestal(1, "Serra D'Água", "Zona Norte", 25, 1001);
+        drone = new Drone(101, "FGN-Hawk Alpha", 1001);
+        areas = new ArrayList<>();
+        areas.add(area);
+        sensores = new ArrayList<>();
+        drones = new ArrayList<>();
+        drones.add(drone);
+        catalogo = new CatalogoEntidades(areas, sensores, drones);
+    }
+
+    @Test
+    @DisplayName("Deve carregar histórico binário em vários blocos mantendo a última versão de cada ID")
+    void testBinarioEmBlocos() throws IOException {
+        ArrayList<Ocorrencia> gravadas = new ArrayList<>();
+        for (int id = 10; id >= 1; id--) {
+            gravadas.add(new Ocorrencia(id, area, id * 10, null, drone, 0));
+        }
+        Ocorrencia concluida = new Ocorrencia(4, area, 40, null, drone, 0);
+        concluida.marcarComoSegura();
+        gravadas.add(concluida);
+
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO
+                + gravadas.size() * RegistroBinario.TAMANHO_REGISTRO);
+        RegistroBinario.escreverCabecalho(buffer);
+        for (Ocorrencia ocorrencia : gravadas) {
+            RegistroBinario.escrever(ocorrencia, buffer);
+        }
+        Path arquivo = diretorio.resolve("historico.dat");
+        Files.write(arquivo, buffer.array());
+
+        CarregadorHistoricoParalelo.Resultado resultado = CarregadorHistoricoParalelo.carregarBinario(
+                arquivo, catalogo, 2 * RegistroBinario.TAMANHO_REGISTRO);
+
+        assertEquals(11, resultado.getRegistrosLidos());
+        assertEquals(10, resultado.getOcorrencias().size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1, resultado.getOcorrencias().get(i).getIdOcorrencia());
+        }
+        assertEquals("Concluído", resultado.getOcorrencias().get(3).getStatusOcorrencia());
+        assertFalse(resultado.isRegistroIncompleto());
+    }
+
+    @Test
+    @DisplayName("Deve retornar null para cabeçalho binário incompatível")
+    void testBinarioCabecalhoInvalido() throws IOException {
+        Path arquivo = diretorio.resolve("invalido.dat");
+        Files.write(arquivo, new byte[RegistroBinario.TAMANHO_CABECALHO + RegistroBinario.TAMANHO_REGISTRO]);
+
+        assertNull(CarregadorHistoricoParalelo.carregarBinario(arquivo, catalogo));
+    }
+
+    @Test
+    @DisplayName("Deve dividir relatório texto nos cabeçalhos sem perder registros")
+    void testTextoEmBlocos() throws IOException {
+        StringBuilder texto = new StringBuilder("📋 HISTÓRICO DE OCORRÊNCIAS - CAMPINAS\n\n");
+        for (int id = 1; id <= 30; id++) {
+            texto.append("🚨 #").append(id).append(" - INCÊNDIO\n")
+                    .append("    📍 Serra D'Água\n")
+                    .append("    ⚠️  Investigação | 📊 Ativo | ⏰ 02/06/2025 18:59\n")
+                    .append("    🔥 ").append(id).append(" hectares afetados\n")
+                    .append("    🚁 FGN-Hawk Alpha (#101)\n")
+                    .append("    👤 Denúncia: Drone\n\n");
+        }
+        Path arquivo = diretorio.resolve("historico.txt");
+        Files.write(arquivo, texto.toString().getBytes(StandardCharsets.UTF_8));
+
+        CarregadorHistoricoParalelo.Resultado resultado =
+                CarregadorHistoricoParalelo.carregarTexto(arquivo, catalogo, 150);
+
+        assertEquals(30, resultado.getOcorrencias().size());
+        for (int i = 0; i < 30; i++) {
+            assertEquals(i + 1, resultado.getOcorrencias().get(i).getIdOcorrencia());
+            assertEquals(i + 1, resultado.getOcorrencias().get(i).getHectaresAfetados());
+        }
+        assertEquals(0, resultado.getRegistrosDescartados());
+    }
+
+    @Test
+    @DisplayName("Deve substituir IDs existentes e acrescentar IDs novos ao mesclar")
+    void testMesclarPorId() {
+        ArrayList<Ocorrencia> ocorrencias = new ArrayList<>();
+        ocorrencias.add(new Ocorrencia(2, area, 10, null, drone, 0));
+        // Mesmo ID em outra cidade não é substituído
+        AreaFlorestal outraCidade = new AreaFlorestal(99, "Mata Vizinha", "Outra cidade", 10,
+                area.getIdEstacaoResponsavel() + 1);
+        Ocorrencia vizinha = new Ocorrencia(1, outraCidade, 30, null, drone, 0);
+        ocorrencias.add(vizinha);
+
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        carregadas.add(new Ocorrencia(1, area, 20, null, drone, 0));
+        Ocorrencia atualizada = new Ocorrencia(2, area, 90, null, drone, 0);
+        carregadas.add(atualizada);
+
+        int novas = CarregadorHistoricoParalelo.mesclarPorId(ocorrencias, carregadas);
+
+        assertEquals(1, novas);
+        assertSame(atualizada, ocorrencias.get(0));
+        assertSame(vizinha, ocorrencias.get(1));
+        assertEquals(1, ocorrencias.get(2).getIdOcorrencia());
+        assertEquals(20, ocorrencias.get(2).getHectaresAfetados());
+    }
+}
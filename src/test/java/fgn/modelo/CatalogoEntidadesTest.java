@@ -0,0 +1,86 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe CatalogoEntidades
+ */
+public class CatalogoEntidadesTest {
+
+    private AreaFlorestal area;
+    private Sensor sensor;
+    private Drone primeiroDrone;
+    private Drone segundoDrone;
+    private CatalogoEntidades catalogo;
+
+    @BeforeEach
+    void setUp() {
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 1001);
+        sensor = new Sensor(201, "ThermoDetect", "Térmico");
+        primeiroDrone = new Drone(101, "DJI Phantom", 1001);
+        segundoDrone = new Drone(102, "FGN-Hawk", 1001);
+
+        ArrayList<AreaFlorestal> areas = new ArrayList<>();
+        areas.add(area);
+        ArrayList<Sensor> sensores = new ArrayList<>();
+        sensores.add(sensor);
+        ArrayList<Drone> drones = new ArrayList<>();
+        drones.add(primeiroDrone);
+        drones.add(segundoDrone);
+        catalogo = new CatalogoEntidades(areas, sensores, drones);
+    }
+
+    @Test
+    @DisplayName("Deve buscar entidades por ID e o primeiro drone da estação")
+    void testBuscas() {
+        assertSame(area, catalogo.buscarArea(1));
+        assertSame(sensor, catalogo.buscarSensor(201));
+        assertSame(segundoDrone, catalogo.buscarDrone(102));
+        assertSame(primeiroDrone, catalogo.obterDroneDaEstacao(1001));
+        assertNull(catalogo.buscarArea(99));
+        assertNull(catalogo.obterDroneDaEstacao(1002));
+    }
+
+    @Test
+    @DisplayName("Deve compartilhar o denunciante com os mesmos dados")
+    void testInternarUsuario() {
+        Usuario usuario = catalogo.internarUsuario("João Silva", 98765432100L, "15/03/1990");
+
+        assertSame(usuario, catalogo.internarUsuario("João Silva", 98765432100L, "15/03/1990"));
+        assertNotSame(usuario, catalogo.internarUsuario("João Silva", 98765432199L, "15/03/1990"));
+
+        Usuario corrigido = catalogo.internarUsuario("João da Silva", 98765432100L, "15/03/1990");
+        assertNotSame(usuario, corrigido);
+        assertEquals("João da Silva", corrigido.getNome());
+    }
+
+    @Test
+    @DisplayName("Deve manter os denunciantes de cada catálogo separados")
+    void testCatalogosIndependentes() {
+        CatalogoEntidades outro = new CatalogoEntidades(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        Usuario usuario = catalogo.internarUsuario("Ana Costa", 55566677788L, "20/07/1992");
+
+        assertNotSame(usuario, outro.internarUsuario("Ana Costa", 55566677788L, "20/07/1992"));
+        assertSame(usuario, catalogo.internarUsuario("Ana Costa", 55566677788L, "20/07/1992"));
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o denunciante ao ler registros binários")
+    void testLeituraCompartilhaDenunciante() {
+        Usuario denunciante = new Usuario("Maria Souza", 11122233344L, "01/02/1985");
+        ByteBuffer buffer = ByteBuffer.allocate(2 * RegistroBinario.TAMANHO_REGISTRO);
+        RegistroBinario.escrever(new Ocorrencia(1, area, 10, primeiroDrone, denunciante, 5), buffer);
+        RegistroBinario.escrever(new Ocorrencia(2, area, 60, primeiroDrone, denunciante, 5), buffer);
+
+        Ocorrencia primeira = RegistroBinario.ler(buffer, 0, catalogo);
+        Ocorrencia segunda = RegistroBinario.ler(buffer, RegistroBinario.TAMANHO_REGISTRO, catalogo);
+
+        assertSame(primeira.getUsuarioDenunciante(), segunda.getUsuarioDenunciante());
+        assertEquals(11122233344L, segunda.getUsuarioDenunciante().getCpf());
+    }
+}
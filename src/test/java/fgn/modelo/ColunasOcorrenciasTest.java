@@ -0,0 +1,91 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe ColunasOcorrencias
+ */
+public class ColunasOcorrenciasTest {
+
+    private AreaFlorestal areaNorte;
+    private AreaFlorestal areaSul;
+    private Drone drone;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        areaNorte = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9913);
+        areaSul = new AreaFlorestal(2, "Reserva Municipal", "Zona Sul", 12, 9913);
+        drone = new Drone(101, "DJI Phantom", 9913);
+        usuario = new Usuario("João Silva", 12345678901L, "15/03/1990");
+    }
+
+    @Test
+    @DisplayName("Deve resumir status, riscos, hectares, origens e área mais afetada")
+    void testResumir() {
+        ColunasOcorrencias colunas = new ColunasOcorrencias(2);
+        colunas.adicionar(new Ocorrencia(1, areaNorte, 10, null, drone, 5));
+        colunas.adicionar(new Ocorrencia(2, areaSul, 70, drone, usuario, 5));
+        colunas.adicionar(new Ocorrencia(3, areaSul, 150, null, drone, 5));
+        Ocorrencia segura = new Ocorrencia(4, areaSul, 30, null, drone, 5);
+        segura.marcarComoSegura();
+        colunas.adicionar(segura);
+
+        ColunasOcorrencias.Resumo resumo = colunas.resumir();
+        assertEquals(4, resumo.getTotal());
+        assertEquals(3, resumo.getAtivos());
+        assertEquals(1, resumo.getConcluidos());
+        assertEquals(1, resumo.getPorRisco(NivelRisco.SEGURO));
+        assertEquals(1, resumo.getPorRisco(NivelRisco.INVESTIGACAO));
+        assertEquals(1, resumo.getPorRisco(NivelRisco.ALERTA_ATIVO));
+        assertEquals(1, resumo.getPorRisco(NivelRisco.EMERGENCIA));
+        assertEquals(230, resumo.getTotalHectares());
+        assertEquals(1, resumo.getDenuncias());
+        assertEquals(3, resumo.getDeteccoesAutomaticas());
+        assertEquals(2, resumo.getIdAreaMaisAfetada());
+        assertEquals(3, resumo.getOcorrenciasAreaMaisAfetada());
+    }
+
+    @Test
+    @DisplayName("Deve substituir a linha de mesmo ID e reaproveitar linhas removidas")
+    void testSubstituicaoERemocao() {
+        ColunasOcorrencias colunas = new ColunasOcorrencias();
+        Ocorrencia ocorrencia = new Ocorrencia(7, areaNorte, 150, null, drone, 5);
+        colunas.adicionar(ocorrencia);
+        ocorrencia.setStatusOcorrencia("Concluído");
+        colunas.adicionar(ocorrencia);
+
+        assertEquals(1, colunas.getQuantidade());
+        assertEquals(1, colunas.resumir().getConcluidos());
+
+        colunas.remover(7);
+        assertFalse(colunas.contem(7));
+        assertEquals(0, colunas.getQuantidade());
+        assertEquals(0, colunas.resumir().getTotal());
+
+        colunas.adicionar(ocorrencia);
+        assertTrue(colunas.contem(7));
+        assertEquals(1, colunas.resumir().getTotal());
+    }
+
+    @Test
+    @DisplayName("Deve contar as ocorrências detectadas no período")
+    void testContarPorPeriodo() {
+        LocalDateTime base = LocalDateTime.of(2024, 6, 1, 12, 0);
+        ColunasOcorrencias colunas = new ColunasOcorrencias();
+        for (int i = 0; i < 5; i++) {
+            colunas.adicionar(new Ocorrencia(i + 1, areaNorte, 10, "Investigação", "Ativo", null, drone,
+                    null, 5, base.plusHours(i)));
+        }
+        colunas.remover(3);
+
+        long inicio = base.plusHours(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long fim = base.plusHours(4).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertEquals(2, colunas.contarPorPeriodo(inicio, fim));
+    }
+}
@@ -0,0 +1,167 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe CompactadorHistorico
+ */
+public class CompactadorHistoricoTest {
+
+    private EstacaoBombeiros estacao;
+    private AreaFlorestal area;
+    private Drone drone;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Sensor> sensores;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9903, "Estação de Teste", "Rua A, 123",
+                "Teste Segmentos", "SP", "Capitão Silva", 10001);
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9903);
+        drone = new Drone(101, "DJI Phantom", 9903);
+        areas = new ArrayList<>();
+        areas.add(area);
+        sensores = new ArrayList<>();
+        drones = new ArrayList<>();
+        drones.add(drone);
+        catalogo = new CatalogoEntidades(areas, sensores, drones);
+        apagarArquivos();
+        LogHistorico.configurarSegmentos(4, 3);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        LogHistorico.configurarSegmentos(LogHistorico.PADRAO_REGISTROS_POR_SEGMENTO,
+                LogHistorico.PADRAO_SEGMENTOS_PARA_COMPACTACAO);
+        LogHistorico.configurarRelogio(Clock.systemDefaultZone());
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private ArrayList<Ocorrencia> anexarIncendios(int primeiroId, int ultimoId) throws IOException {
+        ArrayList<Ocorrencia> anexadas = new ArrayList<>();
+        for (int id = primeiroId; id <= ultimoId; id++) {
+            Ocorrencia ocorrencia = new Ocorrencia(id, area, id * 10, null, drone, 5);
+            LogHistorico.anexarRegistro(ocorrencia, estacao);
+            anexadas.add(ocorrencia);
+        }
+        return anexadas;
+    }
+
+    private void concluir(ArrayList<Ocorrencia> ocorrencias) throws IOException {
+        for (Ocorrencia ocorrencia : ocorrencias) {
+            ocorrencia.marcarComoSegura();
+            LogHistorico.anexarRegistro(ocorrencia, estacao);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve selar o segmento aberto ao atingir o limite de registros")
+    void testSelagem() throws IOException {
+        anexarIncendios(1, 5);
+
+        ManifestoHistorico manifesto = ManifestoHistorico.ler(estacao);
+        assertEquals(1, manifesto.getSegmentos().size());
+        assertEquals(4, manifesto.getSegmentos().get(0).getRegistros());
+        assertEquals(4, manifesto.getSegmentos().get(0).getAtivos());
+        assertTrue(Files.exists(Path.of(ManifestoHistorico.obterNomeSegmento(estacao, 1))));
+        assertEquals(RegistroBinario.TAMANHO_CABECALHO + RegistroBinario.TAMANHO_REGISTRO,
+                Files.size(Path.of(LogHistorico.obterNomeArquivo(estacao))));
+
+        assertEquals(20, LogHistorico.buscarPorId(estacao, 2, catalogo).getHectaresAfetados());
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        assertEquals(5, LogHistorico.carregar(estacao, carregadas, catalogo));
+    }
+
+    @Test
+    @DisplayName("Deve mesclar segmentos selados descartando versões superadas")
+    void testCompactacao() throws IOException {
+        concluir(anexarIncendios(1, 4));
+        ArrayList<Ocorrencia> recentes = anexarIncendios(5, 7);
+        ArrayList<Ocorrencia> concluida = new ArrayList<>();
+        concluida.add(recentes.get(0));
+        concluir(concluida);
+
+        assertEquals(3, ManifestoHistorico.ler(estacao).getSegmentos().size());
+        assertTrue(CompactadorHistorico.compactarSeNecessario(estacao));
+
+        ManifestoHistorico manifesto = ManifestoHistorico.ler(estacao);
+        assertEquals(1, manifesto.getSegmentos().size());
+        assertEquals(7, manifesto.getSegmentos().get(0).getRegistros());
+        assertEquals(2, manifesto.getSegmentos().get(0).getAtivos());
+        for (int numero = 1; numero <= 3; numero++) {
+            assertFalse(Files.exists(Path.of(ManifestoHistorico.obterNomeSegmento(estacao, numero))));
+        }
+
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        assertEquals(7, LogHistorico.carregar(estacao, carregadas, catalogo));
+        assertEquals("Concluído", carregadas.get(0).getStatusOcorrencia());
+        assertEquals("Concluído", carregadas.get(4).getStatusOcorrencia());
+        assertEquals("Ativo", carregadas.get(5).getStatusOcorrencia());
+        assertEquals("Concluído", LogHistorico.buscarPorId(estacao, 3, catalogo).getStatusOcorrencia());
+        assertFalse(CompactadorHistorico.compactarSeNecessario(estacao));
+    }
+
+    @Test
+    @DisplayName("Deve carregar apenas incêndios ativos ignorando segmentos sem ativos")
+    void testCarregarAtivas() throws IOException {
+        concluir(anexarIncendios(1, 4));
+        anexarIncendios(5, 6);
+
+        ManifestoHistorico manifesto = ManifestoHistorico.ler(estacao);
+        assertEquals(0, manifesto.getSegmentos().get(1).getAtivos());
+
+        ArrayList<Ocorrencia> ativas = new ArrayList<>();
+        assertEquals(2, LogHistorico.carregarAtivas(estacao, ativas, catalogo));
+        assertEquals(5, ativas.get(0).getIdOcorrencia());
+        assertEquals(6, ativas.get(1).getIdOcorrencia());
+    }
+
+    @Test
+    @DisplayName("Deve selar partições diárias e consultar apenas as partições do período")
+    void testParticoesDiarias() throws IOException {
+        LocalDateTime inicio = LocalDateTime.of(2025, 6, 1, 10, 0);
+        for (int dia = 0; dia < 4; dia++) {
+            LocalDateTime deteccao = inicio.plusDays(dia);
+            LogHistorico.configurarRelogio(Clock.fixed(deteccao.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+            Ocorrencia ocorrencia = new Ocorrencia(dia + 1, area, 10, "Alerta Ativo", "Ativo", null, drone, null, 5, deteccao);
+            LogHistorico.anexarRegistro(ocorrencia, estacao);
+        }
+
+        ManifestoHistorico manifesto = ManifestoHistorico.ler(estacao);
+        assertEquals(3, manifesto.getSegmentos().size());
+        assertNotEquals(manifesto.getSegmentos().get(0).getDia(), manifesto.getSegmentos().get(1).getDia());
+
+        // A partição do primeiro dia está fora do período e não é lida
+        Files.delete(Path.of(ManifestoHistorico.obterNomeSegmento(estacao, 1)));
+        ArrayList<Ocorrencia> encontradas = LogHistorico.carregarPorPeriodo(estacao, inicio.plusDays(2),
+                inicio.plusDays(4), catalogo);
+        assertEquals(2, encontradas.size());
+        assertEquals(3, encontradas.get(0).getIdOcorrencia());
+        assertEquals(inicio.plusDays(3), encontradas.get(1).getDataHoraDeteccao());
+
+        assertFalse(CompactadorHistorico.compactarSeNecessario(estacao));
+    }
+}
@@ -0,0 +1,80 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe ContadorIdsHistorico
+ */
+public class ContadorIdsHistoricoTest {
+
+    private EstacaoBombeiros estacao;
+    private AreaFlorestal area;
+    private Drone drone;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9913, "Estação de Teste", "Rua A, 123",
+                "Teste Contador", "SP", "Capitão Silva", 10001);
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9913);
+        drone = new Drone(101, "DJI Phantom", 9913);
+        apagarArquivos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reservar blocos consecutivos a partir do ID 1")
+    void testReservarBlocos() throws IOException {
+        assertEquals(0, ContadorIdsHistorico.obterUltimoReservado(estacao));
+        assertEquals(1, ContadorIdsHistorico.reservar(estacao, 1));
+        assertEquals(2, ContadorIdsHistorico.reservar(estacao, 5));
+        assertEquals(7, ContadorIdsHistorico.reservar(estacao, 1));
+        assertEquals(7, ContadorIdsHistorico.obterUltimoReservado(estacao));
+        assertThrows(IllegalArgumentException.class, () -> ContadorIdsHistorico.reservar(estacao, 0));
+    }
+
+    @Test
+    @DisplayName("Deve continuar após o maior ID do histórico e da limpeza quando o contador não existe")
+    void testContinuarHistoricoExistente() throws IOException {
+        for (int id = 1; id <= 4; id++) {
+            LogHistorico.anexarRegistro(new Ocorrencia(id, area, 10, null, drone, 5), estacao);
+        }
+        assertEquals(5, ContadorIdsHistorico.reservar(estacao, 1));
+
+        Files.delete(Path.of(ContadorIdsHistorico.obterNomeArquivo(estacao)));
+        ArrayList<AreaFlorestal> areas = new ArrayList<>();
+        areas.add(area);
+        LimpezaHistorico.limpar(estacao, areas, 20);
+        assertEquals(21, ContadorIdsHistorico.reservar(estacao, 1));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar contador corrompido sem reutilizar IDs do histórico")
+    void testContadorCorrompido() throws IOException {
+        LogHistorico.anexarRegistro(new Ocorrencia(8, area, 10, null, drone, 5), estacao);
+        Files.write(Path.of(ContadorIdsHistorico.obterNomeArquivo(estacao)), new byte[]{1, 2, 3});
+
+        assertEquals(9, ContadorIdsHistorico.reservar(estacao, 1));
+    }
+}
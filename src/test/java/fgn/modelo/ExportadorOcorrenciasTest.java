@@ -0,0 +1,114 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe ExportadorOcorrencias
+ */
+public class ExportadorOcorrenciasTest {
+
+    private EstacaoBombeiros estacao;
+    private AreaFlorestal area;
+    private Sensor sensor;
+    private Drone drone;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Sensor> sensores;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+    private Path csv;
+    private Path jsonLinhas;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9907, "Estação de Teste", "Rua A, 123",
+                "Teste Exportacao", "SP", "Capitão Silva", 10001);
+        area = new AreaFlorestal(1, "Parque \"Serra\", Norte", "Zona Norte", 25, 9907);
+        sensor = new Sensor(201, "ThermoDetect", "Térmico");
+        drone = new Drone(101, "DJI Phantom", 9907);
+        areas = new ArrayList<>();
+        areas.add(area);
+        sensores = new ArrayList<>();
+        sensores.add(sensor);
+        drones = new ArrayList<>();
+        drones.add(drone);
+        catalogo = new CatalogoEntidades(areas, sensores, drones);
+        csv = Path.of(Arquivo.obterNomeBaseHistorico(estacao) + ".csv");
+        jsonLinhas = Path.of(Arquivo.obterNomeBaseHistorico(estacao) + ".jsonl");
+        apagarArquivos();
+        LogHistorico.configurarSegmentos(2, 10);
+
+        LocalDateTime deteccao = LocalDateTime.of(2025, 6, 2, 18, 59, 30);
+        Usuario denunciante = new Usuario("Maria Souza", 1234567890L, "15/03/1990");
+        Ocorrencia primeira = new Ocorrencia(1, area, 50, "Alerta Ativo", "Ativo", sensor, drone, null, 10, deteccao);
+        LogHistorico.anexarRegistro(primeira, estacao);
+        LogHistorico.anexarRegistro(new Ocorrencia(2, area, 0, "Seguro", "Concluído", null, drone, denunciante, 0, deteccao), estacao);
+        LogHistorico.anexarRegistro(new Ocorrencia(3, area, 120, "Emergência", "Ativo", sensor, drone, null, 7, deteccao), estacao);
+        primeira.marcarComoSegura();
+        LogHistorico.anexarRegistro(primeira, estacao);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        LogHistorico.configurarSegmentos(LogHistorico.PADRAO_REGISTROS_POR_SEGMENTO,
+                LogHistorico.PADRAO_SEGMENTOS_PARA_COMPACTACAO);
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve exportar a versão mais recente de cada ocorrência em CSV")
+    void testExportarCsv() throws IOException {
+        try (ExportadorOcorrencias exportador = ExportadorOcorrencias.abrirCsv(csv)) {
+            assertEquals(3, ExportadorOcorrencias.exportarHistorico(estacao, exportador, catalogo));
+        }
+
+        List<String> linhas = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals(4, linhas.size());
+        assertEquals(ExportadorOcorrencias.CABECALHO_CSV, linhas.get(0));
+        assertEquals("2,9907,Teste Exportacao,1,\"Parque \"\"Serra\"\", Norte\",Zona Norte,0,Seguro,Concluído,"
+                + "2025-06-02T18:59:30,0,,,,101,DJI Phantom,Maria Souza,01234567890,15/03/1990", linhas.get(1));
+        assertTrue(linhas.get(2).startsWith("3,"));
+        assertTrue(linhas.get(3).startsWith("1,"));
+        assertTrue(linhas.get(3).contains(",Seguro,Concluído,"));
+        assertTrue(linhas.get(3).contains(",201,ThermoDetect,Térmico,101,DJI Phantom,,,"));
+    }
+
+    @Test
+    @DisplayName("Deve exportar um objeto JSON por linha com campos ausentes nulos")
+    void testExportarJsonLinhas() throws IOException {
+        try (ExportadorOcorrencias exportador = ExportadorOcorrencias.abrirJsonLinhas(jsonLinhas)) {
+            ExportadorOcorrencias.exportarHistorico(estacao, exportador, catalogo);
+            assertEquals(3, exportador.getLinhas());
+        }
+
+        List<String> linhas = Files.readAllLines(jsonLinhas, StandardCharsets.UTF_8);
+        assertEquals(3, linhas.size());
+        assertEquals("{\"id_ocorrencia\":3,\"id_estacao\":9907,\"cidade\":\"Teste Exportacao\",\"id_area\":1,"
+                + "\"area\":\"Parque \\\"Serra\\\", Norte\",\"localizacao\":\"Zona Norte\",\"hectares_afetados\":120,"
+                + "\"nivel_risco\":\"Emergência\",\"status\":\"Ativo\",\"data_hora_deteccao\":\"2025-06-02T18:59:30\","
+                + "\"tempo_chegada_minutos\":7,\"id_sensor\":201,\"sensor\":\"ThermoDetect\",\"tipo_sensor\":\"Térmico\","
+                + "\"id_drone\":101,\"drone\":\"DJI Phantom\",\"denunciante\":null,\"cpf_denunciante\":null,"
+                + "\"nascimento_denunciante\":null}", linhas.get(1));
+        assertTrue(linhas.get(0).contains("\"cpf_denunciante\":\"01234567890\""));
+    }
+}
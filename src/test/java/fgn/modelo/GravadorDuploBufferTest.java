@@ -0,0 +1,68 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe GravadorDuploBuffer
+ */
+public class GravadorDuploBufferTest {
+
+    private Path destino;
+    private Path temporario;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        destino = Path.of("historico_teste_gravador.txt");
+        temporario = Path.of("historico_teste_gravador.txt.tmp");
+        Files.deleteIfExists(destino);
+        Files.deleteIfExists(temporario);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(destino);
+        Files.deleteIfExists(temporario);
+    }
+
+    @Test
+    @DisplayName("Deve gravar conteúdo maior que os buffers alternados e publicar o arquivo")
+    void testPublicar() throws IOException {
+        StringBuilder esperado = new StringBuilder();
+        try (GravadorDuploBuffer gravador = new GravadorDuploBuffer(destino, 64)) {
+            for (int i = 1; i <= 500; i++) {
+                String linha = "🚨 #" + i + " - INCÊNDIO em área de preservação";
+                gravador.escreverLinha(linha);
+                esperado.append(linha).append(System.lineSeparator());
+            }
+            assertFalse(Files.exists(destino));
+            gravador.publicar();
+        }
+
+        assertEquals(esperado.toString(), Files.readString(destino, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(temporario));
+    }
+
+    @Test
+    @DisplayName("Deve manter o arquivo anterior quando a gravação não é concluída")
+    void testGravacaoInterrompida() throws IOException {
+        Files.writeString(destino, "histórico anterior", StandardCharsets.UTF_8);
+
+        try (GravadorDuploBuffer gravador = new GravadorDuploBuffer(destino, 64)) {
+            for (int i = 0; i < 100; i++) {
+                gravador.escreverLinha("registro incompleto " + i);
+            }
+            // Falha antes de publicar
+        }
+
+        assertEquals("histórico anterior", Files.readString(destino, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(temporario));
+    }
+}
@@ -0,0 +1,91 @@
+package fgn.modelo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Medição do tempo de importação de um CSV de focos de calor no formato do INPE
+ * pelo ImportadorFocosCalor, com focos espalhados pelo estado e parte deles
+ * dentro das áreas monitoradas.
+ * Não é executada pelo Maven; rodar manualmente com:
+ * java -cp target/classes:target/test-classes fgn.modelo.ImportadorFocosCalorBenchmark [linhas]
+ */
+public class ImportadorFocosCalorBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        EstacaoBombeiros estacao = new EstacaoBombeiros(1001, "1º Batalhão de Bombeiros", "Rua A, 123",
+                "Benchmark Importacao", "SP", "Capitão Silva", 10001);
+        ArrayList<EstacaoBombeiros> estacoes = new ArrayList<>();
+        estacoes.add(estacao);
+        ArrayList<AreaFlorestal> areas = new ArrayList<>();
+        Random aleatorio = new Random(42);
+        for (int i = 1; i <= 40; i++) {
+            areas.add(new AreaFlorestal(i, "Reserva Florestal " + i, "Zona " + i, 10 + i, 1001,
+                    -24 + aleatorio.nextDouble() * 4, -50 + aleatorio.nextDouble() * 6, 2 + aleatorio.nextDouble() * 6));
+        }
+        ArrayList<Drone> drones = new ArrayList<>();
+        drones.add(new Drone(101, "FGN-Hawk Alpha", 1001));
+
+        Path csv = Files.createTempFile("fgn-focos", ".csv");
+        try {
+            long inicioGeracao = System.nanoTime();
+            try (BufferedWriter escritor = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                escritor.write("id,lat,lon,data_hora_gmt,satelite,municipio,estado,pais,frp\n");
+                for (int i = 1; i <= quantidade; i++) {
+                    double latitude;
+                    double longitude;
+                    if (i % 10 == 0) {
+                        // Um em cada dez focos próximo ao centro de uma área monitorada
+                        AreaFlorestal area = areas.get(aleatorio.nextInt(areas.size()));
+                        latitude = area.getLatitude() + (aleatorio.nextDouble() - 0.5) * 0.05;
+                        longitude = area.getLongitude() + (aleatorio.nextDouble() - 0.5) * 0.05;
+                    } else {
+                        latitude = -33 + aleatorio.nextDouble() * 38;
+                        longitude = -73 + aleatorio.nextDouble() * 39;
+                    }
+                    int minuto = aleatorio.nextInt(90 * 24 * 60);
+                    escritor.write(String.format(java.util.Locale.ROOT,
+                            "%d,%.5f,%.5f,2025-%02d-%02d %02d:%02d:00,NOAA-20,MUNICIPIO,SP,Brasil,%.1f%n",
+                            i, latitude, longitude, 6 + minuto / (30 * 24 * 60), 1 + minuto / (24 * 60) % 30,
+                            minuto / 60 % 24, minuto % 60, aleatorio.nextDouble() * 120));
+                }
+            }
+            System.out.printf("CSV com %d linhas gerado (%.1f MB) em %.1f s%n", quantidade,
+                    Files.size(csv) / 1048576.0, (System.nanoTime() - inicioGeracao) / 1e9);
+
+            for (int rodada = 1; rodada <= 3; rodada++) {
+                apagarHistorico(estacao);
+                ArrayList<Ocorrencia> ocorrencias = new ArrayList<>();
+                long inicio = System.nanoTime();
+                ImportadorFocosCalor.Resultado resultado = ImportadorFocosCalor.importar(csv, areas, estacoes,
+                        drones, ocorrencias);
+                double segundos = (System.nanoTime() - inicio) / 1e9;
+                System.out.printf("Rodada %d: %d linhas em %.2f s (%.0f linhas/s) | %d fora das áreas | "
+                                + "%d agrupados | %d ocorrências criadas%n",
+                        rodada, resultado.getLinhasLidas(), segundos, resultado.getLinhasLidas() / segundos,
+                        resultado.getFocosForaDasAreas(), resultado.getFocosAgrupados(),
+                        resultado.getOcorrenciasCriadas().size());
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+            apagarHistorico(estacao);
+        }
+    }
+
+    private static void apagarHistorico(EstacaoBombeiros estacao) throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+}
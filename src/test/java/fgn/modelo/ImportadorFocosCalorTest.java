@@ -0,0 +1,163 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe ImportadorFocosCalor
+ */
+public class ImportadorFocosCalorTest {
+
+    @TempDir
+    Path diretorio;
+
+    private EstacaoBombeiros estacao;
+    private ArrayList<EstacaoBombeiros> estacoes;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Drone> drones;
+    private ArrayList<Ocorrencia> ocorrencias;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9908, "Estação de Teste", "Rua A, 123",
+                "Teste Importacao", "SP", "Capitão Silva", 10001);
+        estacoes = new ArrayList<>();
+        estacoes.add(estacao);
+        areas = new ArrayList<>();
+        areas.add(new AreaFlorestal(1, "Serra das Cabras", "Campinas", 35, 9908, -22.85, -46.86, 6));
+        areas.add(new AreaFlorestal(2, "Parque Ecológico", "Limeira", 8, 9908, -22.60, -47.40, 3));
+        areas.add(new AreaFlorestal(3, "Área sem coordenadas", "Limeira", 8, 9908));
+        drones = new ArrayList<>();
+        drones.add(new Drone(101, "DJI Phantom", 9908));
+        ocorrencias = new ArrayList<>();
+        apagarArquivos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private Path criarCsvInpe() throws IOException {
+        Path csv = diretorio.resolve("focos.csv");
+        String conteudo = "id,lat,lon,data_hora_gmt,satelite,municipio,estado,frp\n"
+                + "1,-22.8501,-46.8602,2024-09-01 14:10:00,\"AQUA_M-T\",\"CAMPINAS, SP\",SP,12.5\n"
+                + "2,-22.8490,-46.8580,2024-09-01 14:50:00,NOAA-20,CAMPINAS,SP,40.0\r\n"
+                + "3,-22.6000,-47.4010,2024-09-01 15:05:00,NOAA-20,LIMEIRA,SP,5.0\n"
+                + "4,-10.0000,-50.0000,2024-09-01 15:05:00,NOAA-20,SAO FELIX,MT,3.0\n"
+                + "5,abc,-47.0000,2024-09-01 15:05:00,NOAA-20,LIMEIRA,SP,3.0\n"
+                + "\n"
+                + "6,-22.8500,-46.8600,2024-09-02T03:00:00Z,GOES-16,CAMPINAS,SP,100\n";
+        Files.write(csv, conteudo.getBytes(StandardCharsets.UTF_8));
+        return csv;
+    }
+
+    private LocalDateTime local(String instante) {
+        return LocalDateTime.ofInstant(Instant.parse(instante), ZoneId.systemDefault());
+    }
+
+    @Test
+    @DisplayName("Deve criar uma ocorrência por área e hora e anexá-las ao histórico")
+    void testImportarFocos() throws IOException {
+        // IDs reservados por outro console antes da importação
+        assertEquals(1, ContadorIdsHistorico.reservar(estacao, 9));
+
+        // Blocos minúsculos para que as linhas atravessem as fronteiras entre blocos
+        ImportadorFocosCalor.Resultado resultado = ImportadorFocosCalor.importar(criarCsvInpe(), areas, estacoes,
+                drones, ocorrencias, 40);
+
+        assertEquals(6, resultado.getLinhasLidas());
+        assertEquals(1, resultado.getLinhasInvalidas());
+        assertEquals(1, resultado.getFocosForaDasAreas());
+        assertEquals(1, resultado.getFocosAgrupados());
+        assertEquals(12, ContadorIdsHistorico.obterUltimoReservado(estacao));
+
+        ArrayList<Ocorrencia> criadas = resultado.getOcorrenciasCriadas();
+        assertEquals(3, criadas.size());
+        assertEquals(criadas, ocorrencias);
+
+        Ocorrencia primeira = criadas.get(0);
+        assertEquals(10, primeira.getIdOcorrencia());
+        assertEquals(1, primeira.getAreaAfetada().getIdArea());
+        assertEquals(local("2024-09-01T14:10:00Z"), primeira.getDataHoraDeteccao());
+        assertEquals(80, primeira.getHectaresAfetados());
+        assertEquals("Alerta Ativo", primeira.getNivelRisco());
+        assertEquals("Concluído", primeira.getStatusOcorrencia());
+        assertEquals(101, primeira.getDroneVarredura().getIdDrone());
+        assertFalse(primeira.isAlterada());
+
+        assertEquals(2, criadas.get(1).getAreaAfetada().getIdArea());
+        assertEquals("Investigação", criadas.get(1).getNivelRisco());
+        assertEquals(local("2024-09-02T03:00:00Z"), criadas.get(2).getDataHoraDeteccao());
+        assertEquals("Emergência", criadas.get(2).getNivelRisco());
+
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        assertEquals(3, LogHistorico.carregar(estacao, carregadas, new CatalogoEntidades(areas, new ArrayList<>(), drones)));
+        assertEquals(80, carregadas.get(0).getHectaresAfetados());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar focos já importados ao reimportar o mesmo arquivo")
+    void testReimportarSemDuplicar() throws IOException {
+        Path csv = criarCsvInpe();
+        ImportadorFocosCalor.importar(csv, areas, estacoes, drones, ocorrencias);
+
+        ImportadorFocosCalor.Resultado resultado = ImportadorFocosCalor.importar(csv, areas, estacoes,
+                drones, ocorrencias);
+
+        assertEquals(0, resultado.getOcorrenciasCriadas().size());
+        assertEquals(3, resultado.getFocosJaRegistrados());
+        assertEquals(3, ContadorIdsHistorico.obterUltimoReservado(estacao));
+        assertEquals(3, ocorrencias.size());
+    }
+
+    @Test
+    @DisplayName("Deve aceitar separador ponto e vírgula, vírgula decimal e data no formato brasileiro")
+    void testImportarFormatoBrasileiro() throws IOException {
+        Path csv = diretorio.resolve("focos_br.csv");
+        Files.write(csv, ("latitude;longitude;datahora;frp\n-22,6;-47,4;01/09/2024 14:10;2,5\n")
+                .getBytes(StandardCharsets.UTF_8));
+
+        ImportadorFocosCalor.Resultado resultado = ImportadorFocosCalor.importar(csv, areas, estacoes,
+                drones, ocorrencias);
+
+        assertEquals(1, resultado.getOcorrenciasCriadas().size());
+        Ocorrencia ocorrencia = resultado.getOcorrenciasCriadas().get(0);
+        assertEquals(2, ocorrencia.getAreaAfetada().getIdArea());
+        assertEquals(5, ocorrencia.getHectaresAfetados());
+        assertEquals(local("2024-09-01T14:10:00Z"), ocorrencia.getDataHoraDeteccao());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar arquivo sem as colunas de coordenadas e data/hora")
+    void testCabecalhoInvalido() throws IOException {
+        Path csv = diretorio.resolve("invalido.csv");
+        Files.write(csv, "id,municipio\n1,CAMPINAS\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () ->
+                ImportadorFocosCalor.importar(csv, areas, estacoes, drones, ocorrencias));
+        assertTrue(ocorrencias.isEmpty());
+    }
+}
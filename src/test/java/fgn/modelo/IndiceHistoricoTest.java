@@ -0,0 +1,109 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe IndiceHistorico
+ */
+public class IndiceHistoricoTest {
+
+    private EstacaoBombeiros estacao;
+    private AreaFlorestal area;
+    private Drone drone;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Sensor> sensores;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+    private Path indice;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9902, "Estação de Teste", "Rua A, 123",
+                "Teste Indice", "SP", "Capitão Silva", 10001);
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9902);
+        drone = new Drone(101, "DJI Phantom", 9902);
+        areas = new ArrayList<>();
+        areas.add(area);
+        sensores = new ArrayList<>();
+        drones = new ArrayList<>();
+        drones.add(drone);
+        catalogo = new CatalogoEntidades(areas, sensores, drones);
+        indice = Path.of(IndiceHistorico.obterNomeArquivo(estacao));
+        apagarArquivos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        // Remove também a trava, o manifesto e os segmentos criados ao lado do log
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + "*")) {
+            for (Path criado : arquivos) {
+                Files.deleteIfExists(criado);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve localizar a versão mais recente de cada ocorrência anexada")
+    void testBuscarUltimaVersao() throws IOException {
+        Ocorrencia primeira = new Ocorrencia(1, area, 10, null, drone, 5);
+        Ocorrencia segunda = new Ocorrencia(2, area, 20, null, drone, 5);
+        LogHistorico.anexarRegistro(primeira, estacao);
+        LogHistorico.anexarRegistro(segunda, estacao);
+        primeira.marcarComoSegura();
+        LogHistorico.anexarRegistro(primeira, estacao);
+
+        assertEquals(RegistroBinario.TAMANHO_CABECALHO + 2L * RegistroBinario.TAMANHO_REGISTRO,
+                IndiceHistorico.buscarPosicao(estacao, 1));
+
+        Ocorrencia encontrada = LogHistorico.buscarPorId(estacao, 1, catalogo);
+        assertNotNull(encontrada);
+        assertEquals("Concluído", encontrada.getStatusOcorrencia());
+        assertEquals(20, LogHistorico.buscarPorId(estacao, 2, catalogo).getHectaresAfetados());
+        assertNull(LogHistorico.buscarPorId(estacao, 3, catalogo));
+    }
+
+    @Test
+    @DisplayName("Deve obter o maior ID indexado da cidade")
+    void testObterMaiorId() throws IOException {
+        assertEquals(0, IndiceHistorico.obterMaiorId(estacao));
+
+        LogHistorico.anexarRegistro(new Ocorrencia(12, area, 10, null, drone, 5), estacao);
+        LogHistorico.anexarRegistro(new Ocorrencia(4, area, 10, null, drone, 5), estacao);
+        assertEquals(12, IndiceHistorico.obterMaiorId(estacao));
+
+        Files.delete(indice);
+        assertEquals(12, IndiceHistorico.obterMaiorId(estacao));
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir o índice ausente ou desatualizado")
+    void testReconstrucao() throws IOException {
+        LogHistorico.anexarRegistro(new Ocorrencia(7, area, 70, null, drone, 5), estacao);
+        Files.delete(indice);
+
+        assertEquals(RegistroBinario.TAMANHO_CABECALHO, IndiceHistorico.buscarPosicao(estacao, 7));
+
+        ArrayList<Ocorrencia> compactadas = new ArrayList<>();
+        compactadas.add(new Ocorrencia(3, area, 30, null, drone, 5));
+        compactadas.add(new Ocorrencia(7, area, 70, null, drone, 5));
+        LogHistorico.reescrever(compactadas, estacao);
+
+        assertEquals(RegistroBinario.TAMANHO_CABECALHO + RegistroBinario.TAMANHO_REGISTRO,
+                IndiceHistorico.buscarPosicao(estacao, 7));
+        assertEquals(-1, IndiceHistorico.buscarPosicao(estacao, 5));
+    }
+}
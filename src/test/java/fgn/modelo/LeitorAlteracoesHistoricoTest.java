@@ -0,0 +1,181 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe LeitorAlteracoesHistorico
+ */
+public class LeitorAlteracoesHistoricoTest {
+
+    private EstacaoBombeiros estacao;
+    private AreaFlorestal area;
+    private Drone drone;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9912, "Estação de Teste", "Rua A, 123",
+                "Teste Alteracoes", "SP", "Capitão Silva", 10001);
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9912);
+        drone = new Drone(101, "DJI Phantom", 9912);
+        areas = new ArrayList<>();
+        areas.add(area);
+        drones = new ArrayList<>();
+        drones.add(drone);
+        catalogo = new CatalogoEntidades(areas, new ArrayList<>(), drones);
+        apagarArquivos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        LogHistorico.configurarSegmentos(LogHistorico.PADRAO_REGISTROS_POR_SEGMENTO,
+                LogHistorico.PADRAO_SEGMENTOS_PARA_COMPACTACAO);
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private void anexar(int primeiroId, int ultimoId) throws IOException {
+        for (int id = primeiroId; id <= ultimoId; id++) {
+            LogHistorico.anexarRegistro(new Ocorrencia(id, area, id * 10, null, drone, 5), estacao);
+        }
+    }
+
+    private LeitorAlteracoesHistorico criarLeitor() throws IOException {
+        return new LeitorAlteracoesHistorico(estacao, "painel", catalogo);
+    }
+
+    /**
+     * Consumidor que acumula os eventos recebidos em uma fila.
+     */
+    private static class Coletor implements Flow.Subscriber<LeitorAlteracoesHistorico.Evento> {
+        private final BlockingQueue<LeitorAlteracoesHistorico.Evento> eventos = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onSubscribe(Flow.Subscription assinatura) {
+            assinatura.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(LeitorAlteracoesHistorico.Evento evento) {
+            eventos.add(evento);
+        }
+
+        @Override
+        public void onError(Throwable erro) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        private ArrayList<Integer> receberIds(int quantidade) throws InterruptedException {
+            ArrayList<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < quantidade; i++) {
+                LeitorAlteracoesHistorico.Evento evento = eventos.poll(5, TimeUnit.SECONDS);
+                assertNotNull(evento, "evento não recebido");
+                ids.add(evento.isLimpeza() ? -evento.getIdEstacaoLimpa() : evento.getOcorrencia().getIdOcorrencia());
+            }
+            return ids;
+        }
+    }
+
+    @Test
+    @DisplayName("Deve publicar apenas os registros anexados após a posição persistida")
+    void testRetomaDaPosicaoPersistida() throws Exception {
+        anexar(1, 3);
+        try (LeitorAlteracoesHistorico leitor = criarLeitor()) {
+            Coletor coletor = new Coletor();
+            leitor.subscribe(coletor);
+            assertEquals(3, leitor.ler());
+            assertEquals(List.of(1, 2, 3), coletor.receberIds(3));
+            assertEquals(0, leitor.ler());
+        }
+
+        anexar(4, 5);
+        Ocorrencia alterada = new Ocorrencia(2, area, 20, null, drone, 5);
+        alterada.setStatusOcorrencia("Concluído");
+        LogHistorico.anexarRegistro(alterada, estacao);
+
+        try (LeitorAlteracoesHistorico leitor = criarLeitor()) {
+            assertEquals(3, leitor.getPosicao());
+            Coletor coletor = new Coletor();
+            leitor.subscribe(coletor);
+            assertEquals(3, leitor.ler());
+            assertEquals(List.of(4, 5, 2), coletor.receberIds(3));
+            assertEquals(6, leitor.getPosicao());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ler as alterações de segmentos selados desde a última leitura")
+    void testLeituraEntreSegmentos() throws Exception {
+        LogHistorico.configurarSegmentos(4, 100);
+        anexar(1, 2);
+        try (LeitorAlteracoesHistorico leitor = criarLeitor()) {
+            assertEquals(2, leitor.ler());
+            anexar(3, 10);
+            Coletor coletor = new Coletor();
+            leitor.subscribe(coletor);
+            assertEquals(8, leitor.ler());
+            assertEquals(List.of(3, 4, 5, 6, 7, 8, 9, 10), coletor.receberIds(8));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve publicar a limpeza e não publicar as ocorrências ocultas")
+    void testEventoDeLimpeza() throws Exception {
+        try (LeitorAlteracoesHistorico leitor = criarLeitor()) {
+            anexar(1, 2);
+            LimpezaHistorico.limpar(estacao, areas, 2);
+            Coletor coletor = new Coletor();
+            leitor.subscribe(coletor);
+            assertEquals(1, leitor.ler());
+
+            LeitorAlteracoesHistorico.Evento evento = coletor.eventos.poll(5, TimeUnit.SECONDS);
+            assertNotNull(evento);
+            assertTrue(evento.isLimpeza());
+            assertEquals(9912, evento.getIdEstacaoLimpa());
+            assertEquals(2, evento.getLimiteLimpeza());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve publicar automaticamente as alterações detectadas no diretório")
+    void testAcompanhamentoDoDiretorio() throws Exception {
+        anexar(1, 1);
+        try (LeitorAlteracoesHistorico leitor = criarLeitor()) {
+            leitor.posicionarNoFinal();
+            leitor.configurarIntervalo(200);
+            Coletor coletor = new Coletor();
+            leitor.subscribe(coletor);
+            leitor.iniciar();
+
+            anexar(2, 3);
+            assertEquals(List.of(2, 3), coletor.receberIds(2));
+        }
+    }
+}
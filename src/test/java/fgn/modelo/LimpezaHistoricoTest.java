@@ -0,0 +1,135 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe LimpezaHistorico
+ */
+public class LimpezaHistoricoTest {
+
+    private EstacaoBombeiros estacao;
+    private EstacaoBombeiros vizinha;
+    private AreaFlorestal area;
+    private AreaFlorestal areaVizinha;
+    private Drone drone;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9909, "Estação de Teste", "Rua A, 123",
+                "Teste Limpeza", "SP", "Capitão Silva", 10001);
+        vizinha = new EstacaoBombeiros(9910, "Estação Vizinha", "Rua B, 456",
+                "Teste Limpeza", "SP", "Capitão Souza", 10002);
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9909);
+        areaVizinha = new AreaFlorestal(2, "Reserva Municipal", "Zona Sul", 12, 9910);
+        drone = new Drone(101, "DJI Phantom", 9909);
+        areas = new ArrayList<>();
+        areas.add(area);
+        areas.add(areaVizinha);
+        drones = new ArrayList<>();
+        drones.add(drone);
+        catalogo = new CatalogoEntidades(areas, new ArrayList<>(), drones);
+        apagarArquivos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        LogHistorico.configurarSegmentos(LogHistorico.PADRAO_REGISTROS_POR_SEGMENTO,
+                LogHistorico.PADRAO_SEGMENTOS_PARA_COMPACTACAO);
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private void anexar(AreaFlorestal areaAfetada, int primeiroId, int ultimoId) throws IOException {
+        for (int id = primeiroId; id <= ultimoId; id++) {
+            LogHistorico.anexarRegistro(new Ocorrencia(id, areaAfetada, id * 10, null, drone, 5), estacao);
+        }
+    }
+
+    private ArrayList<Integer> carregarIds() {
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        LogHistorico.carregar(estacao, carregadas, catalogo);
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (Ocorrencia ocorrencia : carregadas) {
+            ids.add(ocorrencia.getIdOcorrencia());
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Deve ocultar apenas as ocorrências da estação até o limite da limpeza")
+    void testLimparOcultaOcorrencias() throws IOException {
+        anexar(area, 1, 3);
+        anexar(areaVizinha, 4, 5);
+        long tamanhoAntes = Files.size(Path.of(LogHistorico.obterNomeArquivo(estacao)));
+
+        ManifestoHistorico.Limpeza limpeza = LimpezaHistorico.limpar(estacao, areas, 5);
+        anexar(area, 6, 6);
+
+        assertEquals(5, limpeza.getLimite());
+        assertTrue(limpeza.isReversivel());
+        assertEquals(5, LimpezaHistorico.obterMaiorLimite(vizinha));
+        // A limpeza acrescenta uma única lápide, sem reescrever o histórico
+        assertEquals(tamanhoAntes + 2L * RegistroBinario.TAMANHO_REGISTRO,
+                Files.size(Path.of(LogHistorico.obterNomeArquivo(estacao))));
+        assertEquals(List.of(4, 5, 6), carregarIds());
+        assertNull(LogHistorico.buscarPorId(estacao, 2, catalogo));
+        assertNotNull(LogHistorico.buscarPorId(estacao, 4, catalogo));
+    }
+
+    @Test
+    @DisplayName("Deve restaurar as ocorrências ao desfazer a limpeza")
+    void testDesfazerLimpeza() throws IOException {
+        anexar(area, 1, 3);
+        LimpezaHistorico.limpar(estacao, areas, 3);
+        assertTrue(carregarIds().isEmpty());
+
+        ManifestoHistorico.Limpeza restaurada = LimpezaHistorico.desfazer(estacao);
+
+        assertNotNull(restaurada);
+        assertEquals(0, LimpezaHistorico.obterMaiorLimite(estacao));
+        assertEquals(List.of(1, 2, 3), carregarIds());
+        assertNull(LimpezaHistorico.desfazer(estacao));
+    }
+
+    @Test
+    @DisplayName("Deve descartar as ocorrências ocultas na compactação e tornar a limpeza irreversível")
+    void testCompactacaoConsolidaLimpeza() throws IOException {
+        LogHistorico.configurarSegmentos(4, 3);
+        anexar(area, 1, 6);
+        LimpezaHistorico.limpar(estacao, areas, 6);
+        anexar(area, 7, 12);
+
+        assertTrue(CompactadorHistorico.compactarSeNecessario(estacao));
+
+        ManifestoHistorico manifesto = ManifestoHistorico.ler(estacao);
+        assertEquals(1, manifesto.getSegmentos().size());
+        // As cinco ocorrências visíveis seladas e a lápide permanecem no segmento compactado
+        assertEquals(6, manifesto.getSegmentos().get(0).getRegistros());
+        assertFalse(manifesto.getLimpeza(9909).isReversivel());
+        assertEquals(6, manifesto.getLimpeza(9909).getLimite());
+        assertTrue(IndiceHistorico.buscarPosicao(estacao, 3) < 0);
+        assertEquals(List.of(7, 8, 9, 10, 11, 12), carregarIds());
+        assertNull(LimpezaHistorico.desfazer(estacao));
+    }
+}
@@ -0,0 +1,215 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe LogHistorico
+ */
+public class LogHistoricoTest {
+
+    private EstacaoBombeiros estacao;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Sensor> sensores;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9914, "Estação de Teste", "Rua A, 123",
+                "Teste Log", "SP", "Capitão Silva", 10001);
+        areas = new ArrayList<>();
+        areas.add(new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9914));
+        sensores = new ArrayList<>();
+        sensores.add(new Sensor(201, "ThermoDetect", "Térmico"));
+        drones = new ArrayList<>();
+        drones.add(new Drone(101, "DJI Phantom", 9914));
+        catalogo = new CatalogoEntidades(areas, sensores, drones);
+        usuario = new Usuario("João Silva", 12345678901L, "15/03/1990");
+        apagarArquivos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        LogHistorico.configurarSegmentos(LogHistorico.PADRAO_REGISTROS_POR_SEGMENTO,
+                LogHistorico.PADRAO_SEGMENTOS_PARA_COMPACTACAO);
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private ArrayList<Integer> carregarIds() {
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (Ocorrencia ocorrencia : carregar()) {
+            ids.add(ocorrencia.getIdOcorrencia());
+        }
+        return ids;
+    }
+
+    /**
+     * Cria um histórico com segmentos selados e duas versões da ocorrência 1.
+     */
+    private void criarHistoricoSegmentado() throws IOException {
+        LogHistorico.configurarSegmentos(2, 100);
+        Ocorrencia primeira = new Ocorrencia(1, areas.get(0), 10, null, drones.get(0), 5);
+        LogHistorico.anexarRegistro(primeira, estacao);
+        for (int id = 2; id <= 4; id++) {
+            LogHistorico.anexarRegistro(new Ocorrencia(id, areas.get(0), 10, null, drones.get(0), 5), estacao);
+        }
+        primeira.marcarComoSegura();
+        LogHistorico.anexarRegistro(primeira, estacao);
+        assertFalse(ManifestoHistorico.ler(estacao).getSegmentos().isEmpty());
+    }
+
+    private ArrayList<Ocorrencia> carregar() {
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        LogHistorico.carregar(estacao, carregadas, catalogo);
+        return carregadas;
+    }
+
+    @Test
+    @DisplayName("Deve reconstituir ocorrência com sensor a partir do registro")
+    void testRegistroComSensor() throws IOException {
+        Ocorrencia original = new Ocorrencia(7, areas.get(0), 75, sensores.get(0), drones.get(0), 12);
+        LogHistorico.anexarRegistro(original, estacao);
+
+        ArrayList<Ocorrencia> carregadas = carregar();
+
+        assertEquals(1, carregadas.size());
+        Ocorrencia lida = carregadas.get(0);
+        assertEquals(7, lida.getIdOcorrencia());
+        assertEquals(75, lida.getHectaresAfetados());
+        assertEquals("Alerta Ativo", lida.getNivelRisco());
+        assertEquals("Ativo", lida.getStatusOcorrencia());
+        assertEquals(sensores.get(0), lida.getSensorDetector());
+        assertEquals(drones.get(0), lida.getDroneVarredura());
+        assertEquals(12, lida.getTempoChegadaMinutos());
+        assertNull(lida.getUsuarioDenunciante());
+        assertFalse(original.isAlterada());
+    }
+
+    @Test
+    @DisplayName("Deve preservar denunciante e aplicar o status alterado do último registro")
+    void testRegistroComUsuario() throws IOException {
+        Ocorrencia original = new Ocorrencia(8, areas.get(0), 30, drones.get(0), usuario, 20);
+        LogHistorico.anexarRegistro(original, estacao);
+        original.marcarComoSegura();
+        LogHistorico.anexarRegistro(original, estacao);
+
+        ArrayList<Ocorrencia> carregadas = carregar();
+
+        assertEquals(1, carregadas.size());
+        Ocorrencia lida = carregadas.get(0);
+        assertEquals("Seguro", lida.getNivelRisco());
+        assertEquals("Concluído", lida.getStatusOcorrencia());
+        assertEquals(0, lida.getHectaresAfetados());
+        assertEquals("João Silva", lida.getUsuarioDenunciante().getNome());
+        assertEquals(12345678901L, lida.getUsuarioDenunciante().getCpf());
+        assertEquals("15/03/1990", lida.getUsuarioDenunciante().getDataNascimento());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar registro inválido")
+    void testRegistroInvalido() throws IOException {
+        LogHistorico.anexarRegistro(new Ocorrencia(9, areas.get(0), 10, null, drones.get(0), 5), estacao);
+        byte[] corrompido = LogHistorico.serializar(new Ocorrencia(10, areas.get(0), 10, null, drones.get(0), 5));
+        corrompido[20] ^= 0x7F;
+        Files.write(Path.of(LogHistorico.obterNomeArquivo(estacao)), corrompido, StandardOpenOption.APPEND);
+
+        ArrayList<Ocorrencia> carregadas = carregar();
+
+        assertEquals(1, carregadas.size());
+        assertEquals(9, carregadas.get(0).getIdOcorrencia());
+    }
+
+    @Test
+    @DisplayName("Deve reescrever o histórico descartando segmentos selados e versões superadas")
+    void testReescrever() throws IOException {
+        criarHistoricoSegmentado();
+        ArrayList<Ocorrencia> atuais = carregar();
+        atuais.removeIf(ocorrencia -> ocorrencia.getIdOcorrencia() == 4);
+
+        LogHistorico.reescrever(atuais, estacao);
+
+        assertTrue(ManifestoHistorico.ler(estacao).getSegmentos().isEmpty());
+        assertFalse(Files.exists(Path.of(ManifestoHistorico.obterNomeSegmento(estacao, 1))));
+        assertFalse(Files.exists(Path.of(LogHistorico.obterNomeArquivoReescrita(estacao))));
+        assertEquals(java.util.List.of(1, 2, 3), carregarIds());
+        assertEquals(3, (Files.size(Path.of(LogHistorico.obterNomeArquivo(estacao)))
+                - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO);
+        assertTrue(IndiceHistorico.buscarPosicao(estacao, 3) >= 0);
+        assertTrue(IndiceHistorico.buscarPosicao(estacao, 4) < 0);
+    }
+
+    @Test
+    @DisplayName("Deve descartar a reescrita interrompida antes de substituir o segmento aberto")
+    void testReescritaInterrompidaAntesDaSubstituicao() throws IOException {
+        criarHistoricoSegmentado();
+        ArrayList<Integer> idsOriginais = carregarIds();
+        // Temporário incompleto e intenção gravados antes da falha
+        Files.write(Path.of(LogHistorico.obterNomeArquivo(estacao) + ".reescrita"), new byte[]{1, 2, 3});
+        gravarIntencao(ManifestoHistorico.ler(estacao));
+
+        assertEquals(idsOriginais, carregarIds());
+        assertFalse(Files.exists(Path.of(LogHistorico.obterNomeArquivo(estacao) + ".reescrita")));
+        assertFalse(Files.exists(Path.of(LogHistorico.obterNomeArquivoReescrita(estacao))));
+        assertFalse(ManifestoHistorico.ler(estacao).getSegmentos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve concluir a reescrita interrompida após substituir o segmento aberto")
+    void testReescritaInterrompidaAposSubstituicao() throws IOException {
+        criarHistoricoSegmentado();
+        ManifestoHistorico manifesto = ManifestoHistorico.ler(estacao);
+        gravarIntencao(manifesto);
+        // Novo segmento aberto já publicado, mas manifesto, segmentos e índice antigos
+        ByteBuffer novo = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO + 2 * RegistroBinario.TAMANHO_REGISTRO);
+        RegistroBinario.escreverCabecalho(novo);
+        novo.put(LogHistorico.serializar(new Ocorrencia(2, areas.get(0), 10, null, drones.get(0), 5)));
+        novo.put(LogHistorico.serializar(new Ocorrencia(3, areas.get(0), 10, null, drones.get(0), 5)));
+        Files.write(Path.of(LogHistorico.obterNomeArquivo(estacao)), novo.array());
+
+        assertEquals(java.util.List.of(2, 3), carregarIds());
+        assertTrue(ManifestoHistorico.ler(estacao).getSegmentos().isEmpty());
+        for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+            assertFalse(Files.exists(Path.of(ManifestoHistorico.obterNomeSegmento(estacao, segmento.getNumero()))));
+        }
+        assertFalse(Files.exists(Path.of(LogHistorico.obterNomeArquivoReescrita(estacao))));
+        assertTrue(IndiceHistorico.buscarPosicao(estacao, 1) < 0);
+    }
+
+    /**
+     * Grava a intenção de uma reescrita do histórico atual: posição do log do novo
+     * segmento aberto e números dos segmentos selados a remover.
+     */
+    private void gravarIntencao(ManifestoHistorico manifesto) throws IOException {
+        long registrosAbertos = (Files.size(Path.of(LogHistorico.obterNomeArquivo(estacao)))
+                - RegistroBinario.TAMANHO_CABECALHO) / RegistroBinario.TAMANHO_REGISTRO;
+        ByteBuffer intencao = ByteBuffer.allocate(Long.BYTES + Integer.BYTES
+                + manifesto.getSegmentos().size() * Integer.BYTES);
+        intencao.putLong(manifesto.getPosicaoAberto() + registrosAbertos);
+        intencao.putInt(manifesto.getSegmentos().size());
+        for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+            intencao.putInt(segmento.getNumero());
+        }
+        Files.write(Path.of(LogHistorico.obterNomeArquivoReescrita(estacao)), intencao.array());
+    }
+}
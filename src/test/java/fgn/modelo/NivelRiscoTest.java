@@ -0,0 +1,35 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a enumeração NivelRisco
+ */
+public class NivelRiscoTest {
+
+    @Test
+    @DisplayName("Deve calcular o nível de risco pelos hectares afetados")
+    void testCalcular() {
+        assertEquals(NivelRisco.INVESTIGACAO, NivelRisco.calcular(1));
+        assertEquals(NivelRisco.INVESTIGACAO, NivelRisco.calcular(40));
+        assertEquals(NivelRisco.ALERTA_ATIVO, NivelRisco.calcular(41));
+        assertEquals(NivelRisco.ALERTA_ATIVO, NivelRisco.calcular(100));
+        assertEquals(NivelRisco.EMERGENCIA, NivelRisco.calcular(101));
+    }
+
+    @Test
+    @DisplayName("Deve manter os códigos binários e os rótulos legados")
+    void testCodigosERotulos() {
+        assertArrayEquals(new String[]{"Seguro", "Investigação", "Alerta Ativo", "Emergência"}, NivelRisco.rotulos());
+        assertEquals(0, NivelRisco.SEGURO.getCodigo());
+        assertEquals(3, NivelRisco.EMERGENCIA.getCodigo());
+        assertEquals(NivelRisco.ALERTA_ATIVO, NivelRisco.doCodigo(2));
+        assertEquals(NivelRisco.SEGURO, NivelRisco.doCodigo(9));
+        assertEquals(NivelRisco.INVESTIGACAO, NivelRisco.doRotulo("Investigação"));
+        assertEquals(NivelRisco.SEGURO, NivelRisco.doRotulo("Desconhecido"));
+        assertEquals("Emergência", NivelRisco.EMERGENCIA.toString());
+        assertFalse(NivelRisco.SEGURO.isIncendio());
+    }
+}
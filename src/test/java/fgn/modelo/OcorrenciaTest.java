@@ -115,6 +115,24 @@ public class OcorrenciaTest {
         assertNotNull(ocorrencia.getDataHoraDeteccao());
     }
 
+    @Test
+    @DisplayName("Deve marcar como alterada somente quando o estado muda")
+    void testControleDeAlteracoes() {
+        Ocorrencia ocorrencia = new Ocorrencia(1, area, 50, sensor, drone, 15);
+        assertTrue(ocorrencia.isAlterada());
+
+        ocorrencia.marcarComoPersistida();
+        ocorrencia.setStatusOcorrencia("Ativo");
+        assertFalse(ocorrencia.isAlterada());
+
+        ocorrencia.marcarComoSegura();
+        assertTrue(ocorrencia.isAlterada());
+
+        ocorrencia.marcarComoPersistida();
+        ocorrencia.marcarComoSegura();
+        assertFalse(ocorrencia.isAlterada());
+    }
+
     @Test
     @DisplayName("Deve exibir relatório")
     void testExibirRelatorio() {
@@ -0,0 +1,148 @@
+package fgn.modelo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Comparação de desempenho entre a leitura do histórico texto por BufferedReader
+ * e String.split (implementação anterior de Arquivo) e o ParserHistoricoTexto.
+ * Não é executada pelo Maven; rodar manualmente com:
+ * java -cp target/classes:target/test-classes fgn.modelo.ParserHistoricoTextoBenchmark [registros]
+ */
+public class ParserHistoricoTextoBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+
+        ArrayList<AreaFlorestal> areas = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            areas.add(new AreaFlorestal(i, "Reserva Florestal " + i, "Zona " + i, 10 + i, 1001));
+        }
+        ArrayList<Sensor> sensores = new ArrayList<>();
+        sensores.add(new Sensor(201, "ThermoDetect", "Térmico"));
+        ArrayList<Drone> drones = new ArrayList<>();
+        Drone drone = new Drone(101, "FGN-Hawk Alpha", 1001);
+        drones.add(drone);
+        CatalogoEntidades catalogo = new CatalogoEntidades(areas, sensores, drones);
+
+        String texto = gerarArquivo(quantidade, areas);
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        System.out.printf("Arquivo sintético: %d registros, %.1f MB%n", quantidade, bytes.length / 1048576.0);
+
+        for (int rodada = 1; rodada <= 3; rodada++) {
+            long inicio = System.nanoTime();
+            int lidasAnterior = lerComBufferedReader(texto, areas, drone);
+            long tempoAnterior = System.nanoTime() - inicio;
+
+            ParserHistoricoTexto parser = new ParserHistoricoTexto(catalogo);
+            ArrayList<Ocorrencia> ocorrencias = new ArrayList<>(quantidade);
+            inicio = System.nanoTime();
+            int lidasNovo = parser.analisar(ByteBuffer.wrap(bytes), registro -> ocorrencias.add(parser.criarOcorrencia(registro)));
+            long tempoNovo = System.nanoTime() - inicio;
+
+            int[] contador = new int[1];
+            inicio = System.nanoTime();
+            parser.analisar(ByteBuffer.wrap(bytes), registro -> contador[0]++);
+            long tempoSomenteParser = System.nanoTime() - inicio;
+
+            System.out.printf("Rodada %d: anterior %,.0f reg/s (%d) | novo %,.0f reg/s (%d) | novo sem materializar %,.0f reg/s%n",
+                    rodada,
+                    lidasAnterior / (tempoAnterior / 1e9), lidasAnterior,
+                    lidasNovo / (tempoNovo / 1e9), lidasNovo,
+                    contador[0] / (tempoSomenteParser / 1e9));
+        }
+    }
+
+    private static String gerarArquivo(int quantidade, ArrayList<AreaFlorestal> areas) {
+        StringBuilder sb = new StringBuilder(quantidade * 260);
+        sb.append("📋 HISTÓRICO DE OCORRÊNCIAS - BENCHMARK\n\n");
+        for (int i = 1; i <= quantidade; i++) {
+            boolean segura = i % 4 == 0;
+            boolean denuncia = i % 3 == 0;
+            int hectares = segura ? 0 : 1 + i % 150;
+            sb.append(segura ? "✅" : "🚨").append(" #").append(i).append(segura ? " - ÁREA SEGURA\n" : " - INCÊNDIO\n");
+            sb.append("    📍 ").append(areas.get(i % areas.size()).getNomeArea()).append("\n");
+            sb.append("    🏢 Campinas, SP\n");
+            sb.append("    ⚠️  ").append(segura ? "Seguro" : hectares <= 40 ? "Investigação" : hectares <= 100 ? "Alerta Ativo" : "Emergência")
+                    .append(" | 📊 ").append(segura ? "Concluído" : "Ativo").append(" | ⏰ 02/06/2025 18:59\n");
+            if (hectares > 0) {
+                sb.append("    🔥 ").append(hectares).append(" hectares afetados\n");
+            }
+            sb.append("    🔍 Drone de varredura\n");
+            sb.append("    🚁 FGN-Hawk Alpha (#101)\n");
+            if (denuncia) {
+                sb.append("    👤 Denúncia: Maria Souza\n");
+                sb.append("        📄 CPF: 12345678901 | 📅 Nascimento: 15/03/1990\n");
+            } else {
+                sb.append("    👤 Denúncia: Drone\n");
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Réplica da leitura anterior (Arquivo.parseOcorrenciaDoArquivo), mantida apenas para comparação.
+     */
+    private static int lerComBufferedReader(String texto, ArrayList<AreaFlorestal> areas, Drone drone) throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(texto));
+        ArrayList<Ocorrencia> ocorrencias = new ArrayList<>();
+        String linha;
+        while ((linha = reader.readLine()) != null) {
+            if (!(linha.startsWith("🚨") || linha.startsWith("✅"))) {
+                continue;
+            }
+            try {
+                int id = Integer.parseInt(linha.split("#")[1].split(" ")[0]);
+                boolean segura = linha.contains("ÁREA SEGURA");
+                String linhaArea = reader.readLine();
+                reader.readLine();
+                reader.readLine();
+                String nomeArea = linhaArea.substring(linhaArea.indexOf("📍") + 2).trim();
+                AreaFlorestal area = null;
+                for (AreaFlorestal a : areas) {
+                    if (a.getNomeArea().equals(nomeArea)) {
+                        area = a;
+                        break;
+                    }
+                }
+                if (area == null) {
+                    continue;
+                }
+                int hectares = 0;
+                String proxima = reader.readLine();
+                if (proxima.contains("🔥") && proxima.contains("hectares")) {
+                    hectares = Integer.parseInt(proxima.split("🔥")[1].split("hectares")[0].trim());
+                    proxima = reader.readLine();
+                }
+                if (proxima.contains("🔍")) {
+                    reader.readLine();
+                }
+                proxima = reader.readLine();
+                Usuario usuario = null;
+                if (proxima.contains("👤 Denúncia:") && !proxima.contains("Drone")) {
+                    String nome = proxima.split("👤 Denúncia:")[1].trim();
+                    String dados = reader.readLine();
+                    String cpf = dados.split("📄 CPF:")[1].split("\\|")[0].trim();
+                    String nascimento = dados.split("📅 Nascimento:")[1].trim();
+                    usuario = new Usuario(nome, Long.parseLong(cpf), nascimento);
+                }
+                reader.readLine();
+                if (segura) {
+                    ocorrencias.add(new Ocorrencia(id, area, drone, usuario));
+                } else if (usuario != null) {
+                    ocorrencias.add(new Ocorrencia(id, area, hectares, drone, usuario, 0));
+                } else {
+                    ocorrencias.add(new Ocorrencia(id, area, hectares, null, drone, 0));
+                }
+            } catch (Exception e) {
+                // Registro ignorado, como na implementação anterior
+            }
+        }
+        return ocorrencias.size();
+    }
+}
@@ -0,0 +1,147 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe ParserHistoricoTexto
+ */
+public class ParserHistoricoTextoTest {
+
+    private AreaFlorestal area;
+    private Sensor sensor;
+    private Drone drone;
+    private ParserHistoricoTexto parser;
+    private ArrayList<Ocorrencia> lidas;
+
+    @BeforeEach
+    void setUp() {
+        area = new AreaFlorestal(1, "Serra D'Água", "Zona Norte", 25, 1001);
+        sensor = new Sensor(201, "ThermoDetect", "Térmico");
+        drone = new Drone(101, "FGN-Hawk Alpha", 1001);
+
+        ArrayList<AreaFlorestal> areas = new ArrayList<>();
+        areas.add(area);
+        ArrayList<Sensor> sensores = new ArrayList<>();
+        sensores.add(sensor);
+        ArrayList<Drone> drones = new ArrayList<>();
+        drones.add(drone);
+
+        parser = new ParserHistoricoTexto(new CatalogoEntidades(areas, sensores, drones));
+        lidas = new ArrayList<>();
+    }
+
+    private int analisar(String texto) {
+        ByteBuffer buffer = ByteBuffer.wrap(texto.getBytes(StandardCharsets.UTF_8));
+        return parser.analisar(buffer, registro -> lidas.add(parser.criarOcorrencia(registro)));
+    }
+
+    @Test
+    @DisplayName("Deve interpretar incêndio detectado por sensor")
+    void testIncendioComSensor() {
+        int total = analisar("""
+                📊 Total de registros: 1
+
+                🚨 #12 - INCÊNDIO
+                    📍 Serra D'Água
+                    🏢 Campinas, SP
+                    ⚠️  Alerta Ativo | 📊 Ativo | ⏰ 02/06/2025 18:59
+                    🔥 75 hectares afetados
+                    🔍 ThermoDetect
+                    🚁 FGN-Hawk Alpha (#101)
+                    👤 Denúncia: Drone
+
+                """);
+
+        assertEquals(1, total);
+        Ocorrencia ocorrencia = lidas.get(0);
+        assertEquals(12, ocorrencia.getIdOcorrencia());
+        assertEquals(area, ocorrencia.getAreaAfetada());
+        assertEquals(75, ocorrencia.getHectaresAfetados());
+        assertEquals("Alerta Ativo", ocorrencia.getNivelRisco());
+        assertEquals("Ativo", ocorrencia.getStatusOcorrencia());
+        assertEquals(sensor, ocorrencia.getSensorDetector());
+        assertEquals(drone, ocorrencia.getDroneVarredura());
+        assertNull(ocorrencia.getUsuarioDenunciante());
+    }
+
+    @Test
+    @DisplayName("Deve restaurar a data de detecção exata ou com precisão de minuto")
+    void testDataHoraDeteccao() {
+        LocalDateTime exata = LocalDateTime.of(2025, 6, 2, 18, 59, 41, 123_000_000);
+        long milissegundos = exata.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+        int total = analisar("🚨 #1 - INCÊNDIO\n"
+                + "    📍 Serra D'Água\n"
+                + "    ⚠️  Alerta Ativo | 📊 Ativo | ⏰ 02/06/2025 18:59:41 [" + milissegundos + "]\n"
+                + "\n"
+                + "🚨 #2 - INCÊNDIO\n"
+                + "    📍 Serra D'Água\n"
+                + "    ⚠️  Alerta Ativo | 📊 Ativo | ⏰ 02/06/2025 18:59\n");
+
+        assertEquals(2, total);
+        assertEquals(exata, lidas.get(0).getDataHoraDeteccao());
+        assertEquals(LocalDateTime.of(2025, 6, 2, 18, 59), lidas.get(1).getDataHoraDeteccao());
+    }
+
+    @Test
+    @DisplayName("Deve interpretar área segura com denunciante e quebras de linha CRLF")
+    void testAreaSeguraComDenunciante() {
+        int total = analisar("✅ #3 - ÁREA SEGURA\r\n"
+                + "    📍 Serra D'Água\r\n"
+                + "    ⚠️  Seguro | 📊 Concluído | ⏰ 02/06/2025 18:59\r\n"
+                + "    🔍 Drone de varredura\r\n"
+                + "    🚁 FGN-Hawk Alpha (#101)\r\n"
+                + "    👤 Denúncia: João Silva\r\n"
+                + "        📄 CPF: 12345678901 | 📅 Nascimento: 15/03/1990\r\n");
+
+        assertEquals(1, total);
+        Ocorrencia ocorrencia = lidas.get(0);
+        assertEquals("Seguro", ocorrencia.getNivelRisco());
+        assertEquals("Concluído", ocorrencia.getStatusOcorrencia());
+        assertNull(ocorrencia.getSensorDetector());
+        assertEquals("João Silva", ocorrencia.getUsuarioDenunciante().getNome());
+        assertEquals(12345678901L, ocorrencia.getUsuarioDenunciante().getCpf());
+        assertEquals("15/03/1990", ocorrencia.getUsuarioDenunciante().getDataNascimento());
+    }
+
+    @Test
+    @DisplayName("Deve descartar área desconhecida sem perder o registro seguinte")
+    void testAreaDesconhecidaNaoConsomeProximoRegistro() {
+        int total = analisar("""
+                🚨 #1 - INCÊNDIO
+                    📍 Área Removida
+                    ⚠️  Emergência | 📊 Ativo | ⏰ 02/06/2025 18:59
+                🚨 #2 - INCÊNDIO
+                    📍 Serra D'Água
+                    ⚠️  Investigação | 📊 Ativo | ⏰ 02/06/2025 18:59
+                    🔥 10 hectares afetados
+                """);
+
+        assertEquals(1, total);
+        assertEquals(1, parser.getRegistrosDescartados());
+        assertEquals(2, lidas.get(0).getIdOcorrencia());
+        assertEquals(10, lidas.get(0).getHectaresAfetados());
+    }
+
+    @Test
+    @DisplayName("Deve recalcular estado e usar drone da estação quando campos estiverem ausentes")
+    void testCamposAusentes() {
+        int total = analisar("""
+                🚨 #5 - INCÊNDIO
+                    📍 Serra D'Água
+                    🔥 150 hectares afetados
+                """);
+
+        assertEquals(1, total);
+        Ocorrencia ocorrencia = lidas.get(0);
+        assertEquals("Emergência", ocorrencia.getNivelRisco());
+        assertEquals("Ativo", ocorrencia.getStatusOcorrencia());
+        assertEquals(drone, ocorrencia.getDroneVarredura());
+    }
+}
@@ -0,0 +1,82 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Medição da vazão da verificação de CRC32C da RecuperacaoHistorico sobre um
+ * histórico binário sintético, comparada à simples leitura sequencial do arquivo.
+ * Não é executada pelo Maven; rodar manualmente com:
+ * java -cp target/classes:target/test-classes fgn.modelo.RecuperacaoHistoricoBenchmark [MB]
+ */
+public class RecuperacaoHistoricoBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        long megabytes = args.length > 0 ? Long.parseLong(args[0]) : 2048;
+        Path arquivo = Files.createTempFile("fgn-recuperacao", ".dat");
+        try {
+            gerarArquivo(arquivo, megabytes);
+            double tamanhoMb = Files.size(arquivo) / 1048576.0;
+            System.out.printf("Arquivo sintético: %.1f MB%n", tamanhoMb);
+
+            for (int rodada = 1; rodada <= 3; rodada++) {
+                long inicio = System.nanoTime();
+                long bytesLidos = lerSequencial(arquivo);
+                double tempoLeitura = (System.nanoTime() - inicio) / 1e9;
+
+                inicio = System.nanoTime();
+                RecuperacaoHistorico.Relatorio relatorio = RecuperacaoHistorico.verificar(arquivo);
+                double tempoVerificacao = (System.nanoTime() - inicio) / 1e9;
+
+                System.out.printf("Rodada %d: leitura %,.0f MB/s (%d bytes) | verificação CRC32C %,.0f MB/s (%d registros válidos)%n",
+                        rodada, tamanhoMb / tempoLeitura, bytesLidos,
+                        tamanhoMb / tempoVerificacao, relatorio.getRegistrosValidos());
+            }
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    private static void gerarArquivo(Path arquivo, long megabytes) throws IOException {
+        AreaFlorestal area = new AreaFlorestal(1, "Reserva Florestal", "Zona Norte", 25, 1001);
+        Drone drone = new Drone(101, "FGN-Hawk Alpha", 1001);
+        int registrosPorBloco = 8192;
+        ByteBuffer bloco = ByteBuffer.allocate(registrosPorBloco * RegistroBinario.TAMANHO_REGISTRO);
+        for (int i = 0; i < registrosPorBloco; i++) {
+            bloco.position(i * RegistroBinario.TAMANHO_REGISTRO);
+            RegistroBinario.escrever(new Ocorrencia(i + 1, area, i % 500, null, drone, 5), bloco);
+        }
+        bloco.clear();
+
+        long blocos = megabytes * 1048576 / bloco.capacity();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO);
+            RegistroBinario.escreverCabecalho(cabecalho);
+            cabecalho.flip();
+            canal.write(cabecalho);
+            for (long i = 0; i < blocos; i++) {
+                bloco.rewind();
+                while (bloco.hasRemaining()) {
+                    canal.write(bloco);
+                }
+            }
+        }
+    }
+
+    private static long lerSequencial(Path arquivo) throws IOException {
+        long total = 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            int lidos;
+            while ((lidos = canal.read(buffer)) > 0) {
+                total += lidos;
+                buffer.clear();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,121 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe RecuperacaoHistorico
+ */
+public class RecuperacaoHistoricoTest {
+
+    private EstacaoBombeiros estacao;
+    private AreaFlorestal area;
+    private Drone drone;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Sensor> sensores;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+    private Path aberto;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9905, "Estação de Teste", "Rua A, 123",
+                "Teste Recuperacao", "SP", "Capitão Silva", 10001);
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9905);
+        drone = new Drone(101, "DJI Phantom", 9905);
+        areas = new ArrayList<>();
+        areas.add(area);
+        sensores = new ArrayList<>();
+        drones = new ArrayList<>();
+        drones.add(drone);
+        catalogo = new CatalogoEntidades(areas, sensores, drones);
+        aberto = Path.of(LogHistorico.obterNomeArquivo(estacao));
+        apagarArquivos();
+        for (int id = 1; id <= 5; id++) {
+            LogHistorico.anexarRegistro(new Ocorrencia(id, area, id * 10, null, drone, 5), estacao);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private long posicaoRegistro(int indice) {
+        return RegistroBinario.TAMANHO_CABECALHO + (long) indice * RegistroBinario.TAMANHO_REGISTRO;
+    }
+
+    @Test
+    @DisplayName("Deve verificar histórico íntegro sem descartar nada")
+    void testHistoricoIntegro() throws IOException {
+        RecuperacaoHistorico.Relatorio relatorio = RecuperacaoHistorico.recuperar(estacao);
+
+        assertNotNull(relatorio);
+        assertFalse(relatorio.houvePerda());
+        assertEquals(5, relatorio.getRegistrosValidos());
+        assertEquals(Files.size(aberto), relatorio.getPosicaoCorte());
+        assertNull(relatorio.getMotivo());
+    }
+
+    @Test
+    @DisplayName("Deve truncar no primeiro registro corrompido e informar os IDs perdidos")
+    void testRegistroCorrompido() throws IOException {
+        try (FileChannel canal = FileChannel.open(aberto, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{0x7F}), posicaoRegistro(2) + 60);
+        }
+
+        RecuperacaoHistorico.Relatorio relatorio = RecuperacaoHistorico.recuperar(estacao);
+
+        assertEquals(RecuperacaoHistorico.MOTIVO_CRC_INVALIDO, relatorio.getMotivo());
+        assertEquals(2, relatorio.getRegistrosValidos());
+        assertEquals(posicaoRegistro(2), relatorio.getPosicaoCorte());
+        assertEquals(3, relatorio.getRegistrosDescartados());
+        assertEquals(3L * RegistroBinario.TAMANHO_REGISTRO, relatorio.getBytesDescartados());
+        assertEquals(List.of(3, 4, 5), relatorio.getIdsDescartados());
+        assertEquals(posicaoRegistro(2), Files.size(aberto));
+
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        assertEquals(2, LogHistorico.carregar(estacao, carregadas, catalogo));
+    }
+
+    @Test
+    @DisplayName("Deve descartar registro gravado pela metade e permitir novas gravações alinhadas")
+    void testRegistroIncompleto() throws IOException {
+        try (FileChannel canal = FileChannel.open(aberto, StandardOpenOption.WRITE)) {
+            canal.truncate(posicaoRegistro(4) + 50);
+        }
+
+        RecuperacaoHistorico.Relatorio relatorio = RecuperacaoHistorico.recuperar(estacao);
+
+        assertEquals(RecuperacaoHistorico.MOTIVO_REGISTRO_INCOMPLETO, relatorio.getMotivo());
+        assertEquals(4, relatorio.getRegistrosValidos());
+        assertEquals(0, relatorio.getRegistrosDescartados());
+        assertEquals(50, relatorio.getBytesDescartados());
+
+        LogHistorico.anexarRegistro(new Ocorrencia(6, area, 60, null, drone, 5), estacao);
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        assertEquals(5, LogHistorico.carregar(estacao, carregadas, catalogo));
+        assertEquals(6, carregadas.get(4).getIdOcorrencia());
+    }
+}
@@ -0,0 +1,122 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.zip.CRC32C;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe RegistroBinario
+ */
+public class RegistroBinarioTest {
+
+    private AreaFlorestal area;
+    private Sensor sensor;
+    private Drone drone;
+    private Usuario usuario;
+    private ArrayList<Sensor> sensores;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+
+    @BeforeEach
+    void setUp() {
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 1001);
+        sensor = new Sensor(201, "ThermoDetect", "Térmico");
+        drone = new Drone(101, "DJI Phantom", 1001);
+        usuario = new Usuario("João Silva", 12345678901L, "15/03/1990");
+
+        ArrayList<AreaFlorestal> areas = new ArrayList<>();
+        areas.add(area);
+        sensores = new ArrayList<>();
+        sensores.add(sensor);
+        drones = new ArrayList<>();
+        drones.add(drone);
+        catalogo = new CatalogoEntidades(areas, sensores, drones);
+    }
+
+    @Test
+    @DisplayName("Deve gravar e ler ocorrência com sensor")
+    void testRegistroComSensor() {
+        Ocorrencia original = new Ocorrencia(7, area, 75, sensor, drone, 12);
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroBinario.TAMANHO_REGISTRO);
+
+        RegistroBinario.escrever(original, buffer);
+        Ocorrencia lida = RegistroBinario.ler(buffer, 0, catalogo);
+
+        assertEquals(RegistroBinario.TAMANHO_REGISTRO, buffer.position());
+        assertEquals(7, lida.getIdOcorrencia());
+        assertEquals(area, lida.getAreaAfetada());
+        assertEquals(75, lida.getHectaresAfetados());
+        assertEquals("Alerta Ativo", lida.getNivelRisco());
+        assertEquals("Ativo", lida.getStatusOcorrencia());
+        assertEquals(sensor, lida.getSensorDetector());
+        assertEquals(drone, lida.getDroneVarredura());
+        assertEquals(12, lida.getTempoChegadaMinutos());
+        assertNull(lida.getUsuarioDenunciante());
+    }
+
+    @Test
+    @DisplayName("Deve preservar denunciante, status alterado e data de detecção")
+    void testRegistroComUsuario() {
+        Ocorrencia original = new Ocorrencia(8, area, 30, drone, usuario, 20);
+        original.marcarComoSegura();
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroBinario.TAMANHO_REGISTRO);
+
+        RegistroBinario.escrever(original, buffer);
+        Ocorrencia lida = RegistroBinario.ler(buffer, 0, catalogo);
+
+        assertEquals("Seguro", lida.getNivelRisco());
+        assertEquals("Concluído", lida.getStatusOcorrencia());
+        assertEquals("João Silva", lida.getUsuarioDenunciante().getNome());
+        assertEquals(12345678901L, lida.getUsuarioDenunciante().getCpf());
+        assertEquals("15/03/1990", lida.getUsuarioDenunciante().getDataNascimento());
+        assertEquals(original.getDataHoraDeteccao().withNano(0), lida.getDataHoraDeteccao().withNano(0));
+    }
+
+    @Test
+    @DisplayName("Deve validar cabeçalho do arquivo")
+    void testCabecalho() {
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO);
+        RegistroBinario.escreverCabecalho(buffer);
+
+        assertTrue(RegistroBinario.validarCabecalho(buffer));
+        assertFalse(RegistroBinario.validarCabecalho(ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO)));
+    }
+
+    @Test
+    @DisplayName("Deve detectar registro corrompido pelo CRC32C")
+    void testCrcRegistro() {
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroBinario.TAMANHO_REGISTRO);
+        RegistroBinario.escrever(new Ocorrencia(9, area, 10, sensor, drone, 5), buffer);
+        CRC32C crc = new CRC32C();
+
+        assertTrue(RegistroBinario.isIntegro(buffer, 0, crc, false));
+        buffer.put(8, (byte) (buffer.get(8) ^ 1));
+        assertFalse(RegistroBinario.isIntegro(buffer, 0, crc, false));
+        assertFalse(RegistroBinario.isIntegro(ByteBuffer.allocate(RegistroBinario.TAMANHO_REGISTRO), 0, crc, true));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar registro de área desconhecida")
+    void testAreaDesconhecida() {
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroBinario.TAMANHO_REGISTRO);
+        RegistroBinario.escrever(new Ocorrencia(9, area, 10, sensor, drone, 5), buffer);
+
+        assertNull(RegistroBinario.ler(buffer, 0, new CatalogoEntidades(new ArrayList<>(), sensores, drones)));
+    }
+
+    @Test
+    @DisplayName("Deve descartar registro com tamanho de nome fora do campo do denunciante")
+    void testTamanhoNomeInvalido() {
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroBinario.TAMANHO_REGISTRO);
+        RegistroBinario.escrever(new Ocorrencia(10, area, 30, drone, usuario, 20), buffer);
+
+        buffer.put(15, (byte) 0xFF);
+        assertNull(RegistroBinario.ler(buffer, 0, catalogo));
+        buffer.put(15, (byte) 65);
+        assertNull(RegistroBinario.ler(buffer, 0, catalogo));
+    }
+}
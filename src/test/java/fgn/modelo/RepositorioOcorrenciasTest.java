@@ -0,0 +1,227 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe RepositorioOcorrencias
+ */
+public class RepositorioOcorrenciasTest {
+
+    private RepositorioOcorrencias repositorio;
+    private AreaFlorestal areaNorte;
+    private AreaFlorestal areaSul;
+    private AreaFlorestal areaVizinha;
+    private Drone drone;
+
+    @BeforeEach
+    void setUp() {
+        repositorio = new RepositorioOcorrencias();
+        areaNorte = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 1001);
+        areaSul = new AreaFlorestal(2, "Reserva Municipal", "Zona Sul", 12, 1001);
+        areaVizinha = new AreaFlorestal(3, "Mata Ciliar", "Zona Leste", 8, 1002);
+        drone = new Drone(101, "DJI Phantom", 1001);
+    }
+
+    private Ocorrencia criar(int id, AreaFlorestal area) {
+        return new Ocorrencia(id, area, 10, null, drone, 5);
+    }
+
+    private static ArrayList<Integer> ids(List<Ocorrencia> ocorrencias) {
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (Ocorrencia ocorrencia : ocorrencias) {
+            ids.add(ocorrencia.getIdOcorrencia());
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Deve consultar as ocorrências por estação, área e ID na ordem de inserção")
+    void testConsultasIndexadas() {
+        repositorio.add(criar(1, areaNorte));
+        repositorio.add(criar(2, areaVizinha));
+        ArrayList<Ocorrencia> lote = new ArrayList<>();
+        lote.add(criar(3, areaSul));
+        lote.add(criar(4, areaNorte));
+        repositorio.addAll(lote);
+
+        assertEquals(List.of(1, 3, 4), ids(repositorio.daEstacao(1001)));
+        assertEquals(List.of(2), ids(repositorio.daEstacao(1002)));
+        assertTrue(repositorio.daEstacao(9999).isEmpty());
+        assertEquals(List.of(1, 4), ids(repositorio.daArea(1)));
+        assertEquals(3, repositorio.contarDaEstacao(1001));
+        assertSame(lote.get(0), repositorio.buscarPorId(1001, 3));
+        assertTrue(repositorio.contemId(1002, 2));
+        assertFalse(repositorio.contemId(1001, 2));
+        assertFalse(repositorio.contemId(1001, 5));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar os índices ao substituir e remover ocorrências")
+    void testSubstituicaoERemocao() {
+        repositorio.add(criar(1, areaNorte));
+        repositorio.add(criar(2, areaNorte));
+        repositorio.add(criar(3, areaVizinha));
+
+        Ocorrencia novaVersao = criar(2, areaNorte);
+        repositorio.set(1, novaVersao);
+        assertSame(novaVersao, repositorio.buscarPorId(1001, 2));
+        assertEquals(List.of(1, 2), ids(repositorio.daEstacao(1001)));
+        assertSame(novaVersao, repositorio.daEstacao(1001).get(1));
+
+        repositorio.removeIf(ocorrencia -> ocorrencia.getIdOcorrencia() == 1);
+        assertEquals(List.of(2), ids(repositorio.daEstacao(1001)));
+        assertFalse(repositorio.contemId(1001, 1));
+
+        Iterator<Ocorrencia> iterador = repositorio.iterator();
+        while (iterador.hasNext()) {
+            if (iterador.next().getIdOcorrencia() == 3) {
+                iterador.remove();
+            }
+        }
+        assertTrue(repositorio.daEstacao(1002).isEmpty());
+        assertNull(repositorio.buscarPorId(1002, 3));
+
+        repositorio.clear();
+        assertTrue(repositorio.daEstacao(1001).isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> repositorio.subList(0, 0).clear());
+    }
+
+    @Test
+    @DisplayName("Deve distinguir ocorrências de mesmo ID em estações diferentes")
+    void testMesmoIdEmEstacoesDiferentes() {
+        Ocorrencia daEstacao = criar(1, areaNorte);
+        Ocorrencia daVizinha = criar(1, areaVizinha);
+        repositorio.add(daEstacao);
+        repositorio.add(daVizinha);
+
+        assertSame(daEstacao, repositorio.buscarPorId(1001, 1));
+        assertSame(daVizinha, repositorio.buscarPorId(1002, 1));
+
+        repositorio.remove(daVizinha);
+        assertSame(daEstacao, repositorio.buscarPorId(1001, 1));
+        assertFalse(repositorio.contemId(1002, 1));
+
+        repositorio.add(daVizinha);
+        repositorio.removeIf(ocorrencia -> ocorrencia == daEstacao);
+        assertFalse(repositorio.contemId(1001, 1));
+        assertSame(daVizinha, repositorio.buscarPorId(1002, 1));
+    }
+
+    @Test
+    @DisplayName("Deve remover todas as ocorrências de uma estação preservando as demais")
+    void testRemoverDaEstacao() {
+        repositorio.add(new Ocorrencia(1, areaNorte, 150, null, drone, 5));
+        repositorio.add(criar(1, areaVizinha));
+        repositorio.add(criar(2, areaSul));
+        Ocorrencia restante = new Ocorrencia(2, areaVizinha, 150, null, drone, 5);
+        repositorio.add(restante);
+
+        assertEquals(2, repositorio.removerDaEstacao(1001));
+        assertEquals(0, repositorio.removerDaEstacao(1001));
+        assertEquals(List.of(1, 2), ids(repositorio));
+        assertTrue(repositorio.daEstacao(1001).isEmpty());
+        assertTrue(repositorio.daArea(1).isEmpty());
+        assertFalse(repositorio.contemId(1001, 1));
+        assertEquals(0, repositorio.contarIncendiosAtivos(1001));
+        assertSame(restante, repositorio.buscarPorId(1002, 2));
+        assertEquals(2, repositorio.contarIncendiosAtivos(1002));
+
+        repositorio.add(criar(3, areaNorte));
+        assertEquals(List.of(3), ids(repositorio.daEstacao(1001)));
+    }
+
+    @Test
+    @DisplayName("Deve agrupar os incêndios ativos da estação por nível de risco")
+    void testIncendiosAtivosPorRisco() {
+        repositorio.add(new Ocorrencia(1, areaNorte, 10, null, drone, 5));
+        repositorio.add(new Ocorrencia(2, areaSul, 150, null, drone, 5));
+        repositorio.add(new Ocorrencia(3, areaNorte, 70, null, drone, 5));
+        repositorio.add(new Ocorrencia(4, areaVizinha, 150, null, drone, 5));
+        repositorio.add(new Ocorrencia(5, areaSul, 150, null, drone, 5));
+
+        assertEquals(List.of(2, 5, 3, 1), ids(repositorio.incendiosAtivosDaEstacao(1001)));
+        assertEquals(List.of(3), ids(repositorio.incendiosAtivosDaEstacao(1001, NivelRisco.ALERTA_ATIVO)));
+        assertEquals(4, repositorio.contarIncendiosAtivos(1001));
+        assertEquals(1, repositorio.contarIncendiosAtivos(1002));
+    }
+
+    @Test
+    @DisplayName("Deve retirar dos incêndios ativos as ocorrências atendidas ou concluídas")
+    void testIndiceAtivoAcompanhaStatus() {
+        Ocorrencia emergencia = new Ocorrencia(1, areaNorte, 150, null, drone, 5);
+        Ocorrencia investigacao = new Ocorrencia(2, areaNorte, 10, null, drone, 5);
+        repositorio.add(emergencia);
+        repositorio.add(investigacao);
+
+        emergencia.marcarComoSegura();
+        assertEquals(List.of(2), ids(repositorio.incendiosAtivosDaEstacao(1001)));
+
+        investigacao.setStatusOcorrencia("Concluído");
+        assertEquals(0, repositorio.contarIncendiosAtivos(1001));
+
+        investigacao.setStatusOcorrencia("Ativo");
+        assertEquals(List.of(2), ids(repositorio.incendiosAtivosDaEstacao(1001)));
+
+        // Ocorrências removidas deixam de ser acompanhadas
+        repositorio.remove(investigacao);
+        investigacao.setStatusOcorrencia("Concluído");
+        investigacao.setStatusOcorrencia("Ativo");
+        assertEquals(0, repositorio.contarIncendiosAtivos(1001));
+    }
+
+    @Test
+    @DisplayName("Deve manter as alterações de status visíveis pelos índices")
+    void testAlteracaoDeStatus() {
+        Ocorrencia ocorrencia = criar(1, areaNorte);
+        repositorio.add(ocorrencia);
+
+        ocorrencia.marcarComoSegura();
+
+        assertEquals("Seguro", repositorio.daEstacao(1001).get(0).getNivelRisco());
+        assertSame(ocorrencia, repositorio.buscarPorId(1001, 1));
+    }
+
+    @Test
+    @DisplayName("Deve manter as colunas de estatísticas da estação a cada alteração")
+    void testResumoAcompanhaAlteracoes() {
+        Ocorrencia primeira = new Ocorrencia(1, areaNorte, 150, null, drone, 5);
+        repositorio.add(primeira);
+        repositorio.add(new Ocorrencia(2, areaSul, 70, null, drone, 5));
+        repositorio.add(new Ocorrencia(3, areaVizinha, 10, null, drone, 5));
+
+        ColunasOcorrencias.Resumo resumo = repositorio.resumirDaEstacao(1001);
+        assertEquals(2, resumo.getTotal());
+        assertEquals(2, resumo.getAtivos());
+        assertEquals(220, resumo.getTotalHectares());
+
+        primeira.marcarComoSegura();
+        resumo = repositorio.resumirDaEstacao(1001);
+        assertEquals(1, resumo.getAtivos());
+        assertEquals(1, resumo.getPorRisco(NivelRisco.SEGURO));
+        assertEquals(70, resumo.getTotalHectares());
+
+        // Versão mais recente da ocorrência 2 carregada do histórico
+        repositorio.set(1, new Ocorrencia(2, areaSul, 30, null, drone, 5));
+        assertEquals(30, repositorio.resumirDaEstacao(1001).getTotalHectares());
+
+        repositorio.remove(primeira);
+        resumo = repositorio.resumirDaEstacao(1001);
+        assertEquals(1, resumo.getTotal());
+        assertEquals(2, resumo.getIdAreaMaisAfetada());
+
+        repositorio.removerDaEstacao(1001);
+        assertEquals(0, repositorio.resumirDaEstacao(1001).getTotal());
+        assertEquals(1, repositorio.resumirDaEstacao(1002).getTotal());
+
+        repositorio.add(criar(4, areaNorte));
+        repositorio.removeIf(ocorrencia -> ocorrencia.getIdOcorrencia() == 3);
+        assertEquals(1, repositorio.resumirDaEstacao(1001).getTotal());
+        assertEquals(0, repositorio.resumirDaEstacao(1002).getTotal());
+    }
+}
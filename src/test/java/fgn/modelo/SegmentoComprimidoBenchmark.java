@@ -0,0 +1,100 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Comparação de tamanho e vazão de leitura entre o relatório texto, o segmento
+ * binário e o segmento comprimido pelo SegmentoComprimido.
+ * Não é executada pelo Maven; rodar manualmente com:
+ * java -cp target/classes:target/test-classes fgn.modelo.SegmentoComprimidoBenchmark [registros]
+ */
+public class SegmentoComprimidoBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        EstacaoBombeiros estacao = new EstacaoBombeiros(1001, "1º Batalhão de Bombeiros", "Rua A, 123",
+                "Benchmark Compressao", "SP", "Capitão Silva", 10001);
+        ArrayList<AreaFlorestal> areas = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            areas.add(new AreaFlorestal(i, "Reserva Florestal " + i, "Zona " + i, 10 + i, 1001));
+        }
+        ArrayList<Sensor> sensores = new ArrayList<>();
+        sensores.add(new Sensor(201, "ThermoDetect", "Térmico"));
+        ArrayList<Drone> drones = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            drones.add(new Drone(101 + i, "FGN-Hawk " + i, 1001));
+        }
+        CatalogoEntidades catalogo = new CatalogoEntidades(areas, sensores, drones);
+        Usuario denunciante = new Usuario("Maria Souza", 12345678901L, "15/03/1990");
+
+        ArrayList<Ocorrencia> ocorrencias = new ArrayList<>(quantidade);
+        LocalDateTime inicio = LocalDateTime.of(2025, 6, 1, 0, 0);
+        for (int i = 1; i <= quantidade; i++) {
+            boolean segura = i % 4 == 0;
+            int hectares = segura ? 0 : 1 + i % 150;
+            ocorrencias.add(new Ocorrencia(i, areas.get(i % areas.size()), hectares,
+                    segura ? "Seguro" : hectares <= 40 ? "Investigação" : hectares <= 100 ? "Alerta Ativo" : "Emergência",
+                    segura ? "Concluído" : "Ativo", i % 2 == 0 ? sensores.get(0) : null, drones.get(i % drones.size()),
+                    i % 3 == 0 ? denunciante : null, 5 + i % 20, inicio.plusMinutes(i)));
+        }
+
+        Path texto = Path.of(Arquivo.obterNomeBaseHistorico(estacao) + ".txt");
+        Path binario = Files.createTempFile("fgn-segmento", ".seg");
+        Path comprimido = Files.createTempFile("fgn-segmento", ".segz");
+        try {
+            Arquivo.salvarHistoricoDaCidade(ocorrencias, estacao);
+            ByteBuffer buffer = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO
+                    + quantidade * RegistroBinario.TAMANHO_REGISTRO);
+            RegistroBinario.escreverCabecalho(buffer);
+            for (Ocorrencia ocorrencia : ocorrencias) {
+                RegistroBinario.escrever(ocorrencia, buffer);
+            }
+            Files.write(binario, buffer.array());
+            long inicioCompressao = System.nanoTime();
+            SegmentoComprimido.comprimir(binario, comprimido);
+            double tempoCompressao = (System.nanoTime() - inicioCompressao) / 1e9;
+
+            double mbTexto = Files.size(texto) / 1048576.0;
+            double mbBinario = Files.size(binario) / 1048576.0;
+            double mbComprimido = Files.size(comprimido) / 1048576.0;
+            System.out.printf("%d registros: texto %.1f MB | binário %.1f MB | comprimido %.2f MB (compressão em %.2f s)%n",
+                    quantidade, mbTexto, mbBinario, mbComprimido, tempoCompressao);
+            System.out.printf("Taxa de compressão: %.1fx sobre o texto, %.1fx sobre o binário%n",
+                    mbTexto / mbComprimido, mbBinario / mbComprimido);
+
+            for (int rodada = 1; rodada <= 3; rodada++) {
+                long inicioLeitura = System.nanoTime();
+                int lidasTexto = CarregadorHistoricoParalelo.carregarTexto(texto, catalogo).getRegistrosLidos();
+                double tempoTexto = (System.nanoTime() - inicioLeitura) / 1e9;
+
+                inicioLeitura = System.nanoTime();
+                int lidasBinario = CarregadorHistoricoParalelo.carregarBinario(binario, catalogo).getRegistrosLidos();
+                double tempoBinario = (System.nanoTime() - inicioLeitura) / 1e9;
+
+                inicioLeitura = System.nanoTime();
+                int lidasComprimido = CarregadorHistoricoParalelo.carregarBinario(comprimido, catalogo).getRegistrosLidos();
+                double tempoComprimido = (System.nanoTime() - inicioLeitura) / 1e9;
+
+                System.out.printf("Rodada %d: texto %,.0f reg/s (%d) | binário %,.0f reg/s (%d) | comprimido %,.0f reg/s (%d)%n",
+                        rodada, lidasTexto / tempoTexto, lidasTexto, lidasBinario / tempoBinario, lidasBinario,
+                        lidasComprimido / tempoComprimido, lidasComprimido);
+            }
+        } finally {
+            try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                    Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+                for (Path arquivo : arquivos) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+            Files.deleteIfExists(binario);
+            Files.deleteIfExists(comprimido);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe SegmentoComprimido
+ */
+public class SegmentoComprimidoTest {
+
+    private EstacaoBombeiros estacao;
+    private AreaFlorestal area;
+    private Drone drone;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Sensor> sensores;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+    private Path original;
+    private Path comprimido;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9906, "Estação de Teste", "Rua A, 123",
+                "Teste Compressao", "SP", "Capitão Silva", 10001);
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9906);
+        drone = new Drone(101, "DJI Phantom", 9906);
+        areas = new ArrayList<>();
+        areas.add(area);
+        sensores = new ArrayList<>();
+        drones = new ArrayList<>();
+        drones.add(drone);
+        catalogo = new CatalogoEntidades(areas, sensores, drones);
+        original = Path.of(Arquivo.obterNomeBaseHistorico(estacao) + ".original.tmp");
+        comprimido = Path.of(Arquivo.obterNomeBaseHistorico(estacao) + ".comprimido.tmp");
+        apagarArquivos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        LogHistorico.configurarSegmentos(LogHistorico.PADRAO_REGISTROS_POR_SEGMENTO,
+                LogHistorico.PADRAO_SEGMENTOS_PARA_COMPACTACAO);
+        LogHistorico.configurarRelogio(Clock.systemDefaultZone());
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private byte[] gravarSegmento(int quantidade) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroBinario.TAMANHO_CABECALHO
+                + quantidade * RegistroBinario.TAMANHO_REGISTRO);
+        RegistroBinario.escreverCabecalho(buffer);
+        for (int id = 1; id <= quantidade; id++) {
+            RegistroBinario.escrever(new Ocorrencia(id, area, id % 120, null, drone, 5), buffer);
+        }
+        Files.write(original, buffer.array());
+        return buffer.array();
+    }
+
+    @Test
+    @DisplayName("Deve comprimir o segmento e ler qualquer trecho nas posições originais")
+    void testComprimirELer() throws IOException {
+        byte[] bytes = gravarSegmento(1300);
+
+        long tamanho = SegmentoComprimido.comprimir(original, comprimido);
+
+        assertTrue(SegmentoComprimido.isComprimido(comprimido));
+        assertFalse(SegmentoComprimido.isComprimido(original));
+        assertTrue(tamanho < bytes.length / 4);
+        try (SegmentoComprimido.Leitor leitor = SegmentoComprimido.Leitor.abrir(comprimido)) {
+            assertEquals(bytes.length, leitor.getTamanho());
+            assertEquals(3, leitor.getQuantidadeBlocos());
+            assertTrue(RegistroBinario.validarCabecalho(leitor.getCabecalho()));
+
+            // Trecho que atravessa o cabeçalho e a fronteira entre dois blocos
+            long[] posicoes = {0, 10, RegistroBinario.TAMANHO_CABECALHO + 511L * RegistroBinario.TAMANHO_REGISTRO, bytes.length - 100};
+            for (long posicao : posicoes) {
+                ByteBuffer trecho = ByteBuffer.allocate(300);
+                leitor.ler(trecho, posicao);
+                for (int i = 0; i < trecho.position(); i++) {
+                    assertEquals(bytes[(int) posicao + i], trecho.get(i));
+                }
+            }
+        }
+
+        CarregadorHistoricoParalelo.Resultado resultado =
+                CarregadorHistoricoParalelo.carregarBinario(comprimido, 600, catalogo);
+        assertEquals(700, resultado.getOcorrencias().size());
+        assertEquals(601, resultado.getOcorrencias().get(0).getIdOcorrencia());
+        assertEquals(1300 % 120, resultado.getOcorrencias().get(699).getHectaresAfetados());
+    }
+
+    @Test
+    @DisplayName("Deve comprimir segmentos de dias anteriores mantendo índice e consultas")
+    void testComprimirSegmentosFrios() throws IOException {
+        LogHistorico.configurarSegmentos(4, 10);
+        LocalDateTime inicio = LocalDateTime.of(2025, 6, 1, 10, 0);
+        for (int dia = 0; dia < 2; dia++) {
+            LogHistorico.configurarRelogio(Clock.fixed(inicio.plusDays(dia).atZone(ZoneId.systemDefault()).toInstant(),
+                    ZoneId.systemDefault()));
+            for (int i = 1; i <= 5; i++) {
+                int id = dia * 5 + i;
+                LogHistorico.anexarRegistro(new Ocorrencia(id, area, id, "Alerta Ativo", "Ativo", null, drone, null, 5,
+                        inicio.plusDays(dia)), estacao);
+            }
+        }
+
+        // Dia 1: segmento selado com 4 registros e segmento selado na virada com 1 registro
+        assertFalse(CompactadorHistorico.compactarSeNecessario(estacao));
+        ManifestoHistorico manifesto = ManifestoHistorico.ler(estacao);
+        for (ManifestoHistorico.Segmento segmento : manifesto.getSegmentos()) {
+            Path arquivo = Path.of(ManifestoHistorico.obterNomeSegmento(estacao, segmento.getNumero()));
+            assertEquals(segmento.getDia() < manifesto.getDiaAberto(), SegmentoComprimido.isComprimido(arquivo));
+        }
+
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        assertEquals(10, LogHistorico.carregar(estacao, carregadas, catalogo));
+        assertEquals(3, LogHistorico.buscarPorId(estacao, 3, catalogo).getHectaresAfetados());
+        IndiceHistorico.reconstruir(estacao);
+        assertEquals(5, LogHistorico.buscarPorId(estacao, 5, catalogo).getHectaresAfetados());
+        assertEquals(5, LogHistorico.carregarPorPeriodo(estacao, inicio, inicio.plusHours(1),
+                catalogo).size());
+    }
+}
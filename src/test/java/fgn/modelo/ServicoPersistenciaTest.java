@@ -0,0 +1,140 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe ServicoPersistencia
+ */
+public class ServicoPersistenciaTest {
+
+    private EstacaoBombeiros estacao;
+    private AreaFlorestal area;
+    private Drone drone;
+    private Path arquivo;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9901, "Estação de Teste", "Rua A, 123",
+                "Teste Persistencia", "SP", "Capitão Silva", 10001);
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9901);
+        drone = new Drone(101, "DJI Phantom", 9901);
+        arquivo = Path.of(LogHistorico.obterNomeArquivo(estacao));
+        apagarArquivos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        ServicoPersistencia.encerrar();
+        ServicoPersistencia.configurar(ServicoPersistencia.PADRAO_MAXIMO_MS, ServicoPersistencia.PADRAO_MAXIMO_REGISTROS);
+        ServicoPersistencia.configurarExportacao(ServicoPersistencia.PADRAO_INTERVALO_EXPORTACAO_MS);
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        // Remove também a trava, o manifesto e os segmentos criados ao lado do log
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + "*")) {
+            for (Path criado : arquivos) {
+                Files.deleteIfExists(criado);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve coalescer alterações da mesma ocorrência em um único registro")
+    void testCoalescencia() throws IOException {
+        ServicoPersistencia.configurar(60_000, 1000);
+        Ocorrencia ocorrencia = new Ocorrencia(1, area, 80, null, drone, 10);
+
+        ServicoPersistencia.enfileirar(ocorrencia, estacao);
+        ocorrencia.marcarComoSegura();
+        ServicoPersistencia.enfileirar(ocorrencia, estacao);
+        ServicoPersistencia.enfileirar(new Ocorrencia(2, area, 5, null, drone, 10), estacao);
+
+        assertEquals(2, ServicoPersistencia.getRegistrosPendentes());
+        assertFalse(ocorrencia.isAlterada());
+
+        ServicoPersistencia.descarregar();
+
+        assertEquals(0, ServicoPersistencia.getRegistrosPendentes());
+        assertEquals(RegistroBinario.TAMANHO_CABECALHO + 2L * RegistroBinario.TAMANHO_REGISTRO, Files.size(arquivo));
+    }
+
+    @Test
+    @DisplayName("Deve gravar o grupo ao atingir o limite de registros")
+    void testLimiteDeRegistros() throws Exception {
+        ServicoPersistencia.configurar(60_000, 3);
+        long gruposAntes = ServicoPersistencia.getGruposGravados();
+
+        for (int id = 1; id <= 3; id++) {
+            ServicoPersistencia.enfileirar(new Ocorrencia(id, area, 10, null, drone, 10), estacao);
+        }
+
+        long prazo = System.currentTimeMillis() + 5_000;
+        while (ServicoPersistencia.getGruposGravados() == gruposAntes && System.currentTimeMillis() < prazo) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(gruposAntes + 1, ServicoPersistencia.getGruposGravados());
+        assertEquals(RegistroBinario.TAMANHO_CABECALHO + 3L * RegistroBinario.TAMANHO_REGISTRO, Files.size(arquivo));
+    }
+
+    @Test
+    @DisplayName("Deve guardar no encerramento as alterações não gravadas e reaplicá-las no carregamento")
+    void testPendentesNoEncerramento() throws IOException {
+        ServicoPersistencia.configurar(60_000, 1000);
+        // Diretório no lugar do segmento aberto faz todas as gravações falharem
+        Files.createDirectory(arquivo);
+        ServicoPersistencia.enfileirar(new Ocorrencia(1, area, 10, null, drone, 10), estacao);
+        ServicoPersistencia.enfileirar(new Ocorrencia(2, area, 20, null, drone, 10), estacao);
+
+        ServicoPersistencia.encerrar();
+
+        Path pendentes = Path.of(ServicoPersistencia.obterNomeArquivoPendentes(estacao));
+        assertEquals(0, ServicoPersistencia.getRegistrosPendentes());
+        assertEquals(2L * RegistroBinario.TAMANHO_REGISTRO, Files.size(pendentes));
+
+        Files.delete(arquivo);
+        assertEquals(2, ServicoPersistencia.reaplicarPendentes(estacao));
+
+        assertFalse(Files.exists(pendentes));
+        assertEquals(RegistroBinario.TAMANHO_CABECALHO + 2L * RegistroBinario.TAMANHO_REGISTRO, Files.size(arquivo));
+        assertEquals(0, ServicoPersistencia.reaplicarPendentes(estacao));
+    }
+
+    @Test
+    @DisplayName("Deve exportar o relatório texto após a gravação do grupo")
+    void testExportacaoAposGrupo() throws IOException {
+        ArrayList<AreaFlorestal> areas = new ArrayList<>();
+        areas.add(area);
+        ArrayList<Drone> drones = new ArrayList<>();
+        drones.add(drone);
+        ArrayList<EstacaoBombeiros> estacoes = new ArrayList<>();
+        estacoes.add(estacao);
+        Arquivo.carregarHistoricoDaCidade(estacao, new ArrayList<>(), estacoes,
+                new CatalogoEntidades(areas, new ArrayList<>(), drones));
+        ServicoPersistencia.configurarExportacao(0);
+        Path relatorio = Path.of(Arquivo.obterNomeBaseHistorico(estacao) + ".txt");
+
+        Ocorrencia ocorrencia = new Ocorrencia(1, area, 80, null, drone, 10);
+        ServicoPersistencia.enfileirar(ocorrencia, estacao);
+        ServicoPersistencia.descarregar();
+        assertTrue(Files.readString(relatorio).contains("🚨 #1 - INCÊNDIO"));
+
+        ocorrencia.marcarComoSegura();
+        ServicoPersistencia.enfileirar(ocorrencia, estacao);
+        ServicoPersistencia.descarregar();
+        String conteudo = Files.readString(relatorio);
+        assertTrue(conteudo.contains("✅ #1 - ÁREA SEGURA"));
+        assertFalse(conteudo.contains("🚨 #1"));
+    }
+}
@@ -0,0 +1,130 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe SnapshotHistorico
+ */
+public class SnapshotHistoricoTest {
+
+    private EstacaoBombeiros estacao;
+    private AreaFlorestal area;
+    private Drone drone;
+    private ArrayList<AreaFlorestal> areas;
+    private ArrayList<Sensor> sensores;
+    private ArrayList<Drone> drones;
+    private CatalogoEntidades catalogo;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9904, "Estação de Teste", "Rua A, 123",
+                "Teste Snapshot", "SP", "Capitão Silva", 10001);
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9904);
+        drone = new Drone(101, "DJI Phantom", 9904);
+        areas = new ArrayList<>();
+        areas.add(area);
+        sensores = new ArrayList<>();
+        drones = new ArrayList<>();
+        drones.add(drone);
+        catalogo = new CatalogoEntidades(areas, sensores, drones);
+        apagarArquivos();
+        LogHistorico.configurarSegmentos(4, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        LogHistorico.configurarSegmentos(LogHistorico.PADRAO_REGISTROS_POR_SEGMENTO,
+                LogHistorico.PADRAO_SEGMENTOS_PARA_COMPACTACAO);
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private ArrayList<Ocorrencia> anexarIncendios(int primeiroId, int ultimoId) throws IOException {
+        ArrayList<Ocorrencia> anexadas = new ArrayList<>();
+        for (int id = primeiroId; id <= ultimoId; id++) {
+            Ocorrencia ocorrencia = new Ocorrencia(id, area, id * 10, null, drone, 5);
+            LogHistorico.anexarRegistro(ocorrencia, estacao);
+            anexadas.add(ocorrencia);
+        }
+        return anexadas;
+    }
+
+    @Test
+    @DisplayName("Deve gravar ocorrências, próximo ID, contadores e posição do log")
+    void testGravarELer() throws IOException {
+        ArrayList<Ocorrencia> ocorrencias = anexarIncendios(1, 6);
+        ocorrencias.get(0).marcarComoSegura();
+        LogHistorico.anexarRegistro(ocorrencias.get(0), estacao);
+
+        SnapshotHistorico.gravar(estacao, ocorrencias, 7);
+        SnapshotHistorico snapshot = SnapshotHistorico.ler(estacao);
+
+        assertNotNull(snapshot);
+        assertEquals(7, snapshot.getPosicaoLog());
+        assertEquals(7, snapshot.getProximoIdOcorrencia());
+        assertEquals(6, snapshot.getQuantidadeOcorrencias());
+        assertEquals(1, snapshot.getContadores().size());
+        assertEquals(9904, snapshot.getContadores().get(0).getIdEstacao());
+        assertEquals(6, snapshot.getContadores().get(0).getTotal());
+        assertEquals(5, snapshot.getContadores().get(0).getAtivas());
+
+        ArrayList<Ocorrencia> carregadas = snapshot.carregarOcorrencias(estacao, catalogo).getOcorrencias();
+        assertEquals(6, carregadas.size());
+        assertEquals("Concluído", carregadas.get(0).getStatusOcorrencia());
+        assertEquals(60, carregadas.get(5).getHectaresAfetados());
+    }
+
+    @Test
+    @DisplayName("Deve carregar o instantâneo e reaplicar apenas o final do log")
+    void testReaplicarFinalDoLog() throws IOException {
+        ArrayList<Ocorrencia> ocorrencias = anexarIncendios(1, 6);
+        SnapshotHistorico.gravar(estacao, ocorrencias, 7);
+
+        anexarIncendios(7, 10);
+        ocorrencias.get(0).marcarComoSegura();
+        LogHistorico.anexarRegistro(ocorrencias.get(0), estacao);
+
+        // O primeiro segmento selado está coberto pelo instantâneo e não é mais lido
+        Files.delete(Path.of(ManifestoHistorico.obterNomeSegmento(estacao, 1)));
+
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        assertEquals(10, LogHistorico.carregar(estacao, carregadas, catalogo));
+        assertEquals(1, carregadas.get(0).getIdOcorrencia());
+        assertEquals("Concluído", carregadas.get(0).getStatusOcorrencia());
+        assertEquals(2, carregadas.get(1).getIdOcorrencia());
+        assertEquals(10, carregadas.get(9).getIdOcorrencia());
+    }
+
+    @Test
+    @DisplayName("Deve descartar o instantâneo quando o histórico é reescrito")
+    void testReescritaDescartaInstantaneo() throws IOException {
+        ArrayList<Ocorrencia> ocorrencias = anexarIncendios(1, 3);
+        SnapshotHistorico.gravar(estacao, ocorrencias, 4);
+
+        LogHistorico.reescrever(new ArrayList<>(), estacao);
+        assertNull(SnapshotHistorico.ler(estacao));
+        assertEquals(3, LogHistorico.obterPosicaoLog(estacao));
+
+        anexarIncendios(4, 4);
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        assertEquals(1, LogHistorico.carregar(estacao, carregadas, catalogo));
+        assertEquals(4, carregadas.get(0).getIdOcorrencia());
+    }
+}
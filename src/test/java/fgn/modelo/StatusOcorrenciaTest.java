@@ -0,0 +1,23 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a enumeração StatusOcorrencia
+ */
+public class StatusOcorrenciaTest {
+
+    @Test
+    @DisplayName("Deve manter os códigos binários e os rótulos legados")
+    void testCodigosERotulos() {
+        assertArrayEquals(new String[]{"Ativo", "Concluído"}, StatusOcorrencia.rotulos());
+        assertEquals(0, StatusOcorrencia.ATIVO.getCodigo());
+        assertEquals(StatusOcorrencia.CONCLUIDO, StatusOcorrencia.doCodigo(1));
+        assertEquals(StatusOcorrencia.ATIVO, StatusOcorrencia.doCodigo(-1));
+        assertEquals(StatusOcorrencia.CONCLUIDO, StatusOcorrencia.doRotulo("Concluído"));
+        assertEquals(StatusOcorrencia.ATIVO, StatusOcorrencia.doRotulo("Desconhecido"));
+        assertEquals("Concluído", StatusOcorrencia.CONCLUIDO.toString());
+    }
+}
@@ -0,0 +1,83 @@
+package fgn.modelo;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Comparação do tempo de coleta de lixo com o histórico mantido em objetos
+ * Ocorrencia no heap e na TabelaOcorrenciasForaHeap.
+ * Não é executada pelo Maven; rodar manualmente com:
+ * java -cp target/classes:target/test-classes fgn.modelo.TabelaOcorrenciasForaHeapBenchmark [registros]
+ */
+public class TabelaOcorrenciasForaHeapBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        ArrayList<AreaFlorestal> areas = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            areas.add(new AreaFlorestal(i, "Reserva Florestal " + i, "Zona " + i, 10 + i, 1001));
+        }
+        Drone drone = new Drone(101, "FGN-Hawk", 1001);
+        Usuario denunciante = new Usuario("Maria Souza", 12345678901L, "15/03/1990");
+        LocalDateTime inicio = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+        ArrayList<Ocorrencia> noHeap = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            noHeap.add(criar(i, areas, drone, denunciante, inicio));
+        }
+        System.out.printf("Heap: %d ocorrências retidas, coleta de lixo em %d ms%n", noHeap.size(), medirColetas());
+        noHeap = null;
+        System.gc();
+
+        try (TabelaOcorrenciasForaHeap foraHeap = TabelaOcorrenciasForaHeap.criar(quantidade)) {
+            for (int i = 1; i <= quantidade; i++) {
+                foraHeap.adicionar(criar(i, areas, drone, denunciante, inicio));
+            }
+            System.out.printf("Fora do heap: %d ocorrências retidas, coleta de lixo em %d ms%n",
+                    foraHeap.getQuantidade(), medirColetas());
+
+            long inicioVarredura = System.nanoTime();
+            long ativos = foraHeap.contarIncendiosAtivos(2);
+            System.out.printf("Varredura fora do heap: %d incêndios ativos na área 2 em %.1f ms%n",
+                    ativos, (System.nanoTime() - inicioVarredura) / 1e6);
+        }
+    }
+
+    private static Ocorrencia criar(int id, ArrayList<AreaFlorestal> areas, Drone drone, Usuario denunciante,
+                                    LocalDateTime inicio) {
+        int hectares = 1 + id % 150;
+        return new Ocorrencia(id, areas.get(id % areas.size()), hectares,
+                hectares <= 40 ? "Investigação" : hectares <= 100 ? "Alerta Ativo" : "Emergência",
+                id % 4 == 0 ? "Concluído" : "Ativo", null, drone, id % 3 == 0 ? denunciante : null,
+                5 + id % 20, inicio.plusMinutes(id));
+    }
+
+    /**
+     * Gera objetos temporários, como o console faz ao montar relatórios, e
+     * retorna o tempo total gasto pelos coletores durante a geração.
+     */
+    private static long medirColetas() {
+        long antes = tempoColetas();
+        long soma = 0;
+        for (int i = 0; i < 20_000_000; i++) {
+            soma += ("Ocorrência #" + i).length();
+        }
+        System.gc();
+        if (soma == 0) {
+            System.out.println();
+        }
+        return tempoColetas() - antes;
+    }
+
+    private static long tempoColetas() {
+        long total = 0;
+        for (GarbageCollectorMXBean coletor : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += coletor.getCollectionTime();
+        }
+        return total;
+    }
+}
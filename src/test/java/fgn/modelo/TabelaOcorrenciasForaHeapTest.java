@@ -0,0 +1,167 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.zip.CRC32C;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe TabelaOcorrenciasForaHeap
+ */
+public class TabelaOcorrenciasForaHeapTest {
+
+    private EstacaoBombeiros estacao;
+    private AreaFlorestal areaNorte;
+    private AreaFlorestal areaSul;
+    private Drone drone;
+    private Usuario usuario;
+    private CatalogoEntidades catalogo;
+    private Path arquivoTabela;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9915, "Estação de Teste", "Rua A, 123",
+                "Teste Fora Heap", "SP", "Capitão Silva", 10001);
+        areaNorte = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9915);
+        areaSul = new AreaFlorestal(2, "Reserva Municipal", "Zona Sul", 12, 9915);
+        drone = new Drone(101, "DJI Phantom", 9915);
+        usuario = new Usuario("João Silva", 12345678901L, "15/03/1990");
+        ArrayList<AreaFlorestal> areas = new ArrayList<>();
+        areas.add(areaNorte);
+        areas.add(areaSul);
+        ArrayList<Drone> drones = new ArrayList<>();
+        drones.add(drone);
+        catalogo = new CatalogoEntidades(areas, new ArrayList<>(), drones);
+        arquivoTabela = Path.of(Arquivo.obterNomeBaseHistorico(estacao) + ".tabela");
+        apagarArquivos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve gravar e ler ocorrências na memória nativa ampliando a capacidade")
+    void testAdicionarELer() throws IOException {
+        try (TabelaOcorrenciasForaHeap tabela = TabelaOcorrenciasForaHeap.criar(2)) {
+            for (int id = 1; id <= 5; id++) {
+                assertEquals(id - 1, tabela.adicionar(new Ocorrencia(id, areaNorte, id * 30, null, drone, 5)));
+            }
+            tabela.adicionar(new Ocorrencia(6, areaSul, 10, drone, usuario, 5));
+
+            assertEquals(6, tabela.getQuantidade());
+            assertEquals(3, tabela.getIdOcorrencia(2));
+            assertEquals(90, tabela.getHectaresAfetados(2));
+            assertEquals("Alerta Ativo", tabela.getNivelRisco(2));
+            assertEquals(2, tabela.getIdArea(5));
+
+            Ocorrencia lida = tabela.ler(5, catalogo);
+            assertEquals(6, lida.getIdOcorrencia());
+            assertSame(areaSul, lida.getAreaAfetada());
+            assertEquals("João Silva", lida.getUsuarioDenunciante().getNome());
+            assertThrows(IndexOutOfBoundsException.class, () -> tabela.getIdOcorrencia(6));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve substituir registros e contar os incêndios ativos da área")
+    void testSubstituirEContar() throws IOException {
+        try (TabelaOcorrenciasForaHeap tabela = TabelaOcorrenciasForaHeap.criar(8)) {
+            Ocorrencia ocorrencia = new Ocorrencia(1, areaNorte, 150, null, drone, 5);
+            long indice = tabela.adicionar(ocorrencia);
+            tabela.adicionar(new Ocorrencia(2, areaNorte, 20, null, drone, 5));
+            tabela.adicionar(new Ocorrencia(3, areaSul, 20, null, drone, 5));
+            assertEquals(2, tabela.contarIncendiosAtivos(1));
+
+            ocorrencia.marcarComoSegura();
+            tabela.substituir(indice, ocorrencia);
+            assertEquals("Concluído", tabela.getStatusOcorrencia(indice));
+            assertEquals(1, tabela.contarIncendiosAtivos(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve persistir a tabela mapeada como um segmento de histórico válido")
+    void testArquivoMapeado() throws IOException {
+        try (TabelaOcorrenciasForaHeap tabela = TabelaOcorrenciasForaHeap.mapear(arquivoTabela)) {
+            assertTrue(tabela.isMapeada());
+            tabela.adicionar(new Ocorrencia(1, areaNorte, 150, null, drone, 5));
+            tabela.adicionar(new Ocorrencia(2, areaSul, 10, drone, usuario, 5));
+        }
+        assertEquals(RegistroBinario.TAMANHO_CABECALHO + 2L * RegistroBinario.TAMANHO_REGISTRO, Files.size(arquivoTabela));
+
+        try (SegmentoComprimido.Leitor leitor = SegmentoComprimido.Leitor.abrir(arquivoTabela)) {
+            assertTrue(RegistroBinario.validarCabecalho(leitor.getCabecalho()));
+            ByteBuffer registros = ByteBuffer.allocate(2 * RegistroBinario.TAMANHO_REGISTRO);
+            leitor.ler(registros, RegistroBinario.TAMANHO_CABECALHO);
+            assertTrue(RegistroBinario.isIntegro(registros, RegistroBinario.TAMANHO_REGISTRO, new CRC32C(), false));
+            assertEquals(2, RegistroBinario.lerId(registros, RegistroBinario.TAMANHO_REGISTRO));
+        }
+
+        try (TabelaOcorrenciasForaHeap tabela = TabelaOcorrenciasForaHeap.mapear(arquivoTabela)) {
+            assertEquals(2, tabela.getQuantidade());
+            assertEquals(150, tabela.getHectaresAfetados(0));
+            tabela.adicionar(new Ocorrencia(3, areaNorte, 70, null, drone, 5));
+        }
+        try (TabelaOcorrenciasForaHeap tabela = TabelaOcorrenciasForaHeap.mapear(arquivoTabela)) {
+            assertEquals(3, tabela.getQuantidade());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve importar do histórico binário apenas registros de ocorrência visíveis")
+    void testImportarHistorico() throws IOException {
+        LogHistorico.anexarRegistro(new Ocorrencia(1, areaNorte, 150, null, drone, 5), estacao);
+        LogHistorico.anexarRegistro(new Ocorrencia(2, areaSul, 10, null, drone, 5), estacao);
+        LogHistorico.anexarRegistro(new Ocorrencia(3, areaSul, 70, drone, usuario, 5), estacao);
+
+        try (TabelaOcorrenciasForaHeap tabela = TabelaOcorrenciasForaHeap.criar(16)) {
+            assertEquals(3, tabela.importarHistorico(estacao));
+            assertEquals(3, tabela.getIdOcorrencia(2));
+            assertEquals("João Silva", tabela.ler(2, catalogo)
+                    .getUsuarioDenunciante().getNome());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter apenas a última versão de cada ocorrência importada")
+    void testManterUltimasVersoes() throws IOException {
+        Ocorrencia primeira = new Ocorrencia(1, areaNorte, 150, null, drone, 5);
+        LogHistorico.anexarRegistro(primeira, estacao);
+        LogHistorico.anexarRegistro(new Ocorrencia(2, areaSul, 10, null, drone, 5), estacao);
+        LogHistorico.anexarRegistro(new Ocorrencia(3, areaNorte, 70, null, drone, 5), estacao);
+        primeira.marcarComoSegura();
+        LogHistorico.anexarRegistro(primeira, estacao);
+
+        try (TabelaOcorrenciasForaHeap tabela = TabelaOcorrenciasForaHeap.criar(16)) {
+            assertEquals(4, tabela.importarHistorico(estacao));
+            assertEquals(2, tabela.contarIncendiosAtivos(areaNorte.getIdArea()));
+
+            assertEquals(1, tabela.manterUltimasVersoes());
+            assertEquals(3, tabela.getQuantidade());
+            assertEquals(2, tabela.getIdOcorrencia(0));
+            assertEquals(3, tabela.getIdOcorrencia(1));
+            assertEquals(1, tabela.getIdOcorrencia(2));
+            assertEquals("Concluído", tabela.getStatusOcorrencia(2));
+            assertEquals(1, tabela.contarIncendiosAtivos(areaNorte.getIdArea()));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package fgn.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe TravaHistorico. Os cenários entre processos
+ * iniciam uma segunda JVM com {@link ProcessoConcorrente}.
+ */
+public class TravaHistoricoTest {
+
+    private EstacaoBombeiros estacao;
+    private AreaFlorestal area;
+    private Drone drone;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        estacao = new EstacaoBombeiros(9911, "Estação de Teste", "Rua A, 123",
+                "Teste Trava", "SP", "Capitão Silva", 10001);
+        area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9911);
+        drone = new Drone(101, "DJI Phantom", 9911);
+        apagarArquivos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        apagarArquivos();
+    }
+
+    private void apagarArquivos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Path.of("."),
+                Arquivo.obterNomeBaseHistorico(estacao) + ".*")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private Process iniciarProcesso(String... argumentos) throws IOException {
+        ArrayList<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(ProcessoConcorrente.class.getName());
+        comando.addAll(java.util.List.of(argumentos));
+        return new ProcessBuilder(comando).redirectErrorStream(true).start();
+    }
+
+    private void anexar(int primeiroId, int ultimoId) throws IOException {
+        for (int id = primeiroId; id <= ultimoId; id++) {
+            LogHistorico.anexarRegistro(new Ocorrencia(id, area, 10, null, drone, 5), estacao);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve preservar as anexações de dois processos concorrentes")
+    void testAnexacoesConcorrentes() throws Exception {
+        Process outro = iniciarProcesso("anexar", "1001", "1300");
+        anexar(1, 300);
+        assertEquals(0, outro.waitFor());
+
+        ArrayList<Ocorrencia> carregadas = new ArrayList<>();
+        assertEquals(600, LogHistorico.carregar(estacao, carregadas, new CatalogoEntidades(listaDe(area), new ArrayList<>(), listaDe(drone))));
+        assertTrue(IndiceHistorico.buscarPosicao(estacao, 150) >= 0);
+        assertTrue(IndiceHistorico.buscarPosicao(estacao, 1150) >= 0);
+    }
+
+    @Test
+    @DisplayName("Deve reservar IDs distintos em dois processos concorrentes")
+    void testReservasConcorrentes() throws Exception {
+        Process outro = iniciarProcesso("reservar", "200");
+        java.util.HashSet<Integer> ids = new java.util.HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(ContadorIdsHistorico.reservar(estacao, 1));
+        }
+        try (BufferedReader saida = new BufferedReader(new InputStreamReader(outro.getInputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = saida.readLine()) != null) {
+                assertTrue(ids.add(Integer.parseInt(linha)), "ID repetido: " + linha);
+            }
+        }
+        assertEquals(0, outro.waitFor());
+        assertEquals(400, ids.size());
+        assertEquals(400, ContadorIdsHistorico.obterUltimoReservado(estacao));
+    }
+
+    @Test
+    @DisplayName("Deve contabilizar a espera pela trava em posse de outro processo")
+    void testMetricasDeDisputa() throws Exception {
+        Process outro = iniciarProcesso("segurar", "400");
+        try (BufferedReader saida = new BufferedReader(new InputStreamReader(outro.getInputStream(), StandardCharsets.UTF_8))) {
+            assertEquals("travado", saida.readLine());
+            long disputadas = TravaHistorico.getAquisicoesDisputadas();
+            long esperaAnterior = TravaHistorico.getEsperaTotalNanos();
+
+            synchronized (LogHistorico.obterTrava(estacao)) {
+                try (TravaHistorico acesso = TravaHistorico.compartilhada(estacao)) {
+                    assertNotNull(acesso);
+                }
+            }
+
+            assertEquals(disputadas + 1, TravaHistorico.getAquisicoesDisputadas());
+            assertTrue(TravaHistorico.getEsperaTotalNanos() - esperaAnterior > 100_000_000L);
+        }
+        assertEquals(0, outro.waitFor());
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar a trava aninhada, recusar a promoção e liberá-la apenas na liberação mais externa")
+    void testReentranciaEPromocao() throws IOException {
+        assertThrows(IllegalStateException.class, () -> TravaHistorico.exclusiva(estacao));
+
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico leitura = TravaHistorico.compartilhada(estacao)) {
+                assertFalse(leitura.isExclusiva());
+                assertThrows(IllegalStateException.class, () -> TravaHistorico.exclusiva(estacao));
+                assertThrows(IllegalStateException.class, leitura::exigirExclusiva);
+                try (TravaHistorico aninhada = TravaHistorico.compartilhada(estacao)) {
+                    assertFalse(aninhada.isExclusiva());
+                }
+                // Ainda em posse deste processo: outra trava sobre o arquivo se sobreporia
+                try (FileChannel canal = FileChannel.open(Path.of(TravaHistorico.obterNomeArquivo(estacao)),
+                        StandardOpenOption.WRITE)) {
+                    assertThrows(OverlappingFileLockException.class, canal::tryLock);
+                }
+            }
+        }
+
+        try (FileChannel canal = FileChannel.open(Path.of(TravaHistorico.obterNomeArquivo(estacao)),
+                StandardOpenOption.WRITE); FileLock trava = canal.tryLock()) {
+            assertNotNull(trava);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve obter a trava exclusiva na leitura quando o índice precisa ser reconstruído")
+    void testLeituraComReparo() throws IOException {
+        anexar(1, 3);
+        Files.delete(Path.of(IndiceHistorico.obterNomeArquivo(estacao)));
+
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico leitura = TravaHistorico.compartilhada(estacao)) {
+                assertTrue(leitura.isExclusiva());
+            }
+        }
+        assertTrue(IndiceHistorico.buscarPosicao(estacao, 2) >= 0);
+
+        synchronized (LogHistorico.obterTrava(estacao)) {
+            try (TravaHistorico leitura = TravaHistorico.compartilhada(estacao)) {
+                assertFalse(leitura.isExclusiva());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve informar posição do log além dos registros conhecidos por este processo")
+    void testPosicaoConhecida() throws Exception {
+        ArrayList<Ocorrencia> ocorrencias = new ArrayList<>();
+        LogHistorico.carregar(estacao, ocorrencias, new CatalogoEntidades(listaDe(area), new ArrayList<>(), listaDe(drone)));
+        anexar(1, 2);
+        assertEquals(2, LogHistorico.obterPosicaoLog(estacao));
+
+        assertEquals(0, iniciarProcesso("anexar", "1001", "1003").waitFor());
+        anexar(3, 3);
+
+        // Um instantâneo gravado agora precisa reaplicar os registros do outro processo
+        assertEquals(2, LogHistorico.obterPosicaoLog(estacao));
+        LogHistorico.carregar(estacao, ocorrencias, new CatalogoEntidades(listaDe(area), new ArrayList<>(), listaDe(drone)));
+        assertEquals(6, ocorrencias.size());
+        assertEquals(6, LogHistorico.obterPosicaoLog(estacao));
+    }
+
+    private static <T> ArrayList<T> listaDe(T elemento) {
+        ArrayList<T> lista = new ArrayList<>();
+        lista.add(elemento);
+        return lista;
+    }
+
+    /**
+     * Segundo console executado em outra JVM pelos testes entre processos.
+     */
+    public static class ProcessoConcorrente {
+
+        public static void main(String[] args) throws Exception {
+            EstacaoBombeiros estacao = new EstacaoBombeiros(9911, "Estação de Teste", "Rua A, 123",
+                    "Teste Trava", "SP", "Capitão Silva", 10001);
+            if ("segurar".equals(args[0])) {
+                synchronized (LogHistorico.obterTrava(estacao)) {
+                    try (TravaHistorico acesso = TravaHistorico.exclusiva(estacao)) {
+                        System.out.println(acesso.isExclusiva() ? "travado" : "compartilhado");
+                        System.out.flush();
+                        Thread.sleep(Long.parseLong(args[1]));
+                    }
+                }
+                return;
+            }
+            if ("reservar".equals(args[0])) {
+                for (int i = 0; i < Integer.parseInt(args[1]); i++) {
+                    System.out.println(ContadorIdsHistorico.reservar(estacao, 1));
+                }
+                return;
+            }
+
+            AreaFlorestal area = new AreaFlorestal(1, "Parque Nacional", "Zona Norte", 25, 9911);
+            Drone drone = new Drone(101, "DJI Phantom", 9911);
+            for (int id = Integer.parseInt(args[1]); id <= Integer.parseInt(args[2]); id++) {
+                LogHistorico.anexarRegistro(new Ocorrencia(id, area, 10, null, drone, 5), estacao);
+            }
+        }
+    }
+}